@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.plane.DistancePlaneGeneral3D_F64;
+import georegression.fitting.se.DistanceSe3_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.AssociatedPair3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scoring a model one point at a time against the bulk kernels in {@link DistanceFromModelBulk_F64}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDistanceFromModel_F64 {
+
+	@Param({"1000", "100000"})
+	public int size;
+
+	double threshold = 0.5;
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+	double pointData[];
+	List<AssociatedPair3D_F64> pairs = new ArrayList<AssociatedPair3D_F64>();
+	double pairData[];
+	double distances[];
+	// the List interface in DDogleg always outputs double
+	/**/double listDistances[];
+
+	DistancePlaneGeneral3D_F64 distancePlane = new DistancePlaneGeneral3D_F64();
+	DistanceSe3_F64 distanceSe3 = new DistanceSe3_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		distancePlane.setModel(new PlaneGeneral3D_F64(0.1, -0.2, 1, 0.5));
+		Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.5, 1.2, 0.5, -2, 3, null);
+		distanceSe3.setModel(motion);
+
+		points.clear();
+		pairs.clear();
+		pointData = new double[size*3];
+		pairData = new double[size*6];
+		distances = new double[size];
+		listDistances = new /**/double[size];
+		for (int i = 0; i < size; i++) {
+			Point3D_F64 p = new Point3D_F64( rand.nextGaussian()*3, rand.nextGaussian()*3, rand.nextGaussian());
+			points.add(p);
+			pointData[i*3] = p.x;
+			pointData[i*3+1] = p.y;
+			pointData[i*3+2] = p.z;
+
+			AssociatedPair3D_F64 pair = new AssociatedPair3D_F64( rand.nextGaussian(), rand.nextGaussian(),
+					 rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian());
+			pairs.add(pair);
+			pairData[i*6] = pair.src.x;
+			pairData[i*6+1] = pair.src.y;
+			pairData[i*6+2] = pair.src.z;
+			pairData[i*6+3] = pair.dst.x;
+			pairData[i*6+4] = pair.dst.y;
+			pairData[i*6+5] = pair.dst.z;
+		}
+	}
+
+	@Benchmark
+	public /**/double[] plane_list() {
+		distancePlane.computeDistance(points, listDistances);
+		return listDistances;
+	}
+
+	@Benchmark
+	public double[] plane_array() {
+		distancePlane.computeDistance(pointData, 0, size, distances);
+		return distances;
+	}
+
+	@Benchmark
+	public double[] plane_arrayConcurrent() {
+		distancePlane.computeDistanceConcurrent(pointData, size, distances);
+		return distances;
+	}
+
+	@Benchmark
+	public int plane_countInliers() {
+		return distancePlane.countInliers(pointData, 0, size, threshold);
+	}
+
+	@Benchmark
+	public int plane_countInliersEarlyExit() {
+		// a good model has already been found so most hypotheses are rejected early
+		return distancePlane.countInliersEarlyExit(pointData, size, threshold, size*8/10);
+	}
+
+	@Benchmark
+	public int plane_countInliersConcurrent() {
+		return distancePlane.countInliersConcurrent(pointData, size, threshold);
+	}
+
+	@Benchmark
+	public /**/double[] se3_list() {
+		distanceSe3.computeDistance(pairs, listDistances);
+		return listDistances;
+	}
+
+	@Benchmark
+	public double[] se3_array() {
+		distanceSe3.computeDistance(pairData, 0, size, distances);
+		return distances;
+	}
+
+	@Benchmark
+	public int se3_countInliers() {
+		return distanceSe3.countInliers(pairData, 0, size, threshold);
+	}
+
+	@Benchmark
+	public int se3_countInliersConcurrent() {
+		return distanceSe3.countInliersConcurrent(pairData, size, threshold);
+	}
+}
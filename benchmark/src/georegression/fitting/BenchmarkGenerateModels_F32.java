@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.homography.GenerateHomography2D_F32;
+import georegression.fitting.plane.FitPlane3D_F32;
+import georegression.fitting.plane.GeneratePlaneGeneral3D_F32;
+import georegression.fitting.se.GenerateSe3_F32;
+import georegression.fitting.se.MotionSe3PointSVD_F32;
+import georegression.fitting.sphere.GenerateSphere3D_F32;
+import georegression.struct.homography.Homography2D_F32;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.*;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the minimal sample model generators against the general purpose least squares fitters
+ * when given the minimum number of points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGenerateModels_F32 {
+
+	List<Point3D_F32> points3 = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> points4 = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> src3 = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> dst3 = new ArrayList<Point3D_F32>();
+	List<AssociatedPair3D_F32> pairs3 = new ArrayList<AssociatedPair3D_F32>();
+	List<AssociatedPair2D_F32> pairs2D = new ArrayList<AssociatedPair2D_F32>();
+
+	GeneratePlaneGeneral3D_F32 generatePlane = new GeneratePlaneGeneral3D_F32();
+	FitPlane3D_F32 fitPlane = new FitPlane3D_F32();
+	PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32();
+	Point3D_F32 center = new Point3D_F32();
+	Vector3D_F32 normal = new Vector3D_F32();
+
+	GenerateSphere3D_F32 generateSphere = new GenerateSphere3D_F32();
+	Sphere3D_F32 sphere = new Sphere3D_F32();
+
+	GenerateSe3_F32 generateSe3 = new GenerateSe3_F32();
+	MotionSe3PointSVD_F32 motionSe3 = new MotionSe3PointSVD_F32();
+	Se3_F32 se3 = new Se3_F32();
+
+	GenerateHomography2D_F32 generateHomography = new GenerateHomography2D_F32();
+	Homography2D_F32 homography = new Homography2D_F32();
+
+	@Setup
+	public void setup() {
+		points3.add(new Point3D_F32(1,1,1));
+		points3.add(new Point3D_F32(6,0,0));
+		points3.add(new Point3D_F32(0,0,2));
+
+		points4.add(new Point3D_F32(1,0,0));
+		points4.add(new Point3D_F32(0,1,0));
+		points4.add(new Point3D_F32(0,0,1));
+		points4.add(new Point3D_F32(-1,0,0));
+
+		Se3_F32 motion = SpecialEuclideanOps_F32.setEulerXYZ(0.1f,-0.5f,1.2f,0.5f,-2,3,null);
+		for( Point3D_F32 p : points3 ) {
+			Point3D_F32 q = SePointOps_F32.transform(motion, p, null);
+			src3.add(p);
+			dst3.add(q);
+			pairs3.add(new AssociatedPair3D_F32(p, q));
+		}
+
+		pairs2D.add(new AssociatedPair2D_F32(10,20,15,22));
+		pairs2D.add(new AssociatedPair2D_F32(600,30,590,40));
+		pairs2D.add(new AssociatedPair2D_F32(20,450,30,440));
+		pairs2D.add(new AssociatedPair2D_F32(610,470,600,480));
+	}
+
+	@Benchmark
+	public PlaneGeneral3D_F32 plane_generate() {
+		generatePlane.generate(points3, plane);
+		return plane;
+	}
+
+	@Benchmark
+	public Vector3D_F32 plane_fitSvd() {
+		fitPlane.svd(points3, center, normal);
+		return normal;
+	}
+
+	@Benchmark
+	public Sphere3D_F32 sphere_generate() {
+		generateSphere.generate(points4, sphere);
+		return sphere;
+	}
+
+	@Benchmark
+	public Se3_F32 se3_generate() {
+		generateSe3.generate(pairs3, se3);
+		return se3;
+	}
+
+	@Benchmark
+	public Se3_F32 se3_motionSvd() {
+		motionSe3.process(src3, dst3);
+		return motionSe3.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Homography2D_F32 homography_generate() {
+		generateHomography.generate(pairs2D, homography);
+		return homography;
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.homography.GenerateHomography2D_F64;
+import georegression.fitting.plane.FitPlane3D_F64;
+import georegression.fitting.plane.GeneratePlaneGeneral3D_F64;
+import georegression.fitting.se.GenerateSe3_F64;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.fitting.sphere.GenerateSphere3D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.*;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the minimal sample model generators against the general purpose least squares fitters
+ * when given the minimum number of points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGenerateModels_F64 {
+
+	List<Point3D_F64> points3 = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> points4 = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> src3 = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> dst3 = new ArrayList<Point3D_F64>();
+	List<AssociatedPair3D_F64> pairs3 = new ArrayList<AssociatedPair3D_F64>();
+	List<AssociatedPair2D_F64> pairs2D = new ArrayList<AssociatedPair2D_F64>();
+
+	GeneratePlaneGeneral3D_F64 generatePlane = new GeneratePlaneGeneral3D_F64();
+	FitPlane3D_F64 fitPlane = new FitPlane3D_F64();
+	PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64();
+	Point3D_F64 center = new Point3D_F64();
+	Vector3D_F64 normal = new Vector3D_F64();
+
+	GenerateSphere3D_F64 generateSphere = new GenerateSphere3D_F64();
+	Sphere3D_F64 sphere = new Sphere3D_F64();
+
+	GenerateSe3_F64 generateSe3 = new GenerateSe3_F64();
+	MotionSe3PointSVD_F64 motionSe3 = new MotionSe3PointSVD_F64();
+	Se3_F64 se3 = new Se3_F64();
+
+	GenerateHomography2D_F64 generateHomography = new GenerateHomography2D_F64();
+	Homography2D_F64 homography = new Homography2D_F64();
+
+	@Setup
+	public void setup() {
+		points3.add(new Point3D_F64(1,1,1));
+		points3.add(new Point3D_F64(6,0,0));
+		points3.add(new Point3D_F64(0,0,2));
+
+		points4.add(new Point3D_F64(1,0,0));
+		points4.add(new Point3D_F64(0,1,0));
+		points4.add(new Point3D_F64(0,0,1));
+		points4.add(new Point3D_F64(-1,0,0));
+
+		Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.1,-0.5,1.2,0.5,-2,3,null);
+		for( Point3D_F64 p : points3 ) {
+			Point3D_F64 q = SePointOps_F64.transform(motion, p, null);
+			src3.add(p);
+			dst3.add(q);
+			pairs3.add(new AssociatedPair3D_F64(p, q));
+		}
+
+		pairs2D.add(new AssociatedPair2D_F64(10,20,15,22));
+		pairs2D.add(new AssociatedPair2D_F64(600,30,590,40));
+		pairs2D.add(new AssociatedPair2D_F64(20,450,30,440));
+		pairs2D.add(new AssociatedPair2D_F64(610,470,600,480));
+	}
+
+	@Benchmark
+	public PlaneGeneral3D_F64 plane_generate() {
+		generatePlane.generate(points3, plane);
+		return plane;
+	}
+
+	@Benchmark
+	public Vector3D_F64 plane_fitSvd() {
+		fitPlane.svd(points3, center, normal);
+		return normal;
+	}
+
+	@Benchmark
+	public Sphere3D_F64 sphere_generate() {
+		generateSphere.generate(points4, sphere);
+		return sphere;
+	}
+
+	@Benchmark
+	public Se3_F64 se3_generate() {
+		generateSe3.generate(pairs3, se3);
+		return se3;
+	}
+
+	@Benchmark
+	public Se3_F64 se3_motionSvd() {
+		motionSe3.process(src3, dst3);
+		return motionSe3.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Homography2D_F64 homography_generate() {
+		generateHomography.generate(pairs2D, homography);
+		return homography;
+	}
+}
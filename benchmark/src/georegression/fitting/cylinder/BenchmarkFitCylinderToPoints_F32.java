@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkFitCylinderToPoints_F32 {
+
+	@Param({"100","10000","100000"})
+	public int size;
+
+	List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+
+	Cylinder3D_F32 initial = new Cylinder3D_F32(0.95f,2.1f,3.05f,0.05f,-0.001f,1.05f,2.6f);
+	Cylinder3D_F32 found = new Cylinder3D_F32();
+
+	FitCylinderToPoints_F32 alg = new FitCylinderToPoints_F32(100);
+	FitCylinderToPointsFused_F32 fused = new FitCylinderToPointsFused_F32(100,false);
+	FitCylinderToPointsFused_F32 fusedConcurrent = new FitCylinderToPointsFused_F32(100,true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// points on a cylinder which is parallel to the z-axis
+		Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0,0,1,2.5f);
+
+		points.clear();
+		for (int i = 0; i < size; i++) {
+			float h = (rand.nextFloat()-0.5f)*4.0f;
+			float theta = rand.nextFloat()*GrlConstants.F_PI2;
+			float r = cylinder.radius + (float)rand.nextGaussian()*0.01f;
+
+			Point3D_F32 p = new Point3D_F32();
+			p.x = cylinder.line.p.x + r*(float)Math.cos(theta);
+			p.y = cylinder.line.p.y + r*(float)Math.sin(theta);
+			p.z = cylinder.line.p.z + h;
+			points.add(p);
+		}
+	}
+
+	@Benchmark
+	public Cylinder3D_F32 fitModel() {
+		alg.fitModel(points,initial,found);
+		return found;
+	}
+
+	@Benchmark
+	public Cylinder3D_F32 fitModel_fused() {
+		fused.fitModel(points,initial,found);
+		return found;
+	}
+
+	@Benchmark
+	public Cylinder3D_F32 fitModel_fusedConcurrent() {
+		fusedConcurrent.fitModel(points,initial,found);
+		return found;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkFitCylinderToPoints_F64 {
+
+	@Param({"100","10000","100000"})
+	public int size;
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+
+	Cylinder3D_F64 initial = new Cylinder3D_F64(0.95,2.1,3.05,0.05,-0.001,1.05,2.6);
+	Cylinder3D_F64 found = new Cylinder3D_F64();
+
+	FitCylinderToPoints_F64 alg = new FitCylinderToPoints_F64(100);
+	FitCylinderToPointsFused_F64 fused = new FitCylinderToPointsFused_F64(100,false);
+	FitCylinderToPointsFused_F64 fusedConcurrent = new FitCylinderToPointsFused_F64(100,true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// points on a cylinder which is parallel to the z-axis
+		Cylinder3D_F64 cylinder = new Cylinder3D_F64(1,2,3,0,0,1,2.5);
+
+		points.clear();
+		for (int i = 0; i < size; i++) {
+			double h = (rand.nextDouble()-0.5)*4.0;
+			double theta = rand.nextDouble()*GrlConstants.PI2;
+			double r = cylinder.radius + rand.nextGaussian()*0.01;
+
+			Point3D_F64 p = new Point3D_F64();
+			p.x = cylinder.line.p.x + r*(double)Math.cos(theta);
+			p.y = cylinder.line.p.y + r*(double)Math.sin(theta);
+			p.z = cylinder.line.p.z + h;
+			points.add(p);
+		}
+	}
+
+	@Benchmark
+	public Cylinder3D_F64 fitModel() {
+		alg.fitModel(points,initial,found);
+		return found;
+	}
+
+	@Benchmark
+	public Cylinder3D_F64 fitModel_fused() {
+		fused.fitModel(points,initial,found);
+		return found;
+	}
+
+	@Benchmark
+	public Cylinder3D_F64 fitModel_fusedConcurrent() {
+		fusedConcurrent.fitModel(points,initial,found);
+		return found;
+	}
+}
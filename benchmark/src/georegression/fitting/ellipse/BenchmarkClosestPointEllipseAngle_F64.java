@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.ellipse;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.EllipseRotated_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkClosestPointEllipseAngle_F64 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	EllipseRotated_F64[] ellipses;
+	Point2D_F64 where = new Point2D_F64(1,3);
+
+	ClosestPointEllipseAngle_F64 alg = new ClosestPointEllipseAngle_F64(GrlConstants.DOUBLE_TEST_TOL,100);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		ellipses = new EllipseRotated_F64[size];
+		for (int i = 0; i < size; i++) {
+			EllipseRotated_F64 ellipse = new EllipseRotated_F64();
+			ellipse.center.x = (rand.nextDouble()-0.5)*5;
+			ellipse.center.y = (rand.nextDouble()-0.5)*5;
+			ellipse.b = rand.nextDouble()*4+0.1;
+			ellipse.a = ellipse.b + rand.nextDouble()*2;
+			ellipse.phi = (rand.nextDouble()-0.5)*GrlConstants.PI;
+
+			ellipses[i] = ellipse;
+		}
+	}
+
+	@Benchmark
+	public void process( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			alg.setEllipse(ellipses[i]);
+			alg.process(where);
+			bh.consume(alg.getClosest());
+		}
+	}
+}
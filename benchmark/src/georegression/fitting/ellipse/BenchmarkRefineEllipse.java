@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.ellipse;
+
+import georegression.geometry.UtilEllipse_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.EllipseRotated_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refining with {@link RefineEllipseEuclideanLeastSquares} uses a dense Jacobian which grows with the square of
+ * the number of points, so it is benchmarked with fewer points than {@link BenchmarkFitEllipse}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkRefineEllipse {
+
+	@Param({"10","100","1000"})
+	public int size;
+
+	EllipseRotated_F64 ellipse = new EllipseRotated_F64(1,2,3,1.5,0.4);
+	EllipseRotated_F64 initial = new EllipseRotated_F64(1.1,2.05,3.1,1.4,0.45);
+
+	List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+
+	RefineEllipseEuclideanLeastSquares refine = new RefineEllipseEuclideanLeastSquares();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		points.clear();
+		for (int i = 0; i < size; i++) {
+			double t = rand.nextDouble()*GrlConstants.PI2;
+			Point2D_F64 p = UtilEllipse_F64.computePoint(t,ellipse,null);
+			p.x += rand.nextGaussian()*0.01;
+			p.y += rand.nextGaussian()*0.01;
+			points.add(p);
+		}
+	}
+
+	@Benchmark
+	public EllipseRotated_F64 refineEuclidean() {
+		refine.refine(initial,points);
+		return refine.getFound();
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.struct.point.PointCloud3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimating normals of every point in a cloud with {@link EstimateNormalsPointCloud_F32}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkEstimateNormalsPointCloud_F32 {
+
+	@Param({"10000","1000000"})
+	public int size;
+
+	PointCloud3D_F32 cloud = new PointCloud3D_F32();
+	float normals[];
+	float curvature[];
+
+	EstimateNormalsPointCloud_F32 serial = new EstimateNormalsPointCloud_F32(10, Float.MAX_VALUE, false);
+	EstimateNormalsPointCloud_F32 concurrent = new EstimateNormalsPointCloud_F32(10, Float.MAX_VALUE, true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// points on a wavy surface
+		cloud.reset();
+		for (int i = 0; i < size; i++) {
+			float x = rand.nextFloat()*10;
+			float y = rand.nextFloat()*10;
+			float z = (float)(Math.sin(x)*Math.cos(y));
+			cloud.add(x, y, z);
+		}
+		normals = new float[size*3];
+		curvature = new float[size];
+	}
+
+	@Benchmark
+	public float[] process() {
+		serial.process(cloud, normals, curvature);
+		return normals;
+	}
+
+	@Benchmark
+	public float[] process_concurrent() {
+		concurrent.process(cloud, normals, curvature);
+		return normals;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkFitPlane3D_F64 {
+
+	@Param({"10","1000","100000"})
+	public int size;
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+
+	FitPlane3D_F64 alg = new FitPlane3D_F64();
+
+	Point3D_F64 center = new Point3D_F64();
+	Vector3D_F64 normal = new Vector3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// points on the x-y plane which are then moved into an arbitrary orientation
+		Se3_F64 planeToWorld = new Se3_F64();
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,0.1,-0.5,1.2,planeToWorld.getR());
+		planeToWorld.getT().set(0.5,-2,3);
+
+		points.clear();
+		for (int i = 0; i < size; i++) {
+			Point3D_F64 p = new Point3D_F64();
+			p.x = rand.nextGaussian()*2;
+			p.y = rand.nextGaussian()*2;
+			p.z = rand.nextGaussian()*0.01;
+			points.add(SePointOps_F64.transform(planeToWorld,p,p));
+		}
+	}
+
+	@Benchmark
+	public Vector3D_F64 svd() {
+		alg.svd(points,center,normal);
+		return normal;
+	}
+
+	@Benchmark
+	public Vector3D_F64 svdPoint() {
+		alg.svdPoint(points,center,normal);
+		return normal;
+	}
+}
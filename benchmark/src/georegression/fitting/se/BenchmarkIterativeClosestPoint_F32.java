@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registering two clouds with {@link IterativeClosestPoint_F32}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIterativeClosestPoint_F32 {
+
+	@Param({"10000","200000"})
+	public int size;
+
+	PointCloud3D_F32 src = new PointCloud3D_F32();
+	Se3_F32 initial = new Se3_F32();
+
+	IterativeClosestPoint_F32 serial = new IterativeClosestPoint_F32(20, 0.5f, false);
+	IterativeClosestPoint_F32 concurrent = new IterativeClosestPoint_F32(20, 0.5f, true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		src.reset();
+		for (int i = 0; i < size; i++) {
+			src.add(rand.nextFloat(), rand.nextFloat(), rand.nextFloat());
+		}
+
+		Se3_F32 motion = SpecialEuclideanOps_F32.setEulerXYZ(0.02f,-0.015f,0.01f,0.02f,-0.01f,0.015f,null);
+		PointCloud3D_F32 dst = SePointOps_F32.transform(motion, src, null);
+
+		serial.setDestination(dst);
+		concurrent.setDestination(dst);
+	}
+
+	@Benchmark
+	public Se3_F32 process() {
+		serial.process(src, initial);
+		return serial.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F32 process_concurrent() {
+		concurrent.process(src, initial);
+		return concurrent.getTransformSrcToDst();
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registering two clouds with {@link IterativeClosestPoint_F64}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIterativeClosestPoint_F64 {
+
+	@Param({"10000","200000"})
+	public int size;
+
+	PointCloud3D_F64 src = new PointCloud3D_F64();
+	Se3_F64 initial = new Se3_F64();
+
+	IterativeClosestPoint_F64 serial = new IterativeClosestPoint_F64(20, 0.5, false);
+	IterativeClosestPoint_F64 concurrent = new IterativeClosestPoint_F64(20, 0.5, true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		src.reset();
+		for (int i = 0; i < size; i++) {
+			src.add(rand.nextDouble(), rand.nextDouble(), rand.nextDouble());
+		}
+
+		Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.02,-0.015,0.01,0.02,-0.01,0.015,null);
+		PointCloud3D_F64 dst = SePointOps_F64.transform(motion, src, null);
+
+		serial.setDestination(dst);
+		concurrent.setDestination(dst);
+	}
+
+	@Benchmark
+	public Se3_F64 process() {
+		serial.process(src, initial);
+		return serial.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F64 process_concurrent() {
+		concurrent.process(src, initial);
+		return concurrent.getTransformSrcToDst();
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.RobustKernel;
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkMotionSe3PointSVD_F32 {
+
+	@Param({"10","1000","100000"})
+	public int size;
+
+	List<Point3D_F32> src;
+	List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+
+	MotionSe3PointSVD_F32 alg = new MotionSe3PointSVD_F32();
+	MotionSe3PointIncremental_F32 incremental = new MotionSe3PointIncremental_F32();
+	MotionSe3PointWeightedSVD_F32 weighted = new MotionSe3PointWeightedSVD_F32();
+	MotionSe3PointRobust_F32 robust = new MotionSe3PointRobust_F32(RobustKernel.TUKEY,0.05f);
+	float weights[];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		Se3_F32 motion = new Se3_F32();
+		ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ,0.1f,-0.5f,1.2f,motion.getR());
+		motion.getT().set(0.5f,-2,3);
+
+		src = UtilPoint3D_F32.random(-1,1,size,rand);
+		dst.clear();
+		for( Point3D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(motion,p,null));
+		}
+		UtilPoint3D_F32.noiseNormal(dst,0.01f,rand);
+
+		incremental.process(src,dst);
+
+		weights = new float[size];
+		for (int i = 0; i < size; i++) {
+			weights[i] = 0.5f + rand.nextFloat();
+		}
+	}
+
+	@Benchmark
+	public Se3_F32 process() {
+		alg.process(src,dst);
+		return alg.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F32 processWeighted() {
+		weighted.process(src,dst,weights);
+		return weighted.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F32 processRobust() {
+		robust.process(src,dst);
+		return robust.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F32 processIncremental() {
+		incremental.process(src,dst);
+		return incremental.getTransformSrcToDst();
+	}
+
+	/**
+	 * Replaces one correspondence and solves again, the typical update inside of an ICP loop
+	 */
+	@Benchmark
+	public Se3_F32 updateIncremental() {
+		Point3D_F32 s = src.get(0), d = dst.get(0);
+		incremental.remove(s,d);
+		incremental.add(s,d);
+		incremental.solve();
+		return incremental.getTransformSrcToDst();
+	}
+}
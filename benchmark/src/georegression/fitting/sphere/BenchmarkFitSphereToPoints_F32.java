@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkFitSphereToPoints_F32 {
+
+	@Param({"100","10000","100000"})
+	public int size;
+
+	List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+
+	Sphere3D_F32 initial = new Sphere3D_F32(1.1f,2.05f,3.1f,2.6f);
+	Sphere3D_F32 found = new Sphere3D_F32();
+
+	FitSphereToPoints_F32 alg = new FitSphereToPoints_F32(100);
+	FitSphereToPointsFused_F32 fused = new FitSphereToPointsFused_F32(100,false);
+	FitSphereToPointsFused_F32 fusedConcurrent = new FitSphereToPointsFused_F32(100,true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		Sphere3D_F32 sphere = new Sphere3D_F32(1,2,3,2.5f);
+
+		points.clear();
+		for (int i = 0; i < size; i++) {
+			// random direction scaled to lie on the sphere's surface
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			float z = (float)rand.nextGaussian();
+			float r = sphere.radius + (float)rand.nextGaussian()*0.01f;
+			float n = (float)Math.sqrt(x*x + y*y + z*z);
+
+			points.add(new Point3D_F32(sphere.center.x + r*x/n, sphere.center.y + r*y/n, sphere.center.z + r*z/n));
+		}
+	}
+
+	@Benchmark
+	public Sphere3D_F32 fitModel() {
+		alg.fitModel(points,initial,found);
+		return found;
+	}
+
+	@Benchmark
+	public Sphere3D_F32 fitModel_fused() {
+		fused.fitModel(points,initial,found);
+		return found;
+	}
+
+	@Benchmark
+	public Sphere3D_F32 fitModel_fusedConcurrent() {
+		fusedConcurrent.fitModel(points,initial,found);
+		return found;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.struct.EulerType;
+import georegression.struct.so.Quaternion_F32;
+import georegression.struct.so.Rodrigues_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkConvertRotation3D_F32 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	// euler angles for each rotation, stored as (rotA,rotB,rotC) triplets
+	float[] euler;
+	DenseMatrix64F[] matrices;
+	Quaternion_F32[] quaternions;
+	Rodrigues_F32[] rodrigues;
+
+	DenseMatrix64F R = new DenseMatrix64F(3,3);
+	Quaternion_F32 quat = new Quaternion_F32();
+	Rodrigues_F32 rod = new Rodrigues_F32();
+	float[] eulerOut = new float[3];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		euler = new float[size*3];
+		matrices = new DenseMatrix64F[size];
+		quaternions = new Quaternion_F32[size];
+		rodrigues = new Rodrigues_F32[size];
+
+		for (int i = 0; i < size; i++) {
+			float rotA = (rand.nextFloat()-0.5f)*2.0f;
+			float rotB = (rand.nextFloat()-0.5f)*2.0f;
+			float rotC = (rand.nextFloat()-0.5f)*2.0f;
+
+			euler[i*3  ] = rotA;
+			euler[i*3+1] = rotB;
+			euler[i*3+2] = rotC;
+
+			matrices[i] = ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ,rotA,rotB,rotC,null);
+			quaternions[i] = ConvertRotation3D_F32.matrixToQuaternion(matrices[i],null);
+			rodrigues[i] = ConvertRotation3D_F32.matrixToRodrigues(matrices[i],null);
+		}
+	}
+
+	@Benchmark
+	public void eulerToMatrix( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ,euler[i*3],euler[i*3+1],euler[i*3+2],R));
+		}
+	}
+
+	@Benchmark
+	public void matrixToEuler( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(ConvertRotation3D_F32.matrixToEuler(matrices[i],EulerType.XYZ,eulerOut));
+		}
+	}
+
+	@Benchmark
+	public void quaternionToMatrix( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(ConvertRotation3D_F32.quaternionToMatrix(quaternions[i],R));
+		}
+	}
+
+	@Benchmark
+	public void matrixToQuaternion( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(ConvertRotation3D_F32.matrixToQuaternion(matrices[i],quat));
+		}
+	}
+
+	@Benchmark
+	public void rodriguesToMatrix( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(ConvertRotation3D_F32.rodriguesToMatrix(rodrigues[i],R));
+		}
+	}
+
+	@Benchmark
+	public void matrixToRodrigues( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(ConvertRotation3D_F32.matrixToRodrigues(matrices[i],rod));
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.metric.Distance3D_F32;
+import georegression.struct.EulerType;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.shapes.Box3D_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares operations on points stored as a structure of arrays against the same operations on interleaved points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGeometryMathSoa_F32 {
+
+	@Param({"1000","1000000"})
+	public int size;
+
+	Se3_F32 se3 = new Se3_F32();
+	PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32(1, -2, 0.5f, 1.5f);
+	Box3D_F32 box = new Box3D_F32();
+
+	// interleaved points
+	PointCloud3D_F32 cloud = new PointCloud3D_F32();
+	float output3[];
+
+	// same points as a structure of arrays
+	float x[], y[], z[];
+	float outX[], outY[], outZ[];
+	float output[];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.1f, -0.5f, 1.2f, se3.getR());
+		se3.getT().set(0.5f, -2, 3);
+
+		cloud.reset();
+		for (int i = 0; i < size; i++) {
+			cloud.add( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian());
+		}
+		output3 = new float[size*3];
+
+		x = new float[size]; y = new float[size]; z = new float[size];
+		outX = new float[size]; outY = new float[size]; outZ = new float[size];
+		output = new float[size];
+		GeometryMathSoa_F32.split(cloud.data, x, y, z, size);
+	}
+
+	@Benchmark
+	public float[] transform_Se3_interleaved() {
+		SePointOps_F32.transform(se3, cloud.data, 0, 3, output3, 0, 3, size);
+		return output3;
+	}
+
+	@Benchmark
+	public float[] transform_Se3_soa() {
+		GeometryMathSoa_F32.transform(se3, x, y, z, outX, outY, outZ, size);
+		return outX;
+	}
+
+	@Benchmark
+	public float[] distance_plane_interleaved() {
+		return Distance3D_F32.distance(plane, cloud, output);
+	}
+
+	@Benchmark
+	public float[] distance_plane_soa() {
+		GeometryMathSoa_F32.distance(plane, x, y, z, output, size);
+		return output;
+	}
+
+	@Benchmark
+	public float[] dot_soa() {
+		GeometryMathSoa_F32.dot(0.5f, -2, 3, x, y, z, output, size);
+		return output;
+	}
+
+	@Benchmark
+	public Box3D_F32 boundingBox_interleaved() {
+		UtilPoint3D_F32.boundingBox(cloud, box);
+		return box;
+	}
+
+	@Benchmark
+	public Box3D_F32 boundingBox_soa() {
+		GeometryMathSoa_F32.boundingBox(x, y, z, size, box);
+		return box;
+	}
+}
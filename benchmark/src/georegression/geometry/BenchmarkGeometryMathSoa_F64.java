@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.metric.Distance3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.shapes.Box3D_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares operations on points stored as a structure of arrays against the same operations on interleaved points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGeometryMathSoa_F64 {
+
+	@Param({"1000","1000000"})
+	public int size;
+
+	Se3_F64 se3 = new Se3_F64();
+	PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64(1, -2, 0.5, 1.5);
+	Box3D_F64 box = new Box3D_F64();
+
+	// interleaved points
+	PointCloud3D_F64 cloud = new PointCloud3D_F64();
+	double output3[];
+
+	// same points as a structure of arrays
+	double x[], y[], z[];
+	double outX[], outY[], outZ[];
+	double output[];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0.1, -0.5, 1.2, se3.getR());
+		se3.getT().set(0.5, -2, 3);
+
+		cloud.reset();
+		for (int i = 0; i < size; i++) {
+			cloud.add( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian());
+		}
+		output3 = new double[size*3];
+
+		x = new double[size]; y = new double[size]; z = new double[size];
+		outX = new double[size]; outY = new double[size]; outZ = new double[size];
+		output = new double[size];
+		GeometryMathSoa_F64.split(cloud.data, x, y, z, size);
+	}
+
+	@Benchmark
+	public double[] transform_Se3_interleaved() {
+		SePointOps_F64.transform(se3, cloud.data, 0, 3, output3, 0, 3, size);
+		return output3;
+	}
+
+	@Benchmark
+	public double[] transform_Se3_soa() {
+		GeometryMathSoa_F64.transform(se3, x, y, z, outX, outY, outZ, size);
+		return outX;
+	}
+
+	@Benchmark
+	public double[] distance_plane_interleaved() {
+		return Distance3D_F64.distance(plane, cloud, output);
+	}
+
+	@Benchmark
+	public double[] distance_plane_soa() {
+		GeometryMathSoa_F64.distance(plane, x, y, z, output, size);
+		return output;
+	}
+
+	@Benchmark
+	public double[] dot_soa() {
+		GeometryMathSoa_F64.dot(0.5, -2, 3, x, y, z, output, size);
+		return output;
+	}
+
+	@Benchmark
+	public Box3D_F64 boundingBox_interleaved() {
+		UtilPoint3D_F64.boundingBox(cloud, box);
+		return box;
+	}
+
+	@Benchmark
+	public Box3D_F64 boundingBox_soa() {
+		GeometryMathSoa_F64.boundingBox(x, y, z, size, box);
+		return box;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.metric.Distance2D_F32;
+import georegression.metric.Intersection2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares containment and distance queries against a polygon with and without preprocessing
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPreparedPolygon2D_F32 {
+
+	@Param({"10","1000","10000"})
+	public int vertexes;
+
+	// number of points which are checked
+	int N = 10000;
+	float x[], y[];
+	Point2D_F32 points[];
+	boolean inside[];
+	float distance[];
+
+	Polygon2D_F32 polygon;
+	PreparedPolygon2D_F32 prepared;
+	PreparedPolygon2D_F32 preparedConcurrent;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		polygon = new Polygon2D_F32(vertexes);
+		for (int i = 0; i < vertexes; i++) {
+			float theta = i*GrlConstants.F_PI2/vertexes;
+			float r = 2 + rand.nextFloat()*6;
+			polygon.set(i, (float)Math.cos(theta)*r, (float)Math.sin(theta)*r);
+		}
+		prepared = new PreparedPolygon2D_F32(polygon);
+		preparedConcurrent = new PreparedPolygon2D_F32(polygon);
+		preparedConcurrent.setConcurrent(true);
+
+		x = new float[N];
+		y = new float[N];
+		points = new Point2D_F32[N];
+		inside = new boolean[N];
+		distance = new float[N];
+		for (int i = 0; i < N; i++) {
+			x[i] = (float)rand.nextGaussian()*6;
+			y[i] = (float)rand.nextGaussian()*6;
+			points[i] = new Point2D_F32(x[i], y[i]);
+		}
+	}
+
+	@Benchmark
+	public PreparedPolygon2D_F32 build() {
+		prepared.setPolygon(polygon);
+		return prepared;
+	}
+
+	@Benchmark
+	public boolean[] contain_bruteForce() {
+		for (int i = 0; i < N; i++) {
+			inside[i] = Intersection2D_F32.containConvex(polygon, points[i]);
+		}
+		return inside;
+	}
+
+	@Benchmark
+	public boolean[] contain_prepared() {
+		prepared.isInside(x, y, N, inside);
+		return inside;
+	}
+
+	@Benchmark
+	public boolean[] contain_preparedConcurrent() {
+		preparedConcurrent.isInside(x, y, N, inside);
+		return inside;
+	}
+
+	@Benchmark
+	public float[] distance_bruteForce() {
+		for (int i = 0; i < N; i++) {
+			distance[i] = Distance2D_F32.distance(polygon, points[i]);
+		}
+		return distance;
+	}
+
+	@Benchmark
+	public float[] distance_prepared() {
+		prepared.distance(x, y, N, distance);
+		return distance;
+	}
+}
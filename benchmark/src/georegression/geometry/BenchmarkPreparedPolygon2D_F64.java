@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.metric.Distance2D_F64;
+import georegression.metric.Intersection2D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares containment and distance queries against a polygon with and without preprocessing
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPreparedPolygon2D_F64 {
+
+	@Param({"10","1000","10000"})
+	public int vertexes;
+
+	// number of points which are checked
+	int N = 10000;
+	double x[], y[];
+	Point2D_F64 points[];
+	boolean inside[];
+	double distance[];
+
+	Polygon2D_F64 polygon;
+	PreparedPolygon2D_F64 prepared;
+	PreparedPolygon2D_F64 preparedConcurrent;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		polygon = new Polygon2D_F64(vertexes);
+		for (int i = 0; i < vertexes; i++) {
+			double theta = i*GrlConstants.PI2/vertexes;
+			double r = 2 + rand.nextDouble()*6;
+			polygon.set(i, Math.cos(theta)*r, Math.sin(theta)*r);
+		}
+		prepared = new PreparedPolygon2D_F64(polygon);
+		preparedConcurrent = new PreparedPolygon2D_F64(polygon);
+		preparedConcurrent.setConcurrent(true);
+
+		x = new double[N];
+		y = new double[N];
+		points = new Point2D_F64[N];
+		inside = new boolean[N];
+		distance = new double[N];
+		for (int i = 0; i < N; i++) {
+			x[i] = rand.nextGaussian()*6;
+			y[i] = rand.nextGaussian()*6;
+			points[i] = new Point2D_F64(x[i], y[i]);
+		}
+	}
+
+	@Benchmark
+	public PreparedPolygon2D_F64 build() {
+		prepared.setPolygon(polygon);
+		return prepared;
+	}
+
+	@Benchmark
+	public boolean[] contain_bruteForce() {
+		for (int i = 0; i < N; i++) {
+			inside[i] = Intersection2D_F64.containConvex(polygon, points[i]);
+		}
+		return inside;
+	}
+
+	@Benchmark
+	public boolean[] contain_prepared() {
+		prepared.isInside(x, y, N, inside);
+		return inside;
+	}
+
+	@Benchmark
+	public boolean[] contain_preparedConcurrent() {
+		preparedConcurrent.isInside(x, y, N, inside);
+		return inside;
+	}
+
+	@Benchmark
+	public double[] distance_bruteForce() {
+		for (int i = 0; i < N; i++) {
+			distance[i] = Distance2D_F64.distance(polygon, points[i]);
+		}
+		return distance;
+	}
+
+	@Benchmark
+	public double[] distance_prepared() {
+		prepared.distance(x, y, N, distance);
+		return distance;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.so.Quaternion_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkUtilQuaternion_F32 {
+
+	// number of points in the batch
+	int size = 10000;
+
+	Quaternion_F32 a = new Quaternion_F32(0.9f, 0.1f, -0.3f, 0.2f);
+	Quaternion_F32 b = new Quaternion_F32(0.7f, -0.4f, 0.2f, 0.5f);
+	Quaternion_F32 result = new Quaternion_F32();
+
+	Point3D_F32 point = new Point3D_F32(1, -2, 3);
+	Point3D_F32 rotated = new Point3D_F32();
+	DenseMatrix64F R = new DenseMatrix64F(3,3);
+
+	float input[];
+	float output[];
+
+	@Setup
+	public void setup() {
+		a.normalize();
+		b.normalize();
+
+		Random rand = new Random(234);
+		input = new float[size*3];
+		output = new float[size*3];
+		for (int i = 0; i < input.length; i++) {
+			input[i] = (float)rand.nextGaussian();
+		}
+	}
+
+	@Benchmark
+	public Quaternion_F32 multiply() {
+		return UtilQuaternion_F32.multiply(a, b, result);
+	}
+
+	@Benchmark
+	public Quaternion_F32 exp() {
+		return UtilQuaternion_F32.exp(a, result);
+	}
+
+	@Benchmark
+	public Quaternion_F32 log() {
+		return UtilQuaternion_F32.log(a, result);
+	}
+
+	@Benchmark
+	public Quaternion_F32 slerp() {
+		return UtilQuaternion_F32.slerp(a, b, 0.3f, result);
+	}
+
+	@Benchmark
+	public Quaternion_F32 nlerp() {
+		return UtilQuaternion_F32.nlerp(a, b, 0.3f, result);
+	}
+
+	@Benchmark
+	public Point3D_F32 rotate_point() {
+		return UtilQuaternion_F32.rotate(a, point, rotated);
+	}
+
+	/**
+	 * Converting to a rotation matrix first, which is how it was done previously
+	 */
+	@Benchmark
+	public Point3D_F32 rotate_point_matrix() {
+		ConvertRotation3D_F32.quaternionToMatrix(a, R);
+		return GeometryMath_F32.mult(R, point, rotated);
+	}
+
+	@Benchmark
+	public float[] rotate_array() {
+		UtilQuaternion_F32.rotate(a, input, 0, 3, output, 0, 3, size);
+		return output;
+	}
+}
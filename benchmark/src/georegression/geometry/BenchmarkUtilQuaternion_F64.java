@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.so.Quaternion_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkUtilQuaternion_F64 {
+
+	// number of points in the batch
+	int size = 10000;
+
+	Quaternion_F64 a = new Quaternion_F64(0.9, 0.1, -0.3, 0.2);
+	Quaternion_F64 b = new Quaternion_F64(0.7, -0.4, 0.2, 0.5);
+	Quaternion_F64 result = new Quaternion_F64();
+
+	Point3D_F64 point = new Point3D_F64(1, -2, 3);
+	Point3D_F64 rotated = new Point3D_F64();
+	DenseMatrix64F R = new DenseMatrix64F(3,3);
+
+	double input[];
+	double output[];
+
+	@Setup
+	public void setup() {
+		a.normalize();
+		b.normalize();
+
+		Random rand = new Random(234);
+		input = new double[size*3];
+		output = new double[size*3];
+		for (int i = 0; i < input.length; i++) {
+			input[i] = rand.nextGaussian();
+		}
+	}
+
+	@Benchmark
+	public Quaternion_F64 multiply() {
+		return UtilQuaternion_F64.multiply(a, b, result);
+	}
+
+	@Benchmark
+	public Quaternion_F64 exp() {
+		return UtilQuaternion_F64.exp(a, result);
+	}
+
+	@Benchmark
+	public Quaternion_F64 log() {
+		return UtilQuaternion_F64.log(a, result);
+	}
+
+	@Benchmark
+	public Quaternion_F64 slerp() {
+		return UtilQuaternion_F64.slerp(a, b, 0.3, result);
+	}
+
+	@Benchmark
+	public Quaternion_F64 nlerp() {
+		return UtilQuaternion_F64.nlerp(a, b, 0.3, result);
+	}
+
+	@Benchmark
+	public Point3D_F64 rotate_point() {
+		return UtilQuaternion_F64.rotate(a, point, rotated);
+	}
+
+	/**
+	 * Converting to a rotation matrix first, which is how it was done previously
+	 */
+	@Benchmark
+	public Point3D_F64 rotate_point_matrix() {
+		ConvertRotation3D_F64.quaternionToMatrix(a, R);
+		return GeometryMath_F64.mult(R, point, rotated);
+	}
+
+	@Benchmark
+	public double[] rotate_array() {
+		UtilQuaternion_F64.rotate(a, input, 0, 3, output, 0, 3, size);
+		return output;
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry.algs;
+
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkAndrewMonotoneConvexHullArray_F32 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	float x[];
+	float y[];
+
+	AndrewMonotoneConvexHullArray_F32 alg = new AndrewMonotoneConvexHullArray_F32(false);
+	AndrewMonotoneConvexHullArray_F32 algNoFilter = new AndrewMonotoneConvexHullArray_F32(false);
+	AndrewMonotoneConvexHullArray_F32 algConcurrent = new AndrewMonotoneConvexHullArray_F32(true);
+	GrowQueue_I32 hull = new GrowQueue_I32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		algNoFilter.setPrefilter(false);
+
+		x = new float[size];
+		y = new float[size];
+		for (int i = 0; i < size; i++) {
+			x[i] = (float)rand.nextGaussian();
+			y[i] = (float)rand.nextGaussian();
+		}
+	}
+
+	@Benchmark
+	public GrowQueue_I32 process() {
+		alg.process(x,y,size,hull);
+		return hull;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 process_noPrefilter() {
+		algNoFilter.process(x,y,size,hull);
+		return hull;
+	}
+
+	@Benchmark
+	public GrowQueue_I32 process_concurrent() {
+		algConcurrent.process(x,y,size,hull);
+		return hull;
+	}
+}
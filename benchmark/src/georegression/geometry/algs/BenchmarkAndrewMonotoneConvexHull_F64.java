@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry.algs;
+
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkAndrewMonotoneConvexHull_F64 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	Point2D_F64[] points;
+	// the hull algorithm sorts its input, so each call is given a fresh copy of the unsorted references
+	Point2D_F64[] work;
+
+	AndrewMonotoneConvexHull_F64 alg = new AndrewMonotoneConvexHull_F64();
+	Polygon2D_F64 hull = new Polygon2D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		points = new Point2D_F64[size];
+		work = new Point2D_F64[size];
+		for (int i = 0; i < size; i++) {
+			points[i] = new Point2D_F64( rand.nextGaussian(), rand.nextGaussian());
+		}
+	}
+
+	@Benchmark
+	public Polygon2D_F64 process() {
+		System.arraycopy(points,0,work,0,size);
+		alg.process(work,size,hull);
+		return hull;
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersection2D_F32 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	LineSegment2D_F32[] segments;
+	Rectangle2D_F32[] rectangles;
+	Point2D_F32[] points;
+
+	// regular polygon used for containment tests
+	Polygon2D_F32 polygon = new Polygon2D_F32(20);
+
+	Point2D_F32 found = new Point2D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// each pair of consecutive elements is tested against each other
+		segments = new LineSegment2D_F32[size+1];
+		rectangles = new Rectangle2D_F32[size+1];
+		for (int i = 0; i <= size; i++) {
+			segments[i] = new LineSegment2D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+					(float)rand.nextGaussian(), (float)rand.nextGaussian());
+
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			rectangles[i] = new Rectangle2D_F32(x,y,x+rand.nextFloat()+0.1f,y+rand.nextFloat()+0.1f);
+		}
+
+		points = new Point2D_F32[size];
+		for (int i = 0; i < size; i++) {
+			points[i] = new Point2D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian());
+		}
+
+		for (int i = 0; i < polygon.size(); i++) {
+			float theta = GrlConstants.F_PI2*i/polygon.size();
+			polygon.get(i).set((float)Math.cos(theta),(float)Math.sin(theta));
+		}
+	}
+
+	@Benchmark
+	public void intersection_LineSegment( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection2D_F32.intersection(segments[i],segments[i+1],found));
+		}
+	}
+
+	@Benchmark
+	public void intersectionArea_Rectangle( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection2D_F32.intersectionArea(rectangles[i],rectangles[i+1]));
+		}
+	}
+
+	@Benchmark
+	public void containConvex( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection2D_F32.containConvex(polygon,points[i]));
+		}
+	}
+
+	@Benchmark
+	public void containConcave( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection2D_F32.containConcave(polygon,points[i]));
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.struct.line.LineParametric3D_F32;
+import georegression.struct.line.LineSegment3D_F32;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Box3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersection3D_F32 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	Triangle3D_F32 triangle = new Triangle3D_F32(-1,-1,0, 1,-1,0, 0,1,0);
+	PlaneNormal3D_F32 plane = new PlaneNormal3D_F32(0,0,0.5f, 0.1f,0.2f,1);
+	Sphere3D_F32 sphere = new Sphere3D_F32(0,0,0,1);
+
+	LineSegment3D_F32[] segments;
+	LineParametric3D_F32[] lines;
+	Box3D_F32[] boxes;
+
+	Point3D_F32 found = new Point3D_F32();
+	Point3D_F32 found2 = new Point3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		segments = new LineSegment3D_F32[size];
+		lines = new LineParametric3D_F32[size];
+		for (int i = 0; i < size; i++) {
+			float x0 = (float)rand.nextGaussian();
+			float y0 = (float)rand.nextGaussian();
+			float z0 = (float)rand.nextGaussian();
+			float x1 = (float)rand.nextGaussian();
+			float y1 = (float)rand.nextGaussian();
+			float z1 = (float)rand.nextGaussian();
+
+			segments[i] = new LineSegment3D_F32(x0,y0,z0,x1,y1,z1);
+			lines[i] = new LineParametric3D_F32(x0,y0,z0,x1-x0,y1-y0,z1-z0);
+		}
+
+		// each pair of consecutive boxes is tested against each other
+		boxes = new Box3D_F32[size+1];
+		for (int i = 0; i <= size; i++) {
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			float z = (float)rand.nextGaussian();
+			boxes[i] = new Box3D_F32(x,y,z,x+rand.nextFloat()+0.1f,y+rand.nextFloat()+0.1f,z+rand.nextFloat()+0.1f);
+		}
+	}
+
+	@Benchmark
+	public void intersection_TriangleSegment( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection3D_F32.intersection(triangle,segments[i],found));
+		}
+	}
+
+	@Benchmark
+	public void intersect_PlaneLine( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection3D_F32.intersect(plane,lines[i],found));
+		}
+	}
+
+	@Benchmark
+	public void intersect_LineSphere( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection3D_F32.intersect(lines[i],sphere,found,found2));
+		}
+	}
+
+	@Benchmark
+	public void intersect_Box( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection3D_F32.intersect(boxes[i],boxes[i+1]));
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersection3D_F64 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	Triangle3D_F64 triangle = new Triangle3D_F64(-1,-1,0, 1,-1,0, 0,1,0);
+	PlaneNormal3D_F64 plane = new PlaneNormal3D_F64(0,0,0.5, 0.1,0.2,1);
+	Sphere3D_F64 sphere = new Sphere3D_F64(0,0,0,1);
+
+	LineSegment3D_F64[] segments;
+	LineParametric3D_F64[] lines;
+	Box3D_F64[] boxes;
+
+	Point3D_F64 found = new Point3D_F64();
+	Point3D_F64 found2 = new Point3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		segments = new LineSegment3D_F64[size];
+		lines = new LineParametric3D_F64[size];
+		for (int i = 0; i < size; i++) {
+			double x0 = rand.nextGaussian();
+			double y0 = rand.nextGaussian();
+			double z0 = rand.nextGaussian();
+			double x1 = rand.nextGaussian();
+			double y1 = rand.nextGaussian();
+			double z1 = rand.nextGaussian();
+
+			segments[i] = new LineSegment3D_F64(x0,y0,z0,x1,y1,z1);
+			lines[i] = new LineParametric3D_F64(x0,y0,z0,x1-x0,y1-y0,z1-z0);
+		}
+
+		// each pair of consecutive boxes is tested against each other
+		boxes = new Box3D_F64[size+1];
+		for (int i = 0; i <= size; i++) {
+			double x = rand.nextGaussian();
+			double y = rand.nextGaussian();
+			double z = rand.nextGaussian();
+			boxes[i] = new Box3D_F64(x,y,z,x+rand.nextDouble()+0.1,y+rand.nextDouble()+0.1,z+rand.nextDouble()+0.1);
+		}
+	}
+
+	@Benchmark
+	public void intersection_TriangleSegment( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection3D_F64.intersection(triangle,segments[i],found));
+		}
+	}
+
+	@Benchmark
+	public void intersect_PlaneLine( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection3D_F64.intersect(plane,lines[i],found));
+		}
+	}
+
+	@Benchmark
+	public void intersect_LineSphere( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection3D_F64.intersect(lines[i],sphere,found,found2));
+		}
+	}
+
+	@Benchmark
+	public void intersect_Box( Blackhole bh ) {
+		for (int i = 0; i < size; i++) {
+			bh.consume(Intersection3D_F64.intersect(boxes[i],boxes[i+1]));
+		}
+	}
+}
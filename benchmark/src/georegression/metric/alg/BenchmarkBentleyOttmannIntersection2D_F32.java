@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F32;
+import georegression.struct.line.LineSegment2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkBentleyOttmannIntersection2D_F32 {
+
+	@Param({"1000","10000"})
+	public int size;
+
+	List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+	float data[];
+
+	BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+	Point2D_F32 point = new Point2D_F32();
+	int count;
+
+	BentleyOttmannIntersection2D_F32.Listener listener = new BentleyOttmannIntersection2D_F32.Listener() {
+		@Override
+		public void intersection(int segmentA, int segmentB, float x, float y) {
+			count++;
+		}
+	};
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// short segments, similar to the edges in a map or detected in an image
+		segments.clear();
+		data = new float[size*4];
+		for (int i = 0; i < size; i++) {
+			float x = rand.nextFloat()*1000;
+			float y = rand.nextFloat()*1000;
+			LineSegment2D_F32 s = new LineSegment2D_F32(x, y,
+					x + (float)rand.nextGaussian()*10, y + (float)rand.nextGaussian()*10);
+			segments.add(s);
+			data[i*4] = s.a.x; data[i*4+1] = s.a.y; data[i*4+2] = s.b.x; data[i*4+3] = s.b.y;
+		}
+	}
+
+	@Benchmark
+	public int sweep() {
+		alg.process(segments, null);
+		return alg.getNumIntersections();
+	}
+
+	@Benchmark
+	public int sweep_listener() {
+		count = 0;
+		alg.process(data, size, listener);
+		return count;
+	}
+
+	@Benchmark
+	public int bruteForce() {
+		int total = 0;
+		for (int i = 0; i < segments.size(); i++) {
+			LineSegment2D_F32 a = segments.get(i);
+			for (int j = i+1; j < segments.size(); j++) {
+				if( Intersection2D_F32.intersection(a, segments.get(j), point) != null )
+					total++;
+			}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDistancePointMesh3D_F32 {
+
+	@Param({"10000","100000"})
+	public int size;
+
+	// number of points in each batch
+	int numPoints = 100000;
+
+	List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+	float points[];
+	int faces[];
+	float distances[];
+	float signs[];
+
+	DistancePointMesh3D_F32 alg = new DistancePointMesh3D_F32();
+	DistancePointMesh3D_F32 algConcurrent = new DistancePointMesh3D_F32();
+
+	DistancePointTriangle3D_F32 pointTriangle = new DistancePointTriangle3D_F32();
+	Point3D_F32 point = new Point3D_F32();
+	Point3D_F32 closest = new Point3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// small triangles on the surface of a sphere
+		triangles.clear();
+		for (int i = 0; i < size; i++) {
+			float x = (float)rand.nextGaussian(), y = (float)rand.nextGaussian(), z = (float)rand.nextGaussian();
+			float n = (float)Math.sqrt(x*x + y*y + z*z);
+			x = 50*x/n; y = 50*y/n; z = 50*z/n;
+			triangles.add(new Triangle3D_F32(x, y, z,
+					x + (float)rand.nextGaussian(), y + (float)rand.nextGaussian(), z + (float)rand.nextGaussian(),
+					x + (float)rand.nextGaussian(), y + (float)rand.nextGaussian(), z + (float)rand.nextGaussian()));
+		}
+
+		// scan of points near the surface
+		points = new float[numPoints*3];
+		for (int i = 0; i < numPoints; i++) {
+			float x = (float)rand.nextGaussian(), y = (float)rand.nextGaussian(), z = (float)rand.nextGaussian();
+			float r = (50 + (float)rand.nextGaussian()) / (float)Math.sqrt(x*x + y*y + z*z);
+			points[i*3] = x*r; points[i*3+1] = y*r; points[i*3+2] = z*r;
+		}
+		faces = new int[numPoints];
+		distances = new float[numPoints];
+		signs = new float[numPoints];
+
+		alg.setMesh(triangles);
+		algConcurrent.setConcurrent(true);
+		algConcurrent.setMesh(triangles);
+	}
+
+	@Benchmark
+	public float[] closestPoints() {
+		alg.closestPoints(points, numPoints, faces, distances, null, signs);
+		return distances;
+	}
+
+	@Benchmark
+	public float[] closestPoints_concurrent() {
+		algConcurrent.closestPoints(points, numPoints, faces, distances, null, signs);
+		return distances;
+	}
+
+	/**
+	 * Only processes 10 points since it's so slow
+	 */
+	@Benchmark
+	public float bruteForce() {
+		float total = 0;
+		for (int i = 0; i < 10; i++) {
+			point.set(points[i*3], points[i*3+1], points[i*3+2]);
+			float best = Float.MAX_VALUE;
+			for (int j = 0; j < triangles.size(); j++) {
+				Triangle3D_F32 t = triangles.get(j);
+				pointTriangle.setTriangle(t.v0, t.v1, t.v2);
+				pointTriangle.closestPoint(point, closest);
+				best = (float)Math.min(best, closest.distance2(point));
+			}
+			total += best;
+		}
+		return total;
+	}
+}
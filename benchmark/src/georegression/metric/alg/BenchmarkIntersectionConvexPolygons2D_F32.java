@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.shapes.Polygon2D_F32;
+import georegression.struct.shapes.Quadrilateral_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersectionConvexPolygons2D_F32 {
+
+	@Param({"100","1000"})
+	public int size;
+
+	List<Quadrilateral_F32> setA = new ArrayList<Quadrilateral_F32>();
+	List<Quadrilateral_F32> setB = new ArrayList<Quadrilateral_F32>();
+	float iou[];
+
+	Quadrilateral_F32 quadA, quadB;
+	Polygon2D_F32 polygonA = new Polygon2D_F32(4);
+	Polygon2D_F32 polygonB = new Polygon2D_F32(4);
+	Polygon2D_F32 output = new Polygon2D_F32();
+
+	IntersectionConvexPolygons2D_F32 alg = new IntersectionConvexPolygons2D_F32(false);
+	IntersectionConvexPolygons2D_F32 algConcurrent = new IntersectionConvexPolygons2D_F32(true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		setA.clear();
+		setB.clear();
+		for (int i = 0; i < size; i++) {
+			setA.add(randomBox(rand));
+			setB.add(randomBox(rand));
+		}
+		iou = new float[size*size];
+
+		quadA = new Quadrilateral_F32(0, 0, 2, 0, 2, 1, 0, 1);
+		quadB = new Quadrilateral_F32(1, -0.5f, 2.5f, 0.5f, 1.5f, 2, 0, 1);
+		polygonA.set(0, 0, 0); polygonA.set(1, 2, 0); polygonA.set(2, 2, 1); polygonA.set(3, 0, 1);
+		polygonB.set(0, 1, -0.5f); polygonB.set(1, 2.5f, 0.5f); polygonB.set(2, 1.5f, 2); polygonB.set(3, 0, 1);
+	}
+
+	@Benchmark
+	public Polygon2D_F32 intersection_polygon() {
+		alg.intersection(polygonA, polygonB, output);
+		return output;
+	}
+
+	@Benchmark
+	public float area_quad() {
+		return alg.area(quadA, quadB);
+	}
+
+	@Benchmark
+	public float iou_quad() {
+		return alg.iou(quadA, quadB);
+	}
+
+	@Benchmark
+	public float[] iouMatrix() {
+		alg.iouMatrix(setA, setB, iou);
+		return iou;
+	}
+
+	@Benchmark
+	public float[] iouMatrix_concurrent() {
+		algConcurrent.iouMatrix(setA, setB, iou);
+		return iou;
+	}
+
+	private static Quadrilateral_F32 randomBox( Random rand ) {
+		float cx = rand.nextFloat()*100, cy = rand.nextFloat()*100;
+		float w = 2 + rand.nextFloat()*5, h = 2 + rand.nextFloat()*5;
+		float theta = rand.nextFloat()*GrlConstants.F_PI;
+		float c = (float)Math.cos(theta), s = (float)Math.sin(theta);
+
+		Quadrilateral_F32 q = new Quadrilateral_F32();
+		q.a.set(cx + c*w - s*h, cy + s*w + c*h);
+		q.b.set(cx - c*w - s*h, cy - s*w + c*h);
+		q.c.set(cx - c*w + s*h, cy - s*w - c*h);
+		q.d.set(cx + c*w + s*h, cy + s*w - c*h);
+		return q;
+	}
+}
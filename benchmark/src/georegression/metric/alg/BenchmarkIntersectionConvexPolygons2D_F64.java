@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Quadrilateral_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersectionConvexPolygons2D_F64 {
+
+	@Param({"100","1000"})
+	public int size;
+
+	List<Quadrilateral_F64> setA = new ArrayList<Quadrilateral_F64>();
+	List<Quadrilateral_F64> setB = new ArrayList<Quadrilateral_F64>();
+	double iou[];
+
+	Quadrilateral_F64 quadA, quadB;
+	Polygon2D_F64 polygonA = new Polygon2D_F64(4);
+	Polygon2D_F64 polygonB = new Polygon2D_F64(4);
+	Polygon2D_F64 output = new Polygon2D_F64();
+
+	IntersectionConvexPolygons2D_F64 alg = new IntersectionConvexPolygons2D_F64(false);
+	IntersectionConvexPolygons2D_F64 algConcurrent = new IntersectionConvexPolygons2D_F64(true);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		setA.clear();
+		setB.clear();
+		for (int i = 0; i < size; i++) {
+			setA.add(randomBox(rand));
+			setB.add(randomBox(rand));
+		}
+		iou = new double[size*size];
+
+		quadA = new Quadrilateral_F64(0, 0, 2, 0, 2, 1, 0, 1);
+		quadB = new Quadrilateral_F64(1, -0.5, 2.5, 0.5, 1.5, 2, 0, 1);
+		polygonA.set(0, 0, 0); polygonA.set(1, 2, 0); polygonA.set(2, 2, 1); polygonA.set(3, 0, 1);
+		polygonB.set(0, 1, -0.5); polygonB.set(1, 2.5, 0.5); polygonB.set(2, 1.5, 2); polygonB.set(3, 0, 1);
+	}
+
+	@Benchmark
+	public Polygon2D_F64 intersection_polygon() {
+		alg.intersection(polygonA, polygonB, output);
+		return output;
+	}
+
+	@Benchmark
+	public double area_quad() {
+		return alg.area(quadA, quadB);
+	}
+
+	@Benchmark
+	public double iou_quad() {
+		return alg.iou(quadA, quadB);
+	}
+
+	@Benchmark
+	public double[] iouMatrix() {
+		alg.iouMatrix(setA, setB, iou);
+		return iou;
+	}
+
+	@Benchmark
+	public double[] iouMatrix_concurrent() {
+		algConcurrent.iouMatrix(setA, setB, iou);
+		return iou;
+	}
+
+	private static Quadrilateral_F64 randomBox( Random rand ) {
+		double cx = rand.nextDouble()*100, cy = rand.nextDouble()*100;
+		double w = 2 + rand.nextDouble()*5, h = 2 + rand.nextDouble()*5;
+		double theta = rand.nextDouble()*GrlConstants.PI;
+		double c = Math.cos(theta), s = Math.sin(theta);
+
+		Quadrilateral_F64 q = new Quadrilateral_F64();
+		q.a.set(cx + c*w - s*h, cy + s*w + c*h);
+		q.b.set(cx - c*w - s*h, cy - s*w + c*h);
+		q.c.set(cx - c*w + s*h, cy - s*w - c*h);
+		q.d.set(cx + c*w + s*h, cy + s*w - c*h);
+		return q;
+	}
+}
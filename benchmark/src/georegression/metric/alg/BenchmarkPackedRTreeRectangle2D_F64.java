@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPackedRTreeRectangle2D_F64 {
+
+	@Param({"1000","10000"})
+	public int size;
+
+	List<Rectangle2D_F64> rectangles = new ArrayList<Rectangle2D_F64>();
+	List<Rectangle2D_F64> windows = new ArrayList<Rectangle2D_F64>();
+
+	PackedRTreeRectangle2D_F64 tree = new PackedRTreeRectangle2D_F64();
+	PackedRTreeRectangle2D_F64 treeConcurrent = new PackedRTreeRectangle2D_F64();
+	GrowQueue_I32 found = new GrowQueue_I32();
+
+	final AtomicInteger count = new AtomicInteger();
+	PackedRTree_F64.Listener listener = new PackedRTree_F64.Listener() {
+		@Override
+		public void overlap(int indexA, int indexB) {
+			count.incrementAndGet();
+		}
+	};
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		rectangles.clear();
+		for (int i = 0; i < size; i++) {
+			double x = rand.nextDouble()*1000, y = rand.nextDouble()*1000;
+			rectangles.add(new Rectangle2D_F64(x, y, x + rand.nextDouble()*10, y + rand.nextDouble()*10));
+		}
+		windows.clear();
+		for (int i = 0; i < 1000; i++) {
+			double x = rand.nextDouble()*1000, y = rand.nextDouble()*1000;
+			windows.add(new Rectangle2D_F64(x, y, x + 20, y + 20));
+		}
+
+		tree.build(rectangles);
+		treeConcurrent.setConcurrent(true);
+		treeConcurrent.build(rectangles);
+	}
+
+	@Benchmark
+	public PackedRTreeRectangle2D_F64 build() {
+		tree.build(rectangles);
+		return tree;
+	}
+
+	@Benchmark
+	public int search() {
+		int total = 0;
+		for (int i = 0; i < windows.size(); i++) {
+			tree.search(windows.get(i), found);
+			total += found.size;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int search_bruteForce() {
+		int total = 0;
+		for (int i = 0; i < windows.size(); i++) {
+			Rectangle2D_F64 w = windows.get(i);
+			for (int j = 0; j < rectangles.size(); j++) {
+				if( Intersection2D_F64.intersects(w, rectangles.get(j)) )
+					total++;
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int selfJoin() {
+		count.set(0);
+		tree.selfJoin(listener);
+		return count.get();
+	}
+
+	@Benchmark
+	public int selfJoin_concurrent() {
+		count.set(0);
+		treeConcurrent.selfJoin(listener);
+		return count.get();
+	}
+
+	@Benchmark
+	public int selfJoin_bruteForce() {
+		int total = 0;
+		for (int i = 0; i < rectangles.size(); i++) {
+			Rectangle2D_F64 a = rectangles.get(i);
+			for (int j = i+1; j < rectangles.size(); j++) {
+				if( Intersection2D_F64.intersects(a, rectangles.get(j)) )
+					total++;
+			}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F64;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkTriangleBvh3D_F64 {
+
+	@Param({"10000","100000"})
+	public int size;
+
+	// number of rays cast in each batch
+	int numRays = 10000;
+
+	List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+	double rays[];
+	int hitTriangles[];
+	double hitPoints[];
+
+	TriangleBvh3D_F64 alg = new TriangleBvh3D_F64();
+	TriangleBvh3D_F64 algConcurrent = new TriangleBvh3D_F64();
+
+	LineSegment3D_F64 ray = new LineSegment3D_F64();
+	Point3D_F64 hit = new Point3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// small triangles scattered inside of a cube
+		triangles.clear();
+		for (int i = 0; i < size; i++) {
+			double x = rand.nextDouble()*100, y = rand.nextDouble()*100, z = rand.nextDouble()*100;
+			triangles.add(new Triangle3D_F64(x, y, z,
+					x + rand.nextGaussian(), y + rand.nextGaussian(), z + rand.nextGaussian(),
+					x + rand.nextGaussian(), y + rand.nextGaussian(), z + rand.nextGaussian()));
+		}
+
+		// rays from a sensor in the middle of the cube
+		rays = new double[numRays*6];
+		for (int i = 0; i < numRays; i++) {
+			double dx = rand.nextGaussian(), dy = rand.nextGaussian(), dz = rand.nextGaussian();
+			double n = Math.sqrt(dx*dx + dy*dy + dz*dz);
+			rays[i*6  ] = 50; rays[i*6+1] = 50; rays[i*6+2] = 50;
+			rays[i*6+3] = 50 + dx*100/n; rays[i*6+4] = 50 + dy*100/n; rays[i*6+5] = 50 + dz*100/n;
+		}
+		hitTriangles = new int[numRays];
+		hitPoints = new double[numRays*3];
+
+		alg.build(triangles);
+		algConcurrent.setConcurrent(true);
+		algConcurrent.build(triangles);
+	}
+
+	@Benchmark
+	public TriangleBvh3D_F64 build() {
+		alg.build(triangles);
+		return alg;
+	}
+
+	@Benchmark
+	public TriangleBvh3D_F64 build_concurrent() {
+		algConcurrent.build(triangles);
+		return algConcurrent;
+	}
+
+	@Benchmark
+	public int[] castFirst() {
+		alg.castFirst(rays, numRays, hitTriangles, hitPoints);
+		return hitTriangles;
+	}
+
+	@Benchmark
+	public int[] castFirst_concurrent() {
+		algConcurrent.castFirst(rays, numRays, hitTriangles, hitPoints);
+		return hitTriangles;
+	}
+
+	/**
+	 * Only casts 10 rays since it's so slow
+	 */
+	@Benchmark
+	public int castFirst_bruteForce() {
+		int total = 0;
+		for (int i = 0; i < 10; i++) {
+			ray.set(rays[i*6], rays[i*6+1], rays[i*6+2], rays[i*6+3], rays[i*6+4], rays[i*6+5]);
+			for (int j = 0; j < triangles.size(); j++) {
+				if( Intersection3D_F64.intersection(triangles.get(j), ray, hit) == 1 )
+					total++;
+			}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.misc;
+
+import georegression.fitting.ellipse.ClosestPointEllipseAngle_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.EllipseRotated_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link GrlFastMath} against {@link Math}.  Each benchmark processes the same 1000 values.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGrlFastMath {
+
+	int size = 1000;
+
+	double angles[];
+	double x[], y[];
+	double cosines[];
+	double output[] = new double[2];
+
+	EllipseRotated_F64 ellipse = new EllipseRotated_F64(1, 2, 4, 1.5, 0.3);
+	Point2D_F64 points[];
+	ClosestPointEllipseAngle_F64 closest = new ClosestPointEllipseAngle_F64(1e-8, 100);
+	ClosestPointEllipseAngle_F64 closestFast = new ClosestPointEllipseAngle_F64(1e-8, 100);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		angles = new double[size];
+		x = new double[size];
+		y = new double[size];
+		cosines = new double[size];
+		points = new Point2D_F64[size];
+		for (int i = 0; i < size; i++) {
+			angles[i] = (rand.nextDouble()*2 - 1)*10;
+			x[i] = rand.nextGaussian();
+			y[i] = rand.nextGaussian();
+			cosines[i] = rand.nextDouble()*2 - 1;
+			points[i] = new Point2D_F64(rand.nextGaussian()*5, rand.nextGaussian()*5);
+		}
+
+		closest.setEllipse(ellipse);
+		closestFast.setEllipse(ellipse);
+		closestFast.setFastMath(true);
+	}
+
+	@Benchmark
+	public double sin_Math() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += Math.sin(angles[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double sin_Fast() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += GrlFastMath.sin(angles[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double sincos_Math() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += Math.sin(angles[i]) + Math.cos(angles[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double sincos_Fast() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			GrlFastMath.sincos(angles[i], output);
+			total += output[0] + output[1];
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double atan2_Math() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += Math.atan2(y[i], x[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double atan2_Fast() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += GrlFastMath.atan2(y[i], x[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double acos_Math() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += Math.acos(cosines[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double acos_Fast() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += GrlFastMath.acos(cosines[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double closestPointEllipse_Math() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			closest.process(points[i]);
+			total += closest.getTheta();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double closestPointEllipse_Fast() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			closestFast.process(points[i]);
+			total += closestFast.getTheta();
+		}
+		return total;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.index;
+
+import georegression.struct.point.PointCloud3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a {@link KdTree3D_F64} and searching it for correspondences
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkKdTree3D_F64 {
+
+	@Param({"10000","1000000"})
+	public int size;
+
+	PointCloud3D_F64 cloud = new PointCloud3D_F64();
+	PointCloud3D_F64 queries = new PointCloud3D_F64();
+
+	KdTree3D_F64 tree = new KdTree3D_F64(8,false);
+	KdTree3D_F64 treeConcurrent = new KdTree3D_F64(8,true);
+	KdTreeSearch3D_F64 search = tree.createSearch();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		cloud.reset();
+		for (int i = 0; i < size; i++) {
+			cloud.add(rand.nextDouble(), rand.nextDouble(), rand.nextDouble());
+		}
+		queries.reset();
+		for (int i = 0; i < 10000; i++) {
+			queries.add(rand.nextDouble(), rand.nextDouble(), rand.nextDouble());
+		}
+
+		tree.build(cloud);
+	}
+
+	@Benchmark
+	public KdTree3D_F64 build() {
+		treeConcurrent.setConcurrent(false);
+		treeConcurrent.build(cloud);
+		return treeConcurrent;
+	}
+
+	@Benchmark
+	public KdTree3D_F64 build_concurrent() {
+		treeConcurrent.setConcurrent(true);
+		treeConcurrent.build(cloud);
+		return treeConcurrent;
+	}
+
+	@Benchmark
+	public int nearest() {
+		int total = 0;
+		double data[] = queries.data;
+		for (int i = 0; i < queries.size; i++) {
+			total += search.findNearest(data[i*3],data[i*3+1],data[i*3+2],Double.MAX_VALUE);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int nearest_k10() {
+		int total = 0;
+		double data[] = queries.data;
+		for (int i = 0; i < queries.size; i++) {
+			total += search.findNearest(data[i*3],data[i*3+1],data[i*3+2],Double.MAX_VALUE,10);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int nearestApproximate_k10() {
+		int total = 0;
+		double data[] = queries.data;
+		for (int i = 0; i < queries.size; i++) {
+			total += search.findNearestApproximate(data[i*3],data[i*3+1],data[i*3+2],Double.MAX_VALUE,10,64);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int radius() {
+		int total = 0;
+		double data[] = queries.data;
+		for (int i = 0; i < queries.size; i++) {
+			total += search.findRadius(data[i*3],data[i*3+1],data[i*3+2],0.01);
+		}
+		return total;
+	}
+}
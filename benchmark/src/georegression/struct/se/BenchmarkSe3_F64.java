@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.se;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Se3_F64} against {@link Se3Fixed_F64} when composing, inverting, and applying transforms
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkSe3_F64 {
+
+	Se3_F64 a = SpecialEuclideanOps_F64.setEulerXYZ(0.1,-0.5,1.2,0.5,-2,3,null);
+	Se3_F64 b = SpecialEuclideanOps_F64.setEulerXYZ(-0.3,0.2,0.7,1,0.5,-0.1,null);
+	Se3_F64 c = new Se3_F64();
+
+	Se3Fixed_F64 fa = new Se3Fixed_F64(a);
+	Se3Fixed_F64 fb = new Se3Fixed_F64(b);
+	Se3Fixed_F64 fc = new Se3Fixed_F64();
+
+	Point3D_F64 p = new Point3D_F64(1,2,3);
+	Point3D_F64 q = new Point3D_F64();
+
+	@Benchmark
+	public Se3_F64 concat() {
+		return a.concat(b,c);
+	}
+
+	@Benchmark
+	public Se3Fixed_F64 concat_fixed() {
+		return fa.concat(fb,fc);
+	}
+
+	@Benchmark
+	public Se3_F64 invert() {
+		return a.invert(c);
+	}
+
+	@Benchmark
+	public Se3Fixed_F64 invert_fixed() {
+		return fa.invert(fc);
+	}
+
+	@Benchmark
+	public Point3D_F64 transform() {
+		return SePointOps_F64.transform(a,p,q);
+	}
+
+	@Benchmark
+	public Point3D_F64 transform_fixed() {
+		return SePointOps_F64.transform(fa,p,q);
+	}
+}
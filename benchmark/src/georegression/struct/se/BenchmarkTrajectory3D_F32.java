@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.se;
+
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.struct.EulerType;
+import georegression.transform.se.InterpolateLinearSe3_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motion compensation of a LiDAR sweep, where each point has its own time stamp
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkTrajectory3D_F32 {
+
+	// number of points in the sweep
+	int numPoints = 200000;
+	// number of poses across the sweep
+	int numPoses = 100;
+
+	Se3_F32 poses[];
+	float times[];
+	float points[];
+	float output[];
+	float quats[];
+	float trans[];
+
+	Trajectory3D_F32 linear = new Trajectory3D_F32();
+	Trajectory3D_F32 spline = new Trajectory3D_F32();
+	Trajectory3D_F32 splineConcurrent = new Trajectory3D_F32();
+
+	InterpolateLinearSe3_F32 pairwise = new InterpolateLinearSe3_F32();
+	Se3_F32 pose = new Se3_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		poses = new Se3_F32[numPoses];
+		spline.setMethod(Trajectory3D_F32.Method.CUBIC_BSPLINE);
+		splineConcurrent.setMethod(Trajectory3D_F32.Method.CUBIC_BSPLINE);
+		splineConcurrent.setConcurrent(true);
+		for (int i = 0; i < numPoses; i++) {
+			poses[i] = new Se3_F32();
+			ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.01f*i, 0.02f*i, -0.01f*i, poses[i].R);
+			poses[i].T.set(0.1f*i, 0.05f*i, 0);
+			linear.append(i, poses[i]);
+			spline.append(i, poses[i]);
+			splineConcurrent.append(i, poses[i]);
+		}
+
+		times = new float[numPoints];
+		points = new float[numPoints*3];
+		output = new float[numPoints*3];
+		quats = new float[numPoints*4];
+		trans = new float[numPoints*3];
+		for (int i = 0; i < numPoints; i++) {
+			times[i] = (numPoses-1)*(float)i/numPoints;
+			points[i*3  ] = (float)rand.nextGaussian()*20;
+			points[i*3+1] = (float)rand.nextGaussian()*20;
+			points[i*3+2] = (float)rand.nextGaussian()*2;
+		}
+	}
+
+	@Benchmark
+	public float[] interpolate_linear() {
+		linear.interpolate(times, numPoints, quats, trans);
+		return trans;
+	}
+
+	@Benchmark
+	public float[] interpolate_spline() {
+		spline.interpolate(times, numPoints, quats, trans);
+		return trans;
+	}
+
+	@Benchmark
+	public float[] transform_linear() {
+		linear.transform(times, points, output, numPoints);
+		return output;
+	}
+
+	@Benchmark
+	public float[] transform_spline() {
+		spline.transform(times, points, output, numPoints);
+		return output;
+	}
+
+	@Benchmark
+	public float[] transform_spline_concurrent() {
+		splineConcurrent.transform(times, points, output, numPoints);
+		return output;
+	}
+
+	/**
+	 * Finds the pose of each point using a pairwise interpolation, which is how it was done previously
+	 */
+	@Benchmark
+	public Se3_F32 interpolate_pairwise() {
+		int segment = -1;
+		for (int i = 0; i < numPoints; i++) {
+			int s = (int)times[i];
+			if( s != segment ) {
+				segment = s;
+				pairwise.setTransforms(poses[s], poses[s+1]);
+			}
+			pairwise.interpolate(times[i] - s, pose);
+		}
+		return pose;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.transform.se;
+
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3_F32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkSePointOps_F32 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	Se2_F32 se2 = new Se2_F32(1,-2,0.3f);
+	Se3_F32 se3 = new Se3_F32();
+
+	List<Point2D_F32> points2;
+	List<Point3D_F32> points3;
+
+	// the in-place transforms write into these so that the input never drifts between iterations
+	List<Point2D_F32> work2;
+	List<Point3D_F32> work3;
+
+	// same points packed into primitive arrays
+	float array3[];
+	float output3[];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ,0.1f,-0.5f,1.2f,se3.getR());
+		se3.getT().set(0.5f,-2,3);
+
+		points2 = UtilPoint2D_F32.random(-1,1,size,rand);
+		points3 = UtilPoint3D_F32.random(-1,1,size,rand);
+
+		array3 = new float[size*3];
+		output3 = new float[size*3];
+		for (int i = 0; i < size; i++) {
+			Point3D_F32 p = points3.get(i);
+			array3[i*3  ] = p.x;
+			array3[i*3+1] = p.y;
+			array3[i*3+2] = p.z;
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void resetWork() {
+		work2 = UtilPoint2D_F32.copy(points2);
+		work3 = UtilPoint3D_F32.copy(points3);
+	}
+
+	@Benchmark
+	public void transform_Se2_list() {
+		SePointOps_F32.transform(se2,work2);
+	}
+
+	@Benchmark
+	public void transform_Se3_list() {
+		SePointOps_F32.transform(se3,work3);
+	}
+
+	@Benchmark
+	public void transform_Se3_point( Blackhole bh ) {
+		Point3D_F32 output = new Point3D_F32();
+		for (int i = 0; i < size; i++) {
+			SePointOps_F32.transform(se3,points3.get(i),output);
+			bh.consume(output);
+		}
+	}
+
+	@Benchmark
+	public void transformReverse_Se3_point( Blackhole bh ) {
+		Point3D_F32 output = new Point3D_F32();
+		for (int i = 0; i < size; i++) {
+			SePointOps_F32.transformReverse(se3,points3.get(i),output);
+			bh.consume(output);
+		}
+	}
+
+	@Benchmark
+	public float[] transform_Se3_array() {
+		SePointOps_F32.transform(se3,array3,0,3,output3,0,3,size);
+		return output3;
+	}
+
+	@Benchmark
+	public float[] transformConcurrent_Se3_array() {
+		SePointOps_F32.transformConcurrent(se3,array3,0,3,output3,0,3,size);
+		return output3;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.transform.se;
+
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.struct.se.Se3_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkSePointOps_F64 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	Se2_F64 se2 = new Se2_F64(1,-2,0.3);
+	Se3_F64 se3 = new Se3_F64();
+
+	List<Point2D_F64> points2;
+	List<Point3D_F64> points3;
+
+	// the in-place transforms write into these so that the input never drifts between iterations
+	List<Point2D_F64> work2;
+	List<Point3D_F64> work3;
+
+	// same points packed into primitive arrays
+	double array3[];
+	double output3[];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,0.1,-0.5,1.2,se3.getR());
+		se3.getT().set(0.5,-2,3);
+
+		points2 = UtilPoint2D_F64.random(-1,1,size,rand);
+		points3 = UtilPoint3D_F64.random(-1,1,size,rand);
+
+		array3 = new double[size*3];
+		output3 = new double[size*3];
+		for (int i = 0; i < size; i++) {
+			Point3D_F64 p = points3.get(i);
+			array3[i*3  ] = p.x;
+			array3[i*3+1] = p.y;
+			array3[i*3+2] = p.z;
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void resetWork() {
+		work2 = UtilPoint2D_F64.copy(points2);
+		work3 = UtilPoint3D_F64.copy(points3);
+	}
+
+	@Benchmark
+	public void transform_Se2_list() {
+		SePointOps_F64.transform(se2,work2);
+	}
+
+	@Benchmark
+	public void transform_Se3_list() {
+		SePointOps_F64.transform(se3,work3);
+	}
+
+	@Benchmark
+	public void transform_Se3_point( Blackhole bh ) {
+		Point3D_F64 output = new Point3D_F64();
+		for (int i = 0; i < size; i++) {
+			SePointOps_F64.transform(se3,points3.get(i),output);
+			bh.consume(output);
+		}
+	}
+
+	@Benchmark
+	public void transformReverse_Se3_point( Blackhole bh ) {
+		Point3D_F64 output = new Point3D_F64();
+		for (int i = 0; i < size; i++) {
+			SePointOps_F64.transformReverse(se3,points3.get(i),output);
+			bh.consume(output);
+		}
+	}
+
+	@Benchmark
+	public double[] transform_Se3_array() {
+		SePointOps_F64.transform(se3,array3,0,3,output3,0,3,size);
+		return output3;
+	}
+
+	@Benchmark
+	public double[] transformConcurrent_Se3_array() {
+		SePointOps_F64.transformConcurrent(se3,array3,0,3,output3,0,3,size);
+		return output3;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * {@link DistanceFromModel} which can also score points packed into a primitive array, e.g.
+ * {@link georegression.struct.point.PointCloud3D_F64#data}.  Each point takes up {@link #getPointLength()}
+ * elements in the array, with point i starting at index i*getPointLength().  The per model kernels are tight
+ * loops over the array which don't declare memory.
+ * </p>
+ *
+ * <p>
+ * When scoring hypotheses inside of RANSAC, {@link #countInliersEarlyExit} will stop early once
+ * it's no longer possible for the model to have more inliers than the best model so far.  Very large sets of
+ * points can be processed using multiple threads with the concurrent functions.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class DistanceFromModelBulk_F64<Model,Point> implements DistanceFromModel<Model,Point> {
+
+	/**
+	 * Number of points which are scored between checks for an early exit
+	 */
+	public static final int CHECK_PERIOD = 256;
+
+	/**
+	 * Number of array elements used to store a single point
+	 */
+	public abstract int getPointLength();
+
+	/**
+	 * Computes the distance of points in a packed array from the model
+	 *
+	 * @param data Array containing the packed points. Not modified.
+	 * @param start Index of the first point, inclusive
+	 * @param end Index of the last point, exclusive
+	 * @param distances Storage for the distance of each point.  Point i is written to distances[i]. Modified.
+	 */
+	public abstract void computeDistance( double data[] , int start , int end , double distances[] );
+
+	/**
+	 * Counts the points in a packed array whose distance from the model is less than or equal to the threshold
+	 *
+	 * @param data Array containing the packed points. Not modified.
+	 * @param start Index of the first point, inclusive
+	 * @param end Index of the last point, exclusive
+	 * @param threshold Maximum distance for an inlier
+	 * @return number of inliers
+	 */
+	public abstract int countInliers( double data[] , int start , int end , double threshold );
+
+	@Override
+	public void computeDistance( List<Point> points, /**/double[] distance ) {
+		for (int i = 0; i < points.size(); i++) {
+			distance[i] = computeDistance(points.get(i));
+		}
+	}
+
+	/**
+	 * Counts the number of inliers but stops as soon as it isn't possible to have more inliers than bestCount.
+	 *
+	 * @param data Array containing the packed points. Not modified.
+	 * @param size Number of points in the array
+	 * @param threshold Maximum distance for an inlier
+	 * @param bestCount Number of inliers in the best model so far
+	 * @return number of inliers or -1 if it exited early because it couldn't have more than bestCount.
+	 */
+	public int countInliersEarlyExit( double data[] , int size , double threshold , int bestCount ) {
+		int count = 0;
+		for (int start = 0; start < size; start += CHECK_PERIOD) {
+			int end = size - start > CHECK_PERIOD ? start + CHECK_PERIOD : size;
+			count += countInliers(data, start, end, threshold);
+			if( count + (size - end) <= bestCount )
+				return -1;
+		}
+		return count;
+	}
+
+	/**
+	 * Concurrent version of {@link #computeDistance(double[], int, int, double[])} for all points in the array.
+	 */
+	public void computeDistanceConcurrent( final double data[] , int size , final double distances[] ) {
+		GrlConcurrency.loopBlocks(0, size, new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				computeDistance(data, start, end, distances);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #countInliers(double[], int, int, double)} for all points in the array.
+	 */
+	public int countInliersConcurrent( final double data[] , int size , final double threshold ) {
+		final AtomicInteger total = new AtomicInteger();
+		GrlConcurrency.loopBlocks(0, size, new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				total.addAndGet(countInliers(data, start, end, threshold));
+			}
+		});
+		return total.get();
+	}
+}
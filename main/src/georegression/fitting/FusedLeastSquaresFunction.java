@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import org.ejml.data.DenseMatrix64F;
+
+/**
+ * <p>
+ * Least-squares function which directly computes the normal equations, J<sup>T</sup>J and J<sup>T</sup>r,
+ * instead of the residual vector and the full Jacobian.  The residuals and Jacobian are computed and
+ * consumed one row at a time, so memory usage does not depend on the number of residuals.
+ * </p>
+ *
+ * @see LevenbergMarquardtFused
+ *
+ * @author Peter Abeles
+ */
+public interface FusedLeastSquaresFunction {
+
+	/**
+	 * Number of parameters being optimized
+	 */
+	int getNumOfInputsN();
+
+	/**
+	 * Computes the sum of the squared residuals
+	 *
+	 * @param param (Input) Parameters
+	 * @return sum of the squared residuals
+	 */
+	double computeCost( double[] param );
+
+	/**
+	 * Computes the normal equations and the cost.
+	 *
+	 * @param param (Input) Parameters
+	 * @param JtJ (Output) N by N matrix, J<sup>T</sup>J
+	 * @param Jtr (Output) N by 1 vector, J<sup>T</sup>r
+	 * @return sum of the squared residuals
+	 */
+	double computeNormalEquations( double[] param , DenseMatrix64F JtJ , DenseMatrix64F Jtr );
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.factory.LinearSolverFactory;
+import org.ejml.interfaces.linsol.LinearSolver;
+
+/**
+ * <p>
+ * Levenberg-Marquardt which works off of the normal equations computed by a {@link FusedLeastSquaresFunction}.
+ * Since the full Jacobian is never formed, memory usage is O(N<sup>2</sup>) in the number of parameters and
+ * independent of the number of residuals.  The dampening term is scaled by the diagonal of J<sup>T</sup>J.
+ * </p>
+ *
+ * <p>
+ * Interface is similar to {@link org.ddogleg.optimization.UnconstrainedLeastSquares}.  Call
+ * {@link #initialize} then {@link #iterate} until it returns true or the maximum number of iterations is exceeded.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LevenbergMarquardtFused {
+
+	// the function being optimized
+	FusedLeastSquaresFunction function;
+
+	// initial value of the dampening parameter
+	double initialDampParam;
+	// current dampening parameter
+	double lambda;
+
+	// convergence tolerances
+	double ftol, gtol;
+
+	// current parameters and the candidate
+	double x[] = new double[0];
+	double candidate[] = new double[0];
+	// cost at x
+	double cost;
+
+	// normal equations at x
+	DenseMatrix64F JtJ = new DenseMatrix64F(1,1);
+	DenseMatrix64F Jtr = new DenseMatrix64F(1,1);
+
+	// dampened system and the step
+	DenseMatrix64F A = new DenseMatrix64F(1,1);
+	DenseMatrix64F step = new DenseMatrix64F(1,1);
+	LinearSolver<DenseMatrix64F> solver;
+
+	// if true then it has converged
+	boolean converged;
+
+	/**
+	 * Specifies the initial value of the dampening parameter
+	 *
+	 * @param initialDampParam Initial value of the dampening parameter. Try 1e-3
+	 */
+	public LevenbergMarquardtFused( double initialDampParam ) {
+		this.initialDampParam = initialDampParam;
+	}
+
+	public LevenbergMarquardtFused() {
+		this(1e-3);
+	}
+
+	/**
+	 * Specifies the function being optimized
+	 */
+	public void setFunction( FusedLeastSquaresFunction function ) {
+		this.function = function;
+
+		int N = function.getNumOfInputsN();
+		if( x.length != N ) {
+			x = new double[N];
+			candidate = new double[N];
+			JtJ.reshape(N,N);
+			Jtr.reshape(N,1);
+			A.reshape(N,N);
+			step.reshape(N,1);
+			solver = LinearSolverFactory.symmPosDef(N);
+		}
+	}
+
+	/**
+	 * Specifies the initial parameters and convergence tolerances
+	 *
+	 * @param initial Initial value of the parameters. Not modified.
+	 * @param ftol Relative tolerance for the change in cost.  0 &le; ftol &lt; 1
+	 * @param gtol Absolute tolerance for the gradient's infinity norm. 0 &le; gtol
+	 */
+	public void initialize( double initial[] , double ftol , double gtol ) {
+		System.arraycopy(initial,0,x,0,x.length);
+		this.ftol = ftol;
+		this.gtol = gtol;
+		this.lambda = initialDampParam;
+		this.converged = false;
+
+		cost = function.computeNormalEquations(x,JtJ,Jtr);
+	}
+
+	/**
+	 * Performs a single iteration.  A step is attempted and accepted only if it decreases the cost.
+	 *
+	 * @return true if it has converged or no further progress can be made
+	 */
+	public boolean iterate() {
+		if( converged )
+			return true;
+
+		final int N = x.length;
+
+		// test the gradient for convergence
+		double maxG = 0;
+		for( int i = 0; i < N; i++ ) {
+			maxG = Math.max(maxG,Math.abs(Jtr.data[i]));
+		}
+		if( maxG <= gtol || cost == 0 ) {
+			converged = true;
+			return true;
+		}
+
+		// solve (J'J + lambda*diag(J'J))*step = -J'r
+		A.set(JtJ);
+		for( int i = 0; i < N; i++ ) {
+			double d = JtJ.data[i*N+i];
+			A.data[i*N+i] = d + lambda*Math.max(d,1e-12);
+		}
+		for( int i = 0; i < N; i++ ) {
+			Jtr.data[i] = -Jtr.data[i];
+		}
+		boolean solved = solver.setA(A);
+		if( solved )
+			solver.solve(Jtr,step);
+		for( int i = 0; i < N; i++ ) {
+			Jtr.data[i] = -Jtr.data[i];
+		}
+
+		if( !solved ) {
+			return increaseDampening();
+		}
+
+		for( int i = 0; i < N; i++ ) {
+			candidate[i] = x[i] + step.data[i];
+		}
+
+		double candidateCost = function.computeCost(candidate);
+
+		if( candidateCost < cost && !Double.isNaN(candidateCost) ) {
+			boolean small = cost - candidateCost <= ftol*cost;
+
+			double tmp[] = x;
+			x = candidate;
+			candidate = tmp;
+
+			cost = function.computeNormalEquations(x,JtJ,Jtr);
+			lambda = Math.max(lambda/10,1e-12);
+
+			converged = small;
+			return converged;
+		} else {
+			return increaseDampening();
+		}
+	}
+
+	private boolean increaseDampening() {
+		lambda *= 10;
+		if( lambda > 1e16 )
+			converged = true;
+		return converged;
+	}
+
+	/**
+	 * Returns the current best estimate of the parameters
+	 */
+	public double[] getParameters() {
+		return x;
+	}
+
+	/**
+	 * Sum of the squared residuals at the current parameters
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	public FusedLeastSquaresFunction getFunction() {
+		return function;
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+/**
+ * Weight functions used by iteratively reweighted least-squares (IRLS).  Given the magnitude of a
+ * residual and a scale parameter, each kernel returns the weight that point should have in the next
+ * weighted fit.  Points with small residuals get a weight close to one while outliers are down weighted.
+ *
+ * @author Peter Abeles
+ */
+public enum RobustKernel {
+	/**
+	 * Quadratic for residuals less than the scale and linear after that.  Outliers are never completely
+	 * rejected, making it the most stable but least robust kernel.
+	 */
+	HUBER {
+		@Override
+		public double weight( double residual, double scale ) {
+			residual = Math.abs(residual);
+			return residual <= scale ? 1.0 : scale/residual;
+		}
+	},
+	/**
+	 * Tukey's bi-weight.  Points with a residual larger than the scale are given a weight of zero and
+	 * have no influence on the solution.  Requires a good initial estimate.
+	 */
+	TUKEY {
+		@Override
+		public double weight( double residual, double scale ) {
+			double r = residual/scale;
+			if( r*r >= 1.0 )
+				return 0;
+			double a = 1.0 - r*r;
+			return a*a;
+		}
+	},
+	/**
+	 * Cauchy, also known as Lorentzian.  Weights decay smoothly and slowly with the residual.
+	 */
+	CAUCHY {
+		@Override
+		public double weight( double residual, double scale ) {
+			double r = residual/scale;
+			return 1.0/(1.0 + r*r);
+		}
+	};
+
+	/**
+	 * Computes the weight for a residual
+	 *
+	 * @param residual Residual error.  Sign is ignored.
+	 * @param scale Scale parameter of the kernel.  Residuals below this value are considered inliers.  Must be &gt; 0.
+	 * @return The weight, from 0 to 1.
+	 */
+	public abstract double weight( double residual, double scale );
+}
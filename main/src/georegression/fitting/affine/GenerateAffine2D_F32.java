@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.affine;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.AssociatedPair2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+
+import java.util.List;
+
+/**
+ * Computes the 2D affine transform from three associated pairs of points.  Only the first three pairs are
+ * used.  Points are made relative to the first src point, which decouples the 6x6 linear system into two 2x2
+ * systems that share the same matrix and are solved with Cramer's rule.  Samples are rejected if the src points
+ * are nearly collinear.  No memory is declared.
+ *
+ * @author Peter Abeles
+ */
+public class GenerateAffine2D_F32 implements ModelGenerator<Affine2D_F32,AssociatedPair2D_F32> {
+
+	// tolerance used to reject degenerate samples
+	private float tol;
+
+	/**
+	 * @param tol Samples are rejected if the sine squared of the angle at the first src point is less than this
+	 */
+	public GenerateAffine2D_F32( float tol ) {
+		this.tol = tol;
+	}
+
+	public GenerateAffine2D_F32() {
+		this( (float)Math.sqrt(GrlConstants.F_EPS) );
+	}
+
+	@Override
+	public boolean generate( List<AssociatedPair2D_F32> dataSet, Affine2D_F32 output ) {
+		Point2D_F32 s0 = dataSet.get(0).src, s1 = dataSet.get(1).src, s2 = dataSet.get(2).src;
+		Point2D_F32 d0 = dataSet.get(0).dst, d1 = dataSet.get(1).dst, d2 = dataSet.get(2).dst;
+
+		float x1 = s1.x - s0.x, y1 = s1.y - s0.y;
+		float x2 = s2.x - s0.x, y2 = s2.y - s0.y;
+
+		float det = x1*y2 - x2*y1;
+
+		if( det*det <= tol*(x1*x1 + y1*y1)*(x2*x2 + y2*y2) || det == 0 )
+			return false;
+
+		float u1 = d1.x - d0.x, v1 = d1.y - d0.y;
+		float u2 = d2.x - d0.x, v2 = d2.y - d0.y;
+
+		float a11 = (u1*y2 - u2*y1)/det;
+		float a12 = (x1*u2 - x2*u1)/det;
+		float a21 = (v1*y2 - v2*y1)/det;
+		float a22 = (x1*v2 - x2*v1)/det;
+
+		float tx = d0.x - a11*s0.x - a12*s0.y;
+		float ty = d0.y - a21*s0.x - a22*s0.y;
+
+		output.set(a11, a12, a21, a22, tx, ty);
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.FusedLeastSquaresFunction;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Fused computation of {@link CylinderToPointSignedDistance_F64} and {@link CylinderToPointSignedDistanceJacobian_F64}.
+ * The residual and gradient of each point are computed and immediately added to J<sup>T</sup>J and
+ * J<sup>T</sup>r, so the M by 7 Jacobian is never formed.  If concurrent is true then the points are
+ * split into a fixed number of partitions which are processed using fork-join and the partial sums are then added
+ * together.  The partitions only depend on the number of points and their sums are added in order, so the results
+ * are the same every time and don't depend on the number of threads.  Memory usage doesn't depend on the number
+ * of points and after the first call no memory is declared.
+ * </p>
+ *
+ * See {@link CodecCylinder3D_F64} for how the model is parametrized.
+ *
+ * @author Peter Abeles
+ */
+public class CylinderToPointFusedJacobian_F64 implements FusedLeastSquaresFunction {
+	// number of parameters
+	private static final int N = 7;
+	// length of the array which stores the upper triangle of J'J, J'r, and the cost
+	private static final int SUMS_LENGTH = N*N + N + 1;
+	// number of partitions the points are split into when processed concurrently
+	private static final int PARTITIONS = 64;
+
+	// model of the cylinder
+	private Cylinder3D_F64 cylinder = new Cylinder3D_F64();
+
+	// points whose distance from the cylinder is being computed
+	private List<Point3D_F64> points;
+
+	// used to convert double[] into shape parameters
+	private CodecCylinder3D_F64 codec = new CodecCylinder3D_F64();
+
+	// storage for the sums
+	private /**/double sums[] = new /**/double[SUMS_LENGTH];
+	// gradient of a single residual
+	private double gradient[] = new double[N];
+
+	// if true the points are processed in parallel
+	private boolean concurrent;
+
+	// partial sums for each partition of points.  Only declared if concurrent
+	private /**/double partitionSums[][];
+	// gradient storage which isn't being used by a thread
+	private final List<double[]> available = new ArrayList<double[]>();
+	// if the Jacobian is being computed in the partitions
+	private boolean partitionJacobian;
+
+	// processes partitions of points.  Created once so that no memory is declared when processing
+	private IntRangeConsumer accumulatePartitions = new IntRangeConsumer() {
+		@Override
+		public void accept(int start, int end) {
+			double g[] = takeGradient();
+			try {
+				long numPoints = points.size();
+				for( int partition = start; partition < end; partition++ ) {
+					/**/double local[] = partitionSums[partition];
+					for( int i = 0; i < SUMS_LENGTH; i++ ) {
+						local[i] = 0;
+					}
+					int first = (int)(partition*numPoints/PARTITIONS);
+					int last = (int)((partition+1)*numPoints/PARTITIONS);
+					accumulate(first, last, partitionJacobian, local, g);
+				}
+			} finally {
+				returnGradient(g);
+			}
+		}
+	};
+
+	/**
+	 * @param concurrent If true the points are processed in parallel using {@link GrlConcurrency}
+	 */
+	public CylinderToPointFusedJacobian_F64( boolean concurrent ) {
+		this.concurrent = concurrent;
+		if( concurrent )
+			partitionSums = new /**/double[PARTITIONS][SUMS_LENGTH];
+	}
+
+	public CylinderToPointFusedJacobian_F64() {
+		this(false);
+	}
+
+	public void setPoints(List<Point3D_F64> points) {
+		this.points = points;
+	}
+
+	@Override
+	public int getNumOfInputsN() {
+		return N;
+	}
+
+	@Override
+	public /**/double computeCost( /**/double[] param ) {
+		return compute(param, false);
+	}
+
+	@Override
+	public /**/double computeNormalEquations( /**/double[] param, DenseMatrix64F JtJ, DenseMatrix64F Jtr ) {
+		/**/double cost = compute(param, true);
+
+		for( int i = 0; i < N; i++ ) {
+			for( int j = i; j < N; j++ ) {
+				JtJ.data[i*N+j] = JtJ.data[j*N+i] = sums[i*N+j];
+			}
+			Jtr.data[i] = sums[N*N+i];
+		}
+
+		return cost;
+	}
+
+	private /**/double compute( /**/double[] param , boolean jacobian ) {
+		codec.decode(param, cylinder);
+
+		for( int i = 0; i < SUMS_LENGTH; i++ ) {
+			sums[i] = 0;
+		}
+
+		if( concurrent ) {
+			partitionJacobian = jacobian;
+			// partitions processed by each thread so that it has at least DEFAULT_MIN_BLOCK points
+			int pointsPerPartition = points.size()/PARTITIONS;
+			int minPartitions = pointsPerPartition > 0 ? GrlConcurrency.DEFAULT_MIN_BLOCK/pointsPerPartition : PARTITIONS;
+			GrlConcurrency.loopBlocks(0, PARTITIONS, minPartitions > 0 ? minPartitions : 1, accumulatePartitions);
+
+			// add them in the same order every time
+			for( int partition = 0; partition < PARTITIONS; partition++ ) {
+				/**/double local[] = partitionSums[partition];
+				for( int i = 0; i < SUMS_LENGTH; i++ ) {
+					sums[i] += local[i];
+				}
+			}
+		} else {
+			accumulate(0, points.size(), jacobian, sums, gradient);
+		}
+
+		return sums[SUMS_LENGTH-1];
+	}
+
+	/**
+	 * Adds the contribution of points from start to end-1 to the sums
+	 */
+	private void accumulate( int start , int end , boolean jacobian , /**/double sums[] , double g[] ) {
+		Point3D_F64 cp = cylinder.line.p;
+		Vector3D_F64 cs = cylinder.line.slope;
+		double radius = cylinder.radius;
+
+		// just need to compute this once
+		double slopeDot = cs.dot(cs);
+		double slopeNorm = Math.sqrt(slopeDot);
+
+		for( int i = start; i < end; i++ ) {
+			Point3D_F64 p = points.get(i);
+
+			double x = cp.x - p.x;
+			double y = cp.y - p.y;
+			double z = cp.z - p.z;
+
+			double cc = x*x + y*y + z*z;
+
+			double xdots = x*cs.x + y*cs.y + z*cs.z;
+			double b = xdots/slopeNorm;
+
+			double distance = cc-b*b;
+
+			// round off error can make distanceSq go negative when it is very close to zero
+			if( distance < 0 ) {
+				distance = 0;
+				if( jacobian ) {
+					g[0] = g[1] = g[2] = g[3] = g[4] = g[5] = 0;
+				}
+			} else {
+				distance = Math.sqrt(distance);
+
+				if( jacobian ) {
+					g[0] = (x - xdots*cs.x/slopeDot)/distance;
+					g[1] = (y - xdots*cs.y/slopeDot)/distance;
+					g[2] = (z - xdots*cs.z/slopeDot)/distance;
+
+					g[3] = -xdots*( x/slopeDot - (xdots/slopeDot)*(cs.x/slopeDot))/distance;
+					g[4] = -xdots*( y/slopeDot - (xdots/slopeDot)*(cs.y/slopeDot))/distance;
+					g[5] = -xdots*( z/slopeDot - (xdots/slopeDot)*(cs.z/slopeDot))/distance;
+				}
+			}
+			g[6] = -1;
+
+			double r = distance - radius;
+			sums[SUMS_LENGTH-1] += r*r;
+
+			if( jacobian ) {
+				// only the upper triangle is computed
+				for( int row = 0; row < N; row++ ) {
+					double gr = g[row];
+					int index = row*N;
+					for( int col = row; col < N; col++ ) {
+						sums[index+col] += gr*g[col];
+					}
+					sums[N*N+row] += gr*r;
+				}
+			}
+		}
+	}
+
+	private double[] takeGradient() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new double[N];
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnGradient( double g[] ) {
+		synchronized( available ) {
+			available.add(g);
+		}
+	}
+}
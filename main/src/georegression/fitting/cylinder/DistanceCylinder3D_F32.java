@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+
+/**
+ * Absolute distance of 3D points from the surface of a {@link Cylinder3D_F32}.
+ *
+ * @author Peter Abeles
+ */
+public class DistanceCylinder3D_F32 extends DistanceFromModelBulk_F32<Cylinder3D_F32,Point3D_F32> {
+
+	// point on the axis
+	float px, py, pz;
+	// unit vector along the axis
+	float ax, ay, az;
+	float radius;
+
+	@Override
+	public void setModel( Cylinder3D_F32 cylinder ) {
+		px = cylinder.line.p.x;
+		py = cylinder.line.p.y;
+		pz = cylinder.line.p.z;
+
+		float n = cylinder.line.slope.norm();
+		ax = cylinder.line.slope.x/n;
+		ay = cylinder.line.slope.y/n;
+		az = cylinder.line.slope.z/n;
+
+		radius = cylinder.radius;
+	}
+
+	@Override
+	public /**/double computeDistance( Point3D_F32 p ) {
+		float d2 = axisDistance2(p.x, p.y, p.z);
+		float d = (float)Math.sqrt(d2 > 0 ? d2 : 0);
+		return (float)Math.abs(d - radius);
+	}
+
+	/**
+	 * Distance squared of a point from the axis
+	 */
+	float axisDistance2( float x , float y , float z ) {
+		float dx = x - px, dy = y - py, dz = z - pz;
+		float dot = dx*ax + dy*ay + dz*az;
+		return dx*dx + dy*dy + dz*dz - dot*dot;
+	}
+
+	@Override
+	public int getPointLength() {
+		return 3;
+	}
+
+	@Override
+	public void computeDistance( float data[] , int start , int end , float distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			float d2 = axisDistance2(data[index], data[index+1], data[index+2]);
+			float d = (float)Math.sqrt(d2 > 0 ? d2 : 0);
+			distances[i] = (float)Math.abs(d - radius);
+		}
+	}
+
+	/**
+	 * Points are inliers if their distance squared from the axis is inside the shell, which avoids a sqrt
+	 */
+	@Override
+	public int countInliers( float data[] , int start , int end , float threshold ) {
+		float inner = radius - threshold;
+		float lower = inner > 0 ? inner*inner : 0;
+		float outer = radius + threshold;
+		float upper = outer*outer;
+
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			float d2 = axisDistance2(data[index], data[index+1], data[index+2]);
+			if( d2 >= lower && d2 <= upper )
+				count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+
+/**
+ * <p>
+ * Absolute distance of the point in a {@link PlaneNormal3D_F64} from the surface of a {@link Cylinder3D_F64}.
+ * The normal is ignored.  Has the same point type as {@link GenerateCylinder3D_F64} so that the two can be
+ * used together inside of RANSAC.  See {@link DistanceCylinder3D_F64}.
+ * </p>
+ *
+ * <p>
+ * Packed arrays store the point followed by the normal, (x,y,z,nx,ny,nz), for each element.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DistanceCylinderNormal3D_F64 extends DistanceFromModelBulk_F64<Cylinder3D_F64,PlaneNormal3D_F64> {
+
+	DistanceCylinder3D_F64 alg = new DistanceCylinder3D_F64();
+
+	@Override
+	public void setModel( Cylinder3D_F64 cylinder ) {
+		alg.setModel(cylinder);
+	}
+
+	@Override
+	public /**/double computeDistance( PlaneNormal3D_F64 p ) {
+		return alg.computeDistance(p.p);
+	}
+
+	@Override
+	public int getPointLength() {
+		return 6;
+	}
+
+	@Override
+	public void computeDistance( double data[] , int start , int end , double distances[] ) {
+		double radius = alg.radius;
+		for (int i = start; i < end; i++) {
+			int index = i*6;
+			double d2 = alg.axisDistance2(data[index], data[index+1], data[index+2]);
+			double d = Math.sqrt(d2 > 0 ? d2 : 0);
+			distances[i] = Math.abs(d - radius);
+		}
+	}
+
+	@Override
+	public int countInliers( double data[] , int start , int end , double threshold ) {
+		double radius = alg.radius;
+		double inner = radius - threshold;
+		double lower = inner > 0 ? inner*inner : 0;
+		double outer = radius + threshold;
+		double upper = outer*outer;
+
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*6;
+			double d2 = alg.axisDistance2(data[index], data[index+1], data[index+2]);
+			if( d2 >= lower && d2 <= upper )
+				count++;
+		}
+		return count;
+	}
+}
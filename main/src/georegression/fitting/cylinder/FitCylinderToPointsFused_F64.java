@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.LevenbergMarquardtFused;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import org.ddogleg.fitting.modelset.ModelFitter;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Non-linear least-squares fitting of 3D points to a {@link Cylinder3D_F64 cylinder} which never forms the full
+ * Jacobian.  Each iteration J<sup>T</sup>J and J<sup>T</sup>r are computed in a single pass through the points by
+ * {@link CylinderToPointFusedJacobian_F64} and then {@link LevenbergMarquardtFused} solves for the step.  Memory usage
+ * is independent of the number of points and, optionally, the points can be processed in parallel.  Produces
+ * the same solution as {@link FitCylinderToPoints_F64}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitCylinderToPointsFused_F64 implements ModelFitter<Cylinder3D_F64,Point3D_F64> {
+
+	// computes the normal equations
+	private CylinderToPointFusedJacobian_F64 function;
+
+	// The solver
+	private LevenbergMarquardtFused optimizer;
+
+	// need to convert cylinder to double[]
+	private /**/double[] param = new /**/double[7];
+
+	// maximum number of iterations
+	private int maxIterations;
+
+	// tolerances for optimization
+	private /**/double ftol;
+	private /**/double gtol;
+
+	// used to convert double[] into shape parameters
+	private CodecCylinder3D_F64 codec = new CodecCylinder3D_F64();
+
+	/**
+	 * Constructor which provides access to all tuning parameters
+	 *
+	 * @param optimizer Optimization algorithm
+	 * @param maxIterations Maximum number of iterations that the optimizer can perform. Try 100
+	 * @param ftol Convergence tolerance. See {@link LevenbergMarquardtFused}.
+	 * @param gtol Convergence tolerance. See {@link LevenbergMarquardtFused}.
+	 * @param concurrent If true the points will be processed in parallel
+	 */
+	public FitCylinderToPointsFused_F64(LevenbergMarquardtFused optimizer,
+								 int maxIterations, /**/double ftol, /**/double gtol,
+								 boolean concurrent ) {
+		this.optimizer = optimizer;
+		this.maxIterations = maxIterations;
+		this.ftol = ftol;
+		this.gtol = gtol;
+		this.function = new CylinderToPointFusedJacobian_F64(concurrent);
+	}
+
+	/**
+	 * Simplified constructor.  Only process access to the maximum number of iterations.
+	 * @param maxIterations Maximum number of iterations.  Try 100
+	 * @param concurrent If true the points will be processed in parallel
+	 */
+	public FitCylinderToPointsFused_F64( int maxIterations , boolean concurrent ) {
+		this(new LevenbergMarquardtFused(1e-3),maxIterations,1e-12,0,concurrent);
+	}
+
+	@Override
+	public boolean fitModel(List<Point3D_F64> dataSet, Cylinder3D_F64 initial, Cylinder3D_F64 found) {
+
+		codec.encode(initial,param);
+
+		function.setPoints(dataSet);
+
+		optimizer.setFunction(function);
+		optimizer.initialize(param,ftol,gtol);
+
+		for( int i = 0; i < maxIterations; i++ ) {
+			if( optimizer.iterate() )
+				break;
+		}
+
+		codec.decode(optimizer.getParameters(),found);
+
+		return true;
+	}
+}
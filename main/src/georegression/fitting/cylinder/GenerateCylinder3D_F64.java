@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes a cylinder from two points and their surface normals, which are specified using
+ * {@link PlaneNormal3D_F64}.  Only the first two are used.  Both normals are perpendicular to the cylinder's
+ * axis, so its direction is n<sub>0</sub> &times; n<sub>1</sub>.  Each normal defines a line which intersects
+ * the axis and the point on the axis is found where the two lines are closest.  The radius is the average
+ * distance of the two points from the axis.  Samples are rejected if the normals are nearly parallel.
+ * No memory is declared.
+ * </p>
+ *
+ * <p>
+ * Schnabel, R., Wahl, R., Klein, R. "Efficient RANSAC for Point-Cloud Shape Detection." Computer Graphics
+ * Forum 2007
+ * </p>
+ *
+ * <p>
+ * Normals for a point cloud can be found using {@link georegression.fitting.plane.EstimateNormalsPointCloud_F64}.
+ * Inside of RANSAC, hypotheses can be scored with {@link DistanceCylinderNormal3D_F64}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GenerateCylinder3D_F64 implements ModelGenerator<Cylinder3D_F64,PlaneNormal3D_F64> {
+
+	// tolerance used to reject degenerate samples
+	private double tol;
+
+	/**
+	 * @param tol Samples are rejected if the sine squared of the angle between the normals is less than this
+	 */
+	public GenerateCylinder3D_F64( double tol ) {
+		this.tol = tol;
+	}
+
+	public GenerateCylinder3D_F64() {
+		this( Math.sqrt(GrlConstants.EPS) );
+	}
+
+	@Override
+	public boolean generate( List<PlaneNormal3D_F64> dataSet, Cylinder3D_F64 output ) {
+		Point3D_F64 p0 = dataSet.get(0).p;
+		Vector3D_F64 n0 = dataSet.get(0).n;
+		Point3D_F64 p1 = dataSet.get(1).p;
+		Vector3D_F64 n1 = dataSet.get(1).n;
+
+		// direction of the axis
+		double ax = n0.y*n1.z - n0.z*n1.y;
+		double ay = n0.z*n1.x - n0.x*n1.z;
+		double az = n0.x*n1.y - n0.y*n1.x;
+
+		double aa = ax*ax + ay*ay + az*az;
+		double nn0 = n0.normSq();
+		double nn1 = n1.normSq();
+
+		if( aa <= tol*nn0*nn1 || aa == 0 )
+			return false;
+
+		// closest point between the lines p0 + t*n0 and p1 + s*n1
+		double wx = p0.x - p1.x, wy = p0.y - p1.y, wz = p0.z - p1.z;
+		double b = n0.dot(n1);
+		double d = n0.x*wx + n0.y*wy + n0.z*wz;
+		double e = n1.x*wx + n1.y*wy + n1.z*wz;
+		double denom = nn0*nn1 - b*b;
+
+		double t = (b*e - nn1*d)/denom;
+		double s = (nn0*e - b*d)/denom;
+
+		double cx = 0.5*(p0.x + t*n0.x + p1.x + s*n1.x);
+		double cy = 0.5*(p0.y + t*n0.y + p1.y + s*n1.y);
+		double cz = 0.5*(p0.z + t*n0.z + p1.z + s*n1.z);
+
+		double norm = Math.sqrt(aa);
+		ax /= norm; ay /= norm; az /= norm;
+
+		double r = 0.5*(distanceFromAxis(p0, cx, cy, cz, ax, ay, az) + distanceFromAxis(p1, cx, cy, cz, ax, ay, az));
+
+		output.set(cx, cy, cz, ax, ay, az, r);
+		return true;
+	}
+
+	private static double distanceFromAxis( Point3D_F64 p , double cx , double cy , double cz ,
+											double ax , double ay , double az ) {
+		double dx = p.x - cx, dy = p.y - cy, dz = p.z - cz;
+		double dot = dx*ax + dy*ay + dz*az;
+		dx -= dot*ax; dy -= dot*ay; dz -= dot*az;
+		return Math.sqrt(dx*dx + dy*dy + dz*dz);
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 2;
+	}
+}
@@ -18,13 +18,15 @@
 
 package georegression.fitting.ellipse;
 
+import georegression.misc.GrlFastMath;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.shapes.EllipseRotated_F32;
 
 /**
  * Finds the closest point on an ellipse to a point.  Point is first put into the ellipse's
  * coordinate system.  Then newton's method is used to find the solution.  The following parameterization is used:
- * (x,y) = a*cos(t) + b*sin(t).  For the center a point is arbitrarily selected.
+ * (x,y) = a*cos(t) + b*sin(t).  For the center a point is arbitrarily selected.  Trigonometric functions can
+ * be approximated with {@link GrlFastMath} by calling {@link #setFastMath(boolean)}.
  *
  * @author Peter Abeles
  */
@@ -45,6 +47,11 @@ public class ClosestPointEllipseAngle_F32 {
 	// optimal value of parameterization
 	float theta;
 
+	// if true then GrlFastMath is used instead of Math
+	boolean fastMath;
+	// storage for sin and cos
+	float sincos[] = new float[2];
+
 	/**
 	 * Specifies convergence criteria
 	 *
@@ -62,8 +69,21 @@ public class ClosestPointEllipseAngle_F32 {
 	 */
 	public void setEllipse( EllipseRotated_F32 ellipse ) {
 		this.ellipse = ellipse;
-		ce = (float)Math.cos(ellipse.phi);
-		se = (float)Math.sin(ellipse.phi);
+		computeRotation();
+	}
+
+	/**
+	 * Caches the sine and cosine of the ellipse's orientation
+	 */
+	private void computeRotation() {
+		if( fastMath ) {
+			GrlFastMath.sincos(ellipse.phi, sincos);
+			se = sincos[0];
+			ce = sincos[1];
+		} else {
+			ce = (float)Math.cos(ellipse.phi);
+			se = (float)Math.sin(ellipse.phi);
+		}
 	}
 
 	/**
@@ -80,15 +100,25 @@ public class ClosestPointEllipseAngle_F32 {
 		float y = -se*xc + ce*yc;
 
 		// initial guess for the angle
-		theta = (float)Math.atan2( ellipse.a*y , ellipse.b*x);
+		if( fastMath )
+			theta = GrlFastMath.atan2(ellipse.a*y, ellipse.b*x);
+		else
+			theta = (float)Math.atan2( ellipse.a*y , ellipse.b*x);
 
 		float a2_m_b2 = ellipse.a*ellipse.a - ellipse.b*ellipse.b;
 
 		// use Newton's Method to find the solution
 		int i = 0;
 		for(; i < maxIterations; i++ ) {
-			float c = (float)Math.cos(theta);
-			float s = (float)Math.sin(theta);
+			float c,s;
+			if( fastMath ) {
+				GrlFastMath.sincos(theta, sincos);
+				s = sincos[0];
+				c = sincos[1];
+			} else {
+				c = (float)Math.cos(theta);
+				s = (float)Math.sin(theta);
+			}
 
 			float f = a2_m_b2*c*s - x*ellipse.a*s + y*ellipse.b*c;
 			if( (float)Math.abs(f) < tol )
@@ -100,8 +130,14 @@ public class ClosestPointEllipseAngle_F32 {
 		}
 
 		// compute solution in ellipse coordinate frame
-		x = ellipse.a*(float)Math.cos(theta);
-		y = ellipse.b*(float)Math.sin(theta);
+		if( fastMath ) {
+			GrlFastMath.sincos(theta, sincos);
+			x = ellipse.a*sincos[1];
+			y = ellipse.b*sincos[0];
+		} else {
+			x = ellipse.a*(float)Math.cos(theta);
+			y = ellipse.b*(float)Math.sin(theta);
+		}
 
 		// put back into original coordinate system
 		closest.x = ce*x - se*y + ellipse.center.x;
@@ -115,4 +151,17 @@ public class ClosestPointEllipseAngle_F32 {
 	public float getTheta() {
 		return theta;
 	}
+
+	public boolean isFastMath() {
+		return fastMath;
+	}
+
+	/**
+	 * If true then trigonometric functions are approximated using {@link GrlFastMath}.
+	 */
+	public void setFastMath(boolean fastMath) {
+		this.fastMath = fastMath;
+		if( ellipse != null )
+			computeRotation();
+	}
 }
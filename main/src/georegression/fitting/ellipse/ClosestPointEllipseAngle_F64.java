@@ -18,13 +18,15 @@
 
 package georegression.fitting.ellipse;
 
+import georegression.misc.GrlFastMath;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.shapes.EllipseRotated_F64;
 
 /**
  * Finds the closest point on an ellipse to a point.  Point is first put into the ellipse's
  * coordinate system.  Then newton's method is used to find the solution.  The following parameterization is used:
- * (x,y) = a*cos(t) + b*sin(t).  For the center a point is arbitrarily selected.
+ * (x,y) = a*cos(t) + b*sin(t).  For the center a point is arbitrarily selected.  Trigonometric functions can
+ * be approximated with {@link GrlFastMath} by calling {@link #setFastMath(boolean)}.
  *
  * @author Peter Abeles
  */
@@ -45,6 +47,11 @@ public class ClosestPointEllipseAngle_F64 {
 	// optimal value of parameterization
 	double theta;
 
+	// if true then GrlFastMath is used instead of Math
+	boolean fastMath;
+	// storage for sin and cos
+	double sincos[] = new double[2];
+
 	/**
 	 * Specifies convergence criteria
 	 *
@@ -62,8 +69,21 @@ public class ClosestPointEllipseAngle_F64 {
 	 */
 	public void setEllipse( EllipseRotated_F64 ellipse ) {
 		this.ellipse = ellipse;
-		ce = Math.cos(ellipse.phi);
-		se = Math.sin(ellipse.phi);
+		computeRotation();
+	}
+
+	/**
+	 * Caches the sine and cosine of the ellipse's orientation
+	 */
+	private void computeRotation() {
+		if( fastMath ) {
+			GrlFastMath.sincos(ellipse.phi, sincos);
+			se = sincos[0];
+			ce = sincos[1];
+		} else {
+			ce = Math.cos(ellipse.phi);
+			se = Math.sin(ellipse.phi);
+		}
 	}
 
 	/**
@@ -80,15 +100,25 @@ public class ClosestPointEllipseAngle_F64 {
 		double y = -se*xc + ce*yc;
 
 		// initial guess for the angle
-		theta = Math.atan2( ellipse.a*y , ellipse.b*x);
+		if( fastMath )
+			theta = GrlFastMath.atan2(ellipse.a*y, ellipse.b*x);
+		else
+			theta = Math.atan2( ellipse.a*y , ellipse.b*x);
 
 		double a2_m_b2 = ellipse.a*ellipse.a - ellipse.b*ellipse.b;
 
 		// use Newton's Method to find the solution
 		int i = 0;
 		for(; i < maxIterations; i++ ) {
-			double c = Math.cos(theta);
-			double s = Math.sin(theta);
+			double c,s;
+			if( fastMath ) {
+				GrlFastMath.sincos(theta, sincos);
+				s = sincos[0];
+				c = sincos[1];
+			} else {
+				c = Math.cos(theta);
+				s = Math.sin(theta);
+			}
 
 			double f = a2_m_b2*c*s - x*ellipse.a*s + y*ellipse.b*c;
 			if( Math.abs(f) < tol )
@@ -100,8 +130,14 @@ public class ClosestPointEllipseAngle_F64 {
 		}
 
 		// compute solution in ellipse coordinate frame
-		x = ellipse.a*(double)Math.cos(theta);
-		y = ellipse.b*(double)Math.sin(theta);
+		if( fastMath ) {
+			GrlFastMath.sincos(theta, sincos);
+			x = ellipse.a*sincos[1];
+			y = ellipse.b*sincos[0];
+		} else {
+			x = ellipse.a*(double)Math.cos(theta);
+			y = ellipse.b*(double)Math.sin(theta);
+		}
 
 		// put back into original coordinate system
 		closest.x = ce*x - se*y + ellipse.center.x;
@@ -115,4 +151,17 @@ public class ClosestPointEllipseAngle_F64 {
 	public double getTheta() {
 		return theta;
 	}
+
+	public boolean isFastMath() {
+		return fastMath;
+	}
+
+	/**
+	 * If true then trigonometric functions are approximated using {@link GrlFastMath}.
+	 */
+	public void setFastMath(boolean fastMath) {
+		this.fastMath = fastMath;
+		if( ellipse != null )
+			computeRotation();
+	}
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.homography;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.point.AssociatedPair2D_F64;
+
+/**
+ * Euclidean distance between the dst point and the src point after it has been transformed by a
+ * {@link Homography2D_F64}.  Packed points are stored as (srcX,srcY,dstX,dstY).  If a src point is
+ * transformed to infinity then its distance is infinite.
+ *
+ * @author Peter Abeles
+ */
+public class DistanceHomography2D_F64 extends DistanceFromModelBulk_F64<Homography2D_F64,AssociatedPair2D_F64> {
+
+	double a11, a12, a13, a21, a22, a23, a31, a32, a33;
+
+	@Override
+	public void setModel( Homography2D_F64 H ) {
+		a11 = H.a11; a12 = H.a12; a13 = H.a13;
+		a21 = H.a21; a22 = H.a22; a23 = H.a23;
+		a31 = H.a31; a32 = H.a32; a33 = H.a33;
+	}
+
+	@Override
+	public /**/double computeDistance( AssociatedPair2D_F64 p ) {
+		return Math.sqrt(distance2(p.src.x, p.src.y, p.dst.x, p.dst.y));
+	}
+
+	private double distance2( double x , double y , double u , double v ) {
+		double z = a31*x + a32*y + a33;
+		if( z == 0 )
+			return Double.POSITIVE_INFINITY;
+		double dx = (a11*x + a12*y + a13)/z - u;
+		double dy = (a21*x + a22*y + a23)/z - v;
+		return dx*dx + dy*dy;
+	}
+
+	@Override
+	public int getPointLength() {
+		return 4;
+	}
+
+	@Override
+	public void computeDistance( double data[] , int start , int end , double distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*4;
+			double d2 = distance2(data[index], data[index+1], data[index+2], data[index+3]);
+			distances[i] = Math.sqrt(d2);
+		}
+	}
+
+	@Override
+	public int countInliers( double data[] , int start , int end , double threshold ) {
+		double threshold2 = threshold*threshold;
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*4;
+			if( distance2(data[index], data[index+1], data[index+2], data[index+3]) <= threshold2 )
+				count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.homography;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.homography.Homography2D_F32;
+import georegression.struct.point.AssociatedPair2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.factory.LinearSolverFactory;
+import org.ejml.interfaces.linsol.LinearSolver;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes a 2D homography from four associated pairs of points.  Only the first four pairs are used.  To
+ * improve numerical stability both sets of points are first translated so their mean is at the origin and
+ * scaled so that their RMS distance from the origin is one.  With a33 fixed at one, the remaining eight
+ * unknowns are found by solving an 8x8 linear system.
+ * </p>
+ *
+ * <p>
+ * Samples are rejected early if any three of the src or dst points are nearly collinear, since no unique
+ * homography exists.  Memory is only declared in the constructor.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GenerateHomography2D_F32 implements ModelGenerator<Homography2D_F32,AssociatedPair2D_F32> {
+
+	// tolerance used to reject degenerate samples
+	private float tol;
+
+	private LinearSolver<DenseMatrix64F> solver = LinearSolverFactory.linear(8);
+	private DenseMatrix64F A = new DenseMatrix64F(8,8);
+	private DenseMatrix64F b = new DenseMatrix64F(8,1);
+	private DenseMatrix64F x = new DenseMatrix64F(8,1);
+
+	// normalization of src and dst points.  p' = (p - mean)*scale
+	private float srcX, srcY, srcScale;
+	private float dstX, dstY, dstScale;
+
+	/**
+	 * @param tol Samples are rejected if the sine squared of the angle in a triangle formed by any three points
+	 *            is less than this
+	 */
+	public GenerateHomography2D_F32( float tol ) {
+		this.tol = tol;
+	}
+
+	public GenerateHomography2D_F32() {
+		this( (float)Math.sqrt(GrlConstants.F_EPS) );
+	}
+
+	@Override
+	public boolean generate( List<AssociatedPair2D_F32> dataSet, Homography2D_F32 output ) {
+		AssociatedPair2D_F32 p0 = dataSet.get(0), p1 = dataSet.get(1);
+		AssociatedPair2D_F32 p2 = dataSet.get(2), p3 = dataSet.get(3);
+
+		if( isDegenerate(p0.src, p1.src, p2.src, p3.src) || isDegenerate(p0.dst, p1.dst, p2.dst, p3.dst) )
+			return false;
+
+		computeNormalization(p0, p1, p2, p3);
+
+		addRows(0, p0);
+		addRows(2, p1);
+		addRows(4, p2);
+		addRows(6, p3);
+
+		if( !solver.setA(A) )
+			return false;
+		solver.solve(b, x);
+
+		undoNormalization(output);
+		return true;
+	}
+
+	/**
+	 * Adds the two equations from a pair to the linear system
+	 */
+	private void addRows( int row , AssociatedPair2D_F32 p ) {
+		float x = (p.src.x - srcX)*srcScale;
+		float y = (p.src.y - srcY)*srcScale;
+		float u = (p.dst.x - dstX)*dstScale;
+		float v = (p.dst.y - dstY)*dstScale;
+
+		/**/double a[] = A.data;
+		int index = row*8;
+		a[index++] = x; a[index++] = y; a[index++] = 1;
+		a[index++] = 0; a[index++] = 0; a[index++] = 0;
+		a[index++] = -x*u; a[index++] = -y*u;
+
+		a[index++] = 0; a[index++] = 0; a[index++] = 0;
+		a[index++] = x; a[index++] = y; a[index++] = 1;
+		a[index++] = -x*v; a[index] = -y*v;
+
+		b.data[row] = u;
+		b.data[row+1] = v;
+	}
+
+	private void computeNormalization( AssociatedPair2D_F32 p0 , AssociatedPair2D_F32 p1 ,
+									   AssociatedPair2D_F32 p2 , AssociatedPair2D_F32 p3 ) {
+		srcX = (p0.src.x + p1.src.x + p2.src.x + p3.src.x)/4;
+		srcY = (p0.src.y + p1.src.y + p2.src.y + p3.src.y)/4;
+		dstX = (p0.dst.x + p1.dst.x + p2.dst.x + p3.dst.x)/4;
+		dstY = (p0.dst.y + p1.dst.y + p2.dst.y + p3.dst.y)/4;
+
+		float srcD = distance2(p0.src, srcX, srcY) + distance2(p1.src, srcX, srcY) +
+				distance2(p2.src, srcX, srcY) + distance2(p3.src, srcX, srcY);
+		float dstD = distance2(p0.dst, dstX, dstY) + distance2(p1.dst, dstX, dstY) +
+				distance2(p2.dst, dstX, dstY) + distance2(p3.dst, dstX, dstY);
+
+		float srcRms = (float)Math.sqrt(srcD/4);
+		float dstRms = (float)Math.sqrt(dstD/4);
+		srcScale = 1/srcRms;
+		dstScale = 1/dstRms;
+	}
+
+	/**
+	 * H = inv(N_dst)*H'*N_src
+	 */
+	private void undoNormalization( Homography2D_F32 H ) {
+		float h11 = (float)x.data[0], h12 = (float)x.data[1], h13 = (float)x.data[2];
+		float h21 = (float)x.data[3], h22 = (float)x.data[4], h23 = (float)x.data[5];
+		float h31 = (float)x.data[6], h32 = (float)x.data[7];
+
+		// M = H'*N_src
+		float s = srcScale;
+		float m11 = h11*s, m12 = h12*s, m13 = h13 - s*(h11*srcX + h12*srcY);
+		float m21 = h21*s, m22 = h22*s, m23 = h23 - s*(h21*srcX + h22*srcY);
+		float m31 = h31*s, m32 = h32*s, m33 = 1 - s*(h31*srcX + h32*srcY);
+
+		float d = 1/dstScale;
+		H.a11 = m11*d + dstX*m31; H.a12 = m12*d + dstX*m32; H.a13 = m13*d + dstX*m33;
+		H.a21 = m21*d + dstY*m31; H.a22 = m22*d + dstY*m32; H.a23 = m23*d + dstY*m33;
+		H.a31 = m31; H.a32 = m32; H.a33 = m33;
+	}
+
+	private static float distance2( Point2D_F32 p , float x , float y ) {
+		float dx = p.x - x, dy = p.y - y;
+		return dx*dx + dy*dy;
+	}
+
+	/**
+	 * Returns true if any three points are nearly collinear
+	 */
+	private boolean isDegenerate( Point2D_F32 a , Point2D_F32 b , Point2D_F32 c , Point2D_F32 d ) {
+		return isCollinear(a, b, c) || isCollinear(a, b, d) || isCollinear(a, c, d) || isCollinear(b, c, d);
+	}
+
+	private boolean isCollinear( Point2D_F32 p0 , Point2D_F32 p1 , Point2D_F32 p2 ) {
+		float x1 = p1.x - p0.x, y1 = p1.y - p0.y;
+		float x2 = p2.x - p0.x, y2 = p2.y - p0.y;
+		float cross = x1*y2 - x2*y1;
+		return cross*cross <= tol*(x1*x1 + y1*y1)*(x2*x2 + y2*y2) || cross == 0;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 4;
+	}
+}
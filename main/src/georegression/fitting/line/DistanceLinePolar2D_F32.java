@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.line;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.struct.line.LinePolar2D_F32;
+import georegression.struct.point.Point2D_F32;
+
+/**
+ * Absolute distance of 2D points from a {@link LinePolar2D_F32}.  The sine and cosine of the line's angle are
+ * computed once when the model is set.
+ *
+ * @author Peter Abeles
+ */
+public class DistanceLinePolar2D_F32 extends DistanceFromModelBulk_F32<LinePolar2D_F32,Point2D_F32> {
+
+	float c, s, distance;
+
+	@Override
+	public void setModel( LinePolar2D_F32 line ) {
+		c = (float)Math.cos(line.angle);
+		s = (float)Math.sin(line.angle);
+		distance = line.distance;
+	}
+
+	@Override
+	public /**/double computeDistance( Point2D_F32 p ) {
+		return (float)Math.abs(c*p.x + s*p.y - distance);
+	}
+
+	@Override
+	public int getPointLength() {
+		return 2;
+	}
+
+	@Override
+	public void computeDistance( float data[] , int start , int end , float distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*2;
+			distances[i] = (float)Math.abs(c*data[index] + s*data[index+1] - distance);
+		}
+	}
+
+	@Override
+	public int countInliers( float data[] , int start , int end , float threshold ) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*2;
+			float d = c*data[index] + s*data[index+1] - distance;
+			if( d <= threshold && d >= -threshold )
+				count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.line;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.struct.line.LinePolar2D_F64;
+import georegression.struct.point.Point2D_F64;
+
+/**
+ * Absolute distance of 2D points from a {@link LinePolar2D_F64}.  The sine and cosine of the line's angle are
+ * computed once when the model is set.
+ *
+ * @author Peter Abeles
+ */
+public class DistanceLinePolar2D_F64 extends DistanceFromModelBulk_F64<LinePolar2D_F64,Point2D_F64> {
+
+	double c, s, distance;
+
+	@Override
+	public void setModel( LinePolar2D_F64 line ) {
+		c = Math.cos(line.angle);
+		s = Math.sin(line.angle);
+		distance = line.distance;
+	}
+
+	@Override
+	public /**/double computeDistance( Point2D_F64 p ) {
+		return Math.abs(c*p.x + s*p.y - distance);
+	}
+
+	@Override
+	public int getPointLength() {
+		return 2;
+	}
+
+	@Override
+	public void computeDistance( double data[] , int start , int end , double distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*2;
+			distances[i] = Math.abs(c*data[index] + s*data[index+1] - distance);
+		}
+	}
+
+	@Override
+	public int countInliers( double data[] , int start , int end , double threshold ) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*2;
+			double d = c*data[index] + s*data[index+1] - distance;
+			if( d <= threshold && d >= -threshold )
+				count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point3D_F32;
+
+/**
+ * Absolute distance of 3D points from a {@link PlaneGeneral3D_F32}.  The plane does not need to be normalized.
+ *
+ * @author Peter Abeles
+ */
+public class DistancePlaneGeneral3D_F32 extends DistanceFromModelBulk_F32<PlaneGeneral3D_F32,Point3D_F32> {
+
+	// plane normalized so that (A,B,C) has a length of one
+	float A, B, C, D;
+
+	@Override
+	public void setModel( PlaneGeneral3D_F32 plane ) {
+		float n = (float)Math.sqrt(plane.A*plane.A + plane.B*plane.B + plane.C*plane.C);
+		A = plane.A/n;
+		B = plane.B/n;
+		C = plane.C/n;
+		D = plane.D/n;
+	}
+
+	@Override
+	public /**/double computeDistance( Point3D_F32 p ) {
+		return (float)Math.abs(A*p.x + B*p.y + C*p.z - D);
+	}
+
+	@Override
+	public int getPointLength() {
+		return 3;
+	}
+
+	@Override
+	public void computeDistance( float data[] , int start , int end , float distances[] ) {
+		float A = this.A, B = this.B, C = this.C, D = this.D;
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			distances[i] = (float)Math.abs(A*data[index] + B*data[index+1] + C*data[index+2] - D);
+		}
+	}
+
+	@Override
+	public int countInliers( float data[] , int start , int end , float threshold ) {
+		float A = this.A, B = this.B, C = this.C, D = this.D;
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			float d = A*data[index] + B*data[index+1] + C*data[index+2] - D;
+			if( d <= threshold && d >= -threshold )
+				count++;
+		}
+		return count;
+	}
+}
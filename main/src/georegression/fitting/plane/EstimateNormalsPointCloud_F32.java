@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.geometry.EigenSymmetric3x3_F32;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.index.KdTree3D_F32;
+import georegression.struct.index.KdTreeSearch3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.point.Vector3D_F32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Estimates the surface normal and curvature at every point in a cloud.  For each point its local
+ * neighborhood is found using a {@link KdTree3D_F32}, either the k-nearest neighbors or all neighbors inside a
+ * radius.  The normal is the eigenvector of the neighborhood's covariance matrix with the smallest eigenvalue,
+ * just like {@link FitPlane3D_F32#svd}, but the 3x3 covariance is accumulated directly from the packed cloud
+ * in a single pass.  Curvature is the surface variation, &lambda;<sub>min</sub>/(&lambda;<sub>0</sub>+
+ * &lambda;<sub>1</sub>+&lambda;<sub>2</sub>), which is 0 for a plane and at most 1/3.
+ * </p>
+ *
+ * <p>
+ * The sign of a normal is ambiguous.  Normals are flipped so that they point towards the viewpoint, which is
+ * the origin by default.  If a point has fewer than three neighbors its normal and curvature are set to NaN.
+ * </p>
+ *
+ * <p>
+ * If concurrent is true points are processed in blocks using the thread pool in {@link GrlConcurrency}.  Each
+ * thread has its own workspace, which is saved and reused in later calls.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EstimateNormalsPointCloud_F32 {
+
+	// number of neighbors in k-nearest mode. If <= 0 then all neighbors inside of the radius are used
+	private int numNeighbors;
+	// maximum distance a neighbor can be from the point
+	private float maxDistance;
+
+	// location the normals are oriented towards
+	private float viewX, viewY, viewZ;
+
+	private boolean concurrent;
+	private int minConcurrentBlock = 1000;
+
+	// nearest neighbor search of the cloud
+	private KdTree3D_F32 tree;
+
+	// the cloud and output for the current call
+	private PointCloud3D_F32 cloud;
+	private float normals[];
+	private float curvature[];
+
+	// workspace for each block of points
+	private final List<Block> available = new ArrayList<Block>();
+
+	private IntRangeConsumer processBlock = new IntRangeConsumer() {
+		@Override
+		public void accept(int start, int end) {
+			Block block = takeBlock();
+			try {
+				process(block, start, end);
+			} finally {
+				returnBlock(block);
+			}
+		}
+	};
+
+	/**
+	 * Configures normal estimation to use the k-nearest neighbors.
+	 *
+	 * @param numNeighbors Number of neighbors, including the point itself, in each neighborhood.
+	 * @param maxDistance Neighbors farther than this are ignored.  Can be Float.MAX_VALUE.
+	 * @param concurrent If true the work will be split across multiple threads
+	 */
+	public EstimateNormalsPointCloud_F32( int numNeighbors , float maxDistance , boolean concurrent ) {
+		this.concurrent = concurrent;
+		this.tree = new KdTree3D_F32(8,concurrent);
+		setNeighborsNearest(numNeighbors, maxDistance);
+	}
+
+	public EstimateNormalsPointCloud_F32( int numNeighbors ) {
+		this(numNeighbors, Float.MAX_VALUE, false);
+	}
+
+	/**
+	 * Neighborhoods will be the k-nearest neighbors
+	 *
+	 * @param numNeighbors Number of neighbors, including the point itself, in each neighborhood. Must be &ge; 3
+	 * @param maxDistance Neighbors farther than this are ignored.  Can be Float.MAX_VALUE.
+	 */
+	public void setNeighborsNearest( int numNeighbors , float maxDistance ) {
+		if( numNeighbors < 3 )
+			throw new IllegalArgumentException("At least three neighbors are required");
+		this.numNeighbors = numNeighbors;
+		this.maxDistance = maxDistance;
+	}
+
+	/**
+	 * Neighborhoods will be all the points inside a sphere
+	 *
+	 * @param radius Radius of the sphere
+	 */
+	public void setNeighborsRadius( float radius ) {
+		this.numNeighbors = 0;
+		this.maxDistance = radius;
+	}
+
+	/**
+	 * Specifies the location which normals are oriented towards
+	 */
+	public void setViewpoint( float x , float y , float z ) {
+		this.viewX = x;
+		this.viewY = y;
+		this.viewZ = z;
+	}
+
+	/**
+	 * Estimates the normal of each point in the cloud.
+	 *
+	 * @param cloud (Input) The point cloud. Not modified.
+	 * @param normals (Output) Unit normal of each point, interleaved like the cloud.  Must have a length of
+	 *                at least 3*cloud.size.
+	 * @param curvature (Output) (Optional) Surface variation of each point.  Can be null.
+	 */
+	public void process( PointCloud3D_F32 cloud , float normals[] , float curvature[] ) {
+		if( normals.length < cloud.size*3 )
+			throw new IllegalArgumentException("normals is too small");
+		if( curvature != null && curvature.length < cloud.size )
+			throw new IllegalArgumentException("curvature is too small");
+
+		this.cloud = cloud;
+		this.normals = normals;
+		this.curvature = curvature;
+
+		tree.setConcurrent(concurrent);
+		tree.build(cloud);
+
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, cloud.size, minConcurrentBlock, processBlock);
+		else
+			processBlock.accept(0, cloud.size);
+
+		this.cloud = null;
+		this.normals = null;
+		this.curvature = null;
+	}
+
+	/**
+	 * Same as {@link #process(PointCloud3D_F32, float[], float[])} but normals are written into a cloud, which
+	 * can be passed directly to {@link georegression.fitting.se.IterativeClosestPoint_F32}.
+	 *
+	 * @param cloud (Input) The point cloud. Not modified.
+	 * @param normals (Output) Unit normal of each point. Resized. Modified.
+	 * @param curvature (Output) (Optional) Surface variation of each point.  Can be null.
+	 */
+	public void process( PointCloud3D_F32 cloud , PointCloud3D_F32 normals , float curvature[] ) {
+		normals.resize(cloud.size);
+		process(cloud, normals.data, curvature);
+	}
+
+	private void process( Block block , int start , int end ) {
+		KdTreeSearch3D_F32 search = block.search;
+		EigenSymmetric3x3_F32 eigen = block.eigen;
+		Vector3D_F32 n = block.normal;
+
+		float points[] = cloud.data;
+
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			float x = points[index], y = points[index+1], z = points[index+2];
+
+			int N;
+			if( numNeighbors > 0 )
+				N = search.findNearest(x, y, z, maxDistance, numNeighbors);
+			else
+				N = search.findRadius(x, y, z, maxDistance);
+
+			if( N < 3 || !computeNormal(search, N, x, y, z, eigen, n) ) {
+				normals[index] = normals[index+1] = normals[index+2] = Float.NaN;
+				if( curvature != null )
+					curvature[i] = Float.NaN;
+				continue;
+			}
+
+			// orient towards the viewpoint
+			if( n.x*(viewX-x) + n.y*(viewY-y) + n.z*(viewZ-z) < 0 ) {
+				n.x = -n.x; n.y = -n.y; n.z = -n.z;
+			}
+
+			normals[index  ] = n.x;
+			normals[index+1] = n.y;
+			normals[index+2] = n.z;
+
+			if( curvature != null ) {
+				float sum = eigen.getEigenvalue(0) + eigen.getEigenvalue(1) + eigen.getEigenvalue(2);
+				curvature[i] = sum > 0 ? eigen.getEigenvalue(2)/sum : 0;
+			}
+		}
+	}
+
+	/**
+	 * Computes the covariance of the neighborhood and finds the eigenvector with the smallest eigenvalue.
+	 * Sums are computed relative to the query point to avoid catastrophic cancellation.
+	 */
+	private boolean computeNormal( KdTreeSearch3D_F32 search , int N ,
+								   float x , float y , float z ,
+								   EigenSymmetric3x3_F32 eigen , Vector3D_F32 normal ) {
+		float points[] = cloud.data;
+
+		float sx = 0, sy = 0, sz = 0;
+		float sxx = 0, sxy = 0, sxz = 0;
+		float syy = 0, syz = 0, szz = 0;
+
+		for (int j = 0; j < N; j++) {
+			int index = search.getIndex(j)*3;
+			float dx = points[index  ] - x;
+			float dy = points[index+1] - y;
+			float dz = points[index+2] - z;
+
+			sx += dx; sy += dy; sz += dz;
+			sxx += dx*dx; sxy += dx*dy; sxz += dx*dz;
+			syy += dy*dy; syz += dy*dz; szz += dz*dz;
+		}
+
+		float mx = sx/N, my = sy/N, mz = sz/N;
+
+		if( !eigen.process(
+				sxx/N - mx*mx, sxy/N - mx*my, sxz/N - mx*mz,
+				syy/N - my*my, syz/N - my*mz,
+				szz/N - mz*mz) )
+			return false;
+
+		eigen.getEigenvector(2, normal);
+		return true;
+	}
+
+	private Block takeBlock() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Block();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnBlock( Block block ) {
+		synchronized( available ) {
+			available.add(block);
+		}
+	}
+
+	/**
+	 * Workspace for a single thread
+	 */
+	private class Block {
+		KdTreeSearch3D_F32 search = new KdTreeSearch3D_F32(tree);
+		EigenSymmetric3x3_F32 eigen = new EigenSymmetric3x3_F32();
+		Vector3D_F32 normal = new Vector3D_F32();
+	}
+
+	public int getNumNeighbors() {
+		return numNeighbors;
+	}
+
+	public float getMaxDistance() {
+		return maxDistance;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Minimum number of points processed by a single thread
+	 */
+	public void setMinConcurrentBlock(int minConcurrentBlock) {
+		this.minConcurrentBlock = minConcurrentBlock;
+	}
+}
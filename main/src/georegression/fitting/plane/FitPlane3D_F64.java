@@ -18,11 +18,9 @@
 
 package georegression.fitting.plane;
 
+import georegression.geometry.EigenSymmetric3x3_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Vector3D_F64;
-import org.ejml.data.DenseMatrix64F;
-import org.ejml.factory.DecompositionFactory;
-import org.ejml.interfaces.decomposition.SingularValueDecomposition;
 
 import java.util.List;
 
@@ -33,14 +31,13 @@ import java.util.List;
  */
 public class FitPlane3D_F64 {
 
-	SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd(3,10,false, true, false);
-
-	DenseMatrix64F A = new DenseMatrix64F(3,3);
-	DenseMatrix64F V = new DenseMatrix64F(3,3);
+	EigenSymmetric3x3_F64 eigen = new EigenSymmetric3x3_F64();
 
 	/**
 	 * SVD based method for fitting a plane to a set of points.  The plane's equation is returned
-	 * as a point on the plane and the normal vector.
+	 * as a point on the plane and the normal vector.  The normal is the eigenvector of the 3x3 scatter
+	 * matrix with the smallest eigenvalue, which is the same as the singular vector of the data matrix
+	 * with the smallest singular value.  The scatter matrix is computed in a single pass.
 	 *
 	 * @param points (Input) Set of points on a plane.
 	 * @param outputCenter (Output) Centroid of the passed in points. Modified.
@@ -50,21 +47,39 @@ public class FitPlane3D_F64 {
 	public boolean svd( List<Point3D_F64> points , Point3D_F64 outputCenter , Vector3D_F64 outputNormal ) {
 
 		final int N = points.size();
+		if( N == 0 )
+			return false;
+
+		// Sums are computed relative to the first point to avoid catastrophic cancellation when the
+		// points are far from the origin
+		Point3D_F64 o = points.get(0);
+
+		double sx = 0, sy = 0, sz = 0;
+		double sxx = 0, sxy = 0, sxz = 0;
+		double syy = 0, syz = 0, szz = 0;
 
-		// find the centroid
-		outputCenter.set(0,0,0);
 		for( int i = 0; i < N; i++ ) {
 			Point3D_F64 p = points.get(i);
-			outputCenter.x += p.x;
-			outputCenter.y += p.y;
-			outputCenter.z += p.z;
+			double dx = p.x - o.x;
+			double dy = p.y - o.y;
+			double dz = p.z - o.z;
+
+			sx += dx; sy += dy; sz += dz;
+			sxx += dx*dx; sxy += dx*dy; sxz += dx*dz;
+			syy += dy*dy; syz += dy*dz; szz += dz*dz;
 		}
 
-		outputCenter.x /= N;
-		outputCenter.y /= N;
-		outputCenter.z /= N;
+		double mx = sx/N, my = sy/N, mz = sz/N;
+
+		outputCenter.x = o.x + mx;
+		outputCenter.y = o.y + my;
+		outputCenter.z = o.z + mz;
 
-		return svdPoint(points,outputCenter,outputNormal);
+		// scatter matrix around the centroid
+		return computeNormal(
+				sxx - sx*mx, sxy - sx*my, sxz - sx*mz,
+				syy - sy*my, syz - sy*mz,
+				szz - sz*mz, outputNormal);
 	}
 
 	/**
@@ -80,37 +95,33 @@ public class FitPlane3D_F64 {
 
 		final int N = points.size();
 
-		// construct the matrix
-		A.reshape(N,3);
-		int index = 0;
+		// scatter matrix around the point on the plane
+		double sxx = 0, sxy = 0, sxz = 0;
+		double syy = 0, syz = 0, szz = 0;
+
 		for( int i = 0; i < N; i++ ) {
 			Point3D_F64 p = points.get(i);
-			A.data[index++] = p.x - pointOnPlane.x;
-			A.data[index++] = p.y - pointOnPlane.y;
-			A.data[index++] = p.z - pointOnPlane.z;
-		}
+			double dx = p.x - pointOnPlane.x;
+			double dy = p.y - pointOnPlane.y;
+			double dz = p.z - pointOnPlane.z;
 
-		// decompose and find the singular value
-		if( !svd.decompose(A) )
-			return false;
+			sxx += dx*dx; sxy += dx*dy; sxz += dx*dz;
+			syy += dy*dy; syz += dy*dz; szz += dz*dz;
+		}
 
-		/**/double sv[] = svd.getSingularValues();
+		return computeNormal(sxx, sxy, sxz, syy, syz, szz, outputNormal);
+	}
 
-		int smallestIndex = -1;
-		/**/double smallestValue = Double.MAX_VALUE;
-		for( int i = 0; i < 3; i++ ) {
-			/**/double v = sv[i];
-			if( v < smallestValue ) {
-				smallestValue = v;
-				smallestIndex = i;
-			}
-		}
+	/**
+	 * The normal is the eigenvector with the smallest eigenvalue of the scatter matrix
+	 */
+	private boolean computeNormal( double sxx , double sxy , double sxz ,
+								   double syy , double syz ,
+								   double szz , Vector3D_F64 outputNormal ) {
+		if( !eigen.process(sxx, sxy, sxz, syy, syz, szz) )
+			return false;
 
-		// the normal is the singular vector
-		svd.getV(V,true);
-		outputNormal.x = (double) V.unsafe_get(smallestIndex,0);
-		outputNormal.y = (double) V.unsafe_get(smallestIndex,1);
-		outputNormal.z = (double) V.unsafe_get(smallestIndex,2);
+		eigen.getEigenvector(2, outputNormal);
 
 		return true;
 	}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point3D_F32;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+
+import java.util.List;
+
+/**
+ * Computes a plane from the minimal set of three points using a cross product.  Only the first three points
+ * in the list are used.  The plane is returned in Hessian normal form.  If the points are collinear, i.e. the
+ * sine squared of the angle between the two edges is less than the tolerance, then the sample is rejected.
+ * No memory is declared.
+ *
+ * @author Peter Abeles
+ */
+public class GeneratePlaneGeneral3D_F32 implements ModelGenerator<PlaneGeneral3D_F32,Point3D_F32> {
+
+	// tolerance used to reject degenerate samples
+	private float tol;
+
+	/**
+	 * @param tol Samples are rejected if the sine squared of the angle at the first point is less than this
+	 */
+	public GeneratePlaneGeneral3D_F32( float tol ) {
+		this.tol = tol;
+	}
+
+	public GeneratePlaneGeneral3D_F32() {
+		this( (float)Math.sqrt(GrlConstants.F_EPS) );
+	}
+
+	@Override
+	public boolean generate( List<Point3D_F32> dataSet, PlaneGeneral3D_F32 output ) {
+		Point3D_F32 p0 = dataSet.get(0);
+		Point3D_F32 p1 = dataSet.get(1);
+		Point3D_F32 p2 = dataSet.get(2);
+
+		float ax = p1.x - p0.x, ay = p1.y - p0.y, az = p1.z - p0.z;
+		float bx = p2.x - p0.x, by = p2.y - p0.y, bz = p2.z - p0.z;
+
+		float nx = ay*bz - az*by;
+		float ny = az*bx - ax*bz;
+		float nz = ax*by - ay*bx;
+
+		float n2 = nx*nx + ny*ny + nz*nz;
+		float a2 = ax*ax + ay*ay + az*az;
+		float b2 = bx*bx + by*by + bz*bz;
+
+		if( n2 <= tol*a2*b2 || n2 == 0 )
+			return false;
+
+		float n = (float)Math.sqrt(n2);
+		nx /= n; ny /= n; nz /= n;
+
+		output.set(nx, ny, nz, nx*p0.x + ny*p0.y + nz*p0.z);
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.struct.point.AssociatedPair2D_F32;
+import georegression.struct.se.Se2_F32;
+
+/**
+ * Euclidean distance between the dst point and the src point after it has been transformed by a
+ * {@link Se2_F32}.  Packed points are stored as (srcX,srcY,dstX,dstY).
+ *
+ * @author Peter Abeles
+ */
+public class DistanceSe2_F32 extends DistanceFromModelBulk_F32<Se2_F32,AssociatedPair2D_F32> {
+
+	float c, s, tx, ty;
+
+	@Override
+	public void setModel( Se2_F32 se ) {
+		c = se.c;
+		s = se.s;
+		tx = se.T.x;
+		ty = se.T.y;
+	}
+
+	@Override
+	public /**/double computeDistance( AssociatedPair2D_F32 p ) {
+		return (float)Math.sqrt(distance2(p.src.x, p.src.y, p.dst.x, p.dst.y));
+	}
+
+	private float distance2( float x , float y , float u , float v ) {
+		float dx = c*x - s*y + tx - u;
+		float dy = s*x + c*y + ty - v;
+		return dx*dx + dy*dy;
+	}
+
+	@Override
+	public int getPointLength() {
+		return 4;
+	}
+
+	@Override
+	public void computeDistance( float data[] , int start , int end , float distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*4;
+			float d2 = distance2(data[index], data[index+1], data[index+2], data[index+3]);
+			distances[i] = (float)Math.sqrt(d2);
+		}
+	}
+
+	@Override
+	public int countInliers( float data[] , int start , int end , float threshold ) {
+		float threshold2 = threshold*threshold;
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*4;
+			if( distance2(data[index], data[index+1], data[index+2], data[index+3]) <= threshold2 )
+				count++;
+		}
+		return count;
+	}
+}
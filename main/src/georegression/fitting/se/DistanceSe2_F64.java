@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.struct.point.AssociatedPair2D_F64;
+import georegression.struct.se.Se2_F64;
+
+/**
+ * Euclidean distance between the dst point and the src point after it has been transformed by a
+ * {@link Se2_F64}.  Packed points are stored as (srcX,srcY,dstX,dstY).
+ *
+ * @author Peter Abeles
+ */
+public class DistanceSe2_F64 extends DistanceFromModelBulk_F64<Se2_F64,AssociatedPair2D_F64> {
+
+	double c, s, tx, ty;
+
+	@Override
+	public void setModel( Se2_F64 se ) {
+		c = se.c;
+		s = se.s;
+		tx = se.T.x;
+		ty = se.T.y;
+	}
+
+	@Override
+	public /**/double computeDistance( AssociatedPair2D_F64 p ) {
+		return Math.sqrt(distance2(p.src.x, p.src.y, p.dst.x, p.dst.y));
+	}
+
+	private double distance2( double x , double y , double u , double v ) {
+		double dx = c*x - s*y + tx - u;
+		double dy = s*x + c*y + ty - v;
+		return dx*dx + dy*dy;
+	}
+
+	@Override
+	public int getPointLength() {
+		return 4;
+	}
+
+	@Override
+	public void computeDistance( double data[] , int start , int end , double distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*4;
+			double d2 = distance2(data[index], data[index+1], data[index+2], data[index+3]);
+			distances[i] = Math.sqrt(d2);
+		}
+	}
+
+	@Override
+	public int countInliers( double data[] , int start , int end , double threshold ) {
+		double threshold2 = threshold*threshold;
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*4;
+			if( distance2(data[index], data[index+1], data[index+2], data[index+3]) <= threshold2 )
+				count++;
+		}
+		return count;
+	}
+}
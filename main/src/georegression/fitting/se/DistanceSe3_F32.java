@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.struct.point.AssociatedPair3D_F32;
+import georegression.struct.se.Se3_F32;
+import org.ejml.data.DenseMatrix64F;
+
+/**
+ * Euclidean distance between the dst point and the src point after it has been transformed by a
+ * {@link Se3_F32}.  Packed points are stored as (srcX,srcY,srcZ,dstX,dstY,dstZ).
+ *
+ * @author Peter Abeles
+ */
+public class DistanceSe3_F32 extends DistanceFromModelBulk_F32<Se3_F32,AssociatedPair3D_F32> {
+
+	float r11, r12, r13, r21, r22, r23, r31, r32, r33;
+	float tx, ty, tz;
+
+	@Override
+	public void setModel( Se3_F32 se ) {
+		DenseMatrix64F R = se.getR();
+		r11 = (float)R.data[0]; r12 = (float)R.data[1]; r13 = (float)R.data[2];
+		r21 = (float)R.data[3]; r22 = (float)R.data[4]; r23 = (float)R.data[5];
+		r31 = (float)R.data[6]; r32 = (float)R.data[7]; r33 = (float)R.data[8];
+		tx = se.T.x; ty = se.T.y; tz = se.T.z;
+	}
+
+	@Override
+	public /**/double computeDistance( AssociatedPair3D_F32 p ) {
+		return (float)Math.sqrt(distance2(p.src.x, p.src.y, p.src.z, p.dst.x, p.dst.y, p.dst.z));
+	}
+
+	private float distance2( float x , float y , float z , float u , float v , float w ) {
+		float dx = r11*x + r12*y + r13*z + tx - u;
+		float dy = r21*x + r22*y + r23*z + ty - v;
+		float dz = r31*x + r32*y + r33*z + tz - w;
+		return dx*dx + dy*dy + dz*dz;
+	}
+
+	@Override
+	public int getPointLength() {
+		return 6;
+	}
+
+	@Override
+	public void computeDistance( float data[] , int start , int end , float distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*6;
+			float d2 = distance2(data[index], data[index+1], data[index+2],
+					data[index+3], data[index+4], data[index+5]);
+			distances[i] = (float)Math.sqrt(d2);
+		}
+	}
+
+	@Override
+	public int countInliers( float data[] , int start , int end , float threshold ) {
+		float threshold2 = threshold*threshold;
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*6;
+			float d2 = distance2(data[index], data[index+1], data[index+2],
+					data[index+3], data[index+4], data[index+5]);
+			if( d2 <= threshold2 )
+				count++;
+		}
+		return count;
+	}
+}
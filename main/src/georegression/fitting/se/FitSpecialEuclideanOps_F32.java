@@ -19,6 +19,7 @@
 package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.RobustKernel;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.se.Se2_F32;
@@ -55,6 +56,30 @@ public class FitSpecialEuclideanOps_F32 {
 		return new MotionSe3PointSVD_F32();
 	}
 
+	/**
+	 * Creates a {@link MotionTransformPoint} for robustly finding a {@link Se2_F32} from two
+	 * sets of 2D points which might contain outliers.  See {@link MotionSe2PointRobust_F32}.
+	 *
+	 * @param kernel Weight function used to down weight outliers.
+	 * @param threshold Scale of the kernel.  Residuals below this distance are considered inliers.
+	 * @return {@link MotionTransformPoint}.
+	 */
+	public static MotionSe2PointRobust_F32 fitPoints2DRobust( RobustKernel kernel , float threshold ) {
+		return new MotionSe2PointRobust_F32(kernel,threshold);
+	}
+
+	/**
+	 * Creates a {@link MotionTransformPoint} for robustly finding a {@link Se3_F32} from two
+	 * sets of 3D points which might contain outliers.  See {@link MotionSe3PointRobust_F32}.
+	 *
+	 * @param kernel Weight function used to down weight outliers.
+	 * @param threshold Scale of the kernel.  Residuals below this distance are considered inliers.
+	 * @return {@link MotionTransformPoint}.
+	 */
+	public static MotionSe3PointRobust_F32 fitPoints3DRobust( RobustKernel kernel , float threshold ) {
+		return new MotionSe3PointRobust_F32(kernel,threshold);
+	}
+
 	/**
 	 * Given two sets of corresponding points compute the {@link Se2_F32} transform
 	 * which minimizes the difference between the two sets of points.
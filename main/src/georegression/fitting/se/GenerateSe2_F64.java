@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.AssociatedPair2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se2_F64;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+
+import java.util.List;
+
+/**
+ * Computes the 2D rigid body motion from two associated pairs of points.  Only the first two pairs are used.
+ * The rotation is the angle between the vector connecting the two src points and the vector connecting the
+ * two dst points, which is also the least squares solution.  Samples are rejected if the two points coincide in
+ * either image, or if their separation in one image is tiny compared to their separation in the other.  The
+ * test does not depend on where the points are relative to the origin.  No memory is declared.
+ *
+ * @author Peter Abeles
+ */
+public class GenerateSe2_F64 implements ModelGenerator<Se2_F64,AssociatedPair2D_F64> {
+
+	// tolerance used to reject degenerate samples
+	private double tol;
+
+	/**
+	 * @param tol Samples are rejected if the distance between the two src points divided by the distance
+	 *            between the two dst points, or the other way around, is less than this
+	 */
+	public GenerateSe2_F64( double tol ) {
+		this.tol = tol;
+	}
+
+	public GenerateSe2_F64() {
+		this( Math.sqrt(GrlConstants.EPS) );
+	}
+
+	@Override
+	public boolean generate( List<AssociatedPair2D_F64> dataSet, Se2_F64 output ) {
+		Point2D_F64 a0 = dataSet.get(0).src, a1 = dataSet.get(1).src;
+		Point2D_F64 b0 = dataSet.get(0).dst, b1 = dataSet.get(1).dst;
+
+		double ux = a1.x - a0.x, uy = a1.y - a0.y;
+		double vx = b1.x - b0.x, vy = b1.y - b0.y;
+
+		double u2 = ux*ux + uy*uy;
+		double v2 = vx*vx + vy*vy;
+		double tol2 = tol*tol;
+
+		if( u2 == 0 || v2 == 0 || u2 <= tol2*v2 || v2 <= tol2*u2 )
+			return false;
+
+		double c = ux*vx + uy*vy;
+		double s = ux*vy - uy*vx;
+		double n = Math.sqrt(c*c + s*s);
+		c /= n;
+		s /= n;
+
+		// translation maps the mean of src onto the mean of dst
+		double mx = (a0.x + a1.x)/2, my = (a0.y + a1.y)/2;
+		double tx = (b0.x + b1.x)/2 - (c*mx - s*my);
+		double ty = (b0.y + b1.y)/2 - (s*mx + c*my);
+
+		output.set(tx, ty, c, s);
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 2;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.AssociatedPair3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the rigid body motion from three associated pairs of points.  Only the first three pairs are used.
+ * The 3x3 cross-covariance is accumulated directly and the rotation is extracted from it in closed form
+ * using {@link MotionSe3PointSVD_F32#computeMotion}.  This gives the same solution as Horn's quaternion
+ * method.  Samples are rejected if the src or dst points are nearly collinear.  No memory is declared.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GenerateSe3_F32 implements ModelGenerator<Se3_F32,AssociatedPair3D_F32> {
+
+	// tolerance used to reject degenerate samples
+	private float tol;
+
+	MotionSe3PointSVD_F32 alg = new MotionSe3PointSVD_F32();
+
+	// storage for intermediate results
+	DenseMatrix64F Sigma = new DenseMatrix64F(3,3);
+	Point3D_F32 meanSrc = new Point3D_F32();
+	Point3D_F32 meanDst = new Point3D_F32();
+
+	/**
+	 * @param tol Samples are rejected if the sine squared of the angle at the first point is less than this
+	 */
+	public GenerateSe3_F32( float tol ) {
+		this.tol = tol;
+	}
+
+	public GenerateSe3_F32() {
+		this( (float)Math.sqrt(GrlConstants.F_EPS) );
+	}
+
+	@Override
+	public boolean generate( List<AssociatedPair3D_F32> dataSet, Se3_F32 output ) {
+		AssociatedPair3D_F32 a = dataSet.get(0);
+		AssociatedPair3D_F32 b = dataSet.get(1);
+		AssociatedPair3D_F32 c = dataSet.get(2);
+
+		if( isCollinear(a.src, b.src, c.src) || isCollinear(a.dst, b.dst, c.dst) )
+			return false;
+
+		meanSrc.x = (a.src.x + b.src.x + c.src.x)/3;
+		meanSrc.y = (a.src.y + b.src.y + c.src.y)/3;
+		meanSrc.z = (a.src.z + b.src.z + c.src.z)/3;
+		meanDst.x = (a.dst.x + b.dst.x + c.dst.x)/3;
+		meanDst.y = (a.dst.y + b.dst.y + c.dst.y)/3;
+		meanDst.z = (a.dst.z + b.dst.z + c.dst.z)/3;
+
+		Sigma.zero();
+		addPair(a);
+		addPair(b);
+		addPair(c);
+
+		if( !alg.computeMotion(Sigma, meanSrc, meanDst) )
+			return false;
+
+		output.set(alg.getTransformSrcToDst());
+		return true;
+	}
+
+	private void addPair( AssociatedPair3D_F32 p ) {
+		float fx = p.src.x - meanSrc.x, fy = p.src.y - meanSrc.y, fz = p.src.z - meanSrc.z;
+		float tx = p.dst.x - meanDst.x, ty = p.dst.y - meanDst.y, tz = p.dst.z - meanDst.z;
+
+		/**/double d[] = Sigma.data;
+		d[0] += tx*fx; d[1] += tx*fy; d[2] += tx*fz;
+		d[3] += ty*fx; d[4] += ty*fy; d[5] += ty*fz;
+		d[6] += tz*fx; d[7] += tz*fy; d[8] += tz*fz;
+	}
+
+	private boolean isCollinear( Point3D_F32 p0 , Point3D_F32 p1 , Point3D_F32 p2 ) {
+		float ax = p1.x - p0.x, ay = p1.y - p0.y, az = p1.z - p0.z;
+		float bx = p2.x - p0.x, by = p2.y - p0.y, bz = p2.z - p0.z;
+
+		float nx = ay*bz - az*by;
+		float ny = az*bx - ax*bz;
+		float nz = ax*by - ay*bx;
+
+		float n2 = nx*nx + ny*ny + nz*nz;
+		return n2 <= tol*(ax*ax + ay*ay + az*az)*(bx*bx + by*by + bz*bz) || n2 == 0;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
@@ -0,0 +1,639 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.index.KdTree3D_F32;
+import georegression.struct.index.KdTreeSearch3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.so.Rodrigues_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.factory.LinearSolverFactory;
+import org.ejml.interfaces.linsol.LinearSolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Iterative Closest Point (ICP) registration of two 3D point clouds.  Finds the rigid body motion which aligns
+ * the 'src' cloud with the 'dst' cloud.  Each iteration the src points are transformed by the current
+ * estimate, associated with their nearest neighbor in dst using a {@link KdTree3D_F32}, pairs which are too far
+ * apart are rejected, and then the motion which minimizes the error is found and composed with the estimate.
+ * Iterations stop when the change in motion is below the convergence tolerance or the maximum number of
+ * iterations has been reached.
+ * </p>
+ *
+ * <p>
+ * Two error metrics are supported.  If normals are provided for dst then the point to plane distance is
+ * minimized by linearizing the rotation [1], otherwise point to point distance is minimized using the same
+ * approach as {@link MotionSe3PointSVD_F32}.  Point to plane typically converges in far fewer iterations on
+ * smooth surfaces.
+ * </p>
+ *
+ * <p>
+ * Pairs are rejected if they are farther apart than the maximum distance or, if enabled, more than
+ * rejectRatio times the median pair distance.  All work buffers are saved between calls.  If concurrent
+ * is true then the association and accumulation steps are split into blocks and run on the thread pool
+ * in {@link GrlConcurrency}.  When accumulating, the points are split into a fixed number of partitions and
+ * their sums are added in partition order, so the results are the same every time and don't depend on the
+ * number of threads.  An {@link Listener} can be used to monitor each iteration and how long each step took.
+ * </p>
+ *
+ * <p>
+ * [1] Low, K.L. "Linear least-squares optimization for point-to-plane ICP surface registration." Technical
+ * Report TR04-004, UNC Chapel Hill, 2004
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IterativeClosestPoint_F32 {
+
+	// number of partitions the points are split into when accumulated concurrently
+	private static final int PARTITIONS = 64;
+
+	// maximum number of iterations
+	private int maxIterations;
+	// pairs which are farther apart than this are rejected
+	private float maxDistance;
+	// pairs which are more than this ratio times the median distance are rejected.  Disabled if <= 0
+	private float rejectRatio = 0;
+	// convergence tolerances on the change in translation and rotation angle (radians)
+	private float convergeTranslation = 1.0e-6f;
+	private float convergeRotation = 1.0e-6f;
+
+	// if true the processing is done using multiple threads
+	private boolean concurrent;
+	private int minConcurrentBlock = 1000;
+
+	// nearest neighbor search of the dst cloud
+	private KdTree3D_F32 tree;
+	// points and normals the src cloud is being registered to
+	private PointCloud3D_F32 dst = new PointCloud3D_F32();
+	private PointCloud3D_F32 normals;
+
+	// src points in their original location and after being transformed by the current estimate
+	private PointCloud3D_F32 src = new PointCloud3D_F32();
+	private PointCloud3D_F32 srcTransformed = new PointCloud3D_F32();
+
+	// index of the associated dst point for every src point. -1 if rejected
+	private int matches[] = new int[0];
+	// distance squared between associated points
+	private float matchDistance2[] = new float[0];
+	// storage used to compute the median
+	private float work[] = new float[0];
+
+	// nearest neighbor search for each block of points which is being associated
+	private final List<KdTreeSearch3D_F32> available = new ArrayList<KdTreeSearch3D_F32>();
+	// statistics for each partition of points.  Only one partition if not concurrent
+	private Partition partitions[];
+
+	// computes the motion for point to point
+	private MotionSe3PointIncremental_F32 pointToPoint = new MotionSe3PointIncremental_F32();
+	// solves the linear system for point to plane
+	private LinearSolver<DenseMatrix64F> solver = LinearSolverFactory.symmPosDef(6);
+	private DenseMatrix64F A = new DenseMatrix64F(6,6);
+	private DenseMatrix64F b = new DenseMatrix64F(6,1);
+	private DenseMatrix64F x = new DenseMatrix64F(6,1);
+	private Rodrigues_F32 rodrigues = new Rodrigues_F32();
+
+	// motion from the original src location to dst
+	private Se3_F32 motion = new Se3_F32();
+	// change in motion found in the most recent iteration
+	private Se3_F32 delta = new Se3_F32();
+	private Se3_F32 tmp = new Se3_F32();
+
+	// statistics from the most recent iteration
+	private int iterations;
+	private int numInliers;
+	private float meanError2;
+	private boolean converged;
+
+	private Listener listener;
+
+	// processes blocks of points.  Created once so that no memory is declared when processing
+	private IntRangeConsumer associateBlock = new IntRangeConsumer() {
+		@Override
+		public void accept(int start, int end) {
+			KdTreeSearch3D_F32 search = takeSearch();
+			try {
+				associate(search, start, end);
+			} finally {
+				returnSearch(search);
+			}
+		}
+	};
+
+	// processes partitions of points.  Which points are in a partition only depends on the number of points
+	private IntRangeConsumer accumulatePartitions = new IntRangeConsumer() {
+		@Override
+		public void accept(int start, int end) {
+			long numPoints = src.size;
+			for( int index = start; index < end; index++ ) {
+				Partition partition = partitions[index];
+				int first = (int)(index*numPoints/partitions.length);
+				int last = (int)((index+1)*numPoints/partitions.length);
+
+				partition.incremental.reset();
+				if( normals == null ) {
+					accumulatePoint(partition.incremental, first, last);
+				} else {
+					for (int i = 0; i < partition.sums.length; i++) {
+						partition.sums[i] = 0;
+					}
+					accumulatePlane(partition, first, last);
+				}
+			}
+		}
+	};
+
+	/**
+	 * Configures ICP
+	 *
+	 * @param maxIterations Maximum number of iterations
+	 * @param maxDistance Associated points which are farther apart than this are rejected.
+	 * @param concurrent If true the work will be split across multiple threads
+	 */
+	public IterativeClosestPoint_F32( int maxIterations , float maxDistance , boolean concurrent ) {
+		this.maxIterations = maxIterations;
+		this.maxDistance = maxDistance;
+		this.concurrent = concurrent;
+		this.tree = new KdTree3D_F32(8,concurrent);
+	}
+
+	public IterativeClosestPoint_F32( int maxIterations , float maxDistance ) {
+		this(maxIterations,maxDistance,false);
+	}
+
+	/**
+	 * Specifies the cloud which src is registered to and builds the nearest neighbor search.  The error is
+	 * the distance between points.
+	 *
+	 * @param dst The cloud. Not modified.
+	 */
+	public void setDestination( PointCloud3D_F32 dst ) {
+		setDestination(dst,null);
+	}
+
+	/**
+	 * Specifies the cloud which src is registered to and builds the nearest neighbor search.  If normals are
+	 * provided then the error is the distance from the src point to the plane tangent to the dst point.
+	 *
+	 * @param dst The cloud. Not modified.
+	 * @param normals (Optional) Unit normal of each point in dst.  If null point to point is used. Not modified.
+	 */
+	public void setDestination( PointCloud3D_F32 dst , PointCloud3D_F32 normals ) {
+		if( normals != null && normals.size != dst.size )
+			throw new IllegalArgumentException("There must be a normal for every point");
+
+		this.dst.set(dst);
+		if( normals == null ) {
+			this.normals = null;
+		} else {
+			if( this.normals == null )
+				this.normals = new PointCloud3D_F32(normals.size);
+			this.normals.set(normals);
+		}
+		tree.setConcurrent(concurrent);
+		tree.build(this.dst);
+	}
+
+	public void setDestination( List<Point3D_F32> dst ) {
+		this.dst.set(dst);
+		this.normals = null;
+		tree.setConcurrent(concurrent);
+		tree.build(this.dst);
+	}
+
+	/**
+	 * Finds the motion which registers src to the destination cloud.
+	 *
+	 * @param src The cloud which is to be registered. Not modified.
+	 * @param initial Initial estimate of the motion from src to dst. Not modified.
+	 * @return true if successful or false if there were too few associations
+	 */
+	public boolean process( PointCloud3D_F32 src , Se3_F32 initial ) {
+		if( this.src != src )
+			this.src.set(src);
+		motion.set(initial);
+
+		int N = src.size;
+		if( matches.length < N ) {
+			matches = new int[N];
+			matchDistance2 = new float[N];
+			work = new float[N];
+		}
+
+		converged = false;
+		for( iterations = 0; iterations < maxIterations && !converged; ) {
+			long time0 = System.nanoTime();
+
+			if( concurrent ) {
+				SePointOps_F32.transformConcurrent(motion, this.src, srcTransformed);
+				GrlConcurrency.loopBlocks(0, N, minConcurrentBlock, associateBlock);
+			} else {
+				SePointOps_F32.transform(motion, this.src, srcTransformed);
+				associateBlock.accept(0, N);
+			}
+			rejectOutliers(N);
+
+			long time1 = System.nanoTime();
+
+			if( !estimateDelta(N) )
+				return false;
+
+			tmp.set(motion);
+			tmp.concat(delta, motion);
+			iterations++;
+
+			converged = isConverged(delta);
+
+			long time2 = System.nanoTime();
+
+			if( listener != null )
+				listener.iteration(this, time1-time0, time2-time1);
+		}
+
+		return true;
+	}
+
+	public boolean process( List<Point3D_F32> src , Se3_F32 initial ) {
+		this.src.set(src);
+		return process(this.src, initial);
+	}
+
+	/**
+	 * Associates the transformed src points in the range with their nearest dst point
+	 */
+	private void associate( KdTreeSearch3D_F32 search , int start , int end ) {
+		float points[] = srcTransformed.data;
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			int match = search.findNearest(points[index], points[index+1], points[index+2], maxDistance);
+			matches[i] = match;
+			if( match >= 0 )
+				matchDistance2[i] = search.getDistance2(0);
+		}
+	}
+
+	/**
+	 * Rejects pairs which are farther apart than rejectRatio times the median and computes statistics
+	 */
+	private void rejectOutliers( int N ) {
+		if( rejectRatio > 0 ) {
+			int total = 0;
+			for (int i = 0; i < N; i++) {
+				if( matches[i] >= 0 )
+					work[total++] = matchDistance2[i];
+			}
+			if( total > 0 ) {
+				float threshold = rejectRatio*rejectRatio*median(work, total);
+				for (int i = 0; i < N; i++) {
+					if( matches[i] >= 0 && matchDistance2[i] > threshold )
+						matches[i] = -1;
+				}
+			}
+		}
+
+		numInliers = 0;
+		meanError2 = 0;
+		for (int i = 0; i < N; i++) {
+			if( matches[i] >= 0 ) {
+				numInliers++;
+				meanError2 += matchDistance2[i];
+			}
+		}
+		if( numInliers > 0 )
+			meanError2 /= numInliers;
+	}
+
+	/**
+	 * Finds the motion which minimizes the error between the transformed src points and their associated pair
+	 */
+	private boolean estimateDelta( int N ) {
+		if( numInliers < (normals == null ? 3 : 6) )
+			return false;
+
+		int numPartitions = concurrent ? PARTITIONS : 1;
+		if( partitions == null || partitions.length != numPartitions ) {
+			partitions = new Partition[numPartitions];
+			for (int i = 0; i < numPartitions; i++) {
+				partitions[i] = new Partition();
+			}
+		}
+
+		if( concurrent ) {
+			// partitions processed by each thread so that it has at least minConcurrentBlock points
+			int pointsPerPartition = N/PARTITIONS;
+			int minPartitions = pointsPerPartition > 0 ? minConcurrentBlock/pointsPerPartition : PARTITIONS;
+			GrlConcurrency.loopBlocks(0, PARTITIONS, minPartitions > 0 ? minPartitions : 1, accumulatePartitions);
+		} else {
+			accumulatePartitions.accept(0, 1);
+		}
+
+		// add them in the same order every time
+		if( normals == null ) {
+			pointToPoint.reset();
+			for (int i = 0; i < partitions.length; i++) {
+				pointToPoint.merge(partitions[i].incremental);
+			}
+			if( !pointToPoint.solve() )
+				return false;
+			delta.set(pointToPoint.getTransformSrcToDst());
+		} else {
+			A.zero();
+			b.zero();
+			for (int i = 0; i < partitions.length; i++) {
+				/**/double sums[] = partitions[i].sums;
+				int index = 0;
+				for (int row = 0; row < 6; row++) {
+					for (int col = row; col < 6; col++) {
+						A.data[row*6+col] += sums[index++];
+					}
+				}
+				for (int row = 0; row < 6; row++) {
+					b.data[row] -= sums[index++];
+				}
+			}
+			for (int row = 1; row < 6; row++) {
+				for (int col = 0; col < row; col++) {
+					A.data[row*6+col] = A.data[col*6+row];
+				}
+			}
+
+			if( !solver.setA(A) )
+				return false;
+			solver.solve(b, x);
+
+			float rx = (float)x.data[0], ry = (float)x.data[1], rz = (float)x.data[2];
+			rodrigues.setParamVector(rx, ry, rz);
+			ConvertRotation3D_F32.rodriguesToMatrix(rodrigues, delta.getR());
+			delta.getT().set((float)x.data[3], (float)x.data[4], (float)x.data[5]);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds associated pairs to the point to point statistics
+	 */
+	private void accumulatePoint( MotionSe3PointIncremental_F32 incremental , int start , int end ) {
+		float srcData[] = srcTransformed.data;
+		float dstData[] = dst.data;
+
+		for (int i = start; i < end; i++) {
+			int match = matches[i];
+			if( match < 0 )
+				continue;
+			int s = i*3, d = match*3;
+			incremental.add(srcData[s], srcData[s+1], srcData[s+2], dstData[d], dstData[d+1], dstData[d+2], 1);
+		}
+	}
+
+	/**
+	 * Adds associated pairs to the point to plane normal equations.  For the rotation (w) and translation (t)
+	 * the linearized residual is r = n*(p-q) + w*(p x n) + n*t.  The upper triangle of J<sup>T</sup>J
+	 * is saved in sums followed by J<sup>T</sup>r
+	 */
+	private void accumulatePlane( Partition partition , int start , int end ) {
+		float srcData[] = srcTransformed.data;
+		float dstData[] = dst.data;
+		float normalData[] = normals.data;
+		/**/double sums[] = partition.sums;
+		float J[] = partition.J;
+
+		for (int i = start; i < end; i++) {
+			int match = matches[i];
+			if( match < 0 )
+				continue;
+			int s = i*3, d = match*3;
+
+			float px = srcData[s], py = srcData[s+1], pz = srcData[s+2];
+			float nx = normalData[d], ny = normalData[d+1], nz = normalData[d+2];
+
+			float r = nx*(px-dstData[d]) + ny*(py-dstData[d+1]) + nz*(pz-dstData[d+2]);
+
+			J[0] = py*nz - pz*ny;
+			J[1] = pz*nx - px*nz;
+			J[2] = px*ny - py*nx;
+			J[3] = nx;
+			J[4] = ny;
+			J[5] = nz;
+
+			int index = 0;
+			for (int row = 0; row < 6; row++) {
+				for (int col = row; col < 6; col++) {
+					sums[index++] += J[row]*J[col];
+				}
+			}
+			for (int row = 0; row < 6; row++) {
+				sums[index++] += J[row]*r;
+			}
+		}
+	}
+
+	/**
+	 * Checks to see if the change in motion is small enough to stop
+	 */
+	private boolean isConverged( Se3_F32 delta ) {
+		if( delta.getT().norm() > convergeTranslation )
+			return false;
+
+		DenseMatrix64F R = delta.getR();
+		float cosTheta = (float)(R.data[0] + R.data[4] + R.data[8] - 1)/2;
+		if( cosTheta >= 1 )
+			return true;
+		return (float)Math.acos(cosTheta) <= convergeRotation;
+	}
+
+	/**
+	 * Finds the median of the first N elements.  The order of the elements is modified.
+	 */
+	private static float median( float data[] , int N ) {
+		int k = N/2;
+		int left = 0, right = N-1;
+
+		while( right > left ) {
+			float pivot = data[(left+right) >>> 1];
+			int i = left, j = right;
+			while( i <= j ) {
+				while( data[i] < pivot ) i++;
+				while( data[j] > pivot ) j--;
+				if( i <= j ) {
+					float t = data[i]; data[i] = data[j]; data[j] = t;
+					i++; j--;
+				}
+			}
+			if( k <= j )
+				right = j;
+			else if( k >= i )
+				left = i;
+			else
+				break;
+		}
+		return data[k];
+	}
+
+	private KdTreeSearch3D_F32 takeSearch() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new KdTreeSearch3D_F32(tree);
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnSearch( KdTreeSearch3D_F32 search ) {
+		synchronized( available ) {
+			available.add(search);
+		}
+	}
+
+	/**
+	 * Statistics accumulated from a single partition of the points
+	 */
+	private static class Partition {
+		MotionSe3PointIncremental_F32 incremental = new MotionSe3PointIncremental_F32();
+		/**/double sums[] = new /**/double[27];
+		float J[] = new float[6];
+	}
+
+	/**
+	 * Estimated motion from src to dst
+	 */
+	public Se3_F32 getTransformSrcToDst() {
+		return motion;
+	}
+
+	/**
+	 * Number of iterations in the most recent call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Number of associations which were not rejected in the most recent iteration
+	 */
+	public int getNumInliers() {
+		return numInliers;
+	}
+
+	/**
+	 * Mean distance squared between associated points in the most recent iteration.  Computed before
+	 * the motion was updated.
+	 */
+	public float getMeanError2() {
+		return meanError2;
+	}
+
+	/**
+	 * Returns true if the most recent call to process stopped because it converged
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * The index of the dst point associated with each src point in the most recent iteration or -1 if there
+	 * was no association.
+	 */
+	public int[] getMatches() {
+		return matches;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public float getMaxDistance() {
+		return maxDistance;
+	}
+
+	public void setMaxDistance(float maxDistance) {
+		this.maxDistance = maxDistance;
+	}
+
+	public float getRejectRatio() {
+		return rejectRatio;
+	}
+
+	/**
+	 * Pairs which are farther apart than this ratio times the median distance are rejected.  If
+	 * &le; 0 then this test is disabled, which is the default.
+	 */
+	public void setRejectRatio(float rejectRatio) {
+		this.rejectRatio = rejectRatio;
+	}
+
+	/**
+	 * Specifies when it has converged
+	 *
+	 * @param translation Stop if the change in translation is less than this
+	 * @param rotation Stop if the change in rotation, in radians, is less than this
+	 */
+	public void setConvergence( float translation , float rotation ) {
+		this.convergeTranslation = translation;
+		this.convergeRotation = rotation;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Minimum number of points processed by a single thread
+	 */
+	public void setMinConcurrentBlock(int minConcurrentBlock) {
+		this.minConcurrentBlock = minConcurrentBlock;
+	}
+
+	public Listener getListener() {
+		return listener;
+	}
+
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Notified after every iteration
+	 */
+	public interface Listener {
+		/**
+		 * Called after the motion estimate has been updated
+		 *
+		 * @param icp The ICP algorithm.  Use to get the current state.
+		 * @param associateNano Time spent associating points and rejecting pairs in nanoseconds
+		 * @param estimateNano Time spent estimating the motion in nanoseconds
+		 */
+		void iteration( IterativeClosestPoint_F32 icp , long associateNano , long estimateNano );
+	}
+}
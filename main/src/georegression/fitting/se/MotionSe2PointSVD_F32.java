@@ -60,6 +60,7 @@ public class MotionSe2PointSVD_F32 implements MotionTransformPoint<Se2_F32, Poin
 	DenseMatrix64F U = new DenseMatrix64F(2,2);
 	DenseMatrix64F V = new DenseMatrix64F(2,2);
 	DenseMatrix64F R = new DenseMatrix64F(2,2);
+	Point2D_F32 temp = new Point2D_F32();
 
 	@Override
 	public Se2_F32 getTransformSrcToDst() {
@@ -104,6 +105,20 @@ public class MotionSe2PointSVD_F32 implements MotionTransformPoint<Se2_F32, Poin
 
 		Sigma.data[0] = s11;Sigma.data[1] = s12;
 		Sigma.data[2] = s21;Sigma.data[3] = s22;
+
+		return computeMotion(Sigma, meanFrom, meanTo);
+	}
+
+	/**
+	 * Computes the motion from an already computed cross-covariance matrix and the mean of both sets of points.
+	 * The cross-covariance matrix can be scaled by any positive value without changing the solution.
+	 *
+	 * @param Sigma Cross-covariance matrix, sum( (src_i - meanFrom)*(dst_i - meanTo)<sup>T</sup> ). Modified.
+	 * @param meanFrom Mean of the 'src' points. Not modified.
+	 * @param meanTo Mean of the 'dst' points. Not modified.
+	 * @return true if successful or false if the SVD failed
+	 */
+	public boolean computeMotion( DenseMatrix64F Sigma , Point2D_F32 meanFrom , Point2D_F32 meanTo ) {
 		// Compute the SVD of the cross correlation matrix
 		// The rotation matrix is R = V*U^T
 
@@ -132,9 +147,9 @@ public class MotionSe2PointSVD_F32 implements MotionTransformPoint<Se2_F32, Poin
 		float yaw = (float)Math.atan2( R.get( 1, 0 ), R.get( 0, 0 ) );
 
 		// save the results
-		GeometryMath_F32.rotate( yaw, meanFrom, meanFrom );
-		motion.getTranslation().x = meanTo.x - meanFrom.x;
-		motion.getTranslation().y = meanTo.y - meanFrom.y;
+		GeometryMath_F32.rotate( yaw, meanFrom, temp );
+		motion.getTranslation().x = meanTo.x - temp.x;
+		motion.getTranslation().y = meanTo.y - temp.y;
 		motion.setYaw( yaw );
 
 		return true;
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.se.Se2_F32;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Weighted version of {@link MotionSe2PointSVD_F32}.  Each associated pair has a weight which specifies its
+ * relative influence on the solution.  The function that is minimized is:<br>
+ * f(p) = sum( i=1:N , w_i*||x_i - R(theta)*p_i - T||<sup>2</sup> )<br>
+ * If no weights are specified then all pairs are given the same weight.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe2PointWeightedSVD_F32 implements MotionTransformPoint<Se2_F32, Point2D_F32> {
+
+	// computes the motion from the weighted statistics
+	MotionSe2PointSVD_F32 alg = new MotionSe2PointSVD_F32();
+
+	// storage for intermediate results
+	Point2D_F32 meanFrom = new Point2D_F32();
+	Point2D_F32 meanTo = new Point2D_F32();
+	DenseMatrix64F Sigma = new DenseMatrix64F(2,2);
+
+	@Override
+	public Se2_F32 getTransformSrcToDst() {
+		return alg.getTransformSrcToDst();
+	}
+
+	@Override
+	public boolean process( List<Point2D_F32> srcPts, List<Point2D_F32> dstPts) {
+		return process(srcPts, dstPts, null);
+	}
+
+	/**
+	 * Computes the motion which minimizes the weighted difference between the two sets of points.
+	 *
+	 * @param srcPts Points in the source frame. Not modified.
+	 * @param dstPts Corresponding points in the destination frame. Not modified.
+	 * @param weights Weight of each pair.  Must be &ge; 0.  If null every pair has a weight of one. Not modified.
+	 * @return true if successful or false if the weights summed up to zero or the SVD failed
+	 */
+	public boolean process( List<Point2D_F32> srcPts, List<Point2D_F32> dstPts, float weights[] ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+		if( weights != null && weights.length < srcPts.size() )
+			throw new IllegalArgumentException( "There must be one weight for each pair of points" );
+
+		final int N = srcPts.size();
+
+		// find the weighted mean of both sets of points
+		float totalWeight = 0;
+		float fx = 0, fy = 0;
+		float tx = 0, ty = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			float w = weights == null ? 1 : weights[i];
+			Point2D_F32 f = srcPts.get( i );
+			Point2D_F32 t = dstPts.get( i );
+
+			fx += w*f.x; fy += w*f.y;
+			tx += w*t.x; ty += w*t.y;
+			totalWeight += w;
+		}
+
+		if( totalWeight <= 0 )
+			return false;
+
+		meanFrom.set(fx/totalWeight, fy/totalWeight);
+		meanTo.set(tx/totalWeight, ty/totalWeight);
+
+		// compute the weighted cross-covariance matrix
+		float s11 = 0, s12 = 0;
+		float s21 = 0, s22 = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			float w = weights == null ? 1 : weights[i];
+			if( w == 0 )
+				continue;
+			Point2D_F32 f = srcPts.get( i );
+			Point2D_F32 t = dstPts.get( i );
+
+			float dfx = w*(f.x - meanFrom.x);
+			float dfy = w*(f.y - meanFrom.y);
+
+			float dtx = t.x - meanTo.x;
+			float dty = t.y - meanTo.y;
+
+			s11 += dfx*dtx;
+			s12 += dfx*dty;
+			s21 += dfy*dtx;
+			s22 += dfy*dty;
+		}
+
+		Sigma.data[0] = s11;Sigma.data[1] = s12;
+		Sigma.data[2] = s21;Sigma.data[3] = s22;
+
+		return alg.computeMotion(Sigma, meanFrom, meanTo);
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
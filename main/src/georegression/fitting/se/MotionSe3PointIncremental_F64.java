@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Incremental version of {@link MotionSe3PointSVD_F64}.  Instead of processing two lists of points, associated
+ * pairs are added (or removed) one at a time and the best fit rigid body motion can be found at any point by
+ * calling {@link #solve()}.  Only running statistics are saved, so each update is O(1) and the point lists are
+ * never needed.  This is useful inside of ICP style loops where the associations change slowly.
+ * </p>
+ *
+ * <p>
+ * The weighted mean of each set of points and the cross-covariance are updated using Welford's method, which
+ * avoids the catastrophic cancellation of the sum of squares approach.  Accumulators which were filled in on
+ * different threads can be combined with {@link #merge}.  No memory is declared after construction.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointIncremental_F64 implements MotionTransformPoint<Se3_F64, Point3D_F64> {
+
+	// number of associated pairs which have been added
+	int count;
+	// sum of all the weights
+	double totalWeight;
+
+	// weighted mean of src and dst points
+	double srcX, srcY, srcZ;
+	double dstX, dstY, dstZ;
+
+	// cross-covariance, sum( w*(dst - meanDst)*(src - meanSrc)^T )
+	double s11, s12, s13;
+	double s21, s22, s23;
+	double s31, s32, s33;
+
+	// computes the motion from the statistics
+	MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+
+	// storage used when solving
+	DenseMatrix64F Sigma = new DenseMatrix64F(3,3);
+	Point3D_F64 meanSrc = new Point3D_F64();
+	Point3D_F64 meanDst = new Point3D_F64();
+
+	/**
+	 * Removes all associated pairs
+	 */
+	public void reset() {
+		count = 0;
+		totalWeight = 0;
+		srcX = srcY = srcZ = 0;
+		dstX = dstY = dstZ = 0;
+		s11 = s12 = s13 = 0;
+		s21 = s22 = s23 = 0;
+		s31 = s32 = s33 = 0;
+	}
+
+	/**
+	 * Adds an associated pair with a weight of one.
+	 *
+	 * @param src Point in the source frame. Not modified.
+	 * @param dst Corresponding point in the destination frame. Not modified.
+	 */
+	public void add( Point3D_F64 src , Point3D_F64 dst ) {
+		add(src.x, src.y, src.z, dst.x, dst.y, dst.z, 1);
+	}
+
+	/**
+	 * Adds an associated pair with the specified weight.
+	 *
+	 * @param src Point in the source frame. Not modified.
+	 * @param dst Corresponding point in the destination frame. Not modified.
+	 * @param weight Weight of the pair.  Must be positive.
+	 */
+	public void add( Point3D_F64 src , Point3D_F64 dst , double weight ) {
+		add(src.x, src.y, src.z, dst.x, dst.y, dst.z, weight);
+	}
+
+	/**
+	 * Adds an associated pair with the specified weight.
+	 */
+	public void add( double srcX , double srcY , double srcZ ,
+					 double dstX , double dstY , double dstZ , double weight ) {
+		if( weight <= 0 )
+			throw new IllegalArgumentException("Weight must be positive");
+
+		count++;
+		totalWeight += weight;
+		double f = weight/totalWeight;
+
+		// difference from the previous mean
+		double dsx = srcX - this.srcX;
+		double dsy = srcY - this.srcY;
+		double dsz = srcZ - this.srcZ;
+
+		this.srcX += f*dsx;
+		this.srcY += f*dsy;
+		this.srcZ += f*dsz;
+
+		this.dstX += f*(dstX - this.dstX);
+		this.dstY += f*(dstY - this.dstY);
+		this.dstZ += f*(dstZ - this.dstZ);
+
+		// difference from the updated mean
+		double ddx = weight*(dstX - this.dstX);
+		double ddy = weight*(dstY - this.dstY);
+		double ddz = weight*(dstZ - this.dstZ);
+
+		s11 += ddx*dsx; s12 += ddx*dsy; s13 += ddx*dsz;
+		s21 += ddy*dsx; s22 += ddy*dsy; s23 += ddy*dsz;
+		s31 += ddz*dsx; s32 += ddz*dsy; s33 += ddz*dsz;
+	}
+
+	/**
+	 * Removes a pair which had previously been added with a weight of one.
+	 *
+	 * @param src Point in the source frame. Not modified.
+	 * @param dst Corresponding point in the destination frame. Not modified.
+	 */
+	public void remove( Point3D_F64 src , Point3D_F64 dst ) {
+		remove(src.x, src.y, src.z, dst.x, dst.y, dst.z, 1);
+	}
+
+	/**
+	 * Removes a pair which had previously been added with the same weight.
+	 *
+	 * @param src Point in the source frame. Not modified.
+	 * @param dst Corresponding point in the destination frame. Not modified.
+	 * @param weight Weight the pair was added with.
+	 */
+	public void remove( Point3D_F64 src , Point3D_F64 dst , double weight ) {
+		remove(src.x, src.y, src.z, dst.x, dst.y, dst.z, weight);
+	}
+
+	/**
+	 * Removes a pair which had previously been added with the same weight.  This is the exact inverse
+	 * of {@link #add(double, double, double, double, double, double, double)}.
+	 */
+	public void remove( double srcX , double srcY , double srcZ ,
+						double dstX , double dstY , double dstZ , double weight ) {
+		// validate before anything is modified so that the state is unchanged if it fails
+		if( weight <= 0 )
+			throw new IllegalArgumentException("Weight must be positive");
+		if( count == 0 )
+			throw new IllegalArgumentException("There are no pairs to remove");
+		if( count == 1 ) {
+			reset();
+			return;
+		}
+
+		double remaining = totalWeight - weight;
+		if( remaining <= 0 )
+			throw new IllegalArgumentException("Removed more weight than was added");
+
+		count--;
+		double f = weight/remaining;
+
+		// difference from the current mean
+		double ddx = weight*(dstX - this.dstX);
+		double ddy = weight*(dstY - this.dstY);
+		double ddz = weight*(dstZ - this.dstZ);
+
+		// mean without the pair
+		this.srcX -= f*(srcX - this.srcX);
+		this.srcY -= f*(srcY - this.srcY);
+		this.srcZ -= f*(srcZ - this.srcZ);
+
+		this.dstX -= f*(dstX - this.dstX);
+		this.dstY -= f*(dstY - this.dstY);
+		this.dstZ -= f*(dstZ - this.dstZ);
+
+		double dsx = srcX - this.srcX;
+		double dsy = srcY - this.srcY;
+		double dsz = srcZ - this.srcZ;
+
+		s11 -= ddx*dsx; s12 -= ddx*dsy; s13 -= ddx*dsz;
+		s21 -= ddy*dsx; s22 -= ddy*dsy; s23 -= ddy*dsz;
+		s31 -= ddz*dsx; s32 -= ddz*dsy; s33 -= ddz*dsz;
+
+		totalWeight = remaining;
+	}
+
+	/**
+	 * Adds all the pairs in 'other' to this accumulator.  The result is the same as if they had been
+	 * added one at a time.
+	 *
+	 * @param other The accumulator which is to be merged into this one. Not modified.
+	 */
+	public void merge( MotionSe3PointIncremental_F64 other ) {
+		if( other.count == 0 )
+			return;
+		if( count == 0 ) {
+			set(other);
+			return;
+		}
+
+		double total = totalWeight + other.totalWeight;
+		double f = other.totalWeight/total;
+		double c = totalWeight*other.totalWeight/total;
+
+		double dsx = other.srcX - srcX;
+		double dsy = other.srcY - srcY;
+		double dsz = other.srcZ - srcZ;
+
+		double ddx = c*(other.dstX - dstX);
+		double ddy = c*(other.dstY - dstY);
+		double ddz = c*(other.dstZ - dstZ);
+
+		s11 += other.s11 + ddx*dsx; s12 += other.s12 + ddx*dsy; s13 += other.s13 + ddx*dsz;
+		s21 += other.s21 + ddy*dsx; s22 += other.s22 + ddy*dsy; s23 += other.s23 + ddy*dsz;
+		s31 += other.s31 + ddz*dsx; s32 += other.s32 + ddz*dsy; s33 += other.s33 + ddz*dsz;
+
+		srcX += f*dsx;
+		srcY += f*dsy;
+		srcZ += f*dsz;
+
+		dstX += f*(other.dstX - dstX);
+		dstY += f*(other.dstY - dstY);
+		dstZ += f*(other.dstZ - dstZ);
+
+		count += other.count;
+		totalWeight = total;
+	}
+
+	/**
+	 * Makes this accumulator identical to 'src'
+	 */
+	public void set( MotionSe3PointIncremental_F64 src ) {
+		count = src.count;
+		totalWeight = src.totalWeight;
+		srcX = src.srcX; srcY = src.srcY; srcZ = src.srcZ;
+		dstX = src.dstX; dstY = src.dstY; dstZ = src.dstZ;
+		s11 = src.s11; s12 = src.s12; s13 = src.s13;
+		s21 = src.s21; s22 = src.s22; s23 = src.s23;
+		s31 = src.s31; s32 = src.s32; s33 = src.s33;
+	}
+
+	/**
+	 * Computes the rigid body motion from the pairs which have been added so far.  The results can be
+	 * retrieved by calling {@link #getTransformSrcToDst()}.
+	 *
+	 * @return true if successful or false if there are too few pairs or the SVD failed
+	 */
+	public boolean solve() {
+		if( count < getMinimumPoints() )
+			return false;
+
+		Sigma.set(3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33);
+		meanSrc.set(srcX, srcY, srcZ);
+		meanDst.set(dstX, dstY, dstZ);
+
+		return alg.computeMotion(Sigma, meanSrc, meanDst);
+	}
+
+	/**
+	 * Discards all previously added pairs, adds the two lists, then solves.
+	 */
+	@Override
+	public boolean process( List<Point3D_F64> srcPts, List<Point3D_F64> dstPts) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		reset();
+		for (int i = 0; i < srcPts.size(); i++) {
+			add(srcPts.get(i), dstPts.get(i));
+		}
+		return solve();
+	}
+
+	@Override
+	public Se3_F64 getTransformSrcToDst() {
+		return alg.getTransformSrcToDst();
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+
+	/**
+	 * Number of pairs which have been added
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Sum of the weights of all the pairs which have been added
+	 */
+	public double getTotalWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * Weighted mean of the 'src' points
+	 */
+	public Point3D_F64 getMeanSrc( Point3D_F64 output ) {
+		if( output == null )
+			output = new Point3D_F64();
+		output.set(srcX, srcY, srcZ);
+		return output;
+	}
+
+	/**
+	 * Weighted mean of the 'dst' points
+	 */
+	public Point3D_F64 getMeanDst( Point3D_F64 output ) {
+		if( output == null )
+			output = new Point3D_F64();
+		output.set(dstX, dstY, dstZ);
+		return output;
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.RobustKernel;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Robust estimate of the rigid body motion between two sets of associated 3D points using iteratively
+ * reweighted least-squares (IRLS).  An initial estimate is found with {@link MotionSe3PointWeightedSVD_F32}.
+ * Then the residual of each pair is computed, converted into a weight using a {@link RobustKernel}, and the
+ * weighted motion is found again.  This is repeated until the motion stops changing or the maximum number
+ * of iterations has been reached.  Tukey and Cauchy kernels are not convex, so the estimate is first refined
+ * with a Huber kernel before switching to them.
+ * </p>
+ *
+ * <p>
+ * Typically this converges in a handful of iterations and can be used instead of RANSAC when there are a modest
+ * number of outliers, or to refine the inlier set found by RANSAC.  Prior weights can optionally be provided,
+ * in which case the final weight is the product of the prior and the kernel's weight.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointRobust_F32 implements MotionTransformPoint<Se3_F32, Point3D_F32> {
+
+	// weight function
+	RobustKernel kernel;
+	// scale of the kernel, in units of distance
+	float threshold;
+	// maximum number of reweighting iterations
+	int maxIterations;
+	// convergence tolerance for the change in the motion's parameters
+	float convergenceTol;
+
+	// finds the weighted motion
+	MotionSe3PointWeightedSVD_F32 alg = new MotionSe3PointWeightedSVD_F32();
+
+	// weight of each pair
+	float weights[] = new float[0];
+
+	Se3_F32 motion = new Se3_F32();
+	Se3_F32 previous = new Se3_F32();
+	Point3D_F32 found = new Point3D_F32();
+
+	// number of iterations in the last call to process
+	int iterations;
+
+	/**
+	 * Configures the estimator
+	 *
+	 * @param kernel Weight function
+	 * @param threshold Scale of the kernel.  Residuals below this distance are considered inliers.
+	 * @param maxIterations Maximum number of times the weights are recomputed for each kernel.
+	 * @param convergenceTol Stop when the change in rotation matrix elements and translation is below this.
+	 */
+	public MotionSe3PointRobust_F32( RobustKernel kernel , float threshold ,
+									 int maxIterations , float convergenceTol ) {
+		this.kernel = kernel;
+		this.threshold = threshold;
+		this.maxIterations = maxIterations;
+		this.convergenceTol = convergenceTol;
+	}
+
+	/**
+	 * Configures the estimator with a default maximum number of iterations and convergence tolerance
+	 *
+	 * @param kernel Weight function
+	 * @param threshold Scale of the kernel.  Residuals below this distance are considered inliers.
+	 */
+	public MotionSe3PointRobust_F32( RobustKernel kernel , float threshold ) {
+		this(kernel,threshold,20, (float)Math.sqrt(GrlConstants.F_EPS));
+	}
+
+	@Override
+	public boolean process( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts) {
+		return process(srcPts, dstPts, null);
+	}
+
+	/**
+	 * Robustly estimates the motion
+	 *
+	 * @param srcPts Points in the source frame. Not modified.
+	 * @param dstPts Corresponding points in the destination frame. Not modified.
+	 * @param priors Prior weight of each pair.  If null every pair has a prior of one. Not modified.
+	 * @return true if successful or false if all the pairs were rejected or the SVD failed
+	 */
+	public boolean process( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts, float priors[] ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		final int N = srcPts.size();
+		if( weights.length < N )
+			weights = new float[N];
+
+		for( int i = 0; i < N; i++ ) {
+			weights[i] = priors == null ? 1 : priors[i];
+		}
+
+		iterations = 0;
+		if( !alg.process(srcPts, dstPts, weights) )
+			return false;
+		motion.set(alg.getTransformSrcToDst());
+
+		// Kernels other than Huber are not convex and need a good initial estimate
+		if( kernel != RobustKernel.HUBER ) {
+			if( !iterate(srcPts, dstPts, priors, RobustKernel.HUBER) )
+				return false;
+		}
+
+		return iterate(srcPts, dstPts, priors, kernel);
+	}
+
+	/**
+	 * Recomputes the weights and the motion until it converges or the maximum number of iterations is exceeded
+	 */
+	private boolean iterate( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts, float priors[] , RobustKernel kernel ) {
+		final int N = srcPts.size();
+
+		for( int iteration = 0; iteration < maxIterations; iteration++ ) {
+			iterations++;
+
+			// update the weights using the residuals from the current estimate
+			for( int i = 0; i < N; i++ ) {
+				SePointOps_F32.transform(motion, srcPts.get(i), found);
+				float r = found.distance(dstPts.get(i));
+				float prior = priors == null ? 1 : priors[i];
+				weights[i] = prior*(float)kernel.weight(r, threshold);
+			}
+
+			previous.set(motion);
+			if( !alg.process(srcPts, dstPts, weights) )
+				return false;
+			motion.set(alg.getTransformSrcToDst());
+
+			if( hasConverged() )
+				break;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks to see if the change in motion between iterations is less than the tolerance
+	 */
+	private boolean hasConverged() {
+		DenseMatrix64F R0 = previous.getR();
+		DenseMatrix64F R1 = motion.getR();
+
+		for( int i = 0; i < 9; i++ ) {
+			if( (float)Math.abs(R0.data[i]-R1.data[i]) > convergenceTol )
+				return false;
+		}
+
+		return (float)Math.abs(previous.T.x - motion.T.x) <= convergenceTol &&
+				(float)Math.abs(previous.T.y - motion.T.y) <= convergenceTol &&
+				(float)Math.abs(previous.T.z - motion.T.z) <= convergenceTol;
+	}
+
+	@Override
+	public Se3_F32 getTransformSrcToDst() {
+		return motion;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+
+	/**
+	 * Weight of each pair from the last iteration.  Only the first N elements are valid.
+	 */
+	public float[] getWeights() {
+		return weights;
+	}
+
+	/**
+	 * Total number of reweighting iterations in the last call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	public RobustKernel getKernel() {
+		return kernel;
+	}
+
+	public void setKernel(RobustKernel kernel) {
+		this.kernel = kernel;
+	}
+
+	public float getThreshold() {
+		return threshold;
+	}
+
+	public void setThreshold(float threshold) {
+		this.threshold = threshold;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public float getConvergenceTol() {
+		return convergenceTol;
+	}
+
+	public void setConvergenceTol(float convergenceTol) {
+		this.convergenceTol = convergenceTol;
+	}
+}
@@ -20,14 +20,12 @@ package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
 import georegression.geometry.GeometryMath_F64;
+import georegression.geometry.Svd3x3_F64;
 import georegression.geometry.UtilPoint3D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.se.Se3_F64;
 import org.ejml.data.DenseMatrix64F;
-import org.ejml.factory.DecompositionFactory;
-import org.ejml.interfaces.decomposition.SingularValueDecomposition;
 import org.ejml.ops.CommonOps;
-import org.ejml.ops.SingularOps;
 
 import java.util.List;
 
@@ -48,7 +46,15 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 	// rigid body motion
 	private Se3_F64 motion = new Se3_F64();
 
-	SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd(3, 3,true,true,false);
+	Svd3x3_F64 svd = new Svd3x3_F64();
+
+	// storage for intermediate results
+	Point3D_F64 meanSrc = new Point3D_F64();
+	Point3D_F64 meanDst = new Point3D_F64();
+	DenseMatrix64F Sigma = new DenseMatrix64F(3,3);
+	DenseMatrix64F U = new DenseMatrix64F(3,3);
+	DenseMatrix64F V = new DenseMatrix64F(3,3);
+	Point3D_F64 temp = new Point3D_F64();
 
 	@Override
 	public Se3_F64 getTransformSrcToDst() {
@@ -61,8 +67,8 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
 
 		// find the mean of both sets of points
-		Point3D_F64 meanSrc = UtilPoint3D_F64.mean(srcPts, null );
-		Point3D_F64 meanDst = UtilPoint3D_F64.mean(dstPts, null );
+		UtilPoint3D_F64.mean(srcPts, meanSrc );
+		UtilPoint3D_F64.mean(dstPts, meanDst );
 
 		final int N = srcPts.size();
 
@@ -96,16 +102,30 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 			s33 += dtz*dfz;
 		}
 
-		DenseMatrix64F Sigma = new DenseMatrix64F( 3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+		Sigma.set( 3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
 
-		if( !svd.decompose(Sigma) )
+		if( !computeMotion(Sigma, meanSrc, meanDst) )
 			throw new RuntimeException("SVD failed!?");
 
-		DenseMatrix64F U = svd.getU(null,false);
-		DenseMatrix64F V = svd.getV(null,false);
+		return true;
+	}
+
+	/**
+	 * Computes the motion from an already computed cross-covariance matrix and the mean of both sets of points.
+	 * The cross-covariance matrix can be scaled by any positive value without changing the solution.
+	 *
+	 * @param Sigma Cross-covariance matrix, sum( (dst_i - meanDst)*(src_i - meanSrc)<sup>T</sup> ). Not modified.
+	 * @param meanSrc Mean of the 'src' points. Not modified.
+	 * @param meanDst Mean of the 'dst' points. Not modified.
+	 * @return true if successful or false if the SVD failed
+	 */
+	public boolean computeMotion( DenseMatrix64F Sigma , Point3D_F64 meanSrc , Point3D_F64 meanDst ) {
+		if( !svd.decompose(Sigma) )
+			return false;
+
+		svd.getU(U);
+		svd.getV(V);
 
-		SingularOps.descendingOrder(U,false,svd.getSingularValues(),3,V,false);
-		
 		if( CommonOps.det(U) < 0 ^ CommonOps.det(V) < 0 ) {
 			// swap sign of the column 2
 			// this only needs to happen if data is planar
@@ -116,7 +136,6 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 
 		CommonOps.multTransB(U, V, motion.getR());
 
-		Point3D_F64 temp = new Point3D_F64();
 		GeometryMath_F64.mult(motion.getR(),meanSrc,temp);
 
 		motion.getT().set(meanDst.x - temp.x,meanDst.y - temp.y,meanDst.z - temp.z);
@@ -124,7 +143,6 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 		return true;
 	}
 
-
 	@Override
 	public int getMinimumPoints() {
 		return 3;
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Weighted version of {@link MotionSe3PointSVD_F32}, also known as the weighted Kabsch algorithm.  Each
+ * associated pair has a weight which specifies its relative influence on the solution.  The function that
+ * is minimized is:<br>
+ * f(p) = sum( i=1:N , w_i*||x_i - R*p_i - T||<sup>2</sup> )<br>
+ * If no weights are specified then all pairs are given the same weight.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointWeightedSVD_F32 implements MotionTransformPoint<Se3_F32, Point3D_F32> {
+
+	// computes the motion from the weighted statistics
+	MotionSe3PointSVD_F32 alg = new MotionSe3PointSVD_F32();
+
+	// storage for intermediate results
+	Point3D_F32 meanSrc = new Point3D_F32();
+	Point3D_F32 meanDst = new Point3D_F32();
+	DenseMatrix64F Sigma = new DenseMatrix64F(3,3);
+
+	@Override
+	public Se3_F32 getTransformSrcToDst() {
+		return alg.getTransformSrcToDst();
+	}
+
+	@Override
+	public boolean process( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts) {
+		return process(srcPts, dstPts, null);
+	}
+
+	/**
+	 * Computes the motion which minimizes the weighted difference between the two sets of points.
+	 *
+	 * @param srcPts Points in the source frame. Not modified.
+	 * @param dstPts Corresponding points in the destination frame. Not modified.
+	 * @param weights Weight of each pair.  Must be &ge; 0.  If null every pair has a weight of one. Not modified.
+	 * @return true if successful or false if the weights summed up to zero or the SVD failed
+	 */
+	public boolean process( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts, float weights[] ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+		if( weights != null && weights.length < srcPts.size() )
+			throw new IllegalArgumentException( "There must be one weight for each pair of points" );
+
+		final int N = srcPts.size();
+
+		// find the weighted mean of both sets of points
+		float totalWeight = 0;
+		float sx = 0, sy = 0, sz = 0;
+		float dx = 0, dy = 0, dz = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			float w = weights == null ? 1 : weights[i];
+			Point3D_F32 f = srcPts.get( i );
+			Point3D_F32 t = dstPts.get( i );
+
+			sx += w*f.x; sy += w*f.y; sz += w*f.z;
+			dx += w*t.x; dy += w*t.y; dz += w*t.z;
+			totalWeight += w;
+		}
+
+		if( totalWeight <= 0 )
+			return false;
+
+		meanSrc.set(sx/totalWeight, sy/totalWeight, sz/totalWeight);
+		meanDst.set(dx/totalWeight, dy/totalWeight, dz/totalWeight);
+
+		// compute the weighted cross-covariance matrix
+		float s11 = 0, s12 = 0, s13 = 0;
+		float s21 = 0, s22 = 0, s23 = 0;
+		float s31 = 0, s32 = 0, s33 = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			float w = weights == null ? 1 : weights[i];
+			if( w == 0 )
+				continue;
+			Point3D_F32 f = srcPts.get( i );
+			Point3D_F32 t = dstPts.get( i );
+
+			float dfx = f.x - meanSrc.x;
+			float dfy = f.y - meanSrc.y;
+			float dfz = f.z - meanSrc.z;
+
+			float dtx = w*(t.x - meanDst.x);
+			float dty = w*(t.y - meanDst.y);
+			float dtz = w*(t.z - meanDst.z);
+
+			s11 += dtx*dfx;
+			s12 += dtx*dfy;
+			s13 += dtx*dfz;
+			s21 += dty*dfx;
+			s22 += dty*dfy;
+			s23 += dty*dfz;
+			s31 += dtz*dfx;
+			s32 += dtz*dfy;
+			s33 += dtz*dfz;
+		}
+
+		Sigma.set( 3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+
+		return alg.computeMotion(Sigma, meanSrc, meanDst);
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
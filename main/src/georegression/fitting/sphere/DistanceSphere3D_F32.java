@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+
+/**
+ * Absolute distance of 3D points from the surface of a {@link Sphere3D_F32}.
+ *
+ * @author Peter Abeles
+ */
+public class DistanceSphere3D_F32 extends DistanceFromModelBulk_F32<Sphere3D_F32,Point3D_F32> {
+
+	float cx, cy, cz, radius;
+
+	@Override
+	public void setModel( Sphere3D_F32 sphere ) {
+		cx = sphere.center.x;
+		cy = sphere.center.y;
+		cz = sphere.center.z;
+		radius = sphere.radius;
+	}
+
+	@Override
+	public /**/double computeDistance( Point3D_F32 p ) {
+		float dx = p.x - cx, dy = p.y - cy, dz = p.z - cz;
+		return (float)Math.abs(Math.sqrt(dx*dx + dy*dy + dz*dz) - radius);
+	}
+
+	@Override
+	public int getPointLength() {
+		return 3;
+	}
+
+	@Override
+	public void computeDistance( float data[] , int start , int end , float distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			float dx = data[index] - cx, dy = data[index+1] - cy, dz = data[index+2] - cz;
+			distances[i] = (float)Math.abs(Math.sqrt(dx*dx + dy*dy + dz*dz) - radius);
+		}
+	}
+
+	/**
+	 * Points are inliers if their distance squared from the center is inside the shell, which avoids a sqrt
+	 */
+	@Override
+	public int countInliers( float data[] , int start , int end , float threshold ) {
+		float inner = radius - threshold;
+		float lower = inner > 0 ? inner*inner : 0;
+		float outer = radius + threshold;
+		float upper = outer*outer;
+
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			float dx = data[index] - cx, dy = data[index+1] - cy, dz = data[index+2] - cz;
+			float d2 = dx*dx + dy*dy + dz*dz;
+			if( d2 >= lower && d2 <= upper )
+				count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+
+/**
+ * Absolute distance of 3D points from the surface of a {@link Sphere3D_F64}.
+ *
+ * @author Peter Abeles
+ */
+public class DistanceSphere3D_F64 extends DistanceFromModelBulk_F64<Sphere3D_F64,Point3D_F64> {
+
+	double cx, cy, cz, radius;
+
+	@Override
+	public void setModel( Sphere3D_F64 sphere ) {
+		cx = sphere.center.x;
+		cy = sphere.center.y;
+		cz = sphere.center.z;
+		radius = sphere.radius;
+	}
+
+	@Override
+	public /**/double computeDistance( Point3D_F64 p ) {
+		double dx = p.x - cx, dy = p.y - cy, dz = p.z - cz;
+		return Math.abs(Math.sqrt(dx*dx + dy*dy + dz*dz) - radius);
+	}
+
+	@Override
+	public int getPointLength() {
+		return 3;
+	}
+
+	@Override
+	public void computeDistance( double data[] , int start , int end , double distances[] ) {
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			double dx = data[index] - cx, dy = data[index+1] - cy, dz = data[index+2] - cz;
+			distances[i] = Math.abs(Math.sqrt(dx*dx + dy*dy + dz*dz) - radius);
+		}
+	}
+
+	/**
+	 * Points are inliers if their distance squared from the center is inside the shell, which avoids a sqrt
+	 */
+	@Override
+	public int countInliers( double data[] , int start , int end , double threshold ) {
+		double inner = radius - threshold;
+		double lower = inner > 0 ? inner*inner : 0;
+		double outer = radius + threshold;
+		double upper = outer*outer;
+
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int index = i*3;
+			double dx = data[index] - cx, dy = data[index+1] - cy, dz = data[index+2] - cz;
+			double d2 = dx*dx + dy*dy + dz*dz;
+			if( d2 >= lower && d2 <= upper )
+				count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.fitting.LevenbergMarquardtFused;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.ddogleg.fitting.modelset.ModelFitter;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Non-linear least-squares fitting of 3D points to a {@link Sphere3D_F32 sphere} which never forms the full
+ * Jacobian.  Each iteration J<sup>T</sup>J and J<sup>T</sup>r are computed in a single pass through the points by
+ * {@link SphereToPointFusedJacobian_F32} and then {@link LevenbergMarquardtFused} solves for the step.  Memory usage
+ * is independent of the number of points and, optionally, the points can be processed in parallel.  Produces
+ * the same solution as {@link FitSphereToPoints_F32}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitSphereToPointsFused_F32 implements ModelFitter<Sphere3D_F32,Point3D_F32> {
+
+	// computes the normal equations
+	private SphereToPointFusedJacobian_F32 function;
+
+	// The solver
+	private LevenbergMarquardtFused optimizer;
+
+	// need to convert sphere to float[]
+	private /**/double[] param = new /**/double[4];
+
+	// maximum number of iterations
+	private int maxIterations;
+
+	// tolerances for optimization
+	private /**/double ftol;
+	private /**/double gtol;
+
+	// used to convert float[] into shape parameters
+	private CodecSphere3D_F32 codec = new CodecSphere3D_F32();
+
+	/**
+	 * Constructor which provides access to all tuning parameters
+	 *
+	 * @param optimizer Optimization algorithm
+	 * @param maxIterations Maximum number of iterations that the optimizer can perform. Try 100
+	 * @param ftol Convergence tolerance. See {@link LevenbergMarquardtFused}.
+	 * @param gtol Convergence tolerance. See {@link LevenbergMarquardtFused}.
+	 * @param concurrent If true the points will be processed in parallel
+	 */
+	public FitSphereToPointsFused_F32(LevenbergMarquardtFused optimizer,
+								 int maxIterations, /**/double ftol, /**/double gtol,
+								 boolean concurrent ) {
+		this.optimizer = optimizer;
+		this.maxIterations = maxIterations;
+		this.ftol = ftol;
+		this.gtol = gtol;
+		this.function = new SphereToPointFusedJacobian_F32(concurrent);
+	}
+
+	/**
+	 * Simplified constructor.  Only process access to the maximum number of iterations.
+	 * @param maxIterations Maximum number of iterations.  Try 100
+	 * @param concurrent If true the points will be processed in parallel
+	 */
+	public FitSphereToPointsFused_F32( int maxIterations , boolean concurrent ) {
+		this(new LevenbergMarquardtFused(1e-3),maxIterations,1e-12,0,concurrent);
+	}
+
+	@Override
+	public boolean fitModel(List<Point3D_F32> dataSet, Sphere3D_F32 initial, Sphere3D_F32 found) {
+
+		codec.encode(initial,param);
+
+		function.setPoints(dataSet);
+
+		optimizer.setFunction(function);
+		optimizer.initialize(param,ftol,gtol);
+
+		for( int i = 0; i < maxIterations; i++ ) {
+			if( optimizer.iterate() )
+				break;
+		}
+
+		codec.decode(optimizer.getParameters(),found);
+
+		return true;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the sphere which passes through four points.  Only the first four points in the list are used.
+ * Relative to the first point, p<sub>0</sub>, the center c satisfies 2*q<sub>i</sub>&middot;c = |q<sub>i</sub>|<sup>2</sup>
+ * where q<sub>i</sub> = p<sub>i</sub> - p<sub>0</sub>, a 3x3 linear system that's solved using Cramer's rule.
+ * The system's determinant is the triple product of the three edges, which goes to zero when the points are
+ * coplanar.  Samples where the normalized determinant is less than the tolerance are rejected.  No memory is
+ * declared.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GenerateSphere3D_F32 implements ModelGenerator<Sphere3D_F32,Point3D_F32> {
+
+	// tolerance used to reject degenerate samples
+	private float tol;
+
+	/**
+	 * @param tol Samples are rejected if the triple product divided by the length of the edges is less than this
+	 */
+	public GenerateSphere3D_F32( float tol ) {
+		this.tol = tol;
+	}
+
+	public GenerateSphere3D_F32() {
+		this( (float)Math.sqrt(GrlConstants.F_EPS) );
+	}
+
+	@Override
+	public boolean generate( List<Point3D_F32> dataSet, Sphere3D_F32 output ) {
+		Point3D_F32 p0 = dataSet.get(0);
+		Point3D_F32 p1 = dataSet.get(1);
+		Point3D_F32 p2 = dataSet.get(2);
+		Point3D_F32 p3 = dataSet.get(3);
+
+		float ax = p1.x - p0.x, ay = p1.y - p0.y, az = p1.z - p0.z;
+		float bx = p2.x - p0.x, by = p2.y - p0.y, bz = p2.z - p0.z;
+		float cx = p3.x - p0.x, cy = p3.y - p0.y, cz = p3.z - p0.z;
+
+		// cross products of the edges
+		float bcx = by*cz - bz*cy, bcy = bz*cx - bx*cz, bcz = bx*cy - by*cx;
+		float cax = cy*az - cz*ay, cay = cz*ax - cx*az, caz = cx*ay - cy*ax;
+		float abx = ay*bz - az*by, aby = az*bx - ax*bz, abz = ax*by - ay*bx;
+
+		float det = ax*bcx + ay*bcy + az*bcz;
+
+		float a2 = ax*ax + ay*ay + az*az;
+		float b2 = bx*bx + by*by + bz*bz;
+		float c2 = cx*cx + cy*cy + cz*cz;
+
+		if( det*det <= tol*tol*a2*b2*c2 || det == 0 )
+			return false;
+
+		float scale = 0.5f/det;
+		float x = (a2*bcx + b2*cax + c2*abx)*scale;
+		float y = (a2*bcy + b2*cay + c2*aby)*scale;
+		float z = (a2*bcz + b2*caz + c2*abz)*scale;
+
+		float r = (float)Math.sqrt(x*x + y*y + z*z);
+		output.set(p0.x + x, p0.y + y, p0.z + z, r);
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 4;
+	}
+}
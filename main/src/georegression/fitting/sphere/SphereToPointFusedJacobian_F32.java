@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.fitting.FusedLeastSquaresFunction;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Fused computation of {@link SphereToPointSignedDistance_F32} and {@link SphereToPointSignedDistanceJacobian_F32}.
+ * The residual and gradient of each point are computed and immediately added to J<sup>T</sup>J and
+ * J<sup>T</sup>r, so the M by 4 Jacobian is never formed.  If concurrent is true then the points are
+ * split into a fixed number of partitions which are processed using fork-join and the partial sums are then added
+ * together.  The partitions only depend on the number of points and their sums are added in order, so the results
+ * are the same every time and don't depend on the number of threads.  Memory usage doesn't depend on the number
+ * of points and after the first call no memory is declared.
+ * </p>
+ *
+ * See {@link CodecSphere3D_F32} for how the model is parametrized.
+ *
+ * @author Peter Abeles
+ */
+public class SphereToPointFusedJacobian_F32 implements FusedLeastSquaresFunction {
+	// number of parameters
+	private static final int N = 4;
+	// length of the array which stores the upper triangle of J'J, J'r, and the cost
+	private static final int SUMS_LENGTH = N*N + N + 1;
+	// number of partitions the points are split into when processed concurrently
+	private static final int PARTITIONS = 64;
+
+	// model of the sphere
+	private Sphere3D_F32 sphere = new Sphere3D_F32();
+
+	// points whose distance from the sphere is being computed
+	private List<Point3D_F32> points;
+
+	// used to convert float[] into shape parameters
+	private CodecSphere3D_F32 codec = new CodecSphere3D_F32();
+
+	// storage for the sums
+	private /**/double sums[] = new /**/double[SUMS_LENGTH];
+	// gradient of a single residual
+	private float gradient[] = new float[N];
+
+	// if true the points are processed in parallel
+	private boolean concurrent;
+
+	// partial sums for each partition of points.  Only declared if concurrent
+	private /**/double partitionSums[][];
+	// gradient storage which isn't being used by a thread
+	private final List<float[]> available = new ArrayList<float[]>();
+	// if the Jacobian is being computed in the partitions
+	private boolean partitionJacobian;
+
+	// processes partitions of points.  Created once so that no memory is declared when processing
+	private IntRangeConsumer accumulatePartitions = new IntRangeConsumer() {
+		@Override
+		public void accept(int start, int end) {
+			float g[] = takeGradient();
+			try {
+				long numPoints = points.size();
+				for( int partition = start; partition < end; partition++ ) {
+					/**/double local[] = partitionSums[partition];
+					for( int i = 0; i < SUMS_LENGTH; i++ ) {
+						local[i] = 0;
+					}
+					int first = (int)(partition*numPoints/PARTITIONS);
+					int last = (int)((partition+1)*numPoints/PARTITIONS);
+					accumulate(first, last, partitionJacobian, local, g);
+				}
+			} finally {
+				returnGradient(g);
+			}
+		}
+	};
+
+	/**
+	 * @param concurrent If true the points are processed in parallel using {@link GrlConcurrency}
+	 */
+	public SphereToPointFusedJacobian_F32( boolean concurrent ) {
+		this.concurrent = concurrent;
+		if( concurrent )
+			partitionSums = new /**/double[PARTITIONS][SUMS_LENGTH];
+	}
+
+	public SphereToPointFusedJacobian_F32() {
+		this(false);
+	}
+
+	public void setPoints(List<Point3D_F32> points) {
+		this.points = points;
+	}
+
+	@Override
+	public int getNumOfInputsN() {
+		return N;
+	}
+
+	@Override
+	public /**/double computeCost( /**/double[] param ) {
+		return compute(param, false);
+	}
+
+	@Override
+	public /**/double computeNormalEquations( /**/double[] param, DenseMatrix64F JtJ, DenseMatrix64F Jtr ) {
+		/**/double cost = compute(param, true);
+
+		for( int i = 0; i < N; i++ ) {
+			for( int j = i; j < N; j++ ) {
+				JtJ.data[i*N+j] = JtJ.data[j*N+i] = sums[i*N+j];
+			}
+			Jtr.data[i] = sums[N*N+i];
+		}
+
+		return cost;
+	}
+
+	private /**/double compute( /**/double[] param , boolean jacobian ) {
+		codec.decode(param, sphere);
+
+		for( int i = 0; i < SUMS_LENGTH; i++ ) {
+			sums[i] = 0;
+		}
+
+		if( concurrent ) {
+			partitionJacobian = jacobian;
+			// partitions processed by each thread so that it has at least DEFAULT_MIN_BLOCK points
+			int pointsPerPartition = points.size()/PARTITIONS;
+			int minPartitions = pointsPerPartition > 0 ? GrlConcurrency.DEFAULT_MIN_BLOCK/pointsPerPartition : PARTITIONS;
+			GrlConcurrency.loopBlocks(0, PARTITIONS, minPartitions > 0 ? minPartitions : 1, accumulatePartitions);
+
+			// add them in the same order every time
+			for( int partition = 0; partition < PARTITIONS; partition++ ) {
+				/**/double local[] = partitionSums[partition];
+				for( int i = 0; i < SUMS_LENGTH; i++ ) {
+					sums[i] += local[i];
+				}
+			}
+		} else {
+			accumulate(0, points.size(), jacobian, sums, gradient);
+		}
+
+		return sums[SUMS_LENGTH-1];
+	}
+
+	/**
+	 * Adds the contribution of points from start to end-1 to the sums
+	 */
+	private void accumulate( int start , int end , boolean jacobian , /**/double sums[] , float g[] ) {
+		Point3D_F32 c = sphere.center;
+		float radius = sphere.radius;
+
+		for( int i = start; i < end; i++ ) {
+			Point3D_F32 p = points.get(i);
+
+			float x = c.x - p.x;
+			float y = c.y - p.y;
+			float z = c.z - p.z;
+
+			float distance = (float)Math.sqrt(x*x + y*y + z*z);
+
+			if( jacobian ) {
+				g[0] = x/distance;
+				g[1] = y/distance;
+				g[2] = z/distance;
+				g[3] = -1;
+			}
+
+			float r = distance - radius;
+			sums[SUMS_LENGTH-1] += r*r;
+
+			if( jacobian ) {
+				// only the upper triangle is computed
+				for( int row = 0; row < N; row++ ) {
+					float gr = g[row];
+					int index = row*N;
+					for( int col = row; col < N; col++ ) {
+						sums[index+col] += gr*g[col];
+					}
+					sums[N*N+row] += gr*r;
+				}
+			}
+		}
+	}
+
+	private float[] takeGradient() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new float[N];
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnGradient( float g[] ) {
+		synchronized( available ) {
+			available.add(g);
+		}
+	}
+}
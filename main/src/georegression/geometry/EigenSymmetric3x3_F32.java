@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Vector3D_F32;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a 3x3 symmetric matrix using cyclic Jacobi rotations.  Specialized
+ * for the 3x3 case, it is much faster than a general purpose decomposition and does not declare any memory.
+ * Typically used on covariance/scatter matrices.  Eigenvalues are sorted in descending order.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EigenSymmetric3x3_F32 {
+
+	// maximum number of sweeps through the off diagonal elements
+	public static final int MAX_SWEEPS = 50;
+
+	// working copy of the matrix which is diagonalized.  row-major
+	float a[] = new float[9];
+	// eigenvectors are stored in the columns.  row-major
+	float v[] = new float[9];
+	// eigenvalues in descending order
+	float values[] = new float[3];
+
+	/**
+	 * Decomposes the symmetric matrix.  Only the upper triangle is specified.
+	 *
+	 * @return true if successful or false if it failed to converge
+	 */
+	public boolean process( float a11 , float a12 , float a13 ,
+										  float a22 , float a23 ,
+												   float a33 ) {
+		a[0] = a11; a[1] = a12; a[2] = a13;
+		a[3] = a12; a[4] = a22; a[5] = a23;
+		a[6] = a13; a[7] = a23; a[8] = a33;
+
+		v[0] = 1; v[1] = 0; v[2] = 0;
+		v[3] = 0; v[4] = 1; v[5] = 0;
+		v[6] = 0; v[7] = 0; v[8] = 1;
+
+		boolean converged = false;
+		for( int sweep = 0; sweep < MAX_SWEEPS; sweep++ ) {
+			float off = (float)Math.abs(a[1]) + (float)Math.abs(a[2]) + (float)Math.abs(a[5]);
+			float diag = (float)Math.abs(a[0]) + (float)Math.abs(a[4]) + (float)Math.abs(a[8]);
+
+			if( off <= GrlConstants.F_EPS*diag || off == 0 ) {
+				converged = true;
+				break;
+			}
+
+			rotate(0,1);
+			rotate(0,2);
+			rotate(1,2);
+		}
+
+		if( !converged )
+			return false;
+
+		values[0] = a[0]; values[1] = a[4]; values[2] = a[8];
+		sortDescending();
+
+		return true;
+	}
+
+	/**
+	 * Applies a Jacobi rotation which zeros element (p,q)
+	 */
+	private void rotate( int p , int q ) {
+		float apq = a[p*3+q];
+		if( apq == 0 )
+			return;
+
+		float app = a[p*3+p];
+		float aqq = a[q*3+q];
+
+		float theta = (aqq - app)/(2*apq);
+		float root = (float)Math.sqrt(theta*theta + 1);
+		float t = 1.0f/(Math.abs(theta) + root);
+		if( theta < 0 )
+			t = -t;
+		float norm = (float)Math.sqrt(t*t + 1);
+		float c = 1.0f/norm;
+		float s = t*c;
+
+		// A = A*P
+		for( int k = 0; k < 3; k++ ) {
+			float akp = a[k*3+p];
+			float akq = a[k*3+q];
+			a[k*3+p] = c*akp - s*akq;
+			a[k*3+q] = s*akp + c*akq;
+		}
+		// A = P^T*A
+		for( int k = 0; k < 3; k++ ) {
+			float apk = a[p*3+k];
+			float aqk = a[q*3+k];
+			a[p*3+k] = c*apk - s*aqk;
+			a[q*3+k] = s*apk + c*aqk;
+		}
+		a[p*3+q] = 0;
+		a[q*3+p] = 0;
+
+		// V = V*P
+		for( int k = 0; k < 3; k++ ) {
+			float vkp = v[k*3+p];
+			float vkq = v[k*3+q];
+			v[k*3+p] = c*vkp - s*vkq;
+			v[k*3+q] = s*vkp + c*vkq;
+		}
+	}
+
+	/**
+	 * Sorts the eigenvalues and the columns of V
+	 */
+	private void sortDescending() {
+		if( values[0] < values[1] ) swap(0,1);
+		if( values[0] < values[2] ) swap(0,2);
+		if( values[1] < values[2] ) swap(1,2);
+	}
+
+	private void swap( int i , int j ) {
+		float tmp = values[i]; values[i] = values[j]; values[j] = tmp;
+		for( int k = 0; k < 3; k++ ) {
+			tmp = v[k*3+i];
+			v[k*3+i] = v[k*3+j];
+			v[k*3+j] = tmp;
+		}
+	}
+
+	/**
+	 * Returns the eigenvalue.  Sorted in descending order.
+	 *
+	 * @param index Which eigenvalue. 0 to 2
+	 */
+	public float getEigenvalue( int index ) {
+		return values[index];
+	}
+
+	/**
+	 * Returns the eigenvector with unit length which corresponds to {@link #getEigenvalue(int)}.
+	 *
+	 * @param index Which eigenvector. 0 to 2
+	 * @param output (Optional) storage for the eigenvector
+	 * @return The eigenvector
+	 */
+	public Vector3D_F32 getEigenvector( int index , Vector3D_F32 output ) {
+		if( output == null )
+			output = new Vector3D_F32();
+		output.set(v[index],v[3+index],v[6+index]);
+		return output;
+	}
+}
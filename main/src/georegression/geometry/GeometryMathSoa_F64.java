@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.shapes.Box3D_F64;
+import org.ejml.data.DenseMatrix64F;
+
+/**
+ * <p>
+ * Batch operations on points which are stored as a structure of arrays (SoA), i.e. one array for each coordinate.
+ * Element 'i' in each array is the same point.  Because every loop reads and writes consecutive elements
+ * without any branches, the JIT can compile them into SIMD instructions.  Points which are interleaved
+ * (x,y,z,x,y,z,...) can't be vectorized this way, see {@link #split} and {@link #interleave} to convert
+ * between the two formats.
+ * </p>
+ *
+ * <p>
+ * Unless stated otherwise, the input and output arrays can be the same.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GeometryMathSoa_F64 {
+
+	/**
+	 * Copies interleaved points (x,y,z,...) into separate arrays.
+	 *
+	 * @param xyz Interleaved points. Not modified.
+	 * @param x (Output) x-coordinate
+	 * @param y (Output) y-coordinate
+	 * @param z (Output) z-coordinate
+	 * @param length Number of points
+	 */
+	public static void split( double xyz[] , double x[] , double y[] , double z[] , int length ) {
+		for (int i = 0, index = 0; i < length; i++, index += 3) {
+			x[i] = xyz[index  ];
+			y[i] = xyz[index+1];
+			z[i] = xyz[index+2];
+		}
+	}
+
+	/**
+	 * Copies points in separate arrays into a single interleaved array (x,y,z,...).
+	 *
+	 * @param x x-coordinate. Not modified.
+	 * @param y y-coordinate. Not modified.
+	 * @param z z-coordinate. Not modified.
+	 * @param xyz (Output) Interleaved points
+	 * @param length Number of points
+	 */
+	public static void interleave( double x[] , double y[] , double z[] , double xyz[] , int length ) {
+		for (int i = 0, index = 0; i < length; i++, index += 3) {
+			xyz[index  ] = x[i];
+			xyz[index+1] = y[i];
+			xyz[index+2] = z[i];
+		}
+	}
+
+	/**
+	 * Applies a rigid body transform to the points, p' = R*p + T.  Fastest when the output arrays are not
+	 * the input arrays.
+	 *
+	 * @param se The transform. Not modified.
+	 * @param x x-coordinate. Not modified.
+	 * @param y y-coordinate. Not modified.
+	 * @param z z-coordinate. Not modified.
+	 * @param outX (Output) transformed x-coordinate
+	 * @param outY (Output) transformed y-coordinate
+	 * @param outZ (Output) transformed z-coordinate
+	 * @param length Number of points
+	 */
+	public static void transform( Se3_F64 se , double x[] , double y[] , double z[] ,
+								  double outX[] , double outY[] , double outZ[] , int length ) {
+		DenseMatrix64F R = se.getR();
+		final double r11 = (double)R.data[0], r12 = (double)R.data[1], r13 = (double)R.data[2];
+		final double r21 = (double)R.data[3], r22 = (double)R.data[4], r23 = (double)R.data[5];
+		final double r31 = (double)R.data[6], r32 = (double)R.data[7], r33 = (double)R.data[8];
+		final double tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		if( outX == x || outX == y || outX == z || outY == x || outY == y || outY == z ) {
+			// in place, each point needs to be read before it's written to
+			for (int i = 0; i < length; i++) {
+				double px = x[i], py = y[i], pz = z[i];
+
+				outX[i] = r11*px + r12*py + r13*pz + tx;
+				outY[i] = r21*px + r22*py + r23*pz + ty;
+				outZ[i] = r31*px + r32*py + r33*pz + tz;
+			}
+		} else {
+			// writing to one array at a time lets the JIT vectorize each loop, which it won't do when
+			// several outputs are written in the same loop
+			for (int i = 0; i < length; i++) {
+				outX[i] = r11*x[i] + r12*y[i] + r13*z[i] + tx;
+			}
+			for (int i = 0; i < length; i++) {
+				outY[i] = r21*x[i] + r22*y[i] + r23*z[i] + ty;
+			}
+			for (int i = 0; i < length; i++) {
+				outZ[i] = r31*x[i] + r32*y[i] + r33*z[i] + tz;
+			}
+		}
+	}
+
+	/**
+	 * Applies an affine transform to 2D points.
+	 *
+	 * @param affine The transform. Not modified.
+	 * @param x x-coordinate. Not modified.
+	 * @param y y-coordinate. Not modified.
+	 * @param outX (Output) transformed x-coordinate
+	 * @param outY (Output) transformed y-coordinate
+	 * @param length Number of points
+	 */
+	public static void transform( Affine2D_F64 affine , double x[] , double y[] ,
+								  double outX[] , double outY[] , int length ) {
+		final double a11 = affine.a11, a12 = affine.a12, a21 = affine.a21, a22 = affine.a22;
+		final double tx = affine.tx, ty = affine.ty;
+
+		if( outX == x || outX == y ) {
+			for (int i = 0; i < length; i++) {
+				double px = x[i], py = y[i];
+
+				outX[i] = a11*px + a12*py + tx;
+				outY[i] = a21*px + a22*py + ty;
+			}
+		} else {
+			for (int i = 0; i < length; i++) {
+				outX[i] = a11*x[i] + a12*y[i] + tx;
+			}
+			for (int i = 0; i < length; i++) {
+				outY[i] = a21*x[i] + a22*y[i] + ty;
+			}
+		}
+	}
+
+	/**
+	 * Applies a homography to 2D points.
+	 *
+	 * @param H The transform. Not modified.
+	 * @param x x-coordinate. Not modified.
+	 * @param y y-coordinate. Not modified.
+	 * @param outX (Output) transformed x-coordinate
+	 * @param outY (Output) transformed y-coordinate
+	 * @param length Number of points
+	 */
+	public static void transform( Homography2D_F64 H , double x[] , double y[] ,
+								  double outX[] , double outY[] , int length ) {
+		final double a11 = H.a11, a12 = H.a12, a13 = H.a13;
+		final double a21 = H.a21, a22 = H.a22, a23 = H.a23;
+		final double a31 = H.a31, a32 = H.a32, a33 = H.a33;
+
+		for (int i = 0; i < length; i++) {
+			double px = x[i], py = y[i];
+			double w = a31*px + a32*py + a33;
+
+			outX[i] = (a11*px + a12*py + a13)/w;
+			outY[i] = (a21*px + a22*py + a23)/w;
+		}
+	}
+
+	/**
+	 * Dot product of every point with the same vector.
+	 *
+	 * @param vx x-component of the vector
+	 * @param vy y-component of the vector
+	 * @param vz z-component of the vector
+	 * @param x x-coordinate. Not modified.
+	 * @param y y-coordinate. Not modified.
+	 * @param z z-coordinate. Not modified.
+	 * @param output (Output) dot product of each point
+	 * @param length Number of points
+	 */
+	public static void dot( double vx , double vy , double vz ,
+							double x[] , double y[] , double z[] , double output[] , int length ) {
+		for (int i = 0; i < length; i++) {
+			output[i] = vx*x[i] + vy*y[i] + vz*z[i];
+		}
+	}
+
+	/**
+	 * Dot product between corresponding elements in two sets of vectors, output[i] = a[i]<sup>T</sup>b[i]
+	 *
+	 * @param length Number of vectors
+	 */
+	public static void dot( double ax[] , double ay[] , double az[] ,
+							double bx[] , double by[] , double bz[] , double output[] , int length ) {
+		for (int i = 0; i < length; i++) {
+			output[i] = ax[i]*bx[i] + ay[i]*by[i] + az[i]*bz[i];
+		}
+	}
+
+	/**
+	 * Signed distance of every point from the plane.  See
+	 * {@link georegression.metric.Distance3D_F64#distance(PlaneGeneral3D_F64, georegression.struct.point.Point3D_F64)}.
+	 *
+	 * @param plane The plane. Not modified.
+	 * @param x x-coordinate. Not modified.
+	 * @param y y-coordinate. Not modified.
+	 * @param z z-coordinate. Not modified.
+	 * @param distances (Output) signed distance of each point
+	 * @param length Number of points
+	 */
+	public static void distance( PlaneGeneral3D_F64 plane , double x[] , double y[] , double z[] ,
+								 double distances[] , int length ) {
+		double n = Math.sqrt( plane.A*plane.A + plane.B*plane.B + plane.C*plane.C);
+		final double A = plane.A/n;
+		final double B = plane.B/n;
+		final double C = plane.C/n;
+		final double D = plane.D/n;
+
+		for (int i = 0; i < length; i++) {
+			distances[i] = A*x[i] + B*y[i] + C*z[i] - D;
+		}
+	}
+
+	/**
+	 * Finds the smallest {@link Box3D_F64} which contains all the points.
+	 *
+	 * @param x x-coordinate. Not modified.
+	 * @param y y-coordinate. Not modified.
+	 * @param z z-coordinate. Not modified.
+	 * @param length Number of points
+	 * @param bounding (Output) Bounding box
+	 */
+	public static void boundingBox( double x[] , double y[] , double z[] , int length , Box3D_F64 bounding ) {
+		bounding.p0.x = min(x, length);
+		bounding.p0.y = min(y, length);
+		bounding.p0.z = min(z, length);
+		bounding.p1.x = max(x, length);
+		bounding.p1.y = max(y, length);
+		bounding.p1.z = max(z, length);
+	}
+
+	/**
+	 * Minimum value in the first 'length' elements of the array.  A conditional assignment is much faster
+	 * than Math.min(), which needs to handle NaN and negative zero.
+	 */
+	private static double min( double values[] , int length ) {
+		double min = Double.MAX_VALUE;
+		for (int i = 0; i < length; i++) {
+			double v = values[i];
+			min = v < min ? v : min;
+		}
+		return min;
+	}
+
+	private static double max( double values[] , int length ) {
+		double max = -Double.MAX_VALUE;
+		for (int i = 0; i < length; i++) {
+			double v = values[i];
+			max = v > max ? v : max;
+		}
+		return max;
+	}
+}
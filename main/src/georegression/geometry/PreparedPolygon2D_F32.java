@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.ddogleg.sorting.QuickSort_F32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Polygon which has been preprocessed so that many containment and distance queries can be answered quickly.
+ * Building takes about O(N log N) time, where N is the number of vertexes, and afterwards a typical query only
+ * looks at a few edges.  Use this instead of {@link georegression.metric.Intersection2D_F32#containConcave} or
+ * {@link georegression.metric.Distance2D_F32#distance(Polygon2D_F32, Point2D_F32)} when the same polygon is
+ * checked against a large number of points.
+ * </p>
+ *
+ * <p>
+ * Containment is found by casting a ray along the +x axis and counting the edges it crosses, just like
+ * {@link georegression.metric.Intersection2D_F32#containConvex}.  The polygon is split into horizontal bands,
+ * each of which contains the edges that overlap it sorted by their largest x value, so only edges near the
+ * ray are checked.  Points which lie along the perimeter may or may not be considered as inside.
+ * </p>
+ *
+ * <p>
+ * Distance to the perimeter is found using a uniform grid.  Each cell contains the edges which overlap it.
+ * Rings of cells around the point are searched until no closer edge is possible.
+ * </p>
+ *
+ * <p>
+ * Queries don't modify the structure, so it can be shared between threads once built.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PreparedPolygon2D_F32 {
+
+	// fraction of a cell that edge bounds are padded by to handle round off error
+	private static final float PAD = 0.0001f;
+
+	// the polygon's edges. Edge i goes from vertex i to vertex i+1
+	private float ax[] = new float[0], ay[] = new float[0];
+	private float bx[] = new float[0], by[] = new float[0];
+	private int numEdges;
+
+	// bounding box of the polygon
+	private float x0, y0, x1, y1;
+
+	// horizontal bands used for containment
+	private int numBands;
+	private float bandHeight;
+	// edges in band i are bandEdges[bandStart[i]] to bandEdges[bandStart[i+1]-1]
+	private int bandStart[] = new int[0];
+	private int bandEdges[] = new int[0];
+	// largest x value of each edge
+	private float edgeMaxX[] = new float[0];
+
+	// uniform grid used for distance
+	private int cols, rows;
+	private float cellWidth, cellHeight;
+	private int cellStart[] = new int[0];
+	private int cellEdges[] = new int[0];
+
+	private boolean concurrent;
+
+	// sorts edges by their largest x value
+	private QuickSort_F32 sorter = new QuickSort_F32();
+	private int order[] = new int[0];
+
+	public PreparedPolygon2D_F32( Polygon2D_F32 polygon ) {
+		setPolygon(polygon);
+	}
+
+	public PreparedPolygon2D_F32() {
+	}
+
+	/**
+	 * Builds the data structures for the polygon.  The polygon is copied and can be modified after this
+	 * function returns.
+	 *
+	 * @param polygon Simple polygon which is either CW or CCW with at least 3 vertexes. Not modified.
+	 */
+	public void setPolygon( Polygon2D_F32 polygon ) {
+		int N = polygon.size();
+		if( N < 3 )
+			throw new IllegalArgumentException("Polygon must have at least 3 vertexes");
+
+		if( ax.length < N ) {
+			ax = new float[N]; ay = new float[N];
+			bx = new float[N]; by = new float[N];
+			edgeMaxX = new float[N];
+			order = new int[N];
+		}
+		numEdges = N;
+
+		x0 = y0 = Float.MAX_VALUE;
+		x1 = y1 = -Float.MAX_VALUE;
+		for (int i = 0; i < N; i++) {
+			Point2D_F32 a = polygon.get(i);
+			Point2D_F32 b = polygon.get((i+1)%N);
+			ax[i] = a.x; ay[i] = a.y;
+			bx[i] = b.x; by[i] = b.y;
+			edgeMaxX[i] = a.x > b.x ? a.x : b.x;
+
+			if( a.x < x0 ) x0 = a.x;
+			if( a.x > x1 ) x1 = a.x;
+			if( a.y < y0 ) y0 = a.y;
+			if( a.y > y1 ) y1 = a.y;
+		}
+
+		buildBands();
+		buildGrid();
+	}
+
+	/**
+	 * Assigns edges to horizontal bands.  Edges are added from the largest max x to the smallest, so the edges
+	 * inside of each band end up sorted.
+	 */
+	private void buildBands() {
+		numBands = numEdges;
+		bandHeight = (y1 - y0)/numBands;
+		if( bandHeight <= 0 )
+			bandHeight = 1;
+
+		// sort by -maxX so that the order is descending
+		for (int i = 0; i < numEdges; i++) {
+			edgeMaxX[i] = -edgeMaxX[i];
+		}
+		sorter.sort(edgeMaxX, numEdges, order);
+		for (int i = 0; i < numEdges; i++) {
+			edgeMaxX[i] = -edgeMaxX[i];
+		}
+
+		if( bandStart.length < numBands + 1 )
+			bandStart = new int[numBands + 1];
+		else
+			Arrays.fill(bandStart, 0, numBands + 1, 0);
+
+		// count the number of edges in each band
+		for (int i = 0; i < numEdges; i++) {
+			if( ay[i] == by[i] )
+				continue; // horizontal edges are never crossed
+			int lower = bandIndex(ay[i] < by[i] ? ay[i] : by[i], -PAD);
+			int upper = bandIndex(ay[i] < by[i] ? by[i] : ay[i], PAD);
+			for (int band = lower; band <= upper; band++) {
+				bandStart[band+1]++;
+			}
+		}
+		for (int i = 0; i < numBands; i++) {
+			bandStart[i+1] += bandStart[i];
+		}
+
+		if( bandEdges.length < bandStart[numBands] )
+			bandEdges = new int[bandStart[numBands]];
+
+		// use bandStart to track where the next edge goes then shift it back
+		for (int k = 0; k < numEdges; k++) {
+			int i = order[k];
+			if( ay[i] == by[i] )
+				continue;
+			int lower = bandIndex(ay[i] < by[i] ? ay[i] : by[i], -PAD);
+			int upper = bandIndex(ay[i] < by[i] ? by[i] : ay[i], PAD);
+			for (int band = lower; band <= upper; band++) {
+				bandEdges[bandStart[band]++] = i;
+			}
+		}
+		for (int i = numBands; i > 0; i--) {
+			bandStart[i] = bandStart[i-1];
+		}
+		bandStart[0] = 0;
+	}
+
+	/**
+	 * Assigns edges to the cells in a uniform grid which their bounding box overlaps
+	 */
+	private void buildGrid() {
+		float width = x1 - x0;
+		float height = y1 - y0;
+
+		// about one cell for each edge
+		if( width <= 0 && height <= 0 ) {
+			cols = rows = 1;
+		} else if( width <= 0 ) {
+			cols = 1;
+			rows = numEdges;
+		} else if( height <= 0 ) {
+			cols = numEdges;
+			rows = 1;
+		} else {
+			cols = (int)Math.ceil(Math.sqrt(numEdges*width/height));
+			rows = (int)Math.ceil(numEdges/(float)cols);
+		}
+		cellWidth = width > 0 ? width/cols : 1;
+		cellHeight = height > 0 ? height/rows : 1;
+
+		int numCells = cols*rows;
+		if( cellStart.length < numCells + 1 )
+			cellStart = new int[numCells + 1];
+		else
+			Arrays.fill(cellStart, 0, numCells + 1, 0);
+
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = 0; i < numEdges; i++) {
+				int col0 = cellCol(ax[i] < bx[i] ? ax[i] : bx[i], -PAD);
+				int col1 = cellCol(ax[i] < bx[i] ? bx[i] : ax[i], PAD);
+				int row0 = cellRow(ay[i] < by[i] ? ay[i] : by[i], -PAD);
+				int row1 = cellRow(ay[i] < by[i] ? by[i] : ay[i], PAD);
+
+				for (int row = row0; row <= row1; row++) {
+					for (int col = col0; col <= col1; col++) {
+						int cell = row*cols + col;
+						if( pass == 0 )
+							cellStart[cell+1]++;
+						else
+							cellEdges[cellStart[cell]++] = i;
+					}
+				}
+			}
+
+			if( pass == 0 ) {
+				for (int i = 0; i < numCells; i++) {
+					cellStart[i+1] += cellStart[i];
+				}
+				if( cellEdges.length < cellStart[numCells] )
+					cellEdges = new int[cellStart[numCells]];
+			} else {
+				for (int i = numCells; i > 0; i--) {
+					cellStart[i] = cellStart[i-1];
+				}
+				cellStart[0] = 0;
+			}
+		}
+	}
+
+	private int bandIndex( float y , float pad ) {
+		int band = (int)Math.floor((y - y0)/bandHeight + pad);
+		return band < 0 ? 0 : (band >= numBands ? numBands-1 : band);
+	}
+
+	private int cellCol( float x , float pad ) {
+		int col = (int)Math.floor((x - x0)/cellWidth + pad);
+		return col < 0 ? 0 : (col >= cols ? cols-1 : col);
+	}
+
+	private int cellRow( float y , float pad ) {
+		int row = (int)Math.floor((y - y0)/cellHeight + pad);
+		return row < 0 ? 0 : (row >= rows ? rows-1 : row);
+	}
+
+	/**
+	 * Returns true if the point is inside the polygon
+	 */
+	public boolean isInside( Point2D_F32 p ) {
+		return isInside(p.x, p.y);
+	}
+
+	/**
+	 * Returns true if the point is inside the polygon
+	 */
+	public boolean isInside( float x , float y ) {
+		if( x < x0 || x > x1 || y < y0 || y > y1 )
+			return false;
+
+		int band = bandIndex(y, 0);
+		int end = bandStart[band+1];
+
+		boolean inside = false;
+		for (int k = bandStart[band]; k < end; k++) {
+			int i = bandEdges[k];
+			// edges are sorted by max x, so the remaining edges can't be crossed by the ray
+			if( edgeMaxX[i] < x )
+				break;
+
+			float ay = this.ay[i], by = this.by[i];
+			if( (ay > y) != (by > y) ) {
+				float ax = this.ax[i];
+				if( x < (bx[i] - ax)*(y - ay)/(by - ay) + ax )
+					inside = !inside;
+			}
+		}
+		return inside;
+	}
+
+	/**
+	 * Euclidean distance from the point to the closest point on the polygon's perimeter.  Same as
+	 * {@link georegression.metric.Distance2D_F32#distance(Polygon2D_F32, Point2D_F32)}.
+	 */
+	public float distance( Point2D_F32 p ) {
+		return (float)Math.sqrt(distanceSq(p.x, p.y));
+	}
+
+	/**
+	 * Euclidean distance from the point to the closest point on the polygon's perimeter.
+	 */
+	public float distance( float x , float y ) {
+		return (float)Math.sqrt(distanceSq(x, y));
+	}
+
+	/**
+	 * Euclidean distance squared from the point to the closest point on the polygon's perimeter.
+	 */
+	public float distanceSq( float x , float y ) {
+		int col = cellCol(x, 0);
+		int row = cellRow(y, 0);
+
+		// any cell r rings away is at least this far from the point
+		float minCell = cellWidth < cellHeight ? cellWidth : cellHeight;
+
+		int maxRing = col > cols-1-col ? col : cols-1-col;
+		int maxRow = row > rows-1-row ? row : rows-1-row;
+		if( maxRow > maxRing )
+			maxRing = maxRow;
+
+		float best = Float.MAX_VALUE;
+		for (int ring = 0; ring <= maxRing; ring++) {
+			if( ring > 1 ) {
+				float bound = (ring-1)*minCell;
+				if( bound*bound > best )
+					break;
+			}
+
+			int r0 = row - ring, r1 = row + ring;
+			int c0 = col - ring, c1 = col + ring;
+			for (int r = r0; r <= r1; r++) {
+				if( r < 0 || r >= rows )
+					continue;
+				// only the perimeter of the ring is searched
+				int step = (r == r0 || r == r1) ? 1 : c1 - c0;
+				for (int c = c0; c <= c1; c += step) {
+					if( c < 0 || c >= cols )
+						continue;
+					best = closestInCell(r*cols + c, x, y, best);
+				}
+			}
+		}
+		return best;
+	}
+
+	private float closestInCell( int cell , float x , float y , float best ) {
+		int end = cellStart[cell+1];
+		for (int k = cellStart[cell]; k < end; k++) {
+			int i = cellEdges[k];
+			float ax = this.ax[i], ay = this.ay[i];
+			float dx = bx[i] - ax, dy = by[i] - ay;
+			float px = x - ax, py = y - ay;
+
+			float length2 = dx*dx + dy*dy;
+			float t = length2 == 0 ? 0 : (px*dx + py*dy)/length2;
+			if( t < 0 ) t = 0;
+			else if( t > 1 ) t = 1;
+
+			float ex = px - t*dx, ey = py - t*dy;
+			float d = ex*ex + ey*ey;
+			if( d < best )
+				best = d;
+		}
+		return best;
+	}
+
+	/**
+	 * Checks to see if each point is inside the polygon.
+	 *
+	 * @param x x-coordinate of each point. Not modified.
+	 * @param y y-coordinate of each point. Not modified.
+	 * @param length Number of points
+	 * @param inside (Output) true if the point is inside
+	 */
+	public void isInside( final float x[] , final float y[] , int length , final boolean inside[] ) {
+		IntRangeConsumer consumer = new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				for (int i = start; i < end; i++) {
+					inside[i] = isInside(x[i], y[i]);
+				}
+			}
+		};
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, length, consumer);
+		else
+			consumer.accept(0, length);
+	}
+
+	/**
+	 * Computes the distance of each point from the polygon's perimeter.
+	 *
+	 * @param x x-coordinate of each point. Not modified.
+	 * @param y y-coordinate of each point. Not modified.
+	 * @param length Number of points
+	 * @param distance (Output) Distance of each point
+	 */
+	public void distance( final float x[] , final float y[] , int length , final float distance[] ) {
+		IntRangeConsumer consumer = new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				for (int i = start; i < end; i++) {
+					distance[i] = (float)Math.sqrt(distanceSq(x[i], y[i]));
+				}
+			}
+		};
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, length, consumer);
+		else
+			consumer.accept(0, length);
+	}
+
+	public int getNumEdges() {
+		return numEdges;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then batch queries will be split across multiple threads
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
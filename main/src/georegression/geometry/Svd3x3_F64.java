@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import org.ejml.data.DenseMatrix64F;
+
+/**
+ * <p>
+ * Singular value decomposition of a 3x3 matrix, A = U*diag(s)*V<sup>T</sup>, computed using one-sided Jacobi
+ * rotations.  Specialized for the 3x3 case, it is much faster than a general purpose decomposition and does
+ * not declare any memory.  Singular values are sorted in descending order.  U and V are always orthogonal,
+ * even when A is singular, but their determinant can be -1.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Svd3x3_F64 {
+
+	// maximum number of sweeps through all the pairs of columns
+	public static final int MAX_SWEEPS = 50;
+
+	// working copy of A.  After converging its columns are U scaled by the singular values.  row-major
+	double w[] = new double[9];
+	// right singular vectors are stored in the columns.  row-major
+	double v[] = new double[9];
+	// left singular vectors are stored in the columns.  row-major
+	double u[] = new double[9];
+	// singular values in descending order
+	double values[] = new double[3];
+
+	/**
+	 * Decomposes the 3x3 matrix
+	 *
+	 * @param A 3x3 matrix. Not modified.
+	 * @return true if successful or false if it failed to converge
+	 */
+	public boolean decompose( DenseMatrix64F A ) {
+		if( A.numRows != 3 || A.numCols != 3 )
+			throw new IllegalArgumentException("Must be a 3x3 matrix");
+
+		/**/double d[] = A.data;
+		return decompose(
+				(double)d[0], (double)d[1], (double)d[2],
+				(double)d[3], (double)d[4], (double)d[5],
+				(double)d[6], (double)d[7], (double)d[8]);
+	}
+
+	/**
+	 * Decomposes the 3x3 matrix specified by its elements
+	 *
+	 * @return true if successful or false if it failed to converge
+	 */
+	public boolean decompose( double a11 , double a12 , double a13 ,
+							  double a21 , double a22 , double a23 ,
+							  double a31 , double a32 , double a33 ) {
+		w[0] = a11; w[1] = a12; w[2] = a13;
+		w[3] = a21; w[4] = a22; w[5] = a23;
+		w[6] = a31; w[7] = a32; w[8] = a33;
+
+		v[0] = 1; v[1] = 0; v[2] = 0;
+		v[3] = 0; v[4] = 1; v[5] = 0;
+		v[6] = 0; v[7] = 0; v[8] = 1;
+
+		boolean converged = false;
+		for( int sweep = 0; sweep < MAX_SWEEPS; sweep++ ) {
+			boolean changed = rotate(0,1);
+			changed |= rotate(0,2);
+			changed |= rotate(1,2);
+
+			if( !changed ) {
+				converged = true;
+				break;
+			}
+		}
+
+		if( !converged )
+			return false;
+
+		// the singular values are the length of each column
+		for( int i = 0; i < 3; i++ ) {
+			double x = w[i], y = w[3+i], z = w[6+i];
+			values[i] = Math.sqrt(x*x + y*y + z*z);
+		}
+
+		sortDescending();
+		computeU();
+
+		return true;
+	}
+
+	/**
+	 * Rotates columns p and q of W so that they are orthogonal to each other.
+	 *
+	 * @return true if a rotation was applied
+	 */
+	private boolean rotate( int p , int q ) {
+		double alpha = 0, beta = 0, gamma = 0;
+		for( int k = 0; k < 3; k++ ) {
+			double wp = w[k*3+p];
+			double wq = w[k*3+q];
+			alpha += wp*wp;
+			beta += wq*wq;
+			gamma += wp*wq;
+		}
+
+		if( gamma == 0 || Math.abs(gamma) <= GrlConstants.EPS* Math.sqrt(alpha*beta) )
+			return false;
+
+		double zeta = (beta - alpha)/(2*gamma);
+		double root = Math.sqrt(zeta*zeta + 1);
+		double t = 1.0/(Math.abs(zeta) + root);
+		if( zeta < 0 )
+			t = -t;
+		double norm = Math.sqrt(t*t + 1);
+		double c = 1.0/norm;
+		double s = t*c;
+
+		for( int k = 0; k < 3; k++ ) {
+			double wp = w[k*3+p];
+			double wq = w[k*3+q];
+			w[k*3+p] = c*wp - s*wq;
+			w[k*3+q] = s*wp + c*wq;
+
+			double vp = v[k*3+p];
+			double vq = v[k*3+q];
+			v[k*3+p] = c*vp - s*vq;
+			v[k*3+q] = s*vp + c*vq;
+		}
+
+		return true;
+	}
+
+	private void sortDescending() {
+		if( values[0] < values[1] ) swap(0,1);
+		if( values[0] < values[2] ) swap(0,2);
+		if( values[1] < values[2] ) swap(1,2);
+	}
+
+	private void swap( int i , int j ) {
+		double tmp = values[i]; values[i] = values[j]; values[j] = tmp;
+		for( int k = 0; k < 3; k++ ) {
+			tmp = w[k*3+i]; w[k*3+i] = w[k*3+j]; w[k*3+j] = tmp;
+			tmp = v[k*3+i]; v[k*3+i] = v[k*3+j]; v[k*3+j] = tmp;
+		}
+	}
+
+	/**
+	 * Normalizes the columns of W to get U.  If A is singular then the missing columns are selected
+	 * so that U is orthogonal.
+	 */
+	private void computeU() {
+		double tol = values[0]*GrlConstants.EPS*3;
+
+		if( values[0] <= tol || values[0] == 0 ) {
+			u[0] = 1; u[1] = 0; u[2] = 0;
+			u[3] = 0; u[4] = 1; u[5] = 0;
+			u[6] = 0; u[7] = 0; u[8] = 1;
+			return;
+		}
+
+		normalizeColumn(0);
+
+		if( values[1] > tol ) {
+			normalizeColumn(1);
+		} else {
+			// select an axis which is far from being parallel to the first column
+			double x = Math.abs(u[0]), y = Math.abs(u[3]), z = Math.abs(u[6]);
+			double px, py, pz;
+			if( x <= y && x <= z ) {
+				px = 0; py = -u[6]; pz = u[3];
+			} else if( y <= z ) {
+				px = -u[6]; py = 0; pz = u[0];
+			} else {
+				px = -u[3]; py = u[0]; pz = 0;
+			}
+			double n = Math.sqrt(px*px + py*py + pz*pz);
+			u[1] = px/n; u[4] = py/n; u[7] = pz/n;
+		}
+
+		if( values[2] > tol ) {
+			normalizeColumn(2);
+		} else {
+			// cross product of the first two columns
+			u[2] = u[3]*u[7] - u[6]*u[4];
+			u[5] = u[6]*u[1] - u[0]*u[7];
+			u[8] = u[0]*u[4] - u[3]*u[1];
+		}
+	}
+
+	private void normalizeColumn( int i ) {
+		double s = values[i];
+		u[i] = w[i]/s;
+		u[3+i] = w[3+i]/s;
+		u[6+i] = w[6+i]/s;
+	}
+
+	/**
+	 * Returns the singular value.  Sorted in descending order.
+	 *
+	 * @param index Which singular value. 0 to 2
+	 */
+	public double getSingularValue( int index ) {
+		return values[index];
+	}
+
+	/**
+	 * Returns the left singular vectors as the columns of U
+	 *
+	 * @param U (Optional) storage for the 3x3 matrix
+	 * @return U
+	 */
+	public DenseMatrix64F getU( DenseMatrix64F U ) {
+		return copy(u,U);
+	}
+
+	/**
+	 * Returns the right singular vectors as the columns of V
+	 *
+	 * @param V (Optional) storage for the 3x3 matrix
+	 * @return V
+	 */
+	public DenseMatrix64F getV( DenseMatrix64F V ) {
+		return copy(v,V);
+	}
+
+	private static DenseMatrix64F copy( double src[] , DenseMatrix64F dst ) {
+		if( dst == null )
+			dst = new DenseMatrix64F(3,3);
+		else
+			dst.reshape(3,3);
+
+		for( int i = 0; i < 9; i++ ) {
+			dst.data[i] = src[i];
+		}
+		return dst;
+	}
+}
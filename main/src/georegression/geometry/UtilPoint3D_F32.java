@@ -19,6 +19,7 @@
 package georegression.geometry;
 
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import georegression.struct.shapes.Box3D_F32;
 
 import java.util.ArrayList;
@@ -188,4 +189,70 @@ public class UtilPoint3D_F32 {
 		bounding.p0.set(minX,minY,minZ);
 		bounding.p1.set(maxX, maxY, maxZ);
 	}
+
+	/**
+	 * Computes the mean of all the points in the cloud.
+	 *
+	 * @param cloud Point cloud
+	 * @param mean (Optional) storage for the mean.  Can be null
+	 * @return Mean
+	 */
+	public static Point3D_F32 mean( PointCloud3D_F32 cloud , Point3D_F32 mean ) {
+		if( mean == null )
+			mean = new Point3D_F32();
+
+		final float data[] = cloud.data;
+		final int end = cloud.size*3;
+
+		float x = 0, y = 0, z = 0;
+
+		for( int i = 0; i < end; i += 3 ) {
+			x += data[i  ];
+			y += data[i+1];
+			z += data[i+2];
+		}
+
+		mean.x = x / cloud.size;
+		mean.y = y / cloud.size;
+		mean.z = z / cloud.size;
+
+		return mean;
+	}
+
+	/**
+	 * Finds the minimal volume {@link Box3D_F32} which contains all the points in the cloud.
+	 *
+	 * @param cloud Input: Point cloud.
+	 * @param bounding Output: Bounding box
+	 */
+	public static void boundingBox(PointCloud3D_F32 cloud, Box3D_F32 bounding) {
+		float minX=Float.MAX_VALUE,maxX=-Float.MAX_VALUE;
+		float minY=Float.MAX_VALUE,maxY=-Float.MAX_VALUE;
+		float minZ=Float.MAX_VALUE,maxZ=-Float.MAX_VALUE;
+
+		final float data[] = cloud.data;
+		final int end = cloud.size*3;
+
+		for( int i = 0; i < end; i += 3 ) {
+			float x = data[i  ];
+			float y = data[i+1];
+			float z = data[i+2];
+
+			if( x < minX )
+				minX = x;
+			if( x > maxX )
+				maxX = x;
+			if( y < minY )
+				minY = y;
+			if( y > maxY )
+				maxY = y;
+			if( z < minZ )
+				minZ = z;
+			if( z > maxZ )
+				maxZ = z;
+		}
+
+		bounding.p0.set(minX,minY,minZ);
+		bounding.p1.set(maxX, maxY, maxZ);
+	}
 }
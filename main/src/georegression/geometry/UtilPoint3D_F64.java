@@ -19,6 +19,7 @@
 package georegression.geometry;
 
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.shapes.Box3D_F64;
 
 import java.util.ArrayList;
@@ -188,4 +189,70 @@ public class UtilPoint3D_F64 {
 		bounding.p0.set(minX,minY,minZ);
 		bounding.p1.set(maxX, maxY, maxZ);
 	}
+
+	/**
+	 * Computes the mean of all the points in the cloud.
+	 *
+	 * @param cloud Point cloud
+	 * @param mean (Optional) storage for the mean.  Can be null
+	 * @return Mean
+	 */
+	public static Point3D_F64 mean( PointCloud3D_F64 cloud , Point3D_F64 mean ) {
+		if( mean == null )
+			mean = new Point3D_F64();
+
+		final double data[] = cloud.data;
+		final int end = cloud.size*3;
+
+		double x = 0, y = 0, z = 0;
+
+		for( int i = 0; i < end; i += 3 ) {
+			x += data[i  ];
+			y += data[i+1];
+			z += data[i+2];
+		}
+
+		mean.x = x / cloud.size;
+		mean.y = y / cloud.size;
+		mean.z = z / cloud.size;
+
+		return mean;
+	}
+
+	/**
+	 * Finds the minimal volume {@link Box3D_F64} which contains all the points in the cloud.
+	 *
+	 * @param cloud Input: Point cloud.
+	 * @param bounding Output: Bounding box
+	 */
+	public static void boundingBox(PointCloud3D_F64 cloud, Box3D_F64 bounding) {
+		double minX=Double.MAX_VALUE,maxX=-Double.MAX_VALUE;
+		double minY=Double.MAX_VALUE,maxY=-Double.MAX_VALUE;
+		double minZ=Double.MAX_VALUE,maxZ=-Double.MAX_VALUE;
+
+		final double data[] = cloud.data;
+		final int end = cloud.size*3;
+
+		for( int i = 0; i < end; i += 3 ) {
+			double x = data[i  ];
+			double y = data[i+1];
+			double z = data[i+2];
+
+			if( x < minX )
+				minX = x;
+			if( x > maxX )
+				maxX = x;
+			if( y < minY )
+				minY = y;
+			if( y > maxY )
+				maxY = y;
+			if( z < minZ )
+				minZ = z;
+			if( z > maxZ )
+				maxZ = z;
+		}
+
+		bounding.p0.set(minX,minY,minZ);
+		bounding.p1.set(maxX, maxY, maxZ);
+	}
 }
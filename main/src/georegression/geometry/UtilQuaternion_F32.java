@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.so.Quaternion_F32;
+
+/**
+ * <p>
+ * Quaternion algebra and rotation of points by a quaternion.  Nothing is declared unless the output is null,
+ * which makes these functions suitable for inner loops, e.g. integrating IMU measurements.  Unless stated
+ * otherwise, the output can be the same instance as an input.
+ * </p>
+ *
+ * <p>
+ * Quaternions follow the same convention as {@link ConvertRotation3D_F32#quaternionToMatrix}, where the rotation
+ * of point p is q*p*conj(q).
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class UtilQuaternion_F32 {
+
+	/**
+	 * If the angle between two quaternions is less than this, in radians, then {@link #slerp} uses
+	 * {@link #nlerp} instead.  At this angle they differ by less than round off error and slerp would divide
+	 * by a number close to zero.
+	 */
+	public static final float SLERP_CUTOFF = 0.0001f;
+
+	/**
+	 * Below this magnitude of the vector part, {@link #exp} uses a Taylor series to avoid dividing by zero.
+	 */
+	public static final float EXP_CUTOFF = 0.0001f;
+
+	/**
+	 * Computes the Hamilton product, output = a*b.  If both are unit quaternions then the output is the rotation
+	 * of 'b' followed by 'a'.
+	 *
+	 * @param a (Input) Left quaternion. Not modified.
+	 * @param b (Input) Right quaternion. Not modified.
+	 * @param output (Optional) Storage for the product.
+	 * @return The product
+	 */
+	public static Quaternion_F32 multiply( Quaternion_F32 a , Quaternion_F32 b , Quaternion_F32 output ) {
+		if( output == null )
+			output = new Quaternion_F32();
+
+		float w = a.w*b.w - a.x*b.x - a.y*b.y - a.z*b.z;
+		float x = a.w*b.x + a.x*b.w + a.y*b.z - a.z*b.y;
+		float y = a.w*b.y - a.x*b.z + a.y*b.w + a.z*b.x;
+		float z = a.w*b.z + a.x*b.y - a.y*b.x + a.z*b.w;
+
+		output.set(w, x, y, z);
+		return output;
+	}
+
+	/**
+	 * Computes the conjugate, (w,-x,-y,-z).  For a unit quaternion this is the inverse rotation.
+	 *
+	 * @param q (Input) Quaternion. Not modified.
+	 * @param output (Optional) Storage for the conjugate.
+	 * @return The conjugate
+	 */
+	public static Quaternion_F32 conjugate( Quaternion_F32 q , Quaternion_F32 output ) {
+		if( output == null )
+			output = new Quaternion_F32();
+
+		output.set(q.w, -q.x, -q.y, -q.z);
+		return output;
+	}
+
+	/**
+	 * Computes the inverse, conj(q)/|q|<sup>2</sup>.  Use {@link #conjugate} if it's a unit quaternion.
+	 *
+	 * @param q (Input) Quaternion. Not modified.
+	 * @param output (Optional) Storage for the inverse.
+	 * @return The inverse
+	 */
+	public static Quaternion_F32 inverse( Quaternion_F32 q , Quaternion_F32 output ) {
+		if( output == null )
+			output = new Quaternion_F32();
+
+		float n2 = normSq(q);
+		output.set(q.w/n2, -q.x/n2, -q.y/n2, -q.z/n2);
+		return output;
+	}
+
+	/**
+	 * Returns the squared norm of the quaternion
+	 */
+	public static float normSq( Quaternion_F32 q ) {
+		return q.w*q.w + q.x*q.x + q.y*q.y + q.z*q.z;
+	}
+
+	/**
+	 * Returns the norm of the quaternion
+	 */
+	public static float norm( Quaternion_F32 q ) {
+		return (float)Math.sqrt(normSq(q));
+	}
+
+	/**
+	 * Dot product of the two quaternions as if they were 4-vectors
+	 */
+	public static float dot( Quaternion_F32 a , Quaternion_F32 b ) {
+		return a.w*b.w + a.x*b.x + a.y*b.y + a.z*b.z;
+	}
+
+	/**
+	 * <p>
+	 * Computes the exponential of a quaternion.  For q = (w,v), exp(q) = e<sup>w</sup>*(cos|v|, sin(|v|)*v/|v|).
+	 * </p>
+	 *
+	 * <p>
+	 * The unit quaternion for a rotation of theta radians around the unit axis 'n' is exp((0,n*theta/2)), which
+	 * is how an angular velocity times the time step is typically converted into a rotation.
+	 * </p>
+	 *
+	 * @param q (Input) Quaternion. Not modified.
+	 * @param output (Optional) Storage for the exponential.
+	 * @return The exponential
+	 */
+	public static Quaternion_F32 exp( Quaternion_F32 q , Quaternion_F32 output ) {
+		if( output == null )
+			output = new Quaternion_F32();
+
+		float n2 = q.x*q.x + q.y*q.y + q.z*q.z;
+		float n = (float)Math.sqrt(n2);
+		float scale = (float)Math.exp(q.w);
+
+		float c,s;
+		if( n < EXP_CUTOFF ) {
+			// Taylor series of cos(n) and sin(n)/n
+			c = 1 - n2/2;
+			s = 1 - n2/6;
+		} else {
+			c = (float)Math.cos(n);
+			s = (float)Math.sin(n)/n;
+		}
+
+		output.set(scale*c, scale*s*q.x, scale*s*q.y, scale*s*q.z);
+		return output;
+	}
+
+	/**
+	 * Computes the natural logarithm of a quaternion, which is the inverse of {@link #exp}.  For q = (w,v),
+	 * log(q) = (ln|q|, v/|v|*atan2(|v|,w)).  The vector part of the log of a unit quaternion is the axis of
+	 * rotation times half the angle.
+	 *
+	 * @param q (Input) Quaternion. Must not be zero. Not modified.
+	 * @param output (Optional) Storage for the logarithm.
+	 * @return The logarithm
+	 */
+	public static Quaternion_F32 log( Quaternion_F32 q , Quaternion_F32 output ) {
+		if( output == null )
+			output = new Quaternion_F32();
+
+		float n2 = q.x*q.x + q.y*q.y + q.z*q.z;
+		float n = (float)Math.sqrt(n2);
+		float norm = (float)Math.sqrt(n2 + q.w*q.w);
+
+		// atan2 remains accurate for small angles, unlike acos
+		float s;
+		if( n == 0 )
+			s = 1.0f/q.w;
+		else
+			s = (float)Math.atan2(n, q.w)/n;
+
+		output.set( (float)Math.log(norm), s*q.x, s*q.y, s*q.z);
+		return output;
+	}
+
+	/**
+	 * <p>
+	 * Spherical linear interpolation between two unit quaternions along the shortest path.  The rotation changes
+	 * at a constant angular velocity as 't' goes from 0 to 1.  If the angle between them is less than
+	 * {@link #SLERP_CUTOFF} then {@link #nlerp} is used instead.
+	 * </p>
+	 *
+	 * @param a (Input) Unit quaternion at t=0. Not modified.
+	 * @param b (Input) Unit quaternion at t=1. Not modified.
+	 * @param t Interpolation parameter.  0 to 1.
+	 * @param output (Optional) Storage for the interpolated quaternion.
+	 * @return The interpolated unit quaternion
+	 */
+	public static Quaternion_F32 slerp( Quaternion_F32 a , Quaternion_F32 b , float t , Quaternion_F32 output ) {
+		if( output == null )
+			output = new Quaternion_F32();
+
+		// q and -q are the same rotation, pick whichever is closer to take the shortest path
+		float sign = dot(a, b) < 0 ? -1 : 1;
+		float bw = sign*b.w, bx = sign*b.x, by = sign*b.y, bz = sign*b.z;
+
+		// angle between the two.  Computed from the chord lengths since acos(dot) is inaccurate near zero
+		float dw = a.w-bw, dx = a.x-bx, dy = a.y-by, dz = a.z-bz;
+		float sw = a.w+bw, sx = a.x+bx, sy = a.y+by, sz = a.z+bz;
+		float halfTheta = (float)Math.atan2(Math.sqrt(dw*dw + dx*dx + dy*dy + dz*dz),
+				(float)Math.sqrt(sw*sw + sx*sx + sy*sy + sz*sz));
+		float theta = 2*halfTheta;
+
+		if( theta < SLERP_CUTOFF ) {
+			return nlerp(a, b, t, output);
+		}
+
+		float sinTheta = (float)Math.sin(theta);
+		float wa = (float)Math.sin((1-t)*theta)/sinTheta;
+		float wb = (float)Math.sin(t*theta)/sinTheta;
+
+		output.set(wa*a.w + wb*bw, wa*a.x + wb*bx, wa*a.y + wb*by, wa*a.z + wb*bz);
+		return output;
+	}
+
+	/**
+	 * <p>
+	 * Normalized linear interpolation between two unit quaternions along the shortest path.  Much faster than
+	 * {@link #slerp} and follows the same path, but the angular velocity isn't constant.  The difference is
+	 * negligible when the two rotations are close to each other.
+	 * </p>
+	 *
+	 * @param a (Input) Unit quaternion at t=0. Not modified.
+	 * @param b (Input) Unit quaternion at t=1. Not modified.
+	 * @param t Interpolation parameter.  0 to 1.
+	 * @param output (Optional) Storage for the interpolated quaternion.
+	 * @return The interpolated unit quaternion
+	 */
+	public static Quaternion_F32 nlerp( Quaternion_F32 a , Quaternion_F32 b , float t , Quaternion_F32 output ) {
+		if( output == null )
+			output = new Quaternion_F32();
+
+		float wa = 1-t;
+		float wb = dot(a, b) < 0 ? -t : t;
+
+		output.set(wa*a.w + wb*b.w, wa*a.x + wb*b.x, wa*a.y + wb*b.y, wa*a.z + wb*b.z);
+		output.normalize();
+		return output;
+	}
+
+	/**
+	 * Rotates a point by a unit quaternion.  Uses p' = p + 2*w*(v&times;p) + 2*v&times;(v&times;p), which requires
+	 * fewer operations than converting into a rotation matrix first.
+	 *
+	 * @param q (Input) Unit quaternion. Not modified.
+	 * @param p (Input) Point which is to be rotated. Not modified.
+	 * @param output (Optional) Storage for the rotated point.  Can be the same instance as 'p'.
+	 * @return The rotated point
+	 */
+	public static Point3D_F32 rotate( Quaternion_F32 q , Point3D_F32 p , Point3D_F32 output ) {
+		if( output == null )
+			output = new Point3D_F32();
+
+		// t = 2*(v x p)
+		float tx = 2*(q.y*p.z - q.z*p.y);
+		float ty = 2*(q.z*p.x - q.x*p.z);
+		float tz = 2*(q.x*p.y - q.y*p.x);
+
+		// p' = p + w*t + v x t
+		float x = p.x + q.w*tx + q.y*tz - q.z*ty;
+		float y = p.y + q.w*ty + q.z*tx - q.x*tz;
+		float z = p.z + q.w*tz + q.x*ty - q.y*tx;
+
+		output.set(x, y, z);
+		return output;
+	}
+
+	/**
+	 * <p>
+	 * Rotates points which are packed inside of an array by a unit quaternion.  Point 'i' is read from
+	 * input[inputOffset + i*inputStride] and written to output[outputOffset + i*outputStride], with the
+	 * coordinates in x,y,z order.  The quaternion is converted into a rotation matrix once, which is cheaper
+	 * when there are more than a few points.
+	 * </p>
+	 * <p>
+	 * The input and output can be the same array if the offset and stride are also the same.
+	 * </p>
+	 *
+	 * @param q The rotation.  Unit quaternion. Not modified.
+	 * @param input Array containing the points. Not modified.
+	 * @param inputOffset Index of the first point in input
+	 * @param inputStride Number of elements between two points in input.  Must be at least 3.
+	 * @param output Array the rotated points are written to. Modified.
+	 * @param outputOffset Index of the first point in output
+	 * @param outputStride Number of elements between two points in output.  Must be at least 3.
+	 * @param length Number of points which are rotated
+	 */
+	public static void rotate( Quaternion_F32 q ,
+							   float input[], int inputOffset, int inputStride,
+							   float output[], int outputOffset, int outputStride, int length ) {
+		final float q0 = q.w, q1 = q.x, q2 = q.y, q3 = q.z;
+
+		final float r11 = q0*q0 + q1*q1 - q2*q2 - q3*q3;
+		final float r12 = 2*(q1*q2 - q0*q3);
+		final float r13 = 2*(q1*q3 + q0*q2);
+		final float r21 = 2*(q1*q2 + q0*q3);
+		final float r22 = q0*q0 - q1*q1 + q2*q2 - q3*q3;
+		final float r23 = 2*(q2*q3 - q0*q1);
+		final float r31 = 2*(q1*q3 - q0*q2);
+		final float r32 = 2*(q2*q3 + q0*q1);
+		final float r33 = q0*q0 - q1*q1 - q2*q2 + q3*q3;
+
+		for( int i = 0; i < length; i++ ) {
+			int indexIn = inputOffset + i*inputStride;
+			int indexOut = outputOffset + i*outputStride;
+
+			float x = input[indexIn  ];
+			float y = input[indexIn+1];
+			float z = input[indexIn+2];
+
+			output[indexOut  ] = r11*x + r12*y + r13*z;
+			output[indexOut+1] = r21*x + r22*y + r23*z;
+			output[indexOut+2] = r31*x + r32*y + r33*z;
+		}
+	}
+
+	/**
+	 * Concurrent version of {@link #rotate(Quaternion_F32, float[], int, int, float[], int, int, int)}.  The
+	 * points are split into blocks which are processed in parallel.
+	 */
+	public static void rotateConcurrent( final Quaternion_F32 q ,
+										 final float input[], final int inputOffset, final int inputStride,
+										 final float output[], final int outputOffset, final int outputStride,
+										 int length ) {
+		GrlConcurrency.loopBlocks(0, length, new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				rotate(q, input, inputOffset + start*inputStride, inputStride,
+						output, outputOffset + start*outputStride, outputStride, end-start);
+			}
+		});
+	}
+}
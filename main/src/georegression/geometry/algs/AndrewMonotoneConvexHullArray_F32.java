@@ -0,0 +1,438 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Version of {@link AndrewMonotoneConvexHull_F32} for very large sets of points stored in primitive arrays.
+ * The input arrays are never modified or reordered.  Instead the output can be the index of each point on the
+ * hull, in counter-clockwise order.  Collinear points along the hull's edges are not included.
+ * </p>
+ *
+ * <p>
+ * Before sorting, most of the points are discarded using the Akl-Toussaint heuristic.  The points which are
+ * extreme along the x, y, x+y, and x-y axises form a convex polygon which is inside of the hull.  Points which
+ * are strictly inside of that polygon can't be on the hull.  The remaining points are copied into a workspace
+ * and sorted by their coordinates with a primitive quick sort.
+ * </p>
+ *
+ * <p>
+ * If concurrent is true the input is split into blocks.  The hull of each block is found in its own thread,
+ * then the hull of all the block hulls is found.  Each thread has its own workspace, which is saved and
+ * reused in later calls.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AndrewMonotoneConvexHullArray_F32 {
+
+	private boolean concurrent;
+	private int minConcurrentBlock = 50000;
+
+	// if true the Akl-Toussaint pre-filter is used
+	private boolean prefilter = true;
+
+	// input for the current call
+	private float x[], y[];
+
+	// index of the extreme points used by the pre-filter
+	private int extremes[] = new int[8];
+	// polygon which is used by the pre-filter, in counter-clockwise order
+	private float polyX[] = new float[8];
+	private float polyY[] = new float[8];
+	private int polySize;
+
+	// workspace used for the final hull
+	private Block main = new Block();
+	// indexes of the hull vertexes of each block
+	private final GrowQueue_I32 merged = new GrowQueue_I32();
+	// storage for the indexes when the output is a polygon
+	private GrowQueue_I32 indexes = new GrowQueue_I32();
+
+	// workspace for each block of points
+	private final List<Block> available = new ArrayList<Block>();
+
+	private IntRangeConsumer processBlock = new IntRangeConsumer() {
+		@Override
+		public void accept(int start, int end) {
+			Block block = takeBlock();
+			try {
+				block.size = 0;
+				block.addFiltered(start, end);
+				block.computeHull(block.hull);
+				synchronized( merged ) {
+					merged.addAll(block.hull);
+				}
+			} finally {
+				returnBlock(block);
+			}
+		}
+	};
+
+	/**
+	 * @param concurrent If true the work will be split across multiple threads
+	 */
+	public AndrewMonotoneConvexHullArray_F32( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public AndrewMonotoneConvexHullArray_F32() {
+		this(false);
+	}
+
+	/**
+	 * Computes the convex hull and writes the index of each vertex into the output.  The output will be
+	 * in counter-clockwise order, starting at the point with the smallest x (and then y) value.
+	 *
+	 * @param x x-coordinate of each point. Not modified.
+	 * @param y y-coordinate of each point. Not modified.
+	 * @param length Number of points
+	 * @param hull (Output) Index of each point on the hull
+	 */
+	public void process( float x[] , float y[] , int length , GrowQueue_I32 hull ) {
+		if( x.length < length || y.length < length )
+			throw new IllegalArgumentException("Input arrays are smaller than length");
+
+		this.x = x;
+		this.y = y;
+
+		if( prefilter )
+			computeFilterPolygon(length);
+		else
+			polySize = 0;
+
+		main.size = 0;
+		if( concurrent && length > minConcurrentBlock ) {
+			merged.reset();
+			GrlConcurrency.loopBlocks(0, length, minConcurrentBlock, processBlock);
+			main.addIndexes(merged);
+		} else {
+			main.addFiltered(0, length);
+		}
+		main.computeHull(hull);
+
+		this.x = null;
+		this.y = null;
+	}
+
+	/**
+	 * Computes the convex hull.  The output will be in counter-clockwise order.
+	 *
+	 * @param x x-coordinate of each point. Not modified.
+	 * @param y y-coordinate of each point. Not modified.
+	 * @param length Number of points
+	 * @param hull (Output) Where the complex hull is written to
+	 */
+	public void process( float x[] , float y[] , int length , Polygon2D_F32 hull ) {
+		process(x, y, length, indexes);
+
+		hull.vertexes.resize(indexes.size);
+		for (int i = 0; i < indexes.size; i++) {
+			int index = indexes.data[i];
+			hull.get(i).set(x[index], y[index]);
+		}
+	}
+
+	/**
+	 * Finds the points which are extreme in 8 directions.  In counter-clockwise order, these are min x,
+	 * min x+y, min y, max x-y, max x, max x+y, max y, min x-y.
+	 */
+	private void computeFilterPolygon( int length ) {
+		polySize = 0;
+		if( length < 8 )
+			return;
+
+		for (int i = 0; i < 8; i++) {
+			extremes[i] = 0;
+		}
+		float minX = x[0], minSum = x[0] + y[0], minY = y[0], maxDiff = x[0] - y[0];
+		float maxX = x[0], maxSum = minSum, maxY = y[0], minDiff = maxDiff;
+
+		for (int i = 1; i < length; i++) {
+			float px = x[i], py = y[i];
+			float sum = px + py, diff = px - py;
+
+			if( px < minX ) { minX = px; extremes[0] = i; }
+			else if( px > maxX ) { maxX = px; extremes[4] = i; }
+			if( py < minY ) { minY = py; extremes[2] = i; }
+			else if( py > maxY ) { maxY = py; extremes[6] = i; }
+			if( sum < minSum ) { minSum = sum; extremes[1] = i; }
+			else if( sum > maxSum ) { maxSum = sum; extremes[5] = i; }
+			if( diff > maxDiff ) { maxDiff = diff; extremes[3] = i; }
+			else if( diff < minDiff ) { minDiff = diff; extremes[7] = i; }
+		}
+
+		// remove duplicate vertexes
+		for (int i = 0; i < 8; i++) {
+			float px = x[extremes[i]], py = y[extremes[i]];
+			if( polySize > 0 && polyX[polySize-1] == px && polyY[polySize-1] == py )
+				continue;
+			polyX[polySize] = px;
+			polyY[polySize] = py;
+			polySize++;
+		}
+		while( polySize > 1 && polyX[polySize-1] == polyX[0] && polyY[polySize-1] == polyY[0] )
+			polySize--;
+
+		if( polySize < 3 )
+			polySize = 0;
+	}
+
+	/**
+	 * Returns true if the point is strictly inside of the pre-filter polygon
+	 */
+	private boolean insideFilter( float px , float py ) {
+		for (int i = 0, j = polySize-1; i < polySize; j = i, i++) {
+			float ax = polyX[j], ay = polyY[j];
+			if( (polyX[i] - ax)*(py - ay) - (polyY[i] - ay)*(px - ax) <= 0 )
+				return false;
+		}
+		return true;
+	}
+
+	private Block takeBlock() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Block();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnBlock( Block block ) {
+		synchronized( available ) {
+			available.add(block);
+		}
+	}
+
+	/**
+	 * Workspace which the candidate hull points are copied into and sorted
+	 */
+	private class Block {
+		float workX[] = new float[0];
+		float workY[] = new float[0];
+		int workIndex[] = new int[0];
+		int size;
+
+		// location of each hull point in the work arrays
+		int stack[] = new int[0];
+
+		GrowQueue_I32 hull = new GrowQueue_I32();
+
+		void add( int index ) {
+			if( size == workX.length ) {
+				int length = size < 16 ? 32 : size*2;
+				workX = copy(workX, length);
+				workY = copy(workY, length);
+				int tmp[] = new int[length];
+				System.arraycopy(workIndex, 0, tmp, 0, size);
+				workIndex = tmp;
+			}
+			workX[size] = x[index];
+			workY[size] = y[index];
+			workIndex[size] = index;
+			size++;
+		}
+
+		/**
+		 * Adds all the points in the range which pass the pre-filter
+		 */
+		void addFiltered( int start , int end ) {
+			if( polySize == 0 ) {
+				for (int i = start; i < end; i++) {
+					add(i);
+				}
+			} else {
+				for (int i = start; i < end; i++) {
+					if( !insideFilter(x[i], y[i]) )
+						add(i);
+				}
+			}
+		}
+
+		void addIndexes( GrowQueue_I32 indexes ) {
+			for (int i = 0; i < indexes.size; i++) {
+				add(indexes.data[i]);
+			}
+		}
+
+		/**
+		 * Computes the hull of all the points in the work arrays
+		 */
+		void computeHull( GrowQueue_I32 output ) {
+			output.reset();
+			if( size == 0 )
+				return;
+
+			sort(0, size-1);
+
+			if( size == 1 ) {
+				output.add(workIndex[0]);
+				return;
+			}
+
+			if( stack.length < size*2 )
+				stack = new int[size*2];
+
+			// lower hull
+			int k = 0;
+			for (int i = 0; i < size; i++) {
+				while( k >= 2 && cross(stack[k-2], stack[k-1], i) <= 0 )
+					k--;
+				stack[k++] = i;
+			}
+
+			// upper hull
+			int lower = k+1;
+			for (int i = size-2; i >= 0; i--) {
+				while( k >= lower && cross(stack[k-2], stack[k-1], i) <= 0 )
+					k--;
+				stack[k++] = i;
+			}
+
+			// the last point is the same as the first
+			for (int i = 0; i < k-1; i++) {
+				output.add(workIndex[stack[i]]);
+			}
+		}
+
+		/**
+		 * z-component of (a-o) cross (b-o)
+		 */
+		private float cross( int o , int a , int b ) {
+			float ox = workX[o], oy = workY[o];
+			return (workX[a] - ox)*(workY[b] - oy) - (workY[a] - oy)*(workX[b] - ox);
+		}
+
+		/**
+		 * Sorts the work arrays by x, then y, then index.  Inclusive of the upper extent.
+		 */
+		private void sort( int lo , int hi ) {
+			while( hi - lo > 16 ) {
+				int mid = (lo + hi) >>> 1;
+				if( lessAt(mid, lo) ) swap(mid, lo);
+				if( lessAt(hi, lo) ) swap(hi, lo);
+				if( lessAt(hi, mid) ) swap(hi, mid);
+
+				float px = workX[mid], py = workY[mid];
+				int pi = workIndex[mid];
+
+				int i = lo, j = hi;
+				while( i <= j ) {
+					while( less(workX[i], workY[i], workIndex[i], px, py, pi) ) i++;
+					while( less(px, py, pi, workX[j], workY[j], workIndex[j]) ) j--;
+					if( i <= j ) {
+						swap(i, j);
+						i++;
+						j--;
+					}
+				}
+
+				// recurse into the smaller partition to bound the stack depth
+				if( j - lo < hi - i ) {
+					sort(lo, j);
+					lo = i;
+				} else {
+					sort(i, hi);
+					hi = j;
+				}
+			}
+
+			// insertion sort for small partitions
+			for (int i = lo + 1; i <= hi; i++) {
+				float px = workX[i], py = workY[i];
+				int pi = workIndex[i];
+				int j = i - 1;
+				while( j >= lo && less(px, py, pi, workX[j], workY[j], workIndex[j]) ) {
+					workX[j+1] = workX[j];
+					workY[j+1] = workY[j];
+					workIndex[j+1] = workIndex[j];
+					j--;
+				}
+				workX[j+1] = px;
+				workY[j+1] = py;
+				workIndex[j+1] = pi;
+			}
+		}
+
+		private boolean lessAt( int a , int b ) {
+			return less(workX[a], workY[a], workIndex[a], workX[b], workY[b], workIndex[b]);
+		}
+
+		private void swap( int a , int b ) {
+			float tx = workX[a]; workX[a] = workX[b]; workX[b] = tx;
+			float ty = workY[a]; workY[a] = workY[b]; workY[b] = ty;
+			int ti = workIndex[a]; workIndex[a] = workIndex[b]; workIndex[b] = ti;
+		}
+	}
+
+	private static boolean less( float ax , float ay , int ai , float bx , float by , int bi ) {
+		if( ax != bx )
+			return ax < bx;
+		if( ay != by )
+			return ay < by;
+		return ai < bi;
+	}
+
+	private static float[] copy( float src[] , int length ) {
+		float dst[] = new float[length];
+		System.arraycopy(src, 0, dst, 0, src.length);
+		return dst;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	public int getMinConcurrentBlock() {
+		return minConcurrentBlock;
+	}
+
+	/**
+	 * Minimum number of points which are processed by a single thread
+	 */
+	public void setMinConcurrentBlock(int minConcurrentBlock) {
+		if( minConcurrentBlock < 1 )
+			throw new IllegalArgumentException("Must be at least 1");
+		this.minConcurrentBlock = minConcurrentBlock;
+	}
+
+	public boolean isPrefilter() {
+		return prefilter;
+	}
+
+	/**
+	 * If true, points which can't be on the hull are discarded before sorting using the Akl-Toussaint
+	 * heuristic.  True by default.
+	 */
+	public void setPrefilter(boolean prefilter) {
+		this.prefilter = prefilter;
+	}
+}
@@ -23,6 +23,7 @@ import georegression.struct.line.LineParametric3D_F32;
 import georegression.struct.line.LineSegment3D_F32;
 import georegression.struct.plane.PlaneGeneral3D_F32;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import georegression.struct.shapes.Cylinder3D_F32;
 import georegression.struct.shapes.Sphere3D_F32;
 import georegression.struct.shapes.Triangle3D_F32;
@@ -161,6 +162,36 @@ public class Distance3D_F32 {
 		return top / (float)Math.sqrt( plane.A*plane.A + plane.B*plane.B + plane.C*plane.C);
 	}
 
+	/**
+	 * Computes the signed distance of every point in the cloud from the plane.  See
+	 * {@link #distance(PlaneGeneral3D_F32, Point3D_F32)}.
+	 *
+	 * @param plane The plane
+	 * @param cloud The points
+	 * @param distances (Optional) Storage for the distance of each point.  Must be at least cloud.size
+	 *                  elements long.  If null a new array is declared.
+	 * @return Signed distance of each point
+	 */
+	public static float[] distance( PlaneGeneral3D_F32 plane , PointCloud3D_F32 cloud , float distances[] ) {
+		if( distances == null )
+			distances = new float[cloud.size];
+		else if( distances.length < cloud.size )
+			throw new IllegalArgumentException("distances is too small");
+
+		float n = (float)Math.sqrt( plane.A*plane.A + plane.B*plane.B + plane.C*plane.C);
+		final float A = plane.A/n;
+		final float B = plane.B/n;
+		final float C = plane.C/n;
+		final float D = plane.D/n;
+
+		final float data[] = cloud.data;
+		for( int i = 0, index = 0; i < cloud.size; i++, index += 3 ) {
+			distances[i] = A*data[index] + B*data[index+1] + C*data[index+2] - D;
+		}
+
+		return distances;
+	}
+
 	/**
 	 * Returns the signed distance a point is from the sphere's surface.  If the point is outside of the sphere
 	 * it's distance will be positive.  If it is inside it will be negative.
@@ -23,6 +23,7 @@ import georegression.struct.line.LineParametric3D_F64;
 import georegression.struct.line.LineSegment3D_F64;
 import georegression.struct.plane.PlaneGeneral3D_F64;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.shapes.Cylinder3D_F64;
 import georegression.struct.shapes.Sphere3D_F64;
 import georegression.struct.shapes.Triangle3D_F64;
@@ -161,6 +162,36 @@ public class Distance3D_F64 {
 		return top / Math.sqrt( plane.A*plane.A + plane.B*plane.B + plane.C*plane.C);
 	}
 
+	/**
+	 * Computes the signed distance of every point in the cloud from the plane.  See
+	 * {@link #distance(PlaneGeneral3D_F64, Point3D_F64)}.
+	 *
+	 * @param plane The plane
+	 * @param cloud The points
+	 * @param distances (Optional) Storage for the distance of each point.  Must be at least cloud.size
+	 *                  elements long.  If null a new array is declared.
+	 * @return Signed distance of each point
+	 */
+	public static double[] distance( PlaneGeneral3D_F64 plane , PointCloud3D_F64 cloud , double distances[] ) {
+		if( distances == null )
+			distances = new double[cloud.size];
+		else if( distances.length < cloud.size )
+			throw new IllegalArgumentException("distances is too small");
+
+		double n = Math.sqrt( plane.A*plane.A + plane.B*plane.B + plane.C*plane.C);
+		final double A = plane.A/n;
+		final double B = plane.B/n;
+		final double C = plane.C/n;
+		final double D = plane.D/n;
+
+		final double data[] = cloud.data;
+		for( int i = 0, index = 0; i < cloud.size; i++, index += 3 ) {
+			distances[i] = A*data[index] + B*data[index+1] + C*data[index+2] - D;
+		}
+
+		return distances;
+	}
+
 	/**
 	 * Returns the signed distance a point is from the sphere's surface.  If the point is outside of the sphere
 	 * it's distance will be positive.  If it is inside it will be negative.
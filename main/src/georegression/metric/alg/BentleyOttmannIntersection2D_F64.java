@@ -0,0 +1,832 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment2D_F64;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Finds all the intersections between a set of line segments using the Bentley-Ottmann sweep line algorithm.
+ * A vertical line is swept from left to right across the plane and only segments which are adjacent along
+ * the sweep line are tested against each other, making it O((n+k)*log(n)) for n segments and k intersections
+ * instead of O(n<sup>2</sup>) for testing every pair with
+ * {@link Intersection2D_F64#intersection(LineSegment2D_F64, LineSegment2D_F64, Point2D_F64)}.
+ * </p>
+ *
+ * <p>
+ * Pairs which would be found by the pairwise test are reported.  Segments are closed, so touching end points
+ * and T-junctions are intersections, while parallel and collinear pairs are not.  Each pair is reported once
+ * with the lower index first, at the event point where the two segments meet.  Zero length segments are ignored.
+ * Results can either be streamed to a {@link Listener} or saved internally.  When streamed, the memory used
+ * depends on the number of segments and how many intersections have almost the same x-coordinate, but not
+ * on the total number of intersections.  The event queue, sweep line status and results storage are all
+ * recycled between calls.
+ * </p>
+ *
+ * <p>
+ * [1] Bentley, Jon L., and Thomas A. Ottmann. "Algorithms for reporting and counting geometric intersections."
+ * IEEE Transactions on Computers 9 (1979): 643-647.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BentleyOttmannIntersection2D_F64 {
+
+	// types of events
+	private static final int START = 0;
+	private static final int END = 1;
+	private static final int CROSS = 2;
+
+	// how segments in the group are marked
+	private static final int NONE = 0;
+	private static final int THROUGH = 1;
+	private static final int ENDING = 2;
+
+	// relative tolerance used to decide if a segment passes through the sweep point
+	private static final double TOL = GrlConstants.EPS*100;
+
+	// segments with the left most end point first. left is the smaller x, then smaller y
+	double x0[] = new double[0], y0[] = new double[0];
+	double x1[] = new double[0], y1[] = new double[0];
+	// true if the end points were swapped.  Needed to compute intersections the same way as the pairwise test
+	boolean flipped[] = new boolean[0];
+	int numSegments;
+
+	// event queue as a binary heap ordered by (x,y)
+	double hx[] = new double[0], hy[] = new double[0];
+	int htype[] = new int[0], ha[] = new int[0], hb[] = new int[0];
+	int heapSize;
+
+	// sweep line status.  balanced binary tree (treap) with the neighbors threaded
+	Node root;
+	// node which contains each segment or null if not in the status
+	Node segNode[] = new Node[0];
+	// pool of nodes.  the first numFree are available
+	Node nodes[] = new Node[0];
+	int numFree;
+	// seed for generating node priorities.  reset each call so that the results are repeatable
+	private static final int SEED = 0x2545F491;
+	int seed;
+
+	// the current sweep point
+	double px, py;
+
+	// events which occurred at the current sweep point
+	GrowQueue_I32 starts = new GrowQueue_I32();
+	GrowQueue_I32 ends = new GrowQueue_I32();
+	GrowQueue_I32 crosses = new GrowQueue_I32();
+	// segments which pass through the current sweep point
+	GrowQueue_I32 group = new GrowQueue_I32();
+	// segments in the status which are next to a segment that was removed
+	GrowQueue_I32 dirty = new GrowQueue_I32();
+	// marks segments which are in the group.  NONE, THROUGH, or ENDING
+	int mark[] = new int[0];
+	// Pairs which have been reported in the current and previous band along the x-axis, as a hash set with open
+	// addressing.  A pair is only reported at event points within tolerance of its intersection, but there can be
+	// more than one of those.  Bands are wider than that, so older pairs can be forgotten.  Empty slots are -1
+	long reported[] = new long[0];
+	int reportedBand[] = new int[0];
+	int numReported;
+	// storage used when the hash set is rebuilt
+	long workReported[] = new long[0];
+	int workBand[] = new int[0];
+	// current band and the x-coordinate it started at
+	int band;
+	double bandX;
+
+	// intersection found by intersect()
+	double qx, qy;
+
+	// where results go
+	Listener listener;
+	// saved results when there is no listener
+	GrowQueue_I32 pairs = new GrowQueue_I32();
+	GrowQueue_F64 points = new GrowQueue_F64();
+
+	/**
+	 * Finds all intersections between the line segments.
+	 *
+	 * @param segments Line segments. Not modified.
+	 * @param listener (Optional) If not null then intersections are passed to it as they are found.  Otherwise they
+	 *                 are saved and can be accessed with {@link #getNumIntersections()}.
+	 */
+	public void process( List<LineSegment2D_F64> segments , Listener listener ) {
+		declareSegments(segments.size());
+		for (int i = 0; i < segments.size(); i++) {
+			LineSegment2D_F64 s = segments.get(i);
+			setSegment(i, s.a.x, s.a.y, s.b.x, s.b.y);
+		}
+		sweep(listener);
+	}
+
+	/**
+	 * Finds all intersections between the line segments.
+	 *
+	 * @param data Line segments packed as (x0,y0,x1,y1) for each segment. Not modified.
+	 * @param numSegments Number of line segments
+	 * @param listener (Optional) If not null then intersections are passed to it as they are found.  Otherwise they
+	 *                 are saved and can be accessed with {@link #getNumIntersections()}.
+	 */
+	public void process( double data[] , int numSegments , Listener listener ) {
+		declareSegments(numSegments);
+		for (int i = 0, idx = 0; i < numSegments; i++, idx += 4) {
+			setSegment(i, data[idx], data[idx+1], data[idx+2], data[idx+3]);
+		}
+		sweep(listener);
+	}
+
+	private void declareSegments( int N ) {
+		numSegments = N;
+		if( x0.length < N ) {
+			x0 = new double[N]; y0 = new double[N];
+			x1 = new double[N]; y1 = new double[N];
+			flipped = new boolean[N];
+			segNode = new Node[N];
+			mark = new int[N];
+		}
+
+		// make sure there is a node for every segment and all the nodes are in the pool
+		if( nodes.length < N ) {
+			Node tmp[] = new Node[N];
+			System.arraycopy(nodes, 0, tmp, 0, numFree);
+			nodes = tmp;
+		}
+		for (int i = numFree; i < nodes.length; i++) {
+			nodes[i] = new Node();
+		}
+		numFree = nodes.length;
+		root = null;
+		seed = SEED;
+
+		heapSize = 0;
+		if( hx.length < 2*N ) {
+			growHeap(2*N);
+		}
+	}
+
+	private void setSegment( int index , double ax , double ay , double bx , double by ) {
+		if( ax < bx || (ax == bx && ay < by) ) {
+			x0[index] = ax; y0[index] = ay; x1[index] = bx; y1[index] = by;
+			flipped[index] = false;
+		} else {
+			x0[index] = bx; y0[index] = by; x1[index] = ax; y1[index] = ay;
+			flipped[index] = true;
+		}
+		segNode[index] = null;
+		mark[index] = NONE;
+	}
+
+	private void sweep( Listener listener ) {
+		this.listener = listener;
+		pairs.reset();
+		points.reset();
+
+		for (int i = 0; i < numSegments; i++) {
+			// zero length segments are skipped
+			if( x0[i] == x1[i] && y0[i] == y1[i] )
+				continue;
+			pushEvent(x0[i], y0[i], START, i, -1);
+			pushEvent(x1[i], y1[i], END, i, -1);
+		}
+
+		Arrays.fill(reported, -1);
+		numReported = 0;
+		band = 0;
+		bandX = -Double.MAX_VALUE;
+		while( heapSize > 0 ) {
+			px = hx[0];
+			py = hy[0];
+			if( px - bandX > 4*TOL*(1 + Math.abs(px)) ) {
+				band++;
+				bandX = px;
+			}
+
+			// collect all the events at this point.  Crossings which round off error moved slightly away from the
+			// point are included too
+			starts.reset();
+			ends.reset();
+			crosses.reset();
+			while( heapSize > 0 && ((hx[0] == px && hy[0] == py) || (htype[0] == CROSS && nearSweepPoint(hx[0], hy[0]))) ) {
+				switch( htype[0] ) {
+					case START: starts.add(ha[0]); break;
+					case END: ends.add(ha[0]); break;
+					default: crosses.add(ha[0]); crosses.add(hb[0]); break;
+				}
+				popEvent();
+			}
+
+			handleEventPoint();
+		}
+
+		this.listener = null;
+	}
+
+	/**
+	 * Processes all the events at the sweep point.  Every segment in the status which passes through the point is
+	 * found and every pair which intersects among them and the segments which start at the point is reported.
+	 * They are then removed and the ones which continue are inserted again, ordered by slope.  Inserting them
+	 * again instead of swapping adjacent pairs keeps the status ordered even when round off error has caused
+	 * several segments which almost meet to be handled out of order.
+	 */
+	private void handleEventPoint() {
+		group.reset();
+		dirty.reset();
+
+		// segments in the status which pass through the point are next to each other
+		Node n = findPassesThrough();
+		if( n != null ) {
+			while( n.prev != null && passesThrough(n.prev.segment) )
+				n = n.prev;
+			for( ; n != null && passesThrough(n.segment); n = n.next ) {
+				addToGroup(n.segment, THROUGH);
+			}
+		}
+		// they should already be in the group, unless round off error is bad enough to break up the run
+		for (int i = 0; i < crosses.size; i++) {
+			if( segNode[crosses.data[i]] != null )
+				addToGroup(crosses.data[i], THROUGH);
+		}
+		for (int i = 0; i < ends.size; i++) {
+			addToGroup(ends.data[i], ENDING);
+		}
+		int numInStatus = group.size;
+		for (int i = 0; i < starts.size; i++) {
+			addToGroup(starts.data[i], THROUGH);
+		}
+
+		for (int i = 0; i < group.size; i++) {
+			for (int j = i+1; j < group.size; j++) {
+				if( !intersect(group.data[i], group.data[j]) )
+					continue;
+				// round off error can put the intersection after the point.  It's reported when the sweep
+				// gets there.  The pair might not be next to each other by then, so the event is added now
+				int cmp = compareToSweep(qx, qy);
+				if( cmp == 0 )
+					report(group.data[i], group.data[j], qx, qy);
+				else if( cmp > 0 )
+					pushEvent(qx, qy, CROSS, group.data[i], group.data[j]);
+			}
+		}
+
+		// remove them and remember the neighbors which will need to be checked
+		for (int i = 0; i < numInStatus; i++) {
+			Node o = segNode[group.data[i]];
+			if( o.prev != null && mark[o.prev.segment] == NONE )
+				dirty.add(o.prev.segment);
+			if( o.next != null && mark[o.next.segment] == NONE )
+				dirty.add(o.next.segment);
+			remove(o);
+		}
+
+		// insert the ones which continue past the point and check them against their new neighbors
+		for (int i = 0; i < group.size; i++) {
+			if( mark[group.data[i]] == THROUGH )
+				insert(group.data[i]);
+		}
+		for (int i = 0; i < group.size; i++) {
+			int s = group.data[i];
+			if( mark[s] != THROUGH )
+				continue;
+			n = segNode[s];
+			if( n.prev != null && mark[n.prev.segment] == NONE )
+				checkPair(n.prev.segment, s);
+			n = segNode[s];
+			if( n.next != null && mark[n.next.segment] == NONE )
+				checkPair(s, n.next.segment);
+		}
+
+		for (int i = 0; i < group.size; i++) {
+			mark[group.data[i]] = NONE;
+		}
+
+		// neighbors of removed segments which are next to each other now
+		for (int i = 0; i < dirty.size; i++) {
+			n = segNode[dirty.data[i]];
+			if( n != null && n.next != null )
+				checkPair(n.segment, n.next.segment);
+		}
+	}
+
+	private void addToGroup( int s , int type ) {
+		if( mark[s] == NONE )
+			group.add(s);
+		if( mark[s] != ENDING )
+			mark[s] = type;
+	}
+
+	/**
+	 * Searches the status for a segment which passes through the sweep point
+	 */
+	private Node findPassesThrough() {
+		Node c = root;
+		while( c != null ) {
+			if( passesThrough(c.segment) )
+				return c;
+			c = yAt(c.segment) < py ? c.right : c.left;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks two segments which are adjacent in the status.  'lo' is immediately below 'hi'.
+	 */
+	private void checkPair( int lo , int hi ) {
+		if( !intersect(lo, hi) )
+			return;
+
+		int cmp = compareToSweep(qx, qy);
+
+		if( converging(lo, hi) ) {
+			if( cmp > 0 ) {
+				pushEvent(qx, qy, CROSS, lo, hi);
+			} else {
+				// The pair is still in the order before it crosses, so the crossing hasn't been handled yet.
+				// Round off error can put it slightly behind the sweep point, e.g. along a steep segment, in
+				// which case it's handled now
+				report(lo, hi, qx, qy);
+				swapAndCheck(lo, hi);
+			}
+		} else if( cmp == 0 ) {
+			// touching at the sweep point
+			report(lo, hi, qx, qy);
+		}
+	}
+
+	/**
+	 * Returns true if 'lo' will move above 'hi' as the sweep line advances
+	 */
+	private boolean converging( int lo , int hi ) {
+		return (y1[lo]-y0[lo])*(x1[hi]-x0[hi]) > (y1[hi]-y0[hi])*(x1[lo]-x0[lo]);
+	}
+
+	/**
+	 * Swaps the order of two adjacent segments and checks them against their new neighbors
+	 */
+	private void swapAndCheck( int lo , int hi ) {
+		Node a = segNode[lo];
+		Node b = segNode[hi];
+		a.segment = hi;
+		b.segment = lo;
+		segNode[hi] = a;
+		segNode[lo] = b;
+
+		Node n = segNode[hi];
+		if( n.prev != null )
+			checkPair(n.prev.segment, hi);
+		n = segNode[lo];
+		if( n.next != null )
+			checkPair(lo, n.next.segment);
+	}
+
+	/**
+	 * Closed intersection test between two segments.  Same equations as the pairwise test, applied to the segments
+	 * in their original orientation, so round off error makes the same decision.  If true the
+	 * intersection is written into (qx,qy).  The order of the segments doesn't change the solution.
+	 */
+	private boolean intersect( int s0 , int s1 ) {
+		if( s0 > s1 ) {
+			int tmp = s0; s0 = s1; s1 = tmp;
+		}
+
+		// end points in their original order
+		double ax0 = x0[s0], ay0 = y0[s0], bx0 = x1[s0], by0 = y1[s0];
+		if( flipped[s0] ) {
+			ax0 = x1[s0]; ay0 = y1[s0]; bx0 = x0[s0]; by0 = y0[s0];
+		}
+		double ax1 = x0[s1], ay1 = y0[s1], bx1 = x1[s1], by1 = y1[s1];
+		if( flipped[s1] ) {
+			ax1 = x1[s1]; ay1 = y1[s1]; bx1 = x0[s1]; by1 = y0[s1];
+		}
+
+		double a0 = bx0 - ax0;
+		double b0 = by0 - ay0;
+		double a1 = bx1 - ax1;
+		double b1 = by1 - ay1;
+
+		double bottom = a0*b1 - b0*a1;
+		if( bottom == 0 )
+			return false;
+
+		double t_1 = (b0*(ax1 - ax0) + a0*(ay0 - ay1))/bottom;
+		if( t_1 < 0 || t_1 > 1 )
+			return false;
+
+		double t_0 = (b1*(ax0 - ax1) + a1*(ay1 - ay0))/(a1*b0 - b1*a0);
+		if( t_0 < 0 || t_0 > 1 )
+			return false;
+
+		// use exact end points when possible
+		if( t_1 == 0 ) {
+			qx = ax1; qy = ay1;
+		} else if( t_1 == 1 ) {
+			qx = bx1; qy = by1;
+		} else if( t_0 == 0 ) {
+			qx = ax0; qy = ay0;
+		} else if( t_0 == 1 ) {
+			qx = bx0; qy = by0;
+		} else {
+			qx = ax1 + a1*t_1;
+			qy = ay1 + b1*t_1;
+
+			// round off error can push it outside of the segments, which would cause it to be processed
+			// after one of them has already been removed
+			qx = clamp(qx, Math.max(x0[s0], x0[s1]), Math.min(x1[s0], x1[s1]));
+			qy = clamp(qy, Math.max(Math.min(y0[s0], y1[s0]), Math.min(y0[s1], y1[s1])),
+					Math.min(Math.max(y0[s0], y1[s0]), Math.max(y0[s1], y1[s1])));
+		}
+		return true;
+	}
+
+	private static double clamp( double value , double min , double max ) {
+		if( value < min ) return min;
+		if( value > max ) return max;
+		return value;
+	}
+
+	/**
+	 * Returns true if the segment passes through the sweep point.  The tolerance is applied to the distance from
+	 * the line and not along the y-axis, otherwise round off error in x would exclude steep segments.
+	 */
+	private boolean passesThrough( int s ) {
+		if( (x0[s] == px && y0[s] == py) || (x1[s] == px && y1[s] == py) )
+			return true;
+		if( px < x0[s] || px > x1[s] )
+			return false;
+		double tol = TOL*(1 + Math.abs(px) + Math.abs(py));
+		double dx = x1[s] - x0[s];
+		double dy = y1[s] - y0[s];
+		if( dx == 0 )
+			return py >= y0[s] - tol && py <= y1[s] + tol;
+		return Math.abs(dx*(py - y0[s]) - dy*(px - x0[s])) <= tol*(dx + Math.abs(dy));
+	}
+
+	/**
+	 * Returns true if the point is the sweep point to within tolerance
+	 */
+	private boolean nearSweepPoint( double x , double y ) {
+		return Math.abs(x - px) <= TOL*(1 + Math.abs(px)) && Math.abs(y - py) <= TOL*(1 + Math.abs(py));
+	}
+
+	/**
+	 * Compares the point against the sweep point in the order events are processed.  Returns 0 if it's the
+	 * sweep point to within tolerance, -1 if before and 1 if after.
+	 */
+	private int compareToSweep( double x , double y ) {
+		if( nearSweepPoint(x, y) )
+			return 0;
+		return x < px ? -1 : (x > px ? 1 : (y < py ? -1 : 1));
+	}
+
+	/**
+	 * The y-coordinate of the segment along the sweep line.  Vertical segments return the sweep point's y
+	 * clipped to the segment.
+	 */
+	private double yAt( int s ) {
+		if( x0[s] == x1[s] ) {
+			if( py < y0[s] ) return y0[s];
+			if( py > y1[s] ) return y1[s];
+			return py;
+		}
+		if( px == x0[s] ) return y0[s];
+		if( px == x1[s] ) return y1[s];
+		return y0[s] + (y1[s]-y0[s])*(px-x0[s])/(x1[s]-x0[s]);
+	}
+
+	/**
+	 * Order of two segments along the sweep line just to the right of the sweep point.  Segments which pass
+	 * through the sweep point, using the same tolerance as {@link #passesThrough(int)}, are placed at the sweep
+	 * point and ordered by slope.  Otherwise the ordering isn't transitive where several segments almost meet.
+	 */
+	private int compare( int s0 , int s1 ) {
+		double ya = passesThrough(s0) ? py : yAt(s0);
+		double yb = passesThrough(s1) ? py : yAt(s1);
+		if( ya < yb ) return -1;
+		if( ya > yb ) return 1;
+
+		// same location so order by slope. vertical segments have the largest slope
+		boolean va = x0[s0] == x1[s0];
+		boolean vb = x0[s1] == x1[s1];
+		if( va != vb ) return va ? 1 : -1;
+		if( !va ) {
+			double l = (y1[s0]-y0[s0])*(x1[s1]-x0[s1]);
+			double r = (y1[s1]-y0[s1])*(x1[s0]-x0[s0]);
+			if( l < r ) return -1;
+			if( l > r ) return 1;
+		}
+		return s0 < s1 ? -1 : (s0 > s1 ? 1 : 0);
+	}
+
+	private void report( int a , int b , double x , double y ) {
+		if( a > b ) {
+			int tmp = a; a = b; b = tmp;
+		}
+		if( !addReported(((long)a << 32) | b) )
+			return;
+
+		if( listener != null ) {
+			listener.intersection(a, b, x, y);
+		} else {
+			pairs.add(a);
+			pairs.add(b);
+			points.add(x);
+			points.add(y);
+		}
+	}
+
+	/**
+	 * Adds the pair to the set of recently reported pairs
+	 *
+	 * @return true if it was added or false if it had already been reported
+	 */
+	private boolean addReported( long key ) {
+		if( 2*(numReported + 1) > reported.length )
+			rebuildReported();
+
+		int mask = reported.length - 1;
+		int i = hashReported(key) & mask;
+		while( reported[i] >= 0 ) {
+			if( reported[i] == key ) {
+				if( reportedBand[i] >= band-1 )
+					return false;
+				reportedBand[i] = band;
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		reported[i] = key;
+		reportedBand[i] = band;
+		numReported++;
+		return true;
+	}
+
+	/**
+	 * Removes pairs from old bands and grows the hash set if it's still too full
+	 */
+	private void rebuildReported() {
+		int valid = 0;
+		for (int i = 0; i < reported.length; i++) {
+			if( reported[i] >= 0 && reportedBand[i] >= band-1 )
+				valid++;
+		}
+		int length = reported.length < 64 ? 64 : reported.length;
+		while( 4*(valid + 1) > length )
+			length *= 2;
+		if( workReported.length != length ) {
+			workReported = new long[length];
+			workBand = new int[length];
+		}
+		Arrays.fill(workReported, -1);
+
+		int mask = length - 1;
+		for (int i = 0; i < reported.length; i++) {
+			if( reported[i] < 0 || reportedBand[i] < band-1 )
+				continue;
+			int j = hashReported(reported[i]) & mask;
+			while( workReported[j] >= 0 )
+				j = (j + 1) & mask;
+			workReported[j] = reported[i];
+			workBand[j] = reportedBand[i];
+		}
+
+		long tmpR[] = reported; reported = workReported; workReported = tmpR;
+		int tmpB[] = reportedBand; reportedBand = workBand; workBand = tmpB;
+		numReported = valid;
+	}
+
+	private static int hashReported( long key ) {
+		return (int)(key ^ (key >>> 32))*0x9E3779B9;
+	}
+
+	//------------------------------------ Sweep line status
+
+	private void insert( int s ) {
+		Node n = nodes[--numFree];
+		n.segment = s;
+		n.left = n.right = null;
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		n.priority = seed;
+		segNode[s] = n;
+
+		if( root == null ) {
+			root = n;
+			n.parent = n.prev = n.next = null;
+			return;
+		}
+
+		Node c = root;
+		while( true ) {
+			if( compare(s, c.segment) < 0 ) {
+				if( c.left == null ) {
+					c.left = n;
+					n.next = c;
+					n.prev = c.prev;
+					break;
+				}
+				c = c.left;
+			} else {
+				if( c.right == null ) {
+					c.right = n;
+					n.prev = c;
+					n.next = c.next;
+					break;
+				}
+				c = c.right;
+			}
+		}
+		n.parent = c;
+		if( n.prev != null ) n.prev.next = n;
+		if( n.next != null ) n.next.prev = n;
+
+		while( n.parent != null && n.priority > n.parent.priority ) {
+			rotateUp(n);
+		}
+	}
+
+	private void remove( Node n ) {
+		// rotate it down until it's a leaf
+		while( n.left != null || n.right != null ) {
+			Node child;
+			if( n.left == null ) child = n.right;
+			else if( n.right == null ) child = n.left;
+			else child = n.left.priority > n.right.priority ? n.left : n.right;
+			rotateUp(child);
+		}
+
+		Node p = n.parent;
+		if( p == null ) root = null;
+		else if( p.left == n ) p.left = null;
+		else p.right = null;
+
+		if( n.prev != null ) n.prev.next = n.next;
+		if( n.next != null ) n.next.prev = n.prev;
+
+		segNode[n.segment] = null;
+		n.parent = n.prev = n.next = null;
+		nodes[numFree++] = n;
+	}
+
+	/**
+	 * Rotates the node above its parent
+	 */
+	private void rotateUp( Node n ) {
+		Node p = n.parent;
+		Node g = p.parent;
+		if( n == p.left ) {
+			p.left = n.right;
+			if( n.right != null ) n.right.parent = p;
+			n.right = p;
+		} else {
+			p.right = n.left;
+			if( n.left != null ) n.left.parent = p;
+			n.left = p;
+		}
+		p.parent = n;
+		n.parent = g;
+		if( g == null ) root = n;
+		else if( g.left == p ) g.left = n;
+		else g.right = n;
+	}
+
+	//------------------------------------ Event queue
+
+	private void growHeap( int length ) {
+		double tx[] = new double[length], ty[] = new double[length];
+		int tt[] = new int[length], ta[] = new int[length], tb[] = new int[length];
+		System.arraycopy(hx, 0, tx, 0, heapSize);
+		System.arraycopy(hy, 0, ty, 0, heapSize);
+		System.arraycopy(htype, 0, tt, 0, heapSize);
+		System.arraycopy(ha, 0, ta, 0, heapSize);
+		System.arraycopy(hb, 0, tb, 0, heapSize);
+		hx = tx; hy = ty; htype = tt; ha = ta; hb = tb;
+	}
+
+	private void pushEvent( double x , double y , int type , int a , int b ) {
+		if( heapSize == hx.length )
+			growHeap(heapSize*2 + 16);
+
+		int i = heapSize++;
+		while( i > 0 ) {
+			int parent = (i-1)/2;
+			if( !(x < hx[parent] || (x == hx[parent] && y < hy[parent])) )
+				break;
+			copyEvent(parent, i);
+			i = parent;
+		}
+		hx[i] = x; hy[i] = y; htype[i] = type; ha[i] = a; hb[i] = b;
+	}
+
+	private void popEvent() {
+		heapSize--;
+		if( heapSize == 0 )
+			return;
+
+		double x = hx[heapSize], y = hy[heapSize];
+		int type = htype[heapSize], a = ha[heapSize], b = hb[heapSize];
+
+		int i = 0;
+		while( true ) {
+			int child = 2*i+1;
+			if( child >= heapSize )
+				break;
+			if( child+1 < heapSize && (hx[child+1] < hx[child] ||
+					(hx[child+1] == hx[child] && hy[child+1] < hy[child])) )
+				child++;
+			if( !(hx[child] < x || (hx[child] == x && hy[child] < y)) )
+				break;
+			copyEvent(child, i);
+			i = child;
+		}
+		hx[i] = x; hy[i] = y; htype[i] = type; ha[i] = a; hb[i] = b;
+	}
+
+	private void copyEvent( int src , int dst ) {
+		hx[dst] = hx[src]; hy[dst] = hy[src];
+		htype[dst] = htype[src]; ha[dst] = ha[src]; hb[dst] = hb[src];
+	}
+
+	//------------------------------------ Results
+
+	/**
+	 * Number of intersections saved by the most recent call to process without a listener
+	 */
+	public int getNumIntersections() {
+		return pairs.size/2;
+	}
+
+	/**
+	 * Index of the first segment in the intersection.  Always less than {@link #getSegmentB(int)}.
+	 */
+	public int getSegmentA( int which ) {
+		return pairs.data[which*2];
+	}
+
+	/**
+	 * Index of the second segment in the intersection
+	 */
+	public int getSegmentB( int which ) {
+		return pairs.data[which*2+1];
+	}
+
+	/**
+	 * Location of the intersection
+	 *
+	 * @param which Index of the intersection
+	 * @param output (Optional) storage for the intersection
+	 * @return The intersection
+	 */
+	public Point2D_F64 getPoint( int which , Point2D_F64 output ) {
+		if( output == null )
+			output = new Point2D_F64();
+		output.set(points.data[which*2], points.data[which*2+1]);
+		return output;
+	}
+
+	/**
+	 * Receives intersections as they are found.
+	 */
+	public interface Listener {
+		/**
+		 * Called when two segments intersect.
+		 *
+		 * @param segmentA Index of the first segment.  Always less than segmentB.
+		 * @param segmentB Index of the second segment.
+		 * @param x x-coordinate of the intersection
+		 * @param y y-coordinate of the intersection
+		 */
+		void intersection( int segmentA , int segmentB , double x , double y );
+	}
+
+	private static class Node {
+		int segment;
+		int priority;
+		Node left, right, parent;
+		// neighbors along the sweep line.  prev is below and next is above
+		Node prev, next;
+	}
+}
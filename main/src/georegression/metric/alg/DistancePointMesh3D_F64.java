@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.IndexedMesh3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the closest point on a triangle mesh to a point.  A {@link TriangleBvh3D_F64} is searched using branch
+ * and bound, where nodes are visited in order of the distance to their bounding box and skipped if they can't
+ * contain a closer point.  Each candidate triangle is handled by {@link DistancePointTriangle3D_F64}, so the
+ * results are the same as checking every triangle.
+ * </p>
+ *
+ * <p>
+ * Along with the closest point, the index of the face it lies on, the distance, and which side of the face the
+ * point is on are found.  The side is computed by {@link DistancePointTriangle3D_F64#sign(Point3D_F64)}.  When the
+ * closest point is on an edge or vertex shared by several faces, the face with the lowest index is returned and
+ * the sign is relative to it.  Batches of points can be processed concurrently.  The search for each point starts
+ * with the face closest to the previous point, which makes it faster when neighboring points are next to each
+ * other, such as in a scan.  This only tightens the initial bound and doesn't change the results.  Single point
+ * queries are not thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DistancePointMesh3D_F64 {
+
+	TriangleBvh3D_F64 bvh;
+
+	boolean concurrent;
+
+	// workspace for single point queries
+	Query query = new Query();
+	// workspace for each thread
+	private final List<Query> available = new ArrayList<Query>();
+
+	/**
+	 * Uses a hierarchy which has already been built.  Changes to it will be reflected in future queries.
+	 */
+	public DistancePointMesh3D_F64( TriangleBvh3D_F64 bvh ) {
+		this.bvh = bvh;
+	}
+
+	public DistancePointMesh3D_F64() {
+		this(new TriangleBvh3D_F64());
+	}
+
+	/**
+	 * Specifies the mesh.  The index of each face is used to identify it.
+	 *
+	 * @param mesh The mesh. Not modified.
+	 */
+	public void setMesh( IndexedMesh3D_F64 mesh ) {
+		bvh.setConcurrent(concurrent);
+		bvh.build(mesh);
+		resetQueries();
+	}
+
+	/**
+	 * Specifies the mesh as a list of triangles.  The index in the list is used to identify each triangle.
+	 *
+	 * @param triangles List of triangles. Not modified.
+	 */
+	public void setMesh( List<Triangle3D_F64> triangles ) {
+		bvh.setConcurrent(concurrent);
+		bvh.build(triangles);
+		resetQueries();
+	}
+
+	private void resetQueries() {
+		query.previous = -1;
+		synchronized( available ) {
+			for (int i = 0; i < available.size(); i++) {
+				available.get(i).previous = -1;
+			}
+		}
+	}
+
+	/**
+	 * Finds the closest point on the mesh.  The distance and sign can be retrieved after.
+	 *
+	 * @param point The point. Not modified.
+	 * @param closest (Output) Optional. Closest point on the mesh
+	 * @return Index of the face with the closest point or -1 if the mesh is empty
+	 */
+	public int closestPoint( Point3D_F64 point , Point3D_F64 closest ) {
+		int face = query.search(point.x, point.y, point.z);
+		if( face >= 0 && closest != null )
+			closest.set(query.best);
+		return face;
+	}
+
+	/**
+	 * Finds the closest point on the mesh for each point in the batch.  If concurrent then the points will be
+	 * split up between threads.
+	 *
+	 * @param points Packed points (x,y,z). Not modified.
+	 * @param numPoints Number of points
+	 * @param faces (Output) Optional. Index of the closest face to each point or -1 if the mesh is empty
+	 * @param distances (Output) Optional. Euclidean distance to the mesh
+	 * @param closest (Output) Optional. Closest point (x,y,z) on the mesh
+	 * @param signs (Output) Optional. Sign of each point relative to the closest face
+	 */
+	public void closestPoints( final double points[] , int numPoints , final int faces[] ,
+							   final double distances[] , final double closest[] , final double signs[] ) {
+		IntRangeConsumer consumer = new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				Query q = takeQuery();
+				try {
+					for (int i = start; i < end; i++) {
+						int face = q.search(points[i*3], points[i*3+1], points[i*3+2]);
+						if( faces != null )
+							faces[i] = face;
+						if( face < 0 )
+							continue;
+						if( distances != null )
+							distances[i] = q.getDistance();
+						if( closest != null ) {
+							closest[i*3  ] = q.best.x;
+							closest[i*3+1] = q.best.y;
+							closest[i*3+2] = q.best.z;
+						}
+						if( signs != null )
+							signs[i] = q.computeSign();
+					}
+				} finally {
+					returnQuery(q);
+				}
+			}
+		};
+
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, numPoints, 256, consumer);
+		else
+			consumer.accept(0, numPoints);
+	}
+
+	/**
+	 * Euclidean distance from the most recent call to {@link #closestPoint}
+	 */
+	public double getDistance() {
+		return query.getDistance();
+	}
+
+	/**
+	 * Sign of the point relative to the closest face from the most recent call to {@link #closestPoint}.
+	 *
+	 * @throws IllegalStateException If there is no closest face because the mesh is empty or no search was done
+	 * @see DistancePointTriangle3D_F64#sign(Point3D_F64)
+	 */
+	public double getSign() {
+		return query.computeSign();
+	}
+
+	/**
+	 * Workspace for a single thread
+	 */
+	class Query {
+		DistancePointTriangle3D_F64 alg = new DistancePointTriangle3D_F64();
+		GrowQueue_I32 stackNode = new GrowQueue_I32();
+		GrowQueue_F64 stackDist = new GrowQueue_F64();
+		Point3D_F64 v0 = new Point3D_F64(), v1 = new Point3D_F64(), v2 = new Point3D_F64();
+		Point3D_F64 point = new Point3D_F64();
+		Point3D_F64 candidate = new Point3D_F64();
+
+		// closest point and its distance squared
+		Point3D_F64 best = new Point3D_F64();
+		double bestDistSq;
+		// index of the closest triangle in the hierarchy's order. -1 if there is none
+		int bestTriangle = -1;
+		// closest triangle from the previous search
+		int previous = -1;
+
+		/**
+		 * Finds the closest triangle and returns its index
+		 */
+		int search( double x , double y , double z ) {
+			point.set(x, y, z);
+			bestTriangle = -1;
+			bestDistSq = Double.MAX_VALUE;
+			if( bvh.numNodes == 0 )
+				return -1;
+
+			// the previous solution is often close by and provides a tight initial bound
+			if( previous >= 0 && previous < bvh.numTriangles )
+				checkTriangle(previous);
+
+			double bounds[] = bvh.nodeBounds;
+			stackNode.reset();
+			stackDist.reset();
+			stackNode.add(0);
+			stackDist.add(0);
+			while( stackNode.size > 0 ) {
+				int node = stackNode.pop();
+				stackDist.size--;
+				// nodes as far away as the best are still searched since they can contain a tie with a lower index
+				if( stackDist.data[stackDist.size] > bestDistSq )
+					continue;
+
+				int count = bvh.nodeCount[node];
+				if( count == 0 ) {
+					int left = node+1;
+					int right = bvh.nodeIndex[node];
+					double distLeft = boxDistanceSq(bounds, left*6);
+					double distRight = boxDistanceSq(bounds, right*6);
+					// the closest node is on top of the stack
+					if( distLeft < distRight ) {
+						push(right, distRight);
+						push(left, distLeft);
+					} else {
+						push(left, distLeft);
+						push(right, distRight);
+					}
+				} else {
+					int end = bvh.nodeIndex[node] + count;
+					for (int i = bvh.nodeIndex[node]; i < end; i++) {
+						checkTriangle(i);
+					}
+				}
+			}
+
+			previous = bestTriangle;
+			return bvh.triangleIndex[bestTriangle];
+		}
+
+		private void push( int node , double distSq ) {
+			if( distSq <= bestDistSq ) {
+				stackNode.add(node);
+				stackDist.add(distSq);
+			}
+		}
+
+		private void checkTriangle( int index ) {
+			setTriangle(index);
+			alg.closestPoint(point, candidate);
+			double d = candidate.distance2(point);
+			// exact ties are broken by the lowest face index so the result doesn't depend on the search order
+			if( d < bestDistSq || (d == bestDistSq &&
+					(bestTriangle < 0 || bvh.triangleIndex[index] < bvh.triangleIndex[bestTriangle])) ) {
+				bestDistSq = d;
+				bestTriangle = index;
+				best.set(candidate);
+			}
+		}
+
+		private void setTriangle( int index ) {
+			double t[] = bvh.triangles;
+			int i = index*9;
+			v0.set(t[i  ], t[i+1], t[i+2]);
+			v1.set(t[i+3], t[i+4], t[i+5]);
+			v2.set(t[i+6], t[i+7], t[i+8]);
+			alg.setTriangle(v0, v1, v2);
+		}
+
+		/**
+		 * Distance squared from the point to the box
+		 */
+		private double boxDistanceSq( double bounds[] , int index ) {
+			double total = 0;
+			for (int k = 0; k < 3; k++) {
+				double p = k == 0 ? point.x : (k == 1 ? point.y : point.z);
+				double d;
+				if( p < bounds[index+k] )
+					d = bounds[index+k] - p;
+				else if( p > bounds[index+3+k] )
+					d = p - bounds[index+3+k];
+				else
+					continue;
+				total += d*d;
+			}
+			return total;
+		}
+
+		double getDistance() {
+			return Math.sqrt(bestDistSq);
+		}
+
+		double computeSign() {
+			if( bestTriangle < 0 )
+				throw new IllegalStateException("No closest face. The mesh is empty or closestPoint() was not called");
+			setTriangle(bestTriangle);
+			return alg.sign(point);
+		}
+	}
+
+	private Query takeQuery() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Query();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnQuery( Query q ) {
+		synchronized( available ) {
+			available.add(q);
+		}
+	}
+
+	public TriangleBvh3D_F64 getHierarchy() {
+		return bvh;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then building the hierarchy and batch queries will be split across multiple threads
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
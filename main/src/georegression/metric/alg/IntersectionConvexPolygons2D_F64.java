@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Quadrilateral_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the intersection of two convex polygons, its area, and intersection over union (IoU).  One polygon
+ * is clipped by each edge of the other using the Sutherland-Hodgman algorithm.  The cost is O(N*M), where N and M
+ * are the number of vertexes, which for small polygons such as quadrilaterals is faster than the O(N+M)
+ * algorithms.  The polygons can be in CW or CCW order.
+ * </p>
+ *
+ * <p>
+ * Vertexes are copied into internal work arrays which are reused, so after the first call no memory is declared.
+ * The area functions skip creating the output polygon and first check to see if the bounding boxes overlap.
+ * The IoU of every pair in two sets of quadrilaterals can be computed with {@link #iouMatrix}, which can be
+ * done concurrently.  Instances are not thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IntersectionConvexPolygons2D_F64 {
+
+	// interleaved (x,y) vertexes of the polygon being clipped. Two buffers are swapped after each edge
+	private double work0[] = new double[32];
+	private double work1[] = new double[32];
+	// interleaved (x,y) vertexes of the clipping polygon
+	private double clip[] = new double[16];
+	// number of vertexes in the most recent intersection
+	private int size;
+	// which buffer contains the most recent intersection
+	private double result[];
+
+	// bounding box and area of each quadrilateral in the IoU matrix
+	private double boundsA[] = new double[0], boundsB[] = new double[0];
+	private double areaA[] = new double[0], areaB[] = new double[0];
+
+	private boolean concurrent;
+	// workspace for each thread
+	private final List<IntersectionConvexPolygons2D_F64> available = new ArrayList<IntersectionConvexPolygons2D_F64>();
+
+	public IntersectionConvexPolygons2D_F64( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public IntersectionConvexPolygons2D_F64() {
+		this(false);
+	}
+
+	/**
+	 * Computes the intersection of two convex polygons.
+	 *
+	 * @param a Convex polygon. Not modified.
+	 * @param b Convex polygon. Not modified.
+	 * @param output (Output) The intersection.  Will have zero vertexes if they don't intersect.
+	 * @return true if they intersect
+	 */
+	public boolean intersection( Polygon2D_F64 a , Polygon2D_F64 b , Polygon2D_F64 output ) {
+		setSubject(a);
+		setClip(b);
+		computeIntersection(b.size());
+		return copyResult(output);
+	}
+
+	/**
+	 * Computes the intersection of two convex quadrilaterals.
+	 *
+	 * @param a Convex quadrilateral. Not modified.
+	 * @param b Convex quadrilateral. Not modified.
+	 * @param output (Output) The intersection.  Will have zero vertexes if they don't intersect.
+	 * @return true if they intersect
+	 */
+	public boolean intersection( Quadrilateral_F64 a , Quadrilateral_F64 b , Polygon2D_F64 output ) {
+		setSubject(a);
+		setClip(b);
+		computeIntersection(4);
+		return copyResult(output);
+	}
+
+	/**
+	 * Area of the intersection of two convex polygons
+	 */
+	public double area( Polygon2D_F64 a , Polygon2D_F64 b ) {
+		setSubject(a);
+		setClip(b);
+		if( !boundsOverlap(work0, a.size(), clip, b.size()) )
+			return 0;
+		computeIntersection(b.size());
+		return resultArea();
+	}
+
+	/**
+	 * Area of the intersection of two convex quadrilaterals
+	 */
+	public double area( Quadrilateral_F64 a , Quadrilateral_F64 b ) {
+		setSubject(a);
+		setClip(b);
+		if( !boundsOverlap(work0, 4, clip, 4) )
+			return 0;
+		computeIntersection(4);
+		return resultArea();
+	}
+
+	/**
+	 * Intersection over union of two convex polygons.  Returns zero if the union has no area.
+	 */
+	public double iou( Polygon2D_F64 a , Polygon2D_F64 b ) {
+		double intersection = area(a, b);
+		return iou(intersection, areaOf(clip, b.size()), polygonArea(a));
+	}
+
+	/**
+	 * Intersection over union of two convex quadrilaterals.  Returns zero if the union has no area.
+	 */
+	public double iou( Quadrilateral_F64 a , Quadrilateral_F64 b ) {
+		double intersection = area(a, b);
+		return iou(intersection, areaOf(clip, 4), quadArea(a));
+	}
+
+	private static double iou( double intersection , double areaA , double areaB ) {
+		double union = areaA + areaB - intersection;
+		if( union <= 0 )
+			return 0;
+		return intersection/union;
+	}
+
+	/**
+	 * Computes the intersection over union for every pair of quadrilaterals in the two sets.
+	 *
+	 * @param setA First set of convex quadrilaterals. Not modified.
+	 * @param setB Second set of convex quadrilaterals. Not modified.
+	 * @param output (Output) Row-major matrix with setA.size() rows and setB.size() columns.  Element (i,j)
+	 *               is the IoU of setA[i] and setB[j].
+	 */
+	public void iouMatrix( final List<Quadrilateral_F64> setA , final List<Quadrilateral_F64> setB ,
+						   final double output[] ) {
+		final int rows = setA.size();
+		final int cols = setB.size();
+		if( output.length < rows*cols )
+			throw new IllegalArgumentException("output is too small");
+
+		if( areaA.length < rows ) {
+			areaA = new double[rows];
+			boundsA = new double[rows*4];
+		}
+		if( areaB.length < cols ) {
+			areaB = new double[cols];
+			boundsB = new double[cols*4];
+		}
+		for (int i = 0; i < rows; i++) {
+			Quadrilateral_F64 q = setA.get(i);
+			areaA[i] = quadArea(q);
+			bounds(q, boundsA, i*4);
+		}
+		for (int i = 0; i < cols; i++) {
+			Quadrilateral_F64 q = setB.get(i);
+			areaB[i] = quadArea(q);
+			bounds(q, boundsB, i*4);
+		}
+
+		IntRangeConsumer consumer = new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				IntersectionConvexPolygons2D_F64 alg = takeWorkspace();
+				try {
+					for (int i = start; i < end; i++) {
+						Quadrilateral_F64 a = setA.get(i);
+						int indexA = i*4;
+						for (int j = 0; j < cols; j++) {
+							int indexB = j*4;
+							double value = 0;
+							// skip the clipping if their bounding boxes don't overlap
+							if( boundsA[indexA] < boundsB[indexB+2] && boundsB[indexB] < boundsA[indexA+2] &&
+									boundsA[indexA+1] < boundsB[indexB+3] && boundsB[indexB+1] < boundsA[indexA+3] ) {
+								alg.setSubject(a);
+								alg.setClip(setB.get(j));
+								alg.computeIntersection(4);
+								value = iou(alg.resultArea(), areaA[i], areaB[j]);
+							}
+							output[i*cols + j] = value;
+						}
+					}
+				} finally {
+					returnWorkspace(alg);
+				}
+			}
+		};
+
+		// each row is relatively expensive so use small blocks
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, rows, 4, consumer);
+		else
+			consumer.accept(0, rows);
+	}
+
+	/**
+	 * Clips the subject polygon in work0 against each edge of the clip polygon
+	 *
+	 * @param numClip Number of vertexes in the clip polygon
+	 */
+	private void computeIntersection( int numClip ) {
+		double in[] = work0;
+		double out[] = work1;
+
+		// make sure the inside of the clip polygon is to the left of each edge
+		double clipArea = signedArea(clip, numClip);
+		double sign = clipArea >= 0 ? 1 : -1;
+		if( clipArea == 0 )
+			size = 0;
+
+		for (int i = 0, j = numClip-1; i < numClip && size > 0; j = i, i++) {
+			double ax = clip[j*2], ay = clip[j*2+1];
+			double dx = clip[i*2] - ax, dy = clip[i*2+1] - ay;
+
+			// each edge can add at most one vertex
+			if( out.length < (size+1)*2 ) {
+				out = new double[(size+1)*4];
+				if( in == work0 ) work1 = out; else work0 = out;
+			}
+
+			int count = 0;
+			double sx = in[size*2-2], sy = in[size*2-1];
+			double s = sign*(dx*(sy - ay) - dy*(sx - ax));
+			for (int k = 0; k < size; k++) {
+				double ex = in[k*2], ey = in[k*2+1];
+				double e = sign*(dx*(ey - ay) - dy*(ex - ax));
+
+				if( e >= 0 ) {
+					// if e is on the line then it is the intersection
+					if( s < 0 && e > 0 ) {
+						double t = s/(s - e);
+						out[count++] = sx + t*(ex - sx);
+						out[count++] = sy + t*(ey - sy);
+					}
+					out[count++] = ex;
+					out[count++] = ey;
+				} else if( s >= 0 ) {
+					if( s > 0 ) {
+						double t = s/(s - e);
+						out[count++] = sx + t*(ex - sx);
+						out[count++] = sy + t*(ey - sy);
+					}
+				}
+				sx = ex; sy = ey; s = e;
+			}
+			size = count/2;
+
+			double tmp[] = in;
+			in = out;
+			out = tmp;
+		}
+		result = in;
+	}
+
+	private boolean copyResult( Polygon2D_F64 output ) {
+		if( size < 3 ) {
+			output.vertexes.reset();
+			return false;
+		}
+		output.vertexes.resize(size);
+		for (int i = 0; i < size; i++) {
+			output.get(i).set(result[i*2], result[i*2+1]);
+		}
+		return true;
+	}
+
+	private double resultArea() {
+		if( size < 3 )
+			return 0;
+		return Math.abs(signedArea(result, size));
+	}
+
+	private void setSubject( Polygon2D_F64 polygon ) {
+		size = polygon.size();
+		if( work0.length < size*2 )
+			work0 = new double[size*4];
+		for (int i = 0; i < size; i++) {
+			Point2D_F64 p = polygon.get(i);
+			work0[i*2] = p.x;
+			work0[i*2+1] = p.y;
+		}
+	}
+
+	private void setSubject( Quadrilateral_F64 quad ) {
+		size = 4;
+		setQuad(quad, work0);
+	}
+
+	private void setClip( Polygon2D_F64 polygon ) {
+		int N = polygon.size();
+		if( clip.length < N*2 )
+			clip = new double[N*2];
+		for (int i = 0; i < N; i++) {
+			Point2D_F64 p = polygon.get(i);
+			clip[i*2] = p.x;
+			clip[i*2+1] = p.y;
+		}
+	}
+
+	private void setClip( Quadrilateral_F64 quad ) {
+		setQuad(quad, clip);
+	}
+
+	private static void setQuad( Quadrilateral_F64 quad , double dst[] ) {
+		dst[0] = quad.a.x; dst[1] = quad.a.y;
+		dst[2] = quad.b.x; dst[3] = quad.b.y;
+		dst[4] = quad.c.x; dst[5] = quad.c.y;
+		dst[6] = quad.d.x; dst[7] = quad.d.y;
+	}
+
+	/**
+	 * Area using the shoelace formula.  Positive if CCW.
+	 */
+	private static double signedArea( double vertexes[] , int N ) {
+		double total = 0;
+		for (int i = 0, j = N-1; i < N; j = i, i++) {
+			total += vertexes[j*2]*vertexes[i*2+1] - vertexes[i*2]*vertexes[j*2+1];
+		}
+		return total/2.0;
+	}
+
+	private static double areaOf( double vertexes[] , int N ) {
+		return Math.abs(signedArea(vertexes, N));
+	}
+
+	private static double quadArea( Quadrilateral_F64 q ) {
+		double total = q.a.x*q.b.y - q.b.x*q.a.y;
+		total += q.b.x*q.c.y - q.c.x*q.b.y;
+		total += q.c.x*q.d.y - q.d.x*q.c.y;
+		total += q.d.x*q.a.y - q.a.x*q.d.y;
+		return Math.abs(total/2.0);
+	}
+
+	private static double polygonArea( Polygon2D_F64 polygon ) {
+		int N = polygon.size();
+		double total = 0;
+		for (int i = 0, j = N-1; i < N; j = i, i++) {
+			Point2D_F64 a = polygon.get(j);
+			Point2D_F64 b = polygon.get(i);
+			total += a.x*b.y - b.x*a.y;
+		}
+		return Math.abs(total/2.0);
+	}
+
+	/**
+	 * Writes the bounding box as (x0,y0,x1,y1)
+	 */
+	private static void bounds( Quadrilateral_F64 q , double dst[] , int index ) {
+		double x0 = q.a.x, y0 = q.a.y, x1 = q.a.x, y1 = q.a.y;
+		for (int i = 0; i < 3; i++) {
+			Point2D_F64 p = i == 0 ? q.b : (i == 1 ? q.c : q.d);
+			if( p.x < x0 ) x0 = p.x;
+			if( p.x > x1 ) x1 = p.x;
+			if( p.y < y0 ) y0 = p.y;
+			if( p.y > y1 ) y1 = p.y;
+		}
+		dst[index] = x0;
+		dst[index+1] = y0;
+		dst[index+2] = x1;
+		dst[index+3] = y1;
+	}
+
+	private static boolean boundsOverlap( double a[] , int N , double b[] , int M ) {
+		double ax0 = a[0], ax1 = a[0], ay0 = a[1], ay1 = a[1];
+		for (int i = 1; i < N; i++) {
+			double x = a[i*2], y = a[i*2+1];
+			if( x < ax0 ) ax0 = x; else if( x > ax1 ) ax1 = x;
+			if( y < ay0 ) ay0 = y; else if( y > ay1 ) ay1 = y;
+		}
+		double bx0 = b[0], bx1 = b[0], by0 = b[1], by1 = b[1];
+		for (int i = 1; i < M; i++) {
+			double x = b[i*2], y = b[i*2+1];
+			if( x < bx0 ) bx0 = x; else if( x > bx1 ) bx1 = x;
+			if( y < by0 ) by0 = y; else if( y > by1 ) by1 = y;
+		}
+		return ax0 < bx1 && bx0 < ax1 && ay0 < by1 && by0 < ay1;
+	}
+
+	private IntersectionConvexPolygons2D_F64 takeWorkspace() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new IntersectionConvexPolygons2D_F64();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnWorkspace( IntersectionConvexPolygons2D_F64 alg ) {
+		synchronized( available ) {
+			available.add(alg);
+		}
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then {@link #iouMatrix} will be split across multiple threads
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Box3D_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Packed R-tree for {@link Box3D_F32}.  Replaces a nested loop over
+ * {@link Intersection3D_F32#intersect(Box3D_F32, Box3D_F32)} when searching for or joining
+ * large sets of boxes.  See {@link PackedRTree_F32} for details.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedRTreeBox3D_F32 extends PackedRTree_F32 {
+
+	public PackedRTreeBox3D_F32( int nodeCapacity ) {
+		super(3, nodeCapacity);
+	}
+
+	public PackedRTreeBox3D_F32() {
+		this(DEFAULT_NODE_CAPACITY);
+	}
+
+	/**
+	 * Builds the tree from a list of boxes
+	 *
+	 * @param boxes Boxes with p0 as the lower extent. Not modified.
+	 */
+	public void build( List<Box3D_F32> boxes ) {
+		declareItems(boxes.size());
+		for (int i = 0, index = 0; i < boxes.size(); i++, index += 6) {
+			Box3D_F32 b = boxes.get(i);
+			itemBounds[index  ] = b.p0.x;
+			itemBounds[index+1] = b.p0.y;
+			itemBounds[index+2] = b.p0.z;
+			itemBounds[index+3] = b.p1.x;
+			itemBounds[index+4] = b.p1.y;
+			itemBounds[index+5] = b.p1.z;
+		}
+		build();
+	}
+
+	/**
+	 * Finds all boxes which overlap the query box
+	 *
+	 * @param box The query box. Not modified.
+	 * @param output (Output) Index of each box which overlaps the query
+	 */
+	public void search( Box3D_F32 box , GrowQueue_I32 output ) {
+		search(box.p0.x, box.p0.y, box.p0.z, box.p1.x, box.p1.y, box.p1.z, output);
+	}
+
+	/**
+	 * Finds all boxes which overlap the query box
+	 *
+	 * @param output (Output) Index of each box which overlaps the query
+	 */
+	public void search( float x0 , float y0 , float z0 ,
+						float x1 , float y1 , float z1 , GrowQueue_I32 output ) {
+		query[0] = x0; query[1] = y0; query[2] = z0;
+		query[3] = x1; query[4] = y1; query[5] = z1;
+		search(query, output);
+	}
+
+	/**
+	 * Finds the k boxes which are closest to the point
+	 *
+	 * @see PackedRTree_F32#nearest(float[], int, GrowQueue_I32, GrowQueue_F32)
+	 */
+	public void nearest( Point3D_F32 p , int k , GrowQueue_I32 indexes , GrowQueue_F32 distances ) {
+		point[0] = p.x; point[1] = p.y; point[2] = p.z;
+		nearest(point, k, indexes, distances);
+	}
+
+	/**
+	 * Finds the box which is closest to the point
+	 *
+	 * @return Index of the closest box or -1 if the tree is empty
+	 */
+	public int nearest( float x , float y , float z ) {
+		point[0] = x; point[1] = y; point[2] = z;
+		nearest(point, 1, stack, null);
+		return stack.size == 0 ? -1 : stack.data[0];
+	}
+
+	/**
+	 * Finds all pairs of boxes in this tree and the other tree which overlap.
+	 *
+	 * @param other The other tree
+	 * @param listener Receives the overlapping pairs.  The first index is from this tree and the second is from
+	 *                 the other tree.  Must be thread safe if concurrent.
+	 */
+	public void join( PackedRTreeBox3D_F32 other , Listener listener ) {
+		super.join(other, listener);
+	}
+}
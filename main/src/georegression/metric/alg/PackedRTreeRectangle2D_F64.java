@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Packed R-tree for {@link Rectangle2D_F64}.  Replaces a nested loop over
+ * {@link Intersection2D_F64#intersects(Rectangle2D_F64, Rectangle2D_F64)} when searching for or joining
+ * large sets of rectangles.  See {@link PackedRTree_F64} for details.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedRTreeRectangle2D_F64 extends PackedRTree_F64 {
+
+	public PackedRTreeRectangle2D_F64( int nodeCapacity ) {
+		super(2, nodeCapacity);
+	}
+
+	public PackedRTreeRectangle2D_F64() {
+		this(DEFAULT_NODE_CAPACITY);
+	}
+
+	/**
+	 * Builds the tree from a list of rectangles
+	 *
+	 * @param rectangles Rectangles with p0 as the lower extent. Not modified.
+	 */
+	public void build( List<Rectangle2D_F64> rectangles ) {
+		declareItems(rectangles.size());
+		for (int i = 0, index = 0; i < rectangles.size(); i++, index += 4) {
+			Rectangle2D_F64 r = rectangles.get(i);
+			itemBounds[index  ] = r.p0.x;
+			itemBounds[index+1] = r.p0.y;
+			itemBounds[index+2] = r.p1.x;
+			itemBounds[index+3] = r.p1.y;
+		}
+		build();
+	}
+
+	/**
+	 * Finds all rectangles which overlap the query window
+	 *
+	 * @param window The query window. Not modified.
+	 * @param output (Output) Index of each rectangle which overlaps the window
+	 */
+	public void search( Rectangle2D_F64 window , GrowQueue_I32 output ) {
+		search(window.p0.x, window.p0.y, window.p1.x, window.p1.y, output);
+	}
+
+	/**
+	 * Finds all rectangles which overlap the query window
+	 *
+	 * @param output (Output) Index of each rectangle which overlaps the window
+	 */
+	public void search( double x0 , double y0 , double x1 , double y1 , GrowQueue_I32 output ) {
+		query[0] = x0; query[1] = y0;
+		query[2] = x1; query[3] = y1;
+		search(query, output);
+	}
+
+	/**
+	 * Finds the k rectangles which are closest to the point
+	 *
+	 * @see PackedRTree_F64#nearest(double[], int, GrowQueue_I32, GrowQueue_F64)
+	 */
+	public void nearest( Point2D_F64 p , int k , GrowQueue_I32 indexes , GrowQueue_F64 distances ) {
+		point[0] = p.x; point[1] = p.y;
+		nearest(point, k, indexes, distances);
+	}
+
+	/**
+	 * Finds the rectangle which is closest to the point
+	 *
+	 * @return Index of the closest rectangle or -1 if the tree is empty
+	 */
+	public int nearest( double x , double y ) {
+		point[0] = x; point[1] = y;
+		nearest(point, 1, stack, null);
+		return stack.size == 0 ? -1 : stack.data[0];
+	}
+
+	/**
+	 * Finds all pairs of rectangles in this tree and the other tree which overlap.
+	 *
+	 * @param other The other tree
+	 * @param listener Receives the overlapping pairs.  The first index is from this tree and the second is from
+	 *                 the other tree.  Must be thread safe if concurrent.
+	 */
+	public void join( PackedRTreeRectangle2D_F64 other , Listener listener ) {
+		super.join(other, listener);
+	}
+}
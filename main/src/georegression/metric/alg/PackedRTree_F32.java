@@ -0,0 +1,605 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import org.ddogleg.sorting.QuickSort_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Static R-tree of axis aligned boxes in any number of dimensions which is bulk loaded using Sort-Tile-Recursive
+ * (STR) [1].  Leaves are packed full so the tree is shallow and all the boxes and nodes are stored in primitive
+ * arrays, with the children of each node being stored next to each other.  The tree must be rebuilt if the
+ * boxes change, but building is fast and all memory is recycled.
+ * </p>
+ *
+ * <p>
+ * Each box is specified by its lower extent followed by its upper extent, e.g. (x0,y0,x1,y1) in 2D.  Boxes
+ * overlap if their interiors intersect, so boxes which only touch along an edge do not overlap.  Supports window
+ * queries, k-nearest neighbor to a point, and joins which find all overlapping pairs of boxes.  Joins can be
+ * run concurrently, in which case the {@link Listener} must be thread safe.  Queries are not thread safe.
+ * </p>
+ *
+ * <p>
+ * [1] Leutenegger, Scott T., Mario A. Lopez, and Jeffrey Edgington. "STR: A simple and efficient algorithm
+ * for R-tree packing." Data Engineering, 1997. Proceedings. 13th international conference on. IEEE, 1997.
+ * </p>
+ *
+ * @see PackedRTreeRectangle2D_F32
+ * @see PackedRTreeBox3D_F32
+ *
+ * @author Peter Abeles
+ */
+public class PackedRTree_F32 {
+
+	/**
+	 * Default maximum number of children in a node
+	 */
+	public static final int DEFAULT_NODE_CAPACITY = 16;
+
+	// number of dimensions
+	final int N;
+	// number of elements which describe a box. 2*N
+	final int M;
+	// maximum number of children in each node
+	final int capacity;
+
+	// bounds of each box in the order they appear in the leaves
+	float itemBounds[] = new float[0];
+	// original index of each box
+	int itemIndex[] = new int[0];
+	int numItems;
+
+	// bounds of each node.  leaves come first and the root is last
+	float nodeBounds[] = new float[0];
+	// index of the first child and number of children
+	int nodeFirst[] = new int[0];
+	int nodeCount[] = new int[0];
+	int numNodes;
+	// nodes less than this have boxes as their children
+	int numLeaves;
+
+	// work space for building the tree
+	QuickSort_F32 sorter = new QuickSort_F32();
+	float keys[] = new float[0];
+	int sortIndexes[] = new int[0];
+	int order[] = new int[0];
+	int workInt[] = new int[0];
+	float workBounds[] = new float[0];
+
+	// work space for queries
+	GrowQueue_I32 stack = new GrowQueue_I32();
+	float query[];
+	float point[];
+	// priority queue used for nearest neighbor
+	float heapDist[] = new float[16];
+	int heapId[] = new int[16];
+	int heapSize;
+
+	boolean concurrent;
+	// minimum number of leaves processed in a block when concurrent
+	int minConcurrentBlock = 8;
+	// stack for each thread
+	private final List<GrowQueue_I32> available = new ArrayList<GrowQueue_I32>();
+
+	/**
+	 * Creates a tree
+	 *
+	 * @param dimension Number of dimensions
+	 * @param nodeCapacity Maximum number of children in a node.  Try {@link #DEFAULT_NODE_CAPACITY}.
+	 */
+	public PackedRTree_F32( int dimension , int nodeCapacity ) {
+		if( dimension < 1 )
+			throw new IllegalArgumentException("Dimension must be at least 1");
+		if( nodeCapacity < 2 )
+			throw new IllegalArgumentException("Node capacity must be at least 2");
+		this.N = dimension;
+		this.M = dimension*2;
+		this.capacity = nodeCapacity;
+		this.query = new float[M];
+		this.point = new float[dimension];
+	}
+
+	/**
+	 * Builds the tree from packed boxes.
+	 *
+	 * @param data Each box's lower extent followed by its upper extent. Not modified.
+	 * @param count Number of boxes
+	 */
+	public void build( float data[] , int count ) {
+		declareItems(count);
+		System.arraycopy(data, 0, itemBounds, 0, count*M);
+		build();
+	}
+
+	/**
+	 * Allocates memory for the specified number of items.  The bounds must then be written into itemBounds
+	 */
+	protected void declareItems( int count ) {
+		numItems = count;
+		if( itemIndex.length < count ) {
+			itemBounds = new float[count*M];
+			itemIndex = new int[count];
+		}
+		for (int i = 0; i < count; i++) {
+			itemIndex[i] = i;
+		}
+
+		// upper bound on the number of nodes
+		int maxNodes = 0;
+		int length = count;
+		do {
+			length = (length+capacity-1)/capacity;
+			maxNodes += length;
+		} while( length > 1 );
+		if( nodeFirst.length < maxNodes ) {
+			nodeBounds = new float[maxNodes*M];
+			nodeFirst = new int[maxNodes];
+			nodeCount = new int[maxNodes];
+		}
+		if( order.length < count ) {
+			keys = new float[count];
+			sortIndexes = new int[count];
+			order = new int[count];
+			workInt = new int[count];
+			workBounds = new float[count*M];
+		}
+	}
+
+	/**
+	 * Builds the tree after the item bounds have been set
+	 */
+	protected void build() {
+		numNodes = 0;
+		numLeaves = 0;
+		if( numItems == 0 )
+			return;
+
+		// the leaves
+		sortTileRecursive(itemBounds, 0, numItems);
+		permute(itemBounds, 0, numItems, itemIndex);
+		createParents(itemBounds, 0, numItems);
+		numLeaves = numNodes;
+
+		// the rest of the levels
+		int levelStart = 0;
+		while( numNodes - levelStart > 1 ) {
+			int levelLength = numNodes - levelStart;
+			sortTileRecursive(nodeBounds, levelStart, levelLength);
+			permute(nodeBounds, levelStart, levelLength, null);
+			createParents(nodeBounds, levelStart, levelLength);
+			levelStart += levelLength;
+		}
+	}
+
+	/**
+	 * Computes the order of the entries using STR. The order is written into 'order'.
+	 */
+	private void sortTileRecursive( float bounds[] , int start , int length ) {
+		for (int i = 0; i < length; i++) {
+			order[i] = start + i;
+		}
+		sortTile(bounds, 0, length, 0);
+	}
+
+	private void sortTile( float bounds[] , int start , int length , int axis ) {
+		sortByCenter(bounds, start, length, axis);
+		if( axis == N-1 )
+			return;
+
+		// split it into slabs along this axis, which are then sorted along the next axis
+		int numParents = (length+capacity-1)/capacity;
+		int numSlabs = (int)Math.ceil(Math.pow(numParents, 1.0f/(N-axis)));
+		int slabSize = capacity*((numParents+numSlabs-1)/numSlabs);
+
+		for (int i = 0; i < length; i += slabSize) {
+			int size = length-i < slabSize ? length-i : slabSize;
+			sortTile(bounds, start+i, size, axis+1);
+		}
+	}
+
+	private void sortByCenter( float bounds[] , int start , int length , int axis ) {
+		for (int i = 0; i < length; i++) {
+			int index = order[start+i]*M;
+			keys[i] = bounds[index+axis] + bounds[index+N+axis];
+		}
+		sorter.sort(keys, length, sortIndexes);
+		for (int i = 0; i < length; i++) {
+			workInt[i] = order[start+sortIndexes[i]];
+		}
+		System.arraycopy(workInt, 0, order, start, length);
+	}
+
+	/**
+	 * Rearranges the entries into the order found by STR
+	 */
+	private void permute( float bounds[] , int start , int length , int indexes[] ) {
+		for (int i = 0; i < length; i++) {
+			System.arraycopy(bounds, order[i]*M, workBounds, i*M, M);
+		}
+		System.arraycopy(workBounds, 0, bounds, start*M, length*M);
+
+		if( indexes != null ) {
+			for (int i = 0; i < length; i++) {
+				workInt[i] = indexes[order[i]];
+			}
+			System.arraycopy(workInt, 0, indexes, start, length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				workInt[i] = nodeFirst[order[i]];
+			}
+			System.arraycopy(workInt, 0, nodeFirst, start, length);
+			for (int i = 0; i < length; i++) {
+				workInt[i] = nodeCount[order[i]];
+			}
+			System.arraycopy(workInt, 0, nodeCount, start, length);
+		}
+	}
+
+	/**
+	 * Creates a node for every group of children
+	 */
+	private void createParents( float bounds[] , int start , int length ) {
+		for (int i = 0; i < length; i += capacity) {
+			int count = length-i < capacity ? length-i : capacity;
+			int node = numNodes++;
+			nodeFirst[node] = start+i;
+			nodeCount[node] = count;
+
+			int dst = node*M;
+			System.arraycopy(bounds, (start+i)*M, nodeBounds, dst, M);
+			for (int j = 1; j < count; j++) {
+				int src = (start+i+j)*M;
+				for (int k = 0; k < N; k++) {
+					if( bounds[src+k] < nodeBounds[dst+k] )
+						nodeBounds[dst+k] = bounds[src+k];
+					if( bounds[src+N+k] > nodeBounds[dst+N+k] )
+						nodeBounds[dst+N+k] = bounds[src+N+k];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds all the boxes which overlap the query box
+	 *
+	 * @param query Lower extent followed by the upper extent of the query box. Not modified.
+	 * @param output (Output) Original index of each box which overlaps the query
+	 */
+	public void search( float query[] , GrowQueue_I32 output ) {
+		output.reset();
+		if( numNodes == 0 )
+			return;
+
+		stack.reset();
+		stack.add(numNodes-1);
+		while( stack.size > 0 ) {
+			int node = stack.pop();
+			if( !overlaps(nodeBounds, node*M, query, 0) )
+				continue;
+
+			int first = nodeFirst[node];
+			int end = first + nodeCount[node];
+			if( node < numLeaves ) {
+				for (int i = first; i < end; i++) {
+					if( overlaps(itemBounds, i*M, query, 0) )
+						output.add(itemIndex[i]);
+				}
+			} else {
+				for (int i = first; i < end; i++) {
+					stack.add(i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the k boxes which are closest to the point.  The distance is zero if the point is inside a box.
+	 *
+	 * @param point The point. Not modified.
+	 * @param k Maximum number of boxes which are found
+	 * @param indexes (Output) Original index of the closest boxes, sorted by increasing distance
+	 * @param distances (Output) Optional.  Euclidean distance of each box
+	 */
+	public void nearest( float point[] , int k , GrowQueue_I32 indexes , GrowQueue_F32 distances ) {
+		indexes.reset();
+		if( distances != null )
+			distances.reset();
+		if( numNodes == 0 || k <= 0 )
+			return;
+
+		// best first search.  nodes have a non-negative id and boxes have a negative id
+		heapSize = 0;
+		heapPush(distanceSq(nodeBounds, (numNodes-1)*M, point), numNodes-1);
+		while( heapSize > 0 && indexes.size < k ) {
+			float d = heapDist[0];
+			int id = heapId[0];
+			heapPop();
+
+			if( id < 0 ) {
+				indexes.add(itemIndex[-id-1]);
+				if( distances != null )
+					distances.add( (float)Math.sqrt(d) );
+				continue;
+			}
+
+			int first = nodeFirst[id];
+			int end = first + nodeCount[id];
+			if( id < numLeaves ) {
+				for (int i = first; i < end; i++) {
+					heapPush(distanceSq(itemBounds, i*M, point), -i-1);
+				}
+			} else {
+				for (int i = first; i < end; i++) {
+					heapPush(distanceSq(nodeBounds, i*M, point), i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds all pairs of boxes inside this tree which overlap.  Each pair is reported once with the lower
+	 * index first.
+	 *
+	 * @param listener Receives the overlapping pairs.  Must be thread safe if concurrent.
+	 */
+	public void selfJoin( final Listener listener ) {
+		join(this, listener);
+	}
+
+	/**
+	 * Finds all pairs of boxes in this tree and the other tree which overlap.  The trees must have the same
+	 * number of dimensions.
+	 *
+	 * @param other The other tree. Not modified.
+	 * @param listener Receives the overlapping pairs.  The first index is from this tree and the second is from
+	 *                 the other tree.  Must be thread safe if concurrent.
+	 * @throws IllegalArgumentException If the trees have a different number of dimensions
+	 */
+	public void join( final PackedRTree_F32 other , final Listener listener ) {
+		if( other.N != N )
+			throw new IllegalArgumentException("Trees must have the same number of dimensions");
+		if( numNodes == 0 || other.numNodes == 0 )
+			return;
+
+		// each leaf in this tree is processed independently
+		IntRangeConsumer consumer = new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				GrowQueue_I32 stack = takeStack();
+				try {
+					for (int leaf = start; leaf < end; leaf++) {
+						joinLeaf(leaf, other, stack, listener);
+					}
+				} finally {
+					returnStack(stack);
+				}
+			}
+		};
+
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, numLeaves, minConcurrentBlock, consumer);
+		else
+			consumer.accept(0, numLeaves);
+	}
+
+	/**
+	 * Finds all the boxes in the other tree which overlap the boxes in the leaf
+	 */
+	private void joinLeaf( int leaf , PackedRTree_F32 other , GrowQueue_I32 stack , Listener listener ) {
+		boolean self = other == this;
+		int leafIndex = leaf*M;
+		int firstA = nodeFirst[leaf];
+		int endA = firstA + nodeCount[leaf];
+
+		stack.reset();
+		stack.add(other.numNodes-1);
+		while( stack.size > 0 ) {
+			int node = stack.pop();
+			// in a self join each pair of leaves only needs to be considered once
+			if( self && node < numLeaves && node < leaf )
+				continue;
+			if( !overlaps(other.nodeBounds, node*M, nodeBounds, leafIndex) )
+				continue;
+
+			int first = other.nodeFirst[node];
+			int end = first + other.nodeCount[node];
+			if( node >= other.numLeaves ) {
+				for (int i = first; i < end; i++) {
+					stack.add(i);
+				}
+				continue;
+			}
+
+			for (int i = firstA; i < endA; i++) {
+				int indexA = i*M;
+				for (int j = self && node == leaf ? i+1 : first; j < end; j++) {
+					if( !overlaps(itemBounds, indexA, other.itemBounds, j*M) )
+						continue;
+					int a = itemIndex[i];
+					int b = other.itemIndex[j];
+					if( self && b < a )
+						listener.overlap(b, a);
+					else
+						listener.overlap(a, b);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the interiors of the two boxes intersect
+	 */
+	private boolean overlaps( float a[] , int indexA , float b[] , int indexB ) {
+		for (int i = 0; i < N; i++) {
+			if( !(a[indexA+i] < b[indexB+N+i] && b[indexB+i] < a[indexA+N+i]) )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Euclidean distance squared from the point to the closest point on the box
+	 */
+	private float distanceSq( float bounds[] , int index , float point[] ) {
+		float total = 0;
+		for (int i = 0; i < N; i++) {
+			float d;
+			if( point[i] < bounds[index+i] )
+				d = bounds[index+i] - point[i];
+			else if( point[i] > bounds[index+N+i] )
+				d = point[i] - bounds[index+N+i];
+			else
+				continue;
+			total += d*d;
+		}
+		return total;
+	}
+
+	private void heapPush( float distance , int id ) {
+		if( heapSize == heapDist.length ) {
+			float tmpDist[] = new float[heapSize*2];
+			int tmpId[] = new int[heapSize*2];
+			System.arraycopy(heapDist, 0, tmpDist, 0, heapSize);
+			System.arraycopy(heapId, 0, tmpId, 0, heapSize);
+			heapDist = tmpDist;
+			heapId = tmpId;
+		}
+
+		int i = heapSize++;
+		while( i > 0 ) {
+			int parent = (i-1)/2;
+			if( heapDist[parent] <= distance )
+				break;
+			heapDist[i] = heapDist[parent];
+			heapId[i] = heapId[parent];
+			i = parent;
+		}
+		heapDist[i] = distance;
+		heapId[i] = id;
+	}
+
+	private void heapPop() {
+		heapSize--;
+		if( heapSize == 0 )
+			return;
+
+		float distance = heapDist[heapSize];
+		int id = heapId[heapSize];
+
+		int i = 0;
+		while( true ) {
+			int child = 2*i+1;
+			if( child >= heapSize )
+				break;
+			if( child+1 < heapSize && heapDist[child+1] < heapDist[child] )
+				child++;
+			if( heapDist[child] >= distance )
+				break;
+			heapDist[i] = heapDist[child];
+			heapId[i] = heapId[child];
+			i = child;
+		}
+		heapDist[i] = distance;
+		heapId[i] = id;
+	}
+
+	private GrowQueue_I32 takeStack() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new GrowQueue_I32();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnStack( GrowQueue_I32 stack ) {
+		synchronized( available ) {
+			available.add(stack);
+		}
+	}
+
+	/**
+	 * Number of boxes in the tree
+	 */
+	public int size() {
+		return numItems;
+	}
+
+	/**
+	 * Number of levels in the tree.  Zero if it's empty.
+	 */
+	public int getDepth() {
+		if( numNodes == 0 )
+			return 0;
+		int depth = 1;
+		for( int node = numNodes-1; node >= numLeaves; node = nodeFirst[node] ) {
+			depth++;
+		}
+		return depth;
+	}
+
+	public int getDimension() {
+		return N;
+	}
+
+	public int getNodeCapacity() {
+		return capacity;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then joins will be split across multiple threads
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	public int getMinConcurrentBlock() {
+		return minConcurrentBlock;
+	}
+
+	/**
+	 * Minimum number of leaves which are processed by a thread in a join
+	 */
+	public void setMinConcurrentBlock(int minConcurrentBlock) {
+		this.minConcurrentBlock = minConcurrentBlock;
+	}
+
+	/**
+	 * Receives pairs of boxes which overlap
+	 */
+	public interface Listener {
+		/**
+		 * Called when two boxes overlap
+		 *
+		 * @param indexA Index of the first box
+		 * @param indexB Index of the second box
+		 */
+		void overlap( int indexA , int indexB );
+	}
+}
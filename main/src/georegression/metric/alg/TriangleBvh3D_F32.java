@@ -0,0 +1,687 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F32;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.line.LineSegment3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.shapes.IndexedMesh3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Bounding volume hierarchy (BVH) over a set of triangles for fast ray casting.  The hierarchy is built top
+ * down by splitting along the axis and location which minimizes the surface area heuristic (SAH) [1], which is
+ * approximated by sorting the triangle centroids into bins.  Large sub-trees are built concurrently.  After
+ * being built the nodes are flattened into primitive arrays in depth first order and the triangle vertexes
+ * are copied into a single array in the same order as the leaves.
+ * </p>
+ *
+ * <p>
+ * Rays are specified by a {@link LineSegment3D_F32} from the origin to the maximum range.  Each candidate
+ * triangle is tested with
+ * {@link Intersection3D_F32#intersection(Triangle3D_F32, LineSegment3D_F32, Point3D_F32, Vector3D_F32, Vector3D_F32, Vector3D_F32, Vector3D_F32, Vector3D_F32)}
+ * so the results are the same as testing every triangle.  Degenerate triangles and rays which lie inside the
+ * triangle's plane are not hits.  Batches of rays can be traced concurrently.  Queries are not thread safe.
+ * </p>
+ *
+ * <p>
+ * [1] Wald, Ingo. "On fast construction of SAH-based bounding volume hierarchies." Interactive Ray Tracing,
+ * 2007. RT'07. IEEE Symposium on. IEEE, 2007.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangleBvh3D_F32 {
+
+	// number of bins used to approximate the SAH
+	private static final int BINS = 16;
+
+	// maximum number of triangles in a leaf
+	int maxLeafSize = 4;
+	// sub-trees with more triangles than this are built in their own thread
+	int minConcurrentBuild = 5000;
+	boolean concurrent;
+
+	// vertexes of each triangle in the order they are referenced by the leaves. 9 elements per triangle
+	float triangles[] = new float[0];
+	// original index of each triangle
+	int triangleIndex[] = new int[0];
+	int numTriangles;
+
+	// bounds of each node (x0,y0,z0,x1,y1,z1). nodes are in depth first order with the root first
+	float nodeBounds[] = new float[0];
+	// leaves: index of the first triangle.  internal nodes: index of the second child. first child is node+1
+	int nodeIndex[] = new int[0];
+	// number of triangles in a leaf or zero for internal nodes
+	int nodeCount[] = new int[0];
+	// axis which the internal node was split along
+	int nodeAxis[] = new int[0];
+	int numNodes;
+
+	// storage used while building.  nodes are assigned in blocks so that they can be built concurrently
+	float centroids[] = new float[0];
+	float bounds[] = new float[0];
+	int order[] = new int[0];
+	float buildBounds[] = new float[0];
+	int buildIndex[] = new int[0];
+	int buildCount[] = new int[0];
+	int buildAxis[] = new int[0];
+	int remap[] = new int[0];
+	float tmp[] = new float[9];
+
+	// workspace for queries
+	Query query = new Query();
+	private final List<Query> availableQuery = new ArrayList<Query>();
+	private final List<SplitWork> availableSplit = new ArrayList<SplitWork>();
+
+	/**
+	 * Builds the hierarchy
+	 *
+	 * @param list Triangles. Not modified.
+	 */
+	public void build( List<Triangle3D_F32> list ) {
+		declareTriangles(list.size());
+		for (int i = 0, index = 0; i < numTriangles; i++, index += 9) {
+			Triangle3D_F32 t = list.get(i);
+			triangles[index  ] = t.v0.x; triangles[index+1] = t.v0.y; triangles[index+2] = t.v0.z;
+			triangles[index+3] = t.v1.x; triangles[index+4] = t.v1.y; triangles[index+5] = t.v1.z;
+			triangles[index+6] = t.v2.x; triangles[index+7] = t.v2.y; triangles[index+8] = t.v2.z;
+		}
+		build();
+	}
+
+	/**
+	 * Builds the hierarchy from the faces in a mesh.  The index of each triangle is the index of the face.
+	 *
+	 * @param mesh Mesh. Not modified.
+	 */
+	public void build( IndexedMesh3D_F32 mesh ) {
+		declareTriangles(mesh.numFaces);
+		float vertexes[] = mesh.vertexes;
+		for (int i = 0, index = 0; i < numTriangles; i++) {
+			for (int j = 0; j < 3; j++, index += 3) {
+				int v = mesh.faces[i*3+j]*3;
+				triangles[index  ] = vertexes[v  ];
+				triangles[index+1] = vertexes[v+1];
+				triangles[index+2] = vertexes[v+2];
+			}
+		}
+		build();
+	}
+
+	/**
+	 * Builds the hierarchy from packed triangles
+	 *
+	 * @param data The three vertexes of each triangle, (x0,y0,z0,x1,y1,z1,x2,y2,z2). Not modified.
+	 * @param count Number of triangles
+	 */
+	public void build( float data[] , int count ) {
+		declareTriangles(count);
+		System.arraycopy(data, 0, triangles, 0, count*9);
+		build();
+	}
+
+	/**
+	 * Allocates memory for the specified number of triangles.  Vertexes must then be written into 'triangles'
+	 */
+	protected void declareTriangles( int count ) {
+		numTriangles = count;
+		if( triangleIndex.length < count ) {
+			triangles = new float[count*9];
+			triangleIndex = new int[count];
+			centroids = new float[count*3];
+			bounds = new float[count*6];
+			order = new int[count];
+		}
+
+		int maxNodes = count == 0 ? 0 : 2*count-1;
+		if( buildIndex.length < maxNodes ) {
+			buildBounds = new float[maxNodes*6];
+			buildIndex = new int[maxNodes];
+			buildCount = new int[maxNodes];
+			buildAxis = new int[maxNodes];
+			remap = new int[maxNodes];
+		}
+	}
+
+	/**
+	 * Builds the hierarchy after the triangles have been specified
+	 */
+	protected void build() {
+		numNodes = 0;
+		if( numTriangles == 0 )
+			return;
+
+		for (int i = 0; i < numTriangles; i++) {
+			int t = i*9, b = i*6;
+			for (int k = 0; k < 3; k++) {
+				float v0 = triangles[t+k], v1 = triangles[t+3+k], v2 = triangles[t+6+k];
+				float lower = v0 < v1 ? v0 : v1;
+				float upper = v0 < v1 ? v1 : v0;
+				if( v2 < lower ) lower = v2;
+				if( v2 > upper ) upper = v2;
+				bounds[b+k] = lower;
+				bounds[b+3+k] = upper;
+				centroids[i*3+k] = (lower + upper)/2;
+			}
+			order[i] = i;
+		}
+
+		BuildTask root = new BuildTask(0, 0, numTriangles);
+		if( concurrent && numTriangles > minConcurrentBuild )
+			GrlConcurrency.getPool().invoke(root);
+		else
+			root.compute();
+
+		flatten();
+	}
+
+	/**
+	 * Builds the sub-tree which contains the triangles from start to end in 'order'.  The sub-tree is assigned the
+	 * nodes from 'node' to node + 2*(end-start)-1 so that sub-trees don't need to coordinate.
+	 */
+	private class BuildTask extends RecursiveAction {
+		int node, start, end;
+
+		BuildTask( int node , int start , int end ) {
+			this.node = node;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			buildNode(node, start, end);
+		}
+
+		private void buildNode( int node , int start , int end ) {
+			SplitWork work = takeSplit();
+			int middle;
+			try {
+				computeBounds(node, start, end);
+				middle = end-start <= maxLeafSize ? -1 : work.split(node, start, end);
+			} finally {
+				returnSplit(work);
+			}
+
+			if( middle < 0 ) {
+				buildIndex[node] = start;
+				buildCount[node] = end-start;
+				return;
+			}
+
+			int left = node+1;
+			int right = node + 2*(middle-start);
+			buildIndex[node] = right;
+			buildCount[node] = 0;
+
+			if( concurrent && end-start > minConcurrentBuild ) {
+				invokeAll(new BuildTask(left, start, middle), new BuildTask(right, middle, end));
+			} else {
+				buildNode(left, start, middle);
+				buildNode(right, middle, end);
+			}
+		}
+	}
+
+	private void computeBounds( int node , int start , int end ) {
+		int dst = node*6;
+		System.arraycopy(bounds, order[start]*6, buildBounds, dst, 6);
+		for (int i = start+1; i < end; i++) {
+			int src = order[i]*6;
+			for (int k = 0; k < 3; k++) {
+				if( bounds[src+k] < buildBounds[dst+k] ) buildBounds[dst+k] = bounds[src+k];
+				if( bounds[src+3+k] > buildBounds[dst+3+k] ) buildBounds[dst+3+k] = bounds[src+3+k];
+			}
+		}
+	}
+
+	/**
+	 * Workspace for finding the SAH split
+	 */
+	private class SplitWork {
+		int binCount[] = new int[BINS];
+		float binBounds[] = new float[BINS*6];
+		// area of the bounding box of bins to the right of the split
+		float rightArea[] = new float[BINS];
+		int rightCount[] = new int[BINS];
+		float box[] = new float[6];
+
+		/**
+		 * Finds the split with the smallest SAH cost and partitions the triangles.
+		 *
+		 * @return index of the first triangle in the second child or -1 if it can't be split
+		 */
+		int split( int node , int start , int end ) {
+			// bounds of the centroids
+			float lower0 = Float.MAX_VALUE, lower1 = Float.MAX_VALUE, lower2 = Float.MAX_VALUE;
+			float upper0 = -Float.MAX_VALUE, upper1 = -Float.MAX_VALUE, upper2 = -Float.MAX_VALUE;
+			for (int i = start; i < end; i++) {
+				int c = order[i]*3;
+				float x = centroids[c], y = centroids[c+1], z = centroids[c+2];
+				if( x < lower0 ) lower0 = x; if( x > upper0 ) upper0 = x;
+				if( y < lower1 ) lower1 = y; if( y > upper1 ) upper1 = y;
+				if( z < lower2 ) lower2 = z; if( z > upper2 ) upper2 = z;
+			}
+
+			int bestAxis = -1, bestBin = 0;
+			float bestCost = Float.MAX_VALUE;
+			for (int axis = 0; axis < 3; axis++) {
+				float lower = axis == 0 ? lower0 : (axis == 1 ? lower1 : lower2);
+				float upper = axis == 0 ? upper0 : (axis == 1 ? upper1 : upper2);
+				if( upper <= lower )
+					continue;
+				float scale = BINS/(upper-lower);
+
+				for (int i = 0; i < BINS; i++) {
+					binCount[i] = 0;
+				}
+				for (int i = start; i < end; i++) {
+					int t = order[i];
+					int bin = bin(centroids[t*3+axis], lower, scale);
+					int src = t*6, dst = bin*6;
+					if( binCount[bin]++ == 0 ) {
+						System.arraycopy(bounds, src, binBounds, dst, 6);
+					} else {
+						for (int k = 0; k < 3; k++) {
+							if( bounds[src+k] < binBounds[dst+k] ) binBounds[dst+k] = bounds[src+k];
+							if( bounds[src+3+k] > binBounds[dst+3+k] ) binBounds[dst+3+k] = bounds[src+3+k];
+						}
+					}
+				}
+
+				// sweep from the right to get the cost of everything to the right of each split
+				int count = 0;
+				for (int i = BINS-1; i > 0; i--) {
+					count += add(i, count == 0);
+					rightCount[i] = count;
+					rightArea[i] = area();
+				}
+				// sweep from the left and compute the cost of each split
+				count = 0;
+				for (int i = 0; i < BINS-1; i++) {
+					count += add(i, count == 0);
+					if( count == 0 || rightCount[i+1] == 0 )
+						continue;
+					float cost = area()*count + rightArea[i+1]*rightCount[i+1];
+					if( cost < bestCost ) {
+						bestCost = cost;
+						bestAxis = axis;
+						bestBin = i+1;
+					}
+				}
+			}
+
+			if( bestAxis < 0 )
+				return -1;
+
+			// partition the triangles
+			float lower = bestAxis == 0 ? lower0 : (bestAxis == 1 ? lower1 : lower2);
+			float upper = bestAxis == 0 ? upper0 : (bestAxis == 1 ? upper1 : upper2);
+			float scale = BINS/(upper-lower);
+			int i = start, j = end-1;
+			while( i <= j ) {
+				if( bin(centroids[order[i]*3+bestAxis], lower, scale) < bestBin ) {
+					i++;
+				} else {
+					int tmp = order[i]; order[i] = order[j]; order[j] = tmp;
+					j--;
+				}
+			}
+			buildAxis[node] = bestAxis;
+			return i;
+		}
+
+		/**
+		 * Adds the bin to the box and returns the number of triangles in it
+		 */
+		private int add( int bin , boolean first ) {
+			int n = binCount[bin];
+			if( n == 0 )
+				return 0;
+			int src = bin*6;
+			if( first ) {
+				System.arraycopy(binBounds, src, box, 0, 6);
+			} else {
+				for (int k = 0; k < 3; k++) {
+					if( binBounds[src+k] < box[k] ) box[k] = binBounds[src+k];
+					if( binBounds[src+3+k] > box[3+k] ) box[3+k] = binBounds[src+3+k];
+				}
+			}
+			return n;
+		}
+
+		/**
+		 * Half the surface area of the box
+		 */
+		private float area() {
+			float dx = box[3]-box[0], dy = box[4]-box[1], dz = box[5]-box[2];
+			return dx*dy + dy*dz + dz*dx;
+		}
+	}
+
+	private static int bin( float value , float lower , float scale ) {
+		int bin = (int)((value-lower)*scale);
+		return bin >= BINS ? BINS-1 : bin;
+	}
+
+	/**
+	 * Removes the gaps between nodes and copies the triangles into leaf order
+	 */
+	private void flatten() {
+		// assign new indexes in depth first order, skipping nodes which were never used
+		GrowQueue_I32 stack = query.stack;
+		stack.reset();
+		stack.add(0);
+		numNodes = 0;
+		while( stack.size > 0 ) {
+			int node = stack.pop();
+			remap[node] = numNodes++;
+			if( buildCount[node] == 0 ) {
+				stack.add(buildIndex[node]);
+				stack.add(node+1);
+			}
+		}
+
+		if( nodeIndex.length < numNodes ) {
+			nodeBounds = new float[numNodes*6];
+			nodeIndex = new int[numNodes];
+			nodeCount = new int[numNodes];
+			nodeAxis = new int[numNodes];
+		}
+
+		stack.add(0);
+		while( stack.size > 0 ) {
+			int node = stack.pop();
+			int dst = remap[node];
+			System.arraycopy(buildBounds, node*6, nodeBounds, dst*6, 6);
+			nodeCount[dst] = buildCount[node];
+			if( buildCount[node] == 0 ) {
+				nodeIndex[dst] = remap[buildIndex[node]];
+				nodeAxis[dst] = buildAxis[node];
+				stack.add(buildIndex[node]);
+				stack.add(node+1);
+			} else {
+				nodeIndex[dst] = buildIndex[node];
+			}
+		}
+
+		// rearrange the triangles into the same order as the leaves by following each cycle in the permutation
+		for (int i = 0; i < numTriangles; i++) {
+			triangleIndex[i] = order[i];
+		}
+		for (int i = 0; i < numTriangles; i++) {
+			if( order[i] < 0 )
+				continue;
+			System.arraycopy(triangles, i*9, tmp, 0, 9);
+			int j = i;
+			while( true ) {
+				int src = order[j];
+				order[j] = -1;
+				if( src == i ) {
+					System.arraycopy(tmp, 0, triangles, j*9, 9);
+					break;
+				}
+				System.arraycopy(triangles, src*9, triangles, j*9, 9);
+				j = src;
+			}
+		}
+	}
+
+	/**
+	 * Finds the first triangle hit by the ray
+	 *
+	 * @param ray Ray from its origin to the maximum range. Not modified.
+	 * @param hit (Output) Location the triangle was hit
+	 * @return Index of the triangle which was hit or -1 if nothing was hit
+	 */
+	public int castFirst( LineSegment3D_F32 ray , Point3D_F32 hit ) {
+		return query.cast(ray.a.x, ray.a.y, ray.a.z, ray.b.x, ray.b.y, ray.b.z, true, hit);
+	}
+
+	/**
+	 * Finds any triangle which is hit by the ray.  Faster than {@link #castFirst} and useful for testing
+	 * visibility.
+	 *
+	 * @param ray Ray from its origin to the maximum range. Not modified.
+	 * @return Index of a triangle which was hit or -1 if nothing was hit
+	 */
+	public int castAny( LineSegment3D_F32 ray ) {
+		return query.cast(ray.a.x, ray.a.y, ray.a.z, ray.b.x, ray.b.y, ray.b.z, false, null);
+	}
+
+	/**
+	 * Finds the first triangle hit by each ray in a batch.  If concurrent then the rays are split up between
+	 * threads.
+	 *
+	 * @param rays Packed rays, (ax,ay,az,bx,by,bz) for the origin and maximum range of each ray. Not modified.
+	 * @param numRays Number of rays
+	 * @param hitTriangles (Output) Index of the triangle hit by each ray or -1
+	 * @param hitPoints (Output) Optional.  Location of each hit, (x,y,z) for each ray.  Not modified if there
+	 *                  is no hit.
+	 */
+	public void castFirst( final float rays[] , int numRays , final int hitTriangles[] , final float hitPoints[] ) {
+		IntRangeConsumer consumer = new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				Query q = takeQuery();
+				try {
+					for (int i = start; i < end; i++) {
+						int r = i*6;
+						int found = q.cast(rays[r], rays[r+1], rays[r+2], rays[r+3], rays[r+4], rays[r+5], true, q.hit);
+						hitTriangles[i] = found;
+						if( found >= 0 && hitPoints != null ) {
+							hitPoints[i*3] = q.hit.x;
+							hitPoints[i*3+1] = q.hit.y;
+							hitPoints[i*3+2] = q.hit.z;
+						}
+					}
+				} finally {
+					returnQuery(q);
+				}
+			}
+		};
+
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, numRays, 256, consumer);
+		else
+			consumer.accept(0, numRays);
+	}
+
+	/**
+	 * Workspace for casting a single ray
+	 */
+	class Query {
+		GrowQueue_I32 stack = new GrowQueue_I32();
+		Triangle3D_F32 T = new Triangle3D_F32();
+		LineSegment3D_F32 segment = new LineSegment3D_F32();
+		Point3D_F32 hit = new Point3D_F32();
+		Point3D_F32 point = new Point3D_F32();
+		Vector3D_F32 u = new Vector3D_F32(), v = new Vector3D_F32(), n = new Vector3D_F32();
+		Vector3D_F32 dir = new Vector3D_F32(), w0 = new Vector3D_F32();
+
+		/**
+		 * Traverses the hierarchy.  Children which are closer to the ray's origin are visited first.  When
+		 * searching for the first hit the end of the ray is moved to the closest hit so far.
+		 */
+		int cast( float ax , float ay , float az , float bx , float by , float bz ,
+				  boolean first , Point3D_F32 output ) {
+			if( numNodes == 0 )
+				return -1;
+
+			float dx = bx-ax, dy = by-ay, dz = bz-az;
+			float lengthSq = dx*dx + dy*dy + dz*dz;
+			segment.a.set(ax, ay, az);
+			segment.b.set(bx, by, bz);
+
+			// the ray is (a + t*d) for 0 <= t <= tMax
+			float tMax = 1;
+			int best = -1;
+
+			stack.reset();
+			stack.add(0);
+			while( stack.size > 0 ) {
+				int node = stack.pop();
+				if( !intersectsBox(node*6, ax, ay, az, dx, dy, dz, tMax) )
+					continue;
+
+				int count = nodeCount[node];
+				if( count == 0 ) {
+					int axis = nodeAxis[node];
+					float d = axis == 0 ? dx : (axis == 1 ? dy : dz);
+					if( d >= 0 ) {
+						stack.add(nodeIndex[node]);
+						stack.add(node+1);
+					} else {
+						stack.add(node+1);
+						stack.add(nodeIndex[node]);
+					}
+					continue;
+				}
+
+				int end = nodeIndex[node] + count;
+				for (int i = nodeIndex[node]; i < end; i++) {
+					int t = i*9;
+					T.v0.set(triangles[t  ], triangles[t+1], triangles[t+2]);
+					T.v1.set(triangles[t+3], triangles[t+4], triangles[t+5]);
+					T.v2.set(triangles[t+6], triangles[t+7], triangles[t+8]);
+					if( Intersection3D_F32.intersection(T, segment, point, u, v, n, dir, w0) != 1 )
+						continue;
+
+					if( !first )
+						return triangleIndex[i];
+
+					// shorten the ray so that only closer triangles can be hit
+					float tHit = ((point.x-ax)*dx + (point.y-ay)*dy + (point.z-az)*dz)/lengthSq;
+					if( tHit <= tMax ) {
+						tMax = tHit;
+						best = i;
+						output.set(point);
+						segment.b.set(point);
+					}
+				}
+			}
+
+			return best < 0 ? -1 : triangleIndex[best];
+		}
+
+		/**
+		 * Slab test between the ray and the node's bounding box
+		 */
+		private boolean intersectsBox( int index , float ax , float ay , float az ,
+									   float dx , float dy , float dz , float tMax ) {
+			float tNear = 0, tFar = tMax;
+			for (int k = 0; k < 3; k++) {
+				float a = k == 0 ? ax : (k == 1 ? ay : az);
+				float d = k == 0 ? dx : (k == 1 ? dy : dz);
+				float lower = nodeBounds[index+k], upper = nodeBounds[index+3+k];
+				if( d == 0 ) {
+					if( a < lower || a > upper )
+						return false;
+					continue;
+				}
+				float t0 = (lower-a)/d;
+				float t1 = (upper-a)/d;
+				if( t0 > t1 ) {
+					float tmp = t0; t0 = t1; t1 = tmp;
+				}
+				if( t0 > tNear ) tNear = t0;
+				if( t1 < tFar ) tFar = t1;
+				if( tNear > tFar )
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private SplitWork takeSplit() {
+		synchronized( availableSplit ) {
+			if( availableSplit.isEmpty() )
+				return new SplitWork();
+			return availableSplit.remove(availableSplit.size()-1);
+		}
+	}
+
+	private void returnSplit( SplitWork work ) {
+		synchronized( availableSplit ) {
+			availableSplit.add(work);
+		}
+	}
+
+	private Query takeQuery() {
+		synchronized( availableQuery ) {
+			if( availableQuery.isEmpty() )
+				return new Query();
+			return availableQuery.remove(availableQuery.size()-1);
+		}
+	}
+
+	private void returnQuery( Query q ) {
+		synchronized( availableQuery ) {
+			availableQuery.add(q);
+		}
+	}
+
+	/**
+	 * Number of triangles in the hierarchy
+	 */
+	public int size() {
+		return numTriangles;
+	}
+
+	/**
+	 * Number of nodes in the hierarchy
+	 */
+	public int getNodeCount() {
+		return numNodes;
+	}
+
+	public int getMaxLeafSize() {
+		return maxLeafSize;
+	}
+
+	/**
+	 * Maximum number of triangles in a leaf.  Nodes with more triangles than this are split if possible.
+	 */
+	public void setMaxLeafSize(int maxLeafSize) {
+		if( maxLeafSize < 1 )
+			throw new IllegalArgumentException("Must be at least 1");
+		this.maxLeafSize = maxLeafSize;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then building and batch ray casting will be split across multiple threads
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.misc;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Functions for splitting up a loop and processing it concurrently using a shared {@link ForkJoinPool}.  Work
+ * is only split up if there are enough elements to make it worthwhile.  Small problems are processed in the
+ * calling thread.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GrlConcurrency {
+
+	/**
+	 * Default minimum number of elements which are processed by a single task.
+	 */
+	public static final int DEFAULT_MIN_BLOCK = 10000;
+
+	// pool which all concurrent tasks are run inside of.  Volatile so that a replacement is seen by all threads
+	private static volatile ForkJoinPool pool = new ForkJoinPool();
+
+	/**
+	 * Changes the maximum number of threads which are used to process concurrent tasks.  Tasks which are
+	 * already running finish in the previous pool.  The previous pool is not shut down since other threads
+	 * might still be holding onto it.  Its threads exit on their own once they have been idle for a while.
+	 *
+	 * @param threads Number of threads.  Must be at least 1.
+	 */
+	public static synchronized void setMaxThreads( int threads ) {
+		if( threads < 1 )
+			throw new IllegalArgumentException("Must use at least one thread");
+		if( threads == pool.getParallelism() )
+			return;
+
+		pool = new ForkJoinPool(threads);
+	}
+
+	/**
+	 * Returns the maximum number of threads which can be used to process concurrent tasks
+	 */
+	public static int getMaxThreads() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Returns the pool which concurrent tasks are run inside of
+	 */
+	public static ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Same as {@link #loopBlocks(int, int, int, IntRangeConsumer)} but uses {@link #DEFAULT_MIN_BLOCK}
+	 */
+	public static void loopBlocks( int start , int end , IntRangeConsumer consumer ) {
+		loopBlocks(start, end, DEFAULT_MIN_BLOCK, consumer);
+	}
+
+	/**
+	 * Splits the range of indexes from start to end into blocks which are then processed concurrently.  Each
+	 * block will contain at least minBlock elements, unless the whole range is smaller than that.  Blocks never
+	 * overlap.  Returns after all blocks have been processed.
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 * @param minBlock Minimum number of elements in a block.  Must be at least 1.
+	 * @param consumer Processes each block
+	 */
+	public static void loopBlocks( int start , int end , int minBlock , IntRangeConsumer consumer ) {
+		if( minBlock < 1 )
+			throw new IllegalArgumentException("minBlock must be at least 1");
+
+		ForkJoinPool pool = GrlConcurrency.pool;
+		int length = end-start;
+
+		if( length <= minBlock || pool.getParallelism() == 1 ) {
+			if( length > 0 )
+				consumer.accept(start, end);
+			return;
+		}
+
+		// don't create many more tasks than there are threads.  The extra tasks help balance the load
+		int blockSize = Math.max(minBlock, length/(pool.getParallelism()*4));
+
+		pool.invoke(new BlockTask(start, end, blockSize, consumer));
+	}
+
+	/**
+	 * Recursively splits the range in half until it's no larger than the block size
+	 */
+	private static class BlockTask extends RecursiveAction {
+		int start, end, blockSize;
+		IntRangeConsumer consumer;
+
+		BlockTask(int start, int end, int blockSize, IntRangeConsumer consumer) {
+			this.start = start;
+			this.end = end;
+			this.blockSize = blockSize;
+			this.consumer = consumer;
+		}
+
+		@Override
+		protected void compute() {
+			if( end-start <= blockSize ) {
+				consumer.accept(start, end);
+			} else {
+				int middle = start + (end-start)/2;
+				invokeAll(new BlockTask(start, middle, blockSize, consumer),
+						new BlockTask(middle, end, blockSize, consumer));
+			}
+		}
+	}
+}
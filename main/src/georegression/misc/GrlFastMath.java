@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.misc;
+
+/**
+ * <p>
+ * Fast approximations of trigonometric functions.  {@link Math#atan2} and {@link Math#acos} are computed in
+ * software by the JVM and {@link Math#sin}/{@link Math#cos} must each reduce the angle separately.  These
+ * functions use polynomials instead, which are several times faster at the cost of a small amount of accuracy.
+ * Algorithms which support them have a setFastMath() function, or they can be called directly.
+ * </p>
+ *
+ * <p>
+ * The maximum absolute error of the double versions is given by {@link #MAX_ERROR_SIN_COS},
+ * {@link #MAX_ERROR_ATAN2} and {@link #MAX_ERROR_ACOS}.  The float versions compute the double version and round
+ * the result.  Special values, e.g. infinity and NaN, are not handled the same as {@link Math}.
+ * </p>
+ *
+ * <p>
+ * sin() and cos() reduce the angle to [-pi/4,pi/4] then evaluate their Taylor series.  atan2() reduces the
+ * argument to [0,tan(pi/12)] using the symmetry of atan and tan(a-pi/6), then evaluates its Taylor series.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GrlFastMath {
+
+	/**
+	 * Maximum absolute error of {@link #sin}, {@link #cos} and {@link #sincos}.  Angles with a magnitude larger
+	 * than {@link #MAX_REDUCE} are passed to {@link Math}.
+	 */
+	public static final double MAX_ERROR_SIN_COS = 1e-11;
+	/**
+	 * Maximum absolute error of {@link #atan2} and {@link #atan}
+	 */
+	public static final double MAX_ERROR_ATAN2 = 2e-11;
+	/**
+	 * Maximum absolute error of {@link #acos} and {@link #asin}
+	 */
+	public static final double MAX_ERROR_ACOS = 2e-11;
+
+	/**
+	 * Largest angle which is reduced to [-pi/4,pi/4] by this class.  Above this the reduction loses accuracy.
+	 */
+	public static final double MAX_REDUCE = 1e6;
+
+	// pi/2 split into two parts.  PIO2_HI has 33 significant bits so k*PIO2_HI is exact for the range of k used
+	private static final double PIO2_HI = 1.57079632673412561417;
+	private static final double PIO2_LO = 6.07710050650619224932e-11;
+	private static final double TWO_OVER_PI = 0.63661977236758134308;
+
+	private static final double PI = Math.PI;
+	private static final double PI_2 = Math.PI/2;
+	private static final double PI_6 = Math.PI/6;
+	private static final double SQRT3 = Math.sqrt(3);
+	private static final double TAN_PI_12 = 2 - Math.sqrt(3);
+
+	// Taylor series coefficients, sin(x) = x*(1 + x^2*(S1 + x^2*(S2 + ...)))
+	private static final double S1 = -1.0/6;
+	private static final double S2 = 1.0/120;
+	private static final double S3 = -1.0/5040;
+	private static final double S4 = 1.0/362880;
+	private static final double S5 = -1.0/39916800;
+
+	// cos(x) = 1 + x^2*(C1 + x^2*(C2 + ...))
+	private static final double C1 = -1.0/2;
+	private static final double C2 = 1.0/24;
+	private static final double C3 = -1.0/720;
+	private static final double C4 = 1.0/40320;
+	private static final double C5 = -1.0/3628800;
+	private static final double C6 = 1.0/479001600;
+
+	/**
+	 * Approximation of sin(angle)
+	 */
+	public static double sin( double angle ) {
+		if( Math.abs(angle) > MAX_REDUCE )
+			return Math.sin(angle);
+
+		double k = Math.rint(angle*TWO_OVER_PI);
+		double r = (angle - k*PIO2_HI) - k*PIO2_LO;
+		switch( ((int)k) & 3 ) {
+			case 0: return polySin(r);
+			case 1: return polyCos(r);
+			case 2: return -polySin(r);
+			default: return -polyCos(r);
+		}
+	}
+
+	/**
+	 * Approximation of cos(angle)
+	 */
+	public static double cos( double angle ) {
+		if( Math.abs(angle) > MAX_REDUCE )
+			return Math.cos(angle);
+
+		double k = Math.rint(angle*TWO_OVER_PI);
+		double r = (angle - k*PIO2_HI) - k*PIO2_LO;
+		switch( ((int)k) & 3 ) {
+			case 0: return polyCos(r);
+			case 1: return -polySin(r);
+			case 2: return -polyCos(r);
+			default: return polySin(r);
+		}
+	}
+
+	/**
+	 * Computes sin(angle) and cos(angle) together, which only requires the angle to be reduced once.
+	 *
+	 * @param angle The angle
+	 * @param output (Output) output[0] = sin(angle) and output[1] = cos(angle)
+	 */
+	public static void sincos( double angle , double output[] ) {
+		if( Math.abs(angle) > MAX_REDUCE ) {
+			output[0] = Math.sin(angle);
+			output[1] = Math.cos(angle);
+			return;
+		}
+
+		double k = Math.rint(angle*TWO_OVER_PI);
+		double r = (angle - k*PIO2_HI) - k*PIO2_LO;
+		double s = polySin(r);
+		double c = polyCos(r);
+		switch( ((int)k) & 3 ) {
+			case 0: output[0] = s; output[1] = c; break;
+			case 1: output[0] = c; output[1] = -s; break;
+			case 2: output[0] = -s; output[1] = -c; break;
+			default: output[0] = -c; output[1] = s; break;
+		}
+	}
+
+	/**
+	 * Approximation of atan2(y,x).  Returns 0 if both are zero.
+	 */
+	public static double atan2( double y , double x ) {
+		double ax = Math.abs(x), ay = Math.abs(y);
+
+		double a;
+		if( ay <= ax ) {
+			if( ax == 0 )
+				return 0;
+			a = atan01(ay/ax);
+		} else {
+			a = PI_2 - atan01(ax/ay);
+		}
+
+		if( x < 0 )
+			a = PI - a;
+		return y < 0 ? -a : a;
+	}
+
+	/**
+	 * Approximation of atan(value)
+	 */
+	public static double atan( double value ) {
+		return atan2(value, 1);
+	}
+
+	/**
+	 * Approximation of acos(value).  Value must be from -1 to 1.
+	 */
+	public static double acos( double value ) {
+		return atan2( Math.sqrt((1-value)*(1+value)), value);
+	}
+
+	/**
+	 * Approximation of asin(value).  Value must be from -1 to 1.
+	 */
+	public static double asin( double value ) {
+		return atan2(value, Math.sqrt((1-value)*(1+value)));
+	}
+
+	/**
+	 * Float version of {@link #sin(double)}
+	 */
+	public static float sin( float angle ) {
+		return (float)sin((double)angle);
+	}
+
+	/**
+	 * Float version of {@link #cos(double)}
+	 */
+	public static float cos( float angle ) {
+		return (float)cos((double)angle);
+	}
+
+	/**
+	 * Float version of {@link #sincos(double, double[])}
+	 */
+	public static void sincos( float angle , float output[] ) {
+		if( Math.abs(angle) > MAX_REDUCE ) {
+			output[0] = (float)Math.sin(angle);
+			output[1] = (float)Math.cos(angle);
+			return;
+		}
+
+		double k = Math.rint(angle*TWO_OVER_PI);
+		double r = (angle - k*PIO2_HI) - k*PIO2_LO;
+		float s = (float)polySin(r);
+		float c = (float)polyCos(r);
+		switch( ((int)k) & 3 ) {
+			case 0: output[0] = s; output[1] = c; break;
+			case 1: output[0] = c; output[1] = -s; break;
+			case 2: output[0] = -s; output[1] = -c; break;
+			default: output[0] = -c; output[1] = s; break;
+		}
+	}
+
+	/**
+	 * Float version of {@link #atan2(double, double)}
+	 */
+	public static float atan2( float y , float x ) {
+		return (float)atan2((double)y, (double)x);
+	}
+
+	/**
+	 * Float version of {@link #atan(double)}
+	 */
+	public static float atan( float value ) {
+		return (float)atan2((double)value, 1.0);
+	}
+
+	/**
+	 * Float version of {@link #acos(double)}
+	 */
+	public static float acos( float value ) {
+		return (float)acos((double)value);
+	}
+
+	/**
+	 * Float version of {@link #asin(double)}
+	 */
+	public static float asin( float value ) {
+		return (float)asin((double)value);
+	}
+
+	/**
+	 * sin(x) for |x| &le; pi/4
+	 */
+	private static double polySin( double x ) {
+		double x2 = x*x;
+		return x*(1 + x2*(S1 + x2*(S2 + x2*(S3 + x2*(S4 + x2*S5)))));
+	}
+
+	/**
+	 * cos(x) for |x| &le; pi/4
+	 */
+	private static double polyCos( double x ) {
+		double x2 = x*x;
+		return 1 + x2*(C1 + x2*(C2 + x2*(C3 + x2*(C4 + x2*(C5 + x2*C6)))));
+	}
+
+	/**
+	 * atan(z) for 0 &le; z &le; 1
+	 */
+	private static double atan01( double z ) {
+		if( z <= TAN_PI_12 )
+			return polyAtan(z);
+		// atan(z) = pi/6 + atan((z*sqrt(3)-1)/(sqrt(3)+z))
+		return PI_6 + polyAtan((z*SQRT3 - 1)/(SQRT3 + z));
+	}
+
+	/**
+	 * atan(z) for |z| &le; tan(pi/12)
+	 */
+	private static double polyAtan( double z ) {
+		double z2 = z*z;
+		return z*(1 + z2*(-1.0/3 + z2*(1.0/5 + z2*(-1.0/7 + z2*(1.0/9 +
+				z2*(-1.0/11 + z2*(1.0/13 + z2*(-1.0/15))))))));
+	}
+}
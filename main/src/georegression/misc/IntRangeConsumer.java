@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.misc;
+
+/**
+ * Processes a range of indexes.  Used to split a loop into blocks which can be processed concurrently.
+ *
+ * @see GrlConcurrency
+ *
+ * @author Peter Abeles
+ */
+public interface IntRangeConsumer {
+	/**
+	 * Process all indexes from start to end.
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 */
+	void accept( int start , int end );
+}
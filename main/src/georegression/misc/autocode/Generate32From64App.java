@@ -77,7 +77,7 @@ public class Generate32From64App {
 	}
 
 	public static void main( String args[] ) {
-		String directories[] = new String[]{"main/src","main/test","experimental/src","experimental/test"};
+		String directories[] = new String[]{"main/src","main/test","experimental/src","experimental/test","benchmark/src"};
 
 		for( String dir : directories ) {
 			new Generate32From64App( dir ).process();
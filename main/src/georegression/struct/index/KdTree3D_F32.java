@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.index;
+
+import georegression.misc.GrlConcurrency;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Balanced k-d tree for 3D points which is stored implicitly inside of flat arrays.  When built the points
+ * are copied into a packed array and reordered in place so that every node is the median of the index range
+ * it covers.  A node covering the range [lo,hi) splits at m = (lo+hi)/2 and its children cover [lo,m) and
+ * [m+1,hi).  Ranges with {@link #getLeafSize() leafSize} or fewer points are not split and are searched
+ * exhaustively.  No node objects are created, making the structure compact and cache friendly.
+ * </p>
+ *
+ * <p>
+ * Queries are performed with {@link KdTreeSearch3D_F32}.  The tree itself is never modified by a search, so a
+ * single tree can be searched by multiple threads as long as each thread has its own search instance.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdTree3D_F32 {
+
+	/**
+	 * Interleaved coordinates of the points in tree order.  Point i is at 3*i, 3*i+1, 3*i+2
+	 */
+	public float points[] = new float[0];
+
+	/**
+	 * Index of each point in the original input
+	 */
+	public int indexes[] = new int[0];
+
+	/**
+	 * Axis that the node at each median index splits along. 0 = x, 1 = y, 2 = z.  Undefined for points
+	 * inside of leaves.
+	 */
+	public byte axes[] = new byte[0];
+
+	/**
+	 * Number of points in the tree
+	 */
+	public int size;
+
+	// ranges this size or smaller are not split
+	private int leafSize;
+
+	// if true the tree will be constructed using multiple threads
+	private boolean concurrent;
+
+	// ranges larger than this are split using a new task when building concurrently
+	private int minConcurrentBlock = GrlConcurrency.DEFAULT_MIN_BLOCK;
+
+	/**
+	 * Configures the tree
+	 *
+	 * @param leafSize Ranges with this number of points or fewer are searched exhaustively.  Try 8.
+	 * @param concurrent If true the tree will be constructed using multiple threads
+	 */
+	public KdTree3D_F32( int leafSize , boolean concurrent ) {
+		if( leafSize < 1 )
+			throw new IllegalArgumentException("leafSize must be at least 1");
+		this.leafSize = leafSize;
+		this.concurrent = concurrent;
+	}
+
+	public KdTree3D_F32() {
+		this(8,false);
+	}
+
+	/**
+	 * Builds the tree from a point cloud.  The cloud is not modified.
+	 */
+	public void build( PointCloud3D_F32 cloud ) {
+		resize(cloud.size);
+		System.arraycopy(cloud.data,0,points,0,size*3);
+		buildTree();
+	}
+
+	/**
+	 * Builds the tree from a list of points.  The list is not modified.
+	 */
+	public void build( List<Point3D_F32> list ) {
+		resize(list.size());
+		int index = 0;
+		for (int i = 0; i < size; i++) {
+			Point3D_F32 p = list.get(i);
+			points[index++] = p.x;
+			points[index++] = p.y;
+			points[index++] = p.z;
+		}
+		buildTree();
+	}
+
+	/**
+	 * Creates a new search for this tree.  Each thread should have its own search.
+	 */
+	public KdTreeSearch3D_F32 createSearch() {
+		return new KdTreeSearch3D_F32(this);
+	}
+
+	private void resize( int size ) {
+		this.size = size;
+		if( indexes.length < size ) {
+			points = new float[size*3];
+			indexes = new int[size];
+			axes = new byte[size];
+		}
+	}
+
+	private void buildTree() {
+		for (int i = 0; i < size; i++) {
+			indexes[i] = i;
+		}
+
+		if( concurrent && size > minConcurrentBlock ) {
+			GrlConcurrency.getPool().invoke(new BuildTask(0,size));
+		} else {
+			build(0,size);
+		}
+	}
+
+	/**
+	 * Recursively builds the sub-tree for the range [lo,hi)
+	 */
+	private void build( int lo , int hi ) {
+		while( hi-lo > leafSize ) {
+			int m = split(lo,hi);
+			build(lo,m);
+			lo = m+1;
+		}
+	}
+
+	/**
+	 * Selects the split axis for the range, partitions it around the median and records the axis.
+	 *
+	 * @return index of the median
+	 */
+	private int split( int lo , int hi ) {
+		int axis = selectAxis(lo,hi);
+		int m = (lo+hi) >>> 1;
+		select(lo,hi-1,m,axis);
+		axes[m] = (byte)axis;
+		return m;
+	}
+
+	/**
+	 * Splits along the axis with the largest spread
+	 */
+	private int selectAxis( int lo , int hi ) {
+		float points[] = this.points;
+
+		int index = lo*3;
+		float x0 = points[index], x1 = x0;
+		float y0 = points[index+1], y1 = y0;
+		float z0 = points[index+2], z1 = z0;
+
+		for (int i = lo+1; i < hi; i++) {
+			index = i*3;
+			float x = points[index];
+			float y = points[index+1];
+			float z = points[index+2];
+
+			if( x < x0 ) x0 = x; else if( x > x1 ) x1 = x;
+			if( y < y0 ) y0 = y; else if( y > y1 ) y1 = y;
+			if( z < z0 ) z0 = z; else if( z > z1 ) z1 = z;
+		}
+
+		float dx = x1-x0, dy = y1-y0, dz = z1-z0;
+
+		if( dx >= dy )
+			return dx >= dz ? 0 : 2;
+		else
+			return dy >= dz ? 1 : 2;
+	}
+
+	/**
+	 * Quick select.  Rearranges points in [left,right] so that the point at k has the k-th smallest value
+	 * along the axis, everything before it is less than or equal and everything after greater than or equal.
+	 */
+	private void select( int left , int right , int k , int axis ) {
+		float points[] = this.points;
+
+		while( right > left ) {
+			// median of three pivot
+			int middle = (left+right) >>> 1;
+			if( points[middle*3+axis] < points[left*3+axis] ) swap(middle,left);
+			if( points[right*3+axis] < points[left*3+axis] ) swap(right,left);
+			if( points[right*3+axis] < points[middle*3+axis] ) swap(right,middle);
+
+			float pivot = points[middle*3+axis];
+
+			// Hoare partition.  Degrades gracefully when there are many identical values
+			int i = left, j = right;
+			while( i <= j ) {
+				while( points[i*3+axis] < pivot ) i++;
+				while( points[j*3+axis] > pivot ) j--;
+				if( i <= j ) {
+					swap(i++,j--);
+				}
+			}
+
+			if( k <= j )
+				right = j;
+			else if( k >= i )
+				left = i;
+			else
+				return;
+		}
+	}
+
+	private void swap( int a , int b ) {
+		if( a == b )
+			return;
+
+		float points[] = this.points;
+		int ia = a*3, ib = b*3;
+
+		float tmp = points[ia]; points[ia] = points[ib]; points[ib] = tmp;
+		tmp = points[ia+1]; points[ia+1] = points[ib+1]; points[ib+1] = tmp;
+		tmp = points[ia+2]; points[ia+2] = points[ib+2]; points[ib+2] = tmp;
+
+		int t = indexes[a]; indexes[a] = indexes[b]; indexes[b] = t;
+	}
+
+	/**
+	 * Builds a sub-tree.  The two children of large ranges are built in parallel.
+	 */
+	private class BuildTask extends RecursiveAction {
+		int lo, hi;
+
+		BuildTask(int lo, int hi) {
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if( hi-lo <= minConcurrentBlock ) {
+				build(lo,hi);
+			} else {
+				int m = split(lo,hi);
+				invokeAll(new BuildTask(lo,m), new BuildTask(m+1,hi));
+			}
+		}
+	}
+
+	/**
+	 * Copies the coordinate of the point at the specified location in the tree into 'output'
+	 */
+	public Point3D_F32 getPoint( int treeIndex , Point3D_F32 output ) {
+		if( output == null )
+			output = new Point3D_F32();
+		int index = treeIndex*3;
+		output.set(points[index],points[index+1],points[index+2]);
+		return output;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getLeafSize() {
+		return leafSize;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	public int getMinConcurrentBlock() {
+		return minConcurrentBlock;
+	}
+
+	/**
+	 * Ranges larger than this are split into two tasks when building concurrently
+	 */
+	public void setMinConcurrentBlock(int minConcurrentBlock) {
+		this.minConcurrentBlock = minConcurrentBlock;
+	}
+}
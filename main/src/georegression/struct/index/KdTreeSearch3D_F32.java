@@ -0,0 +1,506 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.index;
+
+import georegression.struct.point.Point3D_F32;
+
+/**
+ * <p>
+ * Searches a {@link KdTree3D_F32} for the nearest neighbors or all the neighbors inside a radius of a point.
+ * All memory is declared once and then recycled, so no memory is created while searching once the internal
+ * storage has grown to the size required.  Results are written into internal arrays and can be accessed with
+ * {@link #getIndex(int)} and {@link #getDistance2(int)}.  Indexes refer to the order the points were in when
+ * the tree was built.  Distances are Euclidean distance squared.
+ * </p>
+ *
+ * <p>
+ * Not thread safe.  Use one search for each thread.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdTreeSearch3D_F32 {
+
+	// the tree being searched
+	private KdTree3D_F32 tree;
+
+	// reference to the tree's data for the current search
+	private float points[];
+	private byte axes[];
+	private int leafSize;
+
+	// the point being searched for
+	private float query[] = new float[3];
+
+	// number of neighbors being searched for and the maximum allowed distance squared
+	private int k;
+	private float maxDistance2;
+
+	// results.  For nearest neighbor searches this is used as a max heap while searching
+	private int results[] = new int[10];
+	private float resultsDistance2[] = new float[10];
+	private int numResults;
+
+	// priority queue of unexplored branches used in best-bin-first.  Stored as a min heap
+	private int queueLo[] = new int[10];
+	private int queueHi[] = new int[10];
+	private float queueDistance2[] = new float[10];
+	private int queueSize;
+
+	// number of points which have been examined in approximate search and the maximum allowed
+	private int checks;
+	private int maxChecks;
+
+	public KdTreeSearch3D_F32( KdTree3D_F32 tree ) {
+		this.tree = tree;
+	}
+
+	/**
+	 * Finds the closest point in the tree.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param z Query point z-coordinate
+	 * @param maxDistance Only points which are this distance or closer are considered.  Can be
+	 * Float.MAX_VALUE.
+	 * @return Index of the closest point or -1 if there are none within maxDistance
+	 */
+	public int findNearest( float x , float y , float z , float maxDistance ) {
+		if( findNearest(x,y,z,maxDistance,1) == 0 )
+			return -1;
+		return results[0];
+	}
+
+	public int findNearest( Point3D_F32 p , float maxDistance ) {
+		return findNearest(p.x,p.y,p.z,maxDistance);
+	}
+
+	/**
+	 * Finds the k-nearest neighbors.  Results are sorted from closest to farthest.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param z Query point z-coordinate
+	 * @param maxDistance Only points which are this distance or closer are considered.  Can be
+	 * Float.MAX_VALUE.
+	 * @param k Maximum number of neighbors which are found
+	 * @return Number of neighbors found
+	 */
+	public int findNearest( float x , float y , float z , float maxDistance , int k ) {
+		initializeNearest(x, y, z, maxDistance, k);
+
+		if( tree.size > 0 && k > 0 )
+			searchNearest(0,tree.size);
+
+		return finishNearest();
+	}
+
+	public int findNearest( Point3D_F32 p , float maxDistance , int k ) {
+		return findNearest(p.x,p.y,p.z,maxDistance,k);
+	}
+
+	/**
+	 * <p>
+	 * Approximate k-nearest neighbor search using best-bin-first.  The tree is descended to the closest leaf and
+	 * then branches are explored in order of their distance from the query point until maxChecks points have
+	 * been examined.  If maxChecks is greater than or equal to the number of points then the result is exact.
+	 * Results are sorted from closest to farthest.
+	 * </p>
+	 *
+	 * <p>
+	 * Beis, J. S., and Lowe, D. G. "Shape indexing using approximate nearest-neighbour search in
+	 * high-dimensional spaces." CVPR 1997
+	 * </p>
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param z Query point z-coordinate
+	 * @param maxDistance Only points which are this distance or closer are considered.  Can be
+	 * Float.MAX_VALUE.
+	 * @param k Maximum number of neighbors which are found
+	 * @param maxChecks Maximum number of points which are examined.
+	 * @return Number of neighbors found
+	 */
+	public int findNearestApproximate( float x , float y , float z , float maxDistance ,
+									   int k , int maxChecks ) {
+		initializeNearest(x, y, z, maxDistance, k);
+
+		this.checks = 0;
+		this.maxChecks = maxChecks;
+		this.queueSize = 0;
+
+		if( tree.size > 0 && k > 0 ) {
+			searchBestBin(0, tree.size);
+
+			while( queueSize > 0 && checks < maxChecks ) {
+				// the closest unexplored branch
+				int lo = queueLo[0];
+				int hi = queueHi[0];
+				float d = queueDistance2[0];
+				queuePopMin();
+
+				if( d > worstDistance2() )
+					break;
+
+				searchBestBin(lo, hi);
+			}
+		}
+
+		return finishNearest();
+	}
+
+	public int findNearestApproximate( Point3D_F32 p , float maxDistance , int k , int maxChecks ) {
+		return findNearestApproximate(p.x,p.y,p.z,maxDistance,k,maxChecks);
+	}
+
+	/**
+	 * Finds all the points which are inside or on a sphere around the query point.  Results are not sorted.
+	 *
+	 * @param x Query point x-coordinate
+	 * @param y Query point y-coordinate
+	 * @param z Query point z-coordinate
+	 * @param radius Radius of the sphere
+	 * @return Number of points found
+	 */
+	public int findRadius( float x , float y , float z , float radius ) {
+		initialize(x,y,z);
+		this.maxDistance2 = radius*radius;
+		this.numResults = 0;
+
+		if( tree.size > 0 )
+			searchRadius(0,tree.size);
+
+		int indexes[] = tree.indexes;
+		for (int i = 0; i < numResults; i++) {
+			results[i] = indexes[results[i]];
+		}
+
+		return numResults;
+	}
+
+	public int findRadius( Point3D_F32 p , float radius ) {
+		return findRadius(p.x,p.y,p.z,radius);
+	}
+
+	/**
+	 * Number of results found in the most recent search
+	 */
+	public int getResultsSize() {
+		return numResults;
+	}
+
+	/**
+	 * Index of a point found in the most recent search
+	 *
+	 * @param i Which result
+	 * @return Index of the point in the input used to build the tree
+	 */
+	public int getIndex( int i ) {
+		return results[i];
+	}
+
+	/**
+	 * Euclidean distance squared between the query and a point found in the most recent search
+	 *
+	 * @param i Which result
+	 */
+	public float getDistance2( int i ) {
+		return resultsDistance2[i];
+	}
+
+	public KdTree3D_F32 getTree() {
+		return tree;
+	}
+
+	/**
+	 * Changes which tree is searched
+	 */
+	public void setTree(KdTree3D_F32 tree) {
+		this.tree = tree;
+	}
+
+	private void initialize( float x , float y , float z ) {
+		query[0] = x;
+		query[1] = y;
+		query[2] = z;
+
+		points = tree.points;
+		axes = tree.axes;
+		leafSize = tree.getLeafSize();
+	}
+
+	private void initializeNearest( float x , float y , float z , float maxDistance , int k ) {
+		initialize(x, y, z);
+		this.k = k;
+		this.maxDistance2 = maxDistance == Float.MAX_VALUE ? Float.MAX_VALUE : maxDistance*maxDistance;
+		this.numResults = 0;
+
+		if( results.length < k ) {
+			results = new int[k];
+			resultsDistance2 = new float[k];
+		}
+	}
+
+	/**
+	 * Sorts the heap from closest to farthest and converts tree indexes into input indexes
+	 */
+	private int finishNearest() {
+		int N = numResults;
+		while( numResults > 1 ) {
+			numResults--;
+			swapResults(0,numResults);
+			heapSiftDown(0);
+		}
+		numResults = N;
+
+		int indexes[] = tree.indexes;
+		for (int i = 0; i < N; i++) {
+			results[i] = indexes[results[i]];
+		}
+		return N;
+	}
+
+	/**
+	 * Exact nearest neighbor search of the sub-tree in the range [lo,hi)
+	 */
+	private void searchNearest( int lo , int hi ) {
+		while( true ) {
+			if( hi - lo <= leafSize ) {
+				for (int i = lo; i < hi; i++) {
+					checkNearest(i);
+				}
+				return;
+			}
+
+			int m = (lo+hi) >>> 1;
+			int axis = axes[m];
+			checkNearest(m);
+
+			float diff = query[axis] - points[m*3+axis];
+
+			if( diff < 0 ) {
+				searchNearest(lo, m);
+				lo = m + 1;
+			} else {
+				searchNearest(m + 1, hi);
+				hi = m;
+			}
+
+			if( diff*diff > worstDistance2() )
+				return;
+		}
+	}
+
+	/**
+	 * Descends to the leaf closest to the query while adding the branches not taken to the priority queue
+	 */
+	private void searchBestBin( int lo , int hi ) {
+		while( checks < maxChecks ) {
+			if( hi - lo <= leafSize ) {
+				for (int i = lo; i < hi; i++) {
+					checkNearest(i);
+				}
+				checks += hi - lo;
+				return;
+			}
+
+			int m = (lo+hi) >>> 1;
+			int axis = axes[m];
+			checkNearest(m);
+			checks++;
+
+			float diff = query[axis] - points[m*3+axis];
+			float d = diff*diff;
+
+			if( diff < 0 ) {
+				if( d <= worstDistance2() )
+					queueAdd(m + 1, hi, d);
+				hi = m;
+			} else {
+				if( d <= worstDistance2() )
+					queueAdd(lo, m, d);
+				lo = m + 1;
+			}
+		}
+	}
+
+	/**
+	 * Finds all points inside the radius in the sub-tree in the range [lo,hi)
+	 */
+	private void searchRadius( int lo , int hi ) {
+		while( true ) {
+			if( hi - lo <= leafSize ) {
+				for (int i = lo; i < hi; i++) {
+					checkRadius(i);
+				}
+				return;
+			}
+
+			int m = (lo+hi) >>> 1;
+			int axis = axes[m];
+			checkRadius(m);
+
+			float diff = query[axis] - points[m*3+axis];
+
+			if( diff < 0 ) {
+				searchRadius(lo, m);
+				lo = m + 1;
+			} else {
+				searchRadius(m + 1, hi);
+				hi = m;
+			}
+
+			if( diff*diff > maxDistance2 )
+				return;
+		}
+	}
+
+	/**
+	 * Largest distance a point can be and still be added to the results
+	 */
+	private float worstDistance2() {
+		return numResults < k ? maxDistance2 : resultsDistance2[0];
+	}
+
+	private float distance2( int treeIndex ) {
+		int index = treeIndex*3;
+		float dx = points[index  ] - query[0];
+		float dy = points[index+1] - query[1];
+		float dz = points[index+2] - query[2];
+		return dx*dx + dy*dy + dz*dz;
+	}
+
+	private void checkNearest( int treeIndex ) {
+		float d = distance2(treeIndex);
+
+		if( numResults < k ) {
+			if( d > maxDistance2 )
+				return;
+			// add to the max heap
+			int i = numResults++;
+			results[i] = treeIndex;
+			resultsDistance2[i] = d;
+			while( i > 0 ) {
+				int parent = (i-1)/2;
+				if( resultsDistance2[parent] >= resultsDistance2[i] )
+					break;
+				swapResults(parent,i);
+				i = parent;
+			}
+		} else if( d < resultsDistance2[0] ) {
+			// replace the farthest
+			results[0] = treeIndex;
+			resultsDistance2[0] = d;
+			heapSiftDown(0);
+		}
+	}
+
+	private void checkRadius( int treeIndex ) {
+		float d = distance2(treeIndex);
+		if( d > maxDistance2 )
+			return;
+
+		if( numResults == results.length ) {
+			int tmpI[] = new int[numResults*2];
+			float tmpD[] = new float[numResults*2];
+			System.arraycopy(results,0,tmpI,0,numResults);
+			System.arraycopy(resultsDistance2,0,tmpD,0,numResults);
+			results = tmpI;
+			resultsDistance2 = tmpD;
+		}
+		results[numResults] = treeIndex;
+		resultsDistance2[numResults++] = d;
+	}
+
+	/**
+	 * Restores the max heap property of the results below element i
+	 */
+	private void heapSiftDown( int i ) {
+		while( true ) {
+			int left = 2*i+1;
+			if( left >= numResults )
+				break;
+			int largest = left;
+			int right = left+1;
+			if( right < numResults && resultsDistance2[right] > resultsDistance2[left] )
+				largest = right;
+			if( resultsDistance2[largest] <= resultsDistance2[i] )
+				break;
+			swapResults(i,largest);
+			i = largest;
+		}
+	}
+
+	private void swapResults( int a , int b ) {
+		int ti = results[a]; results[a] = results[b]; results[b] = ti;
+		float td = resultsDistance2[a]; resultsDistance2[a] = resultsDistance2[b]; resultsDistance2[b] = td;
+	}
+
+	private void queueAdd( int lo , int hi , float distance2 ) {
+		if( queueSize == queueLo.length ) {
+			int tmpLo[] = new int[queueSize*2];
+			int tmpHi[] = new int[queueSize*2];
+			float tmpD[] = new float[queueSize*2];
+			System.arraycopy(queueLo,0,tmpLo,0,queueSize);
+			System.arraycopy(queueHi,0,tmpHi,0,queueSize);
+			System.arraycopy(queueDistance2,0,tmpD,0,queueSize);
+			queueLo = tmpLo;
+			queueHi = tmpHi;
+			queueDistance2 = tmpD;
+		}
+
+		int i = queueSize++;
+		queueLo[i] = lo;
+		queueHi[i] = hi;
+		queueDistance2[i] = distance2;
+		while( i > 0 ) {
+			int parent = (i-1)/2;
+			if( queueDistance2[parent] <= queueDistance2[i] )
+				break;
+			swapQueue(parent,i);
+			i = parent;
+		}
+	}
+
+	private void queuePopMin() {
+		queueSize--;
+		swapQueue(0,queueSize);
+
+		int i = 0;
+		while( true ) {
+			int left = 2*i+1;
+			if( left >= queueSize )
+				break;
+			int smallest = left;
+			int right = left+1;
+			if( right < queueSize && queueDistance2[right] < queueDistance2[left] )
+				smallest = right;
+			if( queueDistance2[smallest] >= queueDistance2[i] )
+				break;
+			swapQueue(i,smallest);
+			i = smallest;
+		}
+	}
+
+	private void swapQueue( int a , int b ) {
+		int t = queueLo[a]; queueLo[a] = queueLo[b]; queueLo[b] = t;
+		t = queueHi[a]; queueHi[a] = queueHi[b]; queueHi[b] = t;
+		float td = queueDistance2[a]; queueDistance2[a] = queueDistance2[b]; queueDistance2[b] = td;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.point;
+
+import java.io.Serializable;
+
+/**
+ * Two points which have been associated with each other.  The 'src' point is in the coordinate system being
+ * transformed from and 'dst' the coordinate system being transformed into.
+ *
+ * @author Peter Abeles
+ */
+public class AssociatedPair2D_F32 implements Serializable {
+	public Point2D_F32 src = new Point2D_F32();
+	public Point2D_F32 dst = new Point2D_F32();
+
+	public AssociatedPair2D_F32() {
+	}
+
+	public AssociatedPair2D_F32( Point2D_F32 src, Point2D_F32 dst ) {
+		set(src, dst);
+	}
+
+	public AssociatedPair2D_F32( float srcX, float srcY, float dstX, float dstY ) {
+		set(srcX, srcY, dstX, dstY);
+	}
+
+	public void set( AssociatedPair2D_F32 o ) {
+		this.src.set(o.src);
+		this.dst.set(o.dst);
+	}
+
+	public void set( Point2D_F32 src, Point2D_F32 dst ) {
+		this.src.set(src);
+		this.dst.set(dst);
+	}
+
+	public void set( float srcX, float srcY, float dstX, float dstY ) {
+		this.src.set(srcX, srcY);
+		this.dst.set(dstX, dstY);
+	}
+
+	public Point2D_F32 getSrc() {
+		return src;
+	}
+
+	public Point2D_F32 getDst() {
+		return dst;
+	}
+
+	public AssociatedPair2D_F32 copy() {
+		return new AssociatedPair2D_F32(src, dst);
+	}
+
+	public String toString() {
+		return getClass().getSimpleName()+"{ src=" + src + " dst=" + dst + " }";
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.point;
+
+import java.io.Serializable;
+
+/**
+ * Two points which have been associated with each other.  The 'src' point is in the coordinate system being
+ * transformed from and 'dst' the coordinate system being transformed into.
+ *
+ * @author Peter Abeles
+ */
+public class AssociatedPair3D_F32 implements Serializable {
+	public Point3D_F32 src = new Point3D_F32();
+	public Point3D_F32 dst = new Point3D_F32();
+
+	public AssociatedPair3D_F32() {
+	}
+
+	public AssociatedPair3D_F32( Point3D_F32 src, Point3D_F32 dst ) {
+		set(src, dst);
+	}
+
+	public AssociatedPair3D_F32( float srcX, float srcY, float srcZ, float dstX, float dstY, float dstZ ) {
+		set(srcX, srcY, srcZ, dstX, dstY, dstZ);
+	}
+
+	public void set( AssociatedPair3D_F32 o ) {
+		this.src.set(o.src);
+		this.dst.set(o.dst);
+	}
+
+	public void set( Point3D_F32 src, Point3D_F32 dst ) {
+		this.src.set(src);
+		this.dst.set(dst);
+	}
+
+	public void set( float srcX, float srcY, float srcZ, float dstX, float dstY, float dstZ ) {
+		this.src.set(srcX, srcY, srcZ);
+		this.dst.set(dstX, dstY, dstZ);
+	}
+
+	public Point3D_F32 getSrc() {
+		return src;
+	}
+
+	public Point3D_F32 getDst() {
+		return dst;
+	}
+
+	public AssociatedPair3D_F32 copy() {
+		return new AssociatedPair3D_F32(src, dst);
+	}
+
+	public String toString() {
+		return getClass().getSimpleName()+"{ src=" + src + " dst=" + dst + " }";
+	}
+}
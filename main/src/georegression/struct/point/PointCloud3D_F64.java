@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.point;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * A cloud of 3D points which are packed into a single array instead of being stored as individual
+ * {@link Point3D_F64} objects.  Coordinates are interleaved, e.g. data = [x0,y0,z0,x1,y1,z1,...], and only the
+ * first {@link #size} points are valid.  The internal array grows as needed and is never shrunk, making
+ * it possible to reuse the same instance without declaring new memory.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PointCloud3D_F64 implements Serializable {
+
+	/**
+	 * Interleaved point coordinates.  Point i is stored at indexes 3*i, 3*i+1, 3*i+2.
+	 */
+	public double data[];
+
+	/**
+	 * Number of points in the cloud
+	 */
+	public int size;
+
+	public PointCloud3D_F64( int initialCapacity ) {
+		data = new double[initialCapacity*3];
+	}
+
+	public PointCloud3D_F64( PointCloud3D_F64 orig ) {
+		this(orig.size);
+		set(orig);
+	}
+
+	public PointCloud3D_F64() {
+		this(10);
+	}
+
+	/**
+	 * Removes all points from the cloud.  Memory is not released.
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/**
+	 * Changes the number of points in the cloud.  If the internal array needs to grow the values of existing
+	 * points are preserved.
+	 *
+	 * @param size The new number of points
+	 */
+	public void resize( int size ) {
+		growCapacity(size);
+		this.size = size;
+	}
+
+	/**
+	 * Ensures that the internal array can store at least the specified number of points.
+	 *
+	 * @param capacity Number of points
+	 */
+	public void growCapacity( int capacity ) {
+		if( data.length < capacity*3 ) {
+			double tmp[] = new double[capacity*3];
+			System.arraycopy(data,0,tmp,0,size*3);
+			data = tmp;
+		}
+	}
+
+	/**
+	 * Adds a point to the end of the cloud
+	 */
+	public void add( double x , double y , double z ) {
+		if( data.length < (size+1)*3 )
+			growCapacity(Math.max(size*2,size+10));
+
+		int index = size*3;
+		data[index  ] = x;
+		data[index+1] = y;
+		data[index+2] = z;
+		size++;
+	}
+
+	public void add( Point3D_F64 p ) {
+		add(p.x,p.y,p.z);
+	}
+
+	public void set( int index , double x , double y , double z ) {
+		index *= 3;
+		data[index  ] = x;
+		data[index+1] = y;
+		data[index+2] = z;
+	}
+
+	public void set( int index , Point3D_F64 p ) {
+		set(index,p.x,p.y,p.z);
+	}
+
+	/**
+	 * Copies the coordinate of the specified point into 'output'
+	 *
+	 * @param index Index of the point
+	 * @param output (Optional) Storage for the point.  Can be null.
+	 * @return The point
+	 */
+	public Point3D_F64 get( int index , Point3D_F64 output ) {
+		if( output == null )
+			output = new Point3D_F64();
+
+		index *= 3;
+		output.x = data[index  ];
+		output.y = data[index+1];
+		output.z = data[index+2];
+
+		return output;
+	}
+
+	public double getX( int index ) {
+		return data[index*3];
+	}
+
+	public double getY( int index ) {
+		return data[index*3+1];
+	}
+
+	public double getZ( int index ) {
+		return data[index*3+2];
+	}
+
+	/**
+	 * Makes this cloud identical to 'orig'
+	 */
+	public void set( PointCloud3D_F64 orig ) {
+		resize(orig.size);
+		System.arraycopy(orig.data,0,data,0,orig.size*3);
+	}
+
+	/**
+	 * Makes this cloud contain the same points as the list
+	 */
+	public void set( List<Point3D_F64> points ) {
+		resize(points.size());
+		int index = 0;
+		for (int i = 0; i < points.size(); i++) {
+			Point3D_F64 p = points.get(i);
+			data[index++] = p.x;
+			data[index++] = p.y;
+			data[index++] = p.z;
+		}
+	}
+
+	/**
+	 * Converts the cloud into a list of points.
+	 *
+	 * @param output (Optional) Storage for the list.  Points are appended to the list.  Can be null.
+	 * @return List of points
+	 */
+	public List<Point3D_F64> toList( List<Point3D_F64> output ) {
+		if( output == null )
+			output = new ArrayList<Point3D_F64>();
+
+		for (int i = 0; i < size; i++) {
+			output.add(get(i,null));
+		}
+
+		return output;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public PointCloud3D_F64 copy() {
+		return new PointCloud3D_F64(this);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName()+"{ size = "+size+" }";
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.se;
+
+import georegression.struct.point.Vector3D_F32;
+import org.ejml.data.DenseMatrix64F;
+
+/**
+ * <p>
+ * Rigid body transform in 3D, the same as {@link Se3_F32}, but the rotation matrix and translation are
+ * stored in scalar fields instead of a {@link DenseMatrix64F} and {@link Vector3D_F32}.  This removes a layer
+ * of indirection and array bounds checks, making {@link #concat}, {@link #invert}, and
+ * {@link georegression.transform.se.SePointOps_F32#transform(Se3Fixed_F32, georegression.struct.point.Point3D_F32, georegression.struct.point.Point3D_F32) transform}
+ * significantly faster.  Useful when a large number of transforms are composed, e.g. pose graphs.  None
+ * of its functions declare memory if the output is provided.
+ * </p>
+ *
+ * <p>
+ * p' = R*p + T
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Se3Fixed_F32 implements SpecialEuclidean<Se3Fixed_F32> {
+
+	// serialization version
+	public static final long serialVersionUID = 1L;
+
+	// rotation matrix
+	public float r11, r12, r13;
+	public float r21, r22, r23;
+	public float r31, r32, r33;
+
+	// translation vector
+	public float tx, ty, tz;
+
+	/**
+	 * Creates a new transform that does nothing.
+	 */
+	public Se3Fixed_F32() {
+		reset();
+	}
+
+	/**
+	 * Creates a copy of the provided transform
+	 */
+	public Se3Fixed_F32( Se3_F32 se ) {
+		set(se);
+	}
+
+	/**
+	 * Set's 'this' to be identical to the provided transform.
+	 *
+	 * @param se The transform that is being copied.
+	 */
+	public void set( Se3Fixed_F32 se ) {
+		r11 = se.r11; r12 = se.r12; r13 = se.r13;
+		r21 = se.r21; r22 = se.r22; r23 = se.r23;
+		r31 = se.r31; r32 = se.r32; r33 = se.r33;
+		tx = se.tx; ty = se.ty; tz = se.tz;
+	}
+
+	/**
+	 * Converts from {@link Se3_F32}.
+	 *
+	 * @param se The transform that is being copied.  Not modified.
+	 */
+	public void set( Se3_F32 se ) {
+		setRotation(se.getR());
+		setTranslation(se.T.x, se.T.y, se.T.z);
+	}
+
+	/**
+	 * Converts into {@link Se3_F32}
+	 *
+	 * @param output (Optional) storage for the transform
+	 * @return The transform
+	 */
+	public Se3_F32 get( Se3_F32 output ) {
+		if( output == null )
+			output = new Se3_F32();
+
+		/**/double d[] = output.getR().data;
+		d[0] = r11; d[1] = r12; d[2] = r13;
+		d[3] = r21; d[4] = r22; d[5] = r23;
+		d[6] = r31; d[7] = r32; d[8] = r33;
+		output.T.set(tx, ty, tz);
+
+		return output;
+	}
+
+	/**
+	 * Sets the rotation to R.
+	 *
+	 * @param R New rotation. 3x3 matrix. Not modified.
+	 */
+	public void setRotation( DenseMatrix64F R ) {
+		if( R.numRows != 3 || R.numCols != 3 )
+			throw new IllegalArgumentException("Must be a 3x3 matrix");
+
+		/**/double d[] = R.data;
+		r11 = (float)d[0]; r12 = (float)d[1]; r13 = (float)d[2];
+		r21 = (float)d[3]; r22 = (float)d[4]; r23 = (float)d[5];
+		r31 = (float)d[6]; r32 = (float)d[7]; r33 = (float)d[8];
+	}
+
+	/**
+	 * Sets the rotation matrix by specifying each element
+	 */
+	public void setRotation( float r11, float r12, float r13,
+							 float r21, float r22, float r23,
+							 float r31, float r32, float r33 ) {
+		this.r11 = r11; this.r12 = r12; this.r13 = r13;
+		this.r21 = r21; this.r22 = r22; this.r23 = r23;
+		this.r31 = r31; this.r32 = r32; this.r33 = r33;
+	}
+
+	/**
+	 * Copies the rotation into R
+	 *
+	 * @param R (Optional) storage for the 3x3 rotation matrix
+	 * @return The rotation matrix
+	 */
+	public DenseMatrix64F getRotation( DenseMatrix64F R ) {
+		if( R == null )
+			R = new DenseMatrix64F(3,3);
+		else
+			R.reshape(3,3);
+
+		R.data[0] = r11; R.data[1] = r12; R.data[2] = r13;
+		R.data[3] = r21; R.data[4] = r22; R.data[5] = r23;
+		R.data[6] = r31; R.data[7] = r32; R.data[8] = r33;
+
+		return R;
+	}
+
+	/**
+	 * Sets the translation to (x,y,z)
+	 * @param x x component of translation
+	 * @param y y component of translation
+	 * @param z z component of translation
+	 */
+	public void setTranslation( float x, float y, float z ) {
+		tx = x; ty = y; tz = z;
+	}
+
+	/**
+	 * Copies the translation into T
+	 *
+	 * @param T (Optional) storage for the translation
+	 * @return The translation
+	 */
+	public Vector3D_F32 getTranslation( Vector3D_F32 T ) {
+		if( T == null )
+			T = new Vector3D_F32();
+		T.set(tx, ty, tz);
+		return T;
+	}
+
+	@Override
+	public int getDimension() {
+		return 3;
+	}
+
+	@Override
+	public Se3Fixed_F32 createInstance() {
+		return new Se3Fixed_F32();
+	}
+
+	/**
+	 * Applies 'this' then 'second'.  'result' can be the same instance as 'this' or 'second'.
+	 */
+	@Override
+	public Se3Fixed_F32 concat( Se3Fixed_F32 second, Se3Fixed_F32 result ) {
+		if( result == null )
+			result = new Se3Fixed_F32();
+
+		// R = R2*R1
+		float a11 = second.r11*r11 + second.r12*r21 + second.r13*r31;
+		float a12 = second.r11*r12 + second.r12*r22 + second.r13*r32;
+		float a13 = second.r11*r13 + second.r12*r23 + second.r13*r33;
+		float a21 = second.r21*r11 + second.r22*r21 + second.r23*r31;
+		float a22 = second.r21*r12 + second.r22*r22 + second.r23*r32;
+		float a23 = second.r21*r13 + second.r22*r23 + second.r23*r33;
+		float a31 = second.r31*r11 + second.r32*r21 + second.r33*r31;
+		float a32 = second.r31*r12 + second.r32*r22 + second.r33*r32;
+		float a33 = second.r31*r13 + second.r32*r23 + second.r33*r33;
+
+		// T = R2*T1 + T2
+		float x = second.r11*tx + second.r12*ty + second.r13*tz + second.tx;
+		float y = second.r21*tx + second.r22*ty + second.r23*tz + second.ty;
+		float z = second.r31*tx + second.r32*ty + second.r33*tz + second.tz;
+
+		result.setRotation(a11, a12, a13, a21, a22, a23, a31, a32, a33);
+		result.setTranslation(x, y, z);
+
+		return result;
+	}
+
+	/**
+	 * Computes the inverse transform.  'inverse' can be the same instance as 'this'.
+	 */
+	@Override
+	public Se3Fixed_F32 invert( Se3Fixed_F32 inverse ) {
+		if( inverse == null )
+			inverse = new Se3Fixed_F32();
+
+		// P = R^T*P' - R^T*T
+		float x = -(r11*tx + r21*ty + r31*tz);
+		float y = -(r12*tx + r22*ty + r32*tz);
+		float z = -(r13*tx + r23*ty + r33*tz);
+
+		inverse.setRotation(
+				r11, r21, r31,
+				r12, r22, r32,
+				r13, r23, r33);
+		inverse.setTranslation(x, y, z);
+
+		return inverse;
+	}
+
+	@Override
+	public void reset() {
+		setRotation(1, 0, 0, 0, 1, 0, 0, 0, 1);
+		setTranslation(0, 0, 0);
+	}
+
+	public Se3Fixed_F32 copy() {
+		Se3Fixed_F32 ret = new Se3Fixed_F32();
+		ret.set( this );
+
+		return ret;
+	}
+
+	public String toString() {
+		String ret = "Se3Fixed_F32: T = ( "+tx+" "+ty+" "+tz+" )\n";
+		ret += String.format("R = [ %f %f %f ; %f %f %f ; %f %f %f ]",r11,r12,r13,r21,r22,r23,r31,r32,r33);
+
+		return ret+"\n";
+	}
+
+	public void print() {
+		System.out.println(this);
+	}
+}
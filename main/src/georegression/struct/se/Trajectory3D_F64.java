@@ -0,0 +1,553 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.se;
+
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.geometry.UtilQuaternion_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
+import georegression.struct.so.Quaternion_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Sequence of time stamped {@link Se3_F64} poses which can be interpolated at any time, e.g. to find the pose of
+ * a sensor when each point in a LiDAR sweep was measured.  Poses are stored in primitive arrays with the rotation
+ * as a unit quaternion.  The relative motion between each pair of consecutive poses is computed once when a pose
+ * is added, so interpolating only requires evaluating the exponential of a precomputed rotation vector.
+ * </p>
+ *
+ * <p>
+ * Two interpolation methods are supported, see {@link Method}.  In both the rotation and translation are
+ * interpolated separately, the same as {@link georegression.transform.se.InterpolateLinearSe3_F64}.  Times
+ * outside of the trajectory are set to the first or last pose.  Batch functions are fastest when the times are
+ * sorted since the segment containing each time is then found by stepping forward from the previous one.
+ * </p>
+ *
+ * <p>
+ * Poses can be added by one thread while other threads interpolate, without any locks.  Readers see every pose
+ * which had been added before they started.  Poses are never modified after they have been added and when
+ * the arrays need to grow the old arrays are left untouched for readers which are still using them.  Only one
+ * thread can add poses at a time.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Trajectory3D_F64 {
+
+	/**
+	 * How the pose is found between two time stamps
+	 */
+	public enum Method {
+		/**
+		 * Linear interpolation between the two poses on either side.  Passes through every pose but the velocity
+		 * isn't continuous.
+		 */
+		LINEAR,
+		/**
+		 * Cumulative cubic B-Spline where the poses are the control points.  Computed using the relative motion
+		 * between the four nearest poses, with rotation done on SO(3).  The velocity and acceleration are continuous,
+		 * but it doesn't pass through the poses.  Control points are assumed to be evenly spaced in time and the
+		 * first and last poses are repeated at the ends.
+		 */
+		CUBIC_BSPLINE
+	}
+
+	// current storage.  Replaced when it needs to grow
+	private volatile Storage storage = new Storage(10);
+
+	Method method = Method.LINEAR;
+
+	boolean concurrent;
+
+	// workspaces for functions which process a single pose.  Pooled so that threads can call them at the same time
+	private final List<Workspace> available = new ArrayList<Workspace>();
+
+	/**
+	 * Adds a pose to the end of the trajectory.  Must have a time stamp after all the previous poses.
+	 *
+	 * @param time Time stamp
+	 * @param pose The pose. Not modified.
+	 */
+	public void append( double time , Se3_F64 pose ) {
+		Quaternion_F64 q = ConvertRotation3D_F64.matrixToQuaternion(pose.getR(), null);
+		append(time, q.w, q.x, q.y, q.z, pose.T.x, pose.T.y, pose.T.z);
+	}
+
+	/**
+	 * Adds a pose to the end of the trajectory.  Must have a time stamp after all the previous poses.  Does not
+	 * declare memory unless the arrays need to grow.
+	 *
+	 * @param time Time stamp
+	 * @param qw Rotation. Unit quaternion w
+	 * @param qx Rotation. Unit quaternion x
+	 * @param qy Rotation. Unit quaternion y
+	 * @param qz Rotation. Unit quaternion z
+	 * @param tx Translation x
+	 * @param ty Translation y
+	 * @param tz Translation z
+	 */
+	public void append( double time , double qw , double qx , double qy , double qz ,
+						double tx , double ty , double tz ) {
+		Storage s = storage;
+		int n = s.size;
+		if( n > 0 && time <= s.times[n-1] )
+			throw new IllegalArgumentException("Time stamps must be increasing");
+
+		if( n == s.times.length ) {
+			s = s.grow(n*2);
+			storage = s;
+		}
+
+		// q and -q are the same rotation.  Keep consecutive quaternions close so that interpolating between
+		// them takes the shortest path
+		if( n > 0 ) {
+			int p = (n-1)*4;
+			if( qw*s.quats[p] + qx*s.quats[p+1] + qy*s.quats[p+2] + qz*s.quats[p+3] < 0 ) {
+				qw = -qw; qx = -qx; qy = -qy; qz = -qz;
+			}
+		}
+
+		s.times[n] = time;
+		s.quats[n*4  ] = qw;
+		s.quats[n*4+1] = qx;
+		s.quats[n*4+2] = qy;
+		s.quats[n*4+3] = qz;
+		s.trans[n*3  ] = tx;
+		s.trans[n*3+1] = ty;
+		s.trans[n*3+2] = tz;
+
+		if( n > 0 )
+			computeSegment(s, n-1);
+
+		// publishes the new pose to readers
+		s.size = n+1;
+	}
+
+	/**
+	 * Computes the relative motion from pose 'index' to 'index+1'.  The rotation is stored as a rotation vector,
+	 * log(conj(q0)*q1)*2, so that the rotation at fraction 'f' of the way is q0*exp(f*vector/2).
+	 */
+	private static void computeSegment( Storage s , int index ) {
+		int a = index*4, b = a+4;
+		double aw = s.quats[a], ax = -s.quats[a+1], ay = -s.quats[a+2], az = -s.quats[a+3];
+		double bw = s.quats[b], bx = s.quats[b+1], by = s.quats[b+2], bz = s.quats[b+3];
+
+		double w = aw*bw - ax*bx - ay*by - az*bz;
+		double x = aw*bx + ax*bw + ay*bz - az*by;
+		double y = aw*by - ax*bz + ay*bw + az*bx;
+		double z = aw*bz + ax*by - ay*bx + az*bw;
+
+		// half the rotation angle
+		double n = Math.sqrt(x*x + y*y + z*z);
+		double half = Math.atan2(n, w);
+		double scale = n == 0 ? 2.0/w : 2*half/n;
+
+		int r = index*3;
+		s.rotations[r  ] = x*scale;
+		s.rotations[r+1] = y*scale;
+		s.rotations[r+2] = z*scale;
+
+		int t = index*3, t1 = t+3;
+		s.deltas[t  ] = s.trans[t1  ] - s.trans[t  ];
+		s.deltas[t+1] = s.trans[t1+1] - s.trans[t+1];
+		s.deltas[t+2] = s.trans[t1+2] - s.trans[t+2];
+	}
+
+	/**
+	 * Finds the pose at the specified time.  Does not declare memory once a workspace is available for the
+	 * calling thread.  Sorted times are found quickest when called repeatedly from the same thread.
+	 *
+	 * @param time Time of the pose
+	 * @param output (Output) Interpolated pose
+	 */
+	public void interpolate( double time , Se3_F64 output ) {
+		Storage s = storage;
+		int n = checkNotEmpty(s);
+
+		Workspace w = takeWorkspace();
+		try {
+			double pose[] = w.pose;
+			w.alg.setStorage(s, n);
+			w.alg.compute(time, pose, 0, pose, 4);
+
+			w.q.set(pose[0], pose[1], pose[2], pose[3]);
+			ConvertRotation3D_F64.quaternionToMatrix(w.q, output.getR());
+			output.T.set(pose[4], pose[5], pose[6]);
+		} finally {
+			returnWorkspace(w);
+		}
+	}
+
+	/**
+	 * Finds the pose at each time.
+	 *
+	 * @param times Array of times.  Should be sorted for best performance. Not modified.
+	 * @param length Number of times
+	 * @param quaternions (Output) Rotation as a unit quaternion, (w,x,y,z) for each time
+	 * @param translations (Output) Translation, (x,y,z) for each time
+	 */
+	public void interpolate( final double times[] , int length ,
+							 final double quaternions[] , final double translations[] ) {
+		final Storage s = storage;
+		final int n = checkNotEmpty(s);
+
+		IntRangeConsumer consumer = new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				Interpolator alg = new Interpolator(s, n);
+				for (int i = start; i < end; i++) {
+					alg.compute(times[i], quaternions, i*4, translations, i*3);
+				}
+			}
+		};
+
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, length, consumer);
+		else
+			consumer.accept(0, length);
+	}
+
+	/**
+	 * Applies the pose at each point's time stamp to the point, p' = R(t)*p + T(t).  This is how a scan which
+	 * was collected while the sensor was moving is put into a single frame.
+	 *
+	 * @param times Time stamp of each point.  Should be sorted for best performance. Not modified.
+	 * @param input Points (x,y,z) that are to be transformed. Not modified.
+	 * @param output (Output) Transformed points (x,y,z).  Can be the same array as input.
+	 * @param length Number of points
+	 */
+	public void transform( final double times[] , final double input[] , final double output[] , int length ) {
+		final Storage s = storage;
+		final int n = checkNotEmpty(s);
+
+		IntRangeConsumer consumer = new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				Interpolator alg = new Interpolator(s, n);
+				double pose[] = new double[7];
+				for (int i = start; i < end; i++) {
+					alg.compute(times[i], pose, 0, pose, 4);
+					rotate(pose, input, output, i*3);
+				}
+			}
+		};
+
+		if( concurrent )
+			GrlConcurrency.loopBlocks(0, length, consumer);
+		else
+			consumer.accept(0, length);
+	}
+
+	/**
+	 * Applies the rotation and translation in 'pose' to the point at 'index'.
+	 * See {@link UtilQuaternion_F64#rotate(Quaternion_F64, georegression.struct.point.Point3D_F64, georegression.struct.point.Point3D_F64)}
+	 */
+	private static void rotate( double pose[] , double input[] , double output[] , int index ) {
+		double qw = pose[0], qx = pose[1], qy = pose[2], qz = pose[3];
+		double px = input[index], py = input[index+1], pz = input[index+2];
+
+		double tx = 2*(qy*pz - qz*py);
+		double ty = 2*(qz*px - qx*pz);
+		double tz = 2*(qx*py - qy*px);
+
+		output[index  ] = px + qw*tx + qy*tz - qz*ty + pose[4];
+		output[index+1] = py + qw*ty + qz*tx - qx*tz + pose[5];
+		output[index+2] = pz + qw*tz + qx*ty - qy*tx + pose[6];
+	}
+
+	private static int checkNotEmpty( Storage s ) {
+		int n = s.size;
+		if( n == 0 )
+			throw new IllegalArgumentException("The trajectory is empty");
+		return n;
+	}
+
+	/**
+	 * Finds the pose at a time.  Remembers the previous segment so that sorted times can be processed
+	 * without searching.
+	 */
+	class Interpolator {
+		Storage s;
+		// number of poses
+		int n;
+		// segment the previous time was inside of
+		int segment;
+
+		Interpolator( Storage s , int n ) {
+			this.s = s;
+			this.n = n;
+		}
+
+		/**
+		 * Changes the poses being interpolated.  The previous segment is kept as the starting point of the
+		 * next search if it's still valid.
+		 */
+		void setStorage( Storage s , int n ) {
+			this.s = s;
+			this.n = n;
+			if( segment >= n-1 )
+				segment = 0;
+		}
+
+		void compute( double time , double quat[] , int indexQ , double trans[] , int indexT ) {
+			double times[] = s.times;
+			if( n == 1 ) {
+				copyPose(0, quat, indexQ, trans, indexT);
+				return;
+			} else if( time <= times[0] ) {
+				if( method == Method.LINEAR )
+					copyPose(0, quat, indexQ, trans, indexT);
+				else
+					spline(0, 0, quat, indexQ, trans, indexT);
+				return;
+			} else if( time >= times[n-1] ) {
+				if( method == Method.LINEAR )
+					copyPose(n-1, quat, indexQ, trans, indexT);
+				else
+					spline(n-2, 1, quat, indexQ, trans, indexT);
+				return;
+			}
+
+			// find the segment which contains the time, times[segment] <= time < times[segment+1]
+			if( time < times[segment] )
+				segment = search(times, time);
+			while( time >= times[segment+1] )
+				segment++;
+
+			double u = (time - times[segment])/(times[segment+1] - times[segment]);
+			if( method == Method.LINEAR )
+				linear(segment, u, quat, indexQ, trans, indexT);
+			else
+				spline(segment, u, quat, indexQ, trans, indexT);
+		}
+
+		/**
+		 * Finds the last pose which is at or before the time
+		 */
+		int search( double times[] , double time ) {
+			int lower = 0, upper = n-1;
+			while( upper - lower > 1 ) {
+				int middle = (lower + upper) >>> 1;
+				if( times[middle] <= time )
+					lower = middle;
+				else
+					upper = middle;
+			}
+			return lower;
+		}
+
+		void copyPose( int index , double quat[] , int indexQ , double trans[] , int indexT ) {
+			System.arraycopy(s.quats, index*4, quat, indexQ, 4);
+			System.arraycopy(s.trans, index*3, trans, indexT, 3);
+		}
+
+		void linear( int segment , double u , double quat[] , int indexQ , double trans[] , int indexT ) {
+			copyPose(segment, quat, indexQ, trans, indexT);
+			multiplyExp(quat, indexQ, segment, u);
+			addDelta(trans, indexT, segment, u);
+		}
+
+		/**
+		 * Cumulative cubic B-Spline.  The pose is T(i-1)*exp(B1*d(i-1))*exp(B2*d(i))*exp(B3*d(i+1)), where d(j)
+		 * is the motion from pose j to j+1 and B are the cumulative basis functions.  Motion outside the
+		 * trajectory is zero, which is the same as repeating the first and last poses.
+		 */
+		void spline( int segment , double u , double quat[] , int indexQ , double trans[] , int indexT ) {
+			double u2 = u*u, u3 = u2*u;
+			double b1 = (5 + 3*u - 3*u2 + u3)/6;
+			double b2 = (1 + 3*u + 3*u2 - 2*u3)/6;
+			double b3 = u3/6;
+
+			copyPose(segment > 0 ? segment-1 : 0, quat, indexQ, trans, indexT);
+			if( segment > 0 ) {
+				multiplyExp(quat, indexQ, segment-1, b1);
+				addDelta(trans, indexT, segment-1, b1);
+			}
+			multiplyExp(quat, indexQ, segment, b2);
+			addDelta(trans, indexT, segment, b2);
+			if( segment+1 < n-1 ) {
+				multiplyExp(quat, indexQ, segment+1, b3);
+				addDelta(trans, indexT, segment+1, b3);
+			}
+		}
+
+		/**
+		 * q = q*exp(scale*r/2), where r is the rotation vector of the segment
+		 */
+		void multiplyExp( double q[] , int indexQ , int segment , double scale ) {
+			int r = segment*3;
+			double hx = s.rotations[r  ]*scale/2;
+			double hy = s.rotations[r+1]*scale/2;
+			double hz = s.rotations[r+2]*scale/2;
+
+			double n2 = hx*hx + hy*hy + hz*hz;
+			double norm = Math.sqrt(n2);
+			double bw,sinc;
+			if( norm < UtilQuaternion_F64.EXP_CUTOFF ) {
+				bw = 1 - n2/2;
+				sinc = 1 - n2/6;
+			} else {
+				bw = Math.cos(norm);
+				sinc = Math.sin(norm)/norm;
+			}
+			double bx = hx*sinc, by = hy*sinc, bz = hz*sinc;
+
+			double aw = q[indexQ], ax = q[indexQ+1], ay = q[indexQ+2], az = q[indexQ+3];
+			q[indexQ  ] = aw*bw - ax*bx - ay*by - az*bz;
+			q[indexQ+1] = aw*bx + ax*bw + ay*bz - az*by;
+			q[indexQ+2] = aw*by - ax*bz + ay*bw + az*bx;
+			q[indexQ+3] = aw*bz + ax*by - ay*bx + az*bw;
+		}
+
+		void addDelta( double trans[] , int indexT , int segment , double scale ) {
+			int d = segment*3;
+			trans[indexT  ] += s.deltas[d  ]*scale;
+			trans[indexT+1] += s.deltas[d+1]*scale;
+			trans[indexT+2] += s.deltas[d+2]*scale;
+		}
+	}
+
+	/**
+	 * Returns the pose at the specified index
+	 *
+	 * @param index Which pose
+	 * @param output (Output) The pose
+	 */
+	public void getPose( int index , Se3_F64 output ) {
+		Storage s = storage;
+		if( index < 0 || index >= s.size )
+			throw new IllegalArgumentException("Index out of bounds");
+		Workspace w = takeWorkspace();
+		try {
+			w.q.set(s.quats[index*4], s.quats[index*4+1], s.quats[index*4+2], s.quats[index*4+3]);
+			ConvertRotation3D_F64.quaternionToMatrix(w.q, output.getR());
+		} finally {
+			returnWorkspace(w);
+		}
+		output.T.set(s.trans[index*3], s.trans[index*3+1], s.trans[index*3+2]);
+	}
+
+	/**
+	 * Workspace for functions which process a single pose
+	 */
+	private class Workspace {
+		Interpolator alg = new Interpolator(null, 0);
+		double pose[] = new double[7];
+		Quaternion_F64 q = new Quaternion_F64();
+	}
+
+	private Workspace takeWorkspace() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Workspace();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void returnWorkspace( Workspace w ) {
+		synchronized( available ) {
+			available.add(w);
+		}
+	}
+
+	/**
+	 * Returns the time stamp of the pose at the specified index
+	 */
+	public double getTime( int index ) {
+		Storage s = storage;
+		if( index < 0 || index >= s.size )
+			throw new IllegalArgumentException("Index out of bounds");
+		return s.times[index];
+	}
+
+	/**
+	 * Number of poses in the trajectory
+	 */
+	public int size() {
+		return storage.size;
+	}
+
+	/**
+	 * Removes all the poses.  Must be called by the thread which adds poses.  Readers which have already
+	 * started will finish using the old poses.
+	 */
+	public void reset() {
+		storage = new Storage(10);
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public void setMethod(Method method) {
+		this.method = method;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then batch functions will be split across multiple threads
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Arrays which the poses are stored in.  Elements before 'size' are never modified.
+	 */
+	private static class Storage {
+		double times[];
+		// unit quaternion (w,x,y,z) for each pose
+		double quats[];
+		// translation (x,y,z) for each pose
+		double trans[];
+		// rotation vector from each pose to the next
+		double rotations[];
+		// change in translation from each pose to the next
+		double deltas[];
+
+		// number of poses.  Written after the pose so that readers only see complete poses
+		volatile int size;
+
+		Storage( int capacity ) {
+			times = new double[capacity];
+			quats = new double[capacity*4];
+			trans = new double[capacity*3];
+			rotations = new double[capacity*3];
+			deltas = new double[capacity*3];
+		}
+
+		Storage grow( int capacity ) {
+			Storage s = new Storage(capacity);
+			int n = size;
+			System.arraycopy(times, 0, s.times, 0, n);
+			System.arraycopy(quats, 0, s.quats, 0, n*4);
+			System.arraycopy(trans, 0, s.trans, 0, n*3);
+			System.arraycopy(rotations, 0, s.rotations, 0, n*3);
+			System.arraycopy(deltas, 0, s.deltas, 0, n*3);
+			s.size = n;
+			return s;
+		}
+	}
+}
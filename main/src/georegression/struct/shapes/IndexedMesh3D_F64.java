@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.shapes;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * Triangle mesh in 3D where the vertexes are shared between faces.  Vertex coordinates are packed into a single
+ * array as (x,y,z) and each face is three indexes into the vertexes.  This takes much less memory than a list
+ * of {@link Triangle3D_F64}.  Faces are oriented so that their normal points out of the side which the
+ * vertexes appear counter-clockwise from, i.e. the right hand rule.
+ * </p>
+ *
+ * <p>
+ * Code which expects a {@link Triangle3D_F64} can use {@link #getFace(int)}, which returns a reused triangle
+ * instead of declaring a new one for each face.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IndexedMesh3D_F64 implements Serializable {
+
+	/**
+	 * Vertex coordinates (x,y,z).  Only the first numVertexes*3 elements are used.
+	 */
+	public double vertexes[];
+	/**
+	 * Number of vertexes in the mesh
+	 */
+	public int numVertexes;
+
+	/**
+	 * Indexes of the three vertexes in each face.  Only the first numFaces*3 elements are used.
+	 */
+	public int faces[];
+	/**
+	 * Number of faces in the mesh
+	 */
+	public int numFaces;
+
+	// triangle returned by getFace(int)
+	private Triangle3D_F64 view = new Triangle3D_F64();
+
+	public IndexedMesh3D_F64( int vertexCapacity , int faceCapacity ) {
+		vertexes = new double[vertexCapacity*3];
+		faces = new int[faceCapacity*3];
+	}
+
+	public IndexedMesh3D_F64( IndexedMesh3D_F64 orig ) {
+		this(orig.numVertexes, orig.numFaces);
+		set(orig);
+	}
+
+	public IndexedMesh3D_F64() {
+		this(10, 10);
+	}
+
+	/**
+	 * Makes this mesh identical to the original
+	 */
+	public void set( IndexedMesh3D_F64 orig ) {
+		reset();
+		growVertexes(orig.numVertexes);
+		growFaces(orig.numFaces);
+		System.arraycopy(orig.vertexes, 0, vertexes, 0, orig.numVertexes*3);
+		System.arraycopy(orig.faces, 0, faces, 0, orig.numFaces*3);
+		numVertexes = orig.numVertexes;
+		numFaces = orig.numFaces;
+	}
+
+	/**
+	 * Removes all vertexes and faces
+	 */
+	public void reset() {
+		numVertexes = 0;
+		numFaces = 0;
+	}
+
+	/**
+	 * Adds a vertex to the mesh
+	 *
+	 * @return Index of the new vertex
+	 */
+	public int addVertex( double x , double y , double z ) {
+		growVertexes(numVertexes+1);
+		int index = numVertexes*3;
+		vertexes[index  ] = x;
+		vertexes[index+1] = y;
+		vertexes[index+2] = z;
+		return numVertexes++;
+	}
+
+	/**
+	 * Adds a face to the mesh
+	 *
+	 * @param a Index of the first vertex
+	 * @param b Index of the second vertex
+	 * @param c Index of the third vertex
+	 * @return Index of the new face
+	 */
+	public int addFace( int a , int b , int c ) {
+		growFaces(numFaces+1);
+		int index = numFaces*3;
+		faces[index  ] = a;
+		faces[index+1] = b;
+		faces[index+2] = c;
+		return numFaces++;
+	}
+
+	/**
+	 * Ensures there is enough space for the specified number of vertexes without changing the mesh
+	 */
+	public void growVertexes( int amount ) {
+		if( vertexes.length >= amount*3 )
+			return;
+		int length = amount > numVertexes*2 ? amount : numVertexes*2;
+		double tmp[] = new double[length*3];
+		System.arraycopy(vertexes, 0, tmp, 0, numVertexes*3);
+		vertexes = tmp;
+	}
+
+	/**
+	 * Ensures there is enough space for the specified number of faces without changing the mesh
+	 */
+	public void growFaces( int amount ) {
+		if( faces.length >= amount*3 )
+			return;
+		int length = amount > numFaces*2 ? amount : numFaces*2;
+		int tmp[] = new int[length*3];
+		System.arraycopy(faces, 0, tmp, 0, numFaces*3);
+		faces = tmp;
+	}
+
+	/**
+	 * Copies the location of a vertex
+	 *
+	 * @param index Index of the vertex
+	 * @param output (Output) Storage for the vertex
+	 */
+	public void getVertex( int index , Point3D_F64 output ) {
+		output.set(vertexes[index*3], vertexes[index*3+1], vertexes[index*3+2]);
+	}
+
+	/**
+	 * Copies a face into the provided triangle
+	 *
+	 * @param face Index of the face
+	 * @param output (Output) Storage for the face
+	 */
+	public void getFace( int face , Triangle3D_F64 output ) {
+		int a = faces[face*3]*3, b = faces[face*3+1]*3, c = faces[face*3+2]*3;
+		output.v0.set(vertexes[a], vertexes[a+1], vertexes[a+2]);
+		output.v1.set(vertexes[b], vertexes[b+1], vertexes[b+2]);
+		output.v2.set(vertexes[c], vertexes[c+1], vertexes[c+2]);
+	}
+
+	/**
+	 * Returns the face using a triangle which is owned by the mesh.  The triangle is overwritten on the next call,
+	 * so it must not be saved or modified and this function is not thread safe.
+	 *
+	 * @param face Index of the face
+	 * @return The face
+	 */
+	public Triangle3D_F64 getFace( int face ) {
+		getFace(face, view);
+		return view;
+	}
+
+	/**
+	 * Area of a single face
+	 */
+	public double area( int face ) {
+		int a = faces[face*3]*3, b = faces[face*3+1]*3, c = faces[face*3+2]*3;
+
+		double ux = vertexes[b  ]-vertexes[a  ], uy = vertexes[b+1]-vertexes[a+1], uz = vertexes[b+2]-vertexes[a+2];
+		double vx = vertexes[c  ]-vertexes[a  ], vy = vertexes[c+1]-vertexes[a+1], vz = vertexes[c+2]-vertexes[a+2];
+
+		double nx = uy*vz - uz*vy;
+		double ny = uz*vx - ux*vz;
+		double nz = ux*vy - uy*vx;
+
+		return Math.sqrt(nx*nx + ny*ny + nz*nz)/2;
+	}
+
+	/**
+	 * Total surface area of all the faces
+	 */
+	public double area() {
+		double total = 0;
+		for (int i = 0; i < numFaces; i++) {
+			total += area(i);
+		}
+		return total;
+	}
+
+	/**
+	 * Computes the area of every face
+	 *
+	 * @param output (Output) Area of each face.  Must have at least numFaces elements.
+	 */
+	public void areas( double output[] ) {
+		for (int i = 0; i < numFaces; i++) {
+			output[i] = area(i);
+		}
+	}
+
+	/**
+	 * Unit normal of a face.  Zero if the face is degenerate.
+	 *
+	 * @param face Index of the face
+	 * @param output (Output) Storage for the normal
+	 */
+	public void normal( int face , Vector3D_F64 output ) {
+		int index = face*3;
+		int a = faces[index]*3, b = faces[index+1]*3, c = faces[index+2]*3;
+
+		double ux = vertexes[b  ]-vertexes[a  ], uy = vertexes[b+1]-vertexes[a+1], uz = vertexes[b+2]-vertexes[a+2];
+		double vx = vertexes[c  ]-vertexes[a  ], vy = vertexes[c+1]-vertexes[a+1], vz = vertexes[c+2]-vertexes[a+2];
+
+		double nx = uy*vz - uz*vy;
+		double ny = uz*vx - ux*vz;
+		double nz = ux*vy - uy*vx;
+
+		double n = Math.sqrt(nx*nx + ny*ny + nz*nz);
+		if( n == 0 )
+			output.set(0, 0, 0);
+		else
+			output.set(nx/n, ny/n, nz/n);
+	}
+
+	/**
+	 * Computes the unit normal of every face.  Zero if the face is degenerate.
+	 *
+	 * @param output (Output) Normal (x,y,z) of each face.  Must have at least numFaces*3 elements.
+	 */
+	public void normals( double output[] ) {
+		for (int i = 0; i < numFaces; i++) {
+			int a = faces[i*3]*3, b = faces[i*3+1]*3, c = faces[i*3+2]*3;
+
+			double ux = vertexes[b  ]-vertexes[a  ], uy = vertexes[b+1]-vertexes[a+1], uz = vertexes[b+2]-vertexes[a+2];
+			double vx = vertexes[c  ]-vertexes[a  ], vy = vertexes[c+1]-vertexes[a+1], vz = vertexes[c+2]-vertexes[a+2];
+
+			double nx = uy*vz - uz*vy;
+			double ny = uz*vx - ux*vz;
+			double nz = ux*vy - uy*vx;
+
+			double n = Math.sqrt(nx*nx + ny*ny + nz*nz);
+			if( n == 0 )
+				n = 1;
+			output[i*3  ] = nx/n;
+			output[i*3+1] = ny/n;
+			output[i*3+2] = nz/n;
+		}
+	}
+
+	/**
+	 * Computes the axis aligned bounding box of all the vertexes
+	 *
+	 * @param output (Output) Storage for the bounding box.  If null a new instance is declared.
+	 * @return The bounding box
+	 */
+	public Box3D_F64 bounds( Box3D_F64 output ) {
+		if( output == null )
+			output = new Box3D_F64();
+		if( numVertexes == 0 ) {
+			output.set(0, 0, 0, 0, 0, 0);
+			return output;
+		}
+
+		double x0 = vertexes[0], y0 = vertexes[1], z0 = vertexes[2];
+		double x1 = x0, y1 = y0, z1 = z0;
+		for (int i = 1; i < numVertexes; i++) {
+			double x = vertexes[i*3], y = vertexes[i*3+1], z = vertexes[i*3+2];
+			if( x < x0 ) x0 = x; else if( x > x1 ) x1 = x;
+			if( y < y0 ) y0 = y; else if( y > y1 ) y1 = y;
+			if( z < z0 ) z0 = z; else if( z > z1 ) z1 = z;
+		}
+		output.set(x0, y0, z0, x1, y1, z1);
+		return output;
+	}
+
+	public int getVertexCount() {
+		return numVertexes;
+	}
+
+	public int getFaceCount() {
+		return numFaces;
+	}
+
+	public IndexedMesh3D_F64 copy() {
+		return new IndexedMesh3D_F64(this);
+	}
+}
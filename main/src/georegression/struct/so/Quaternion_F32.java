@@ -33,6 +33,10 @@ import java.io.Serializable;
  * where 'theta' is the angle of rotation, (x,y,z) is the unit axis of rotation.
  * </p>
  *
+ * <p>
+ * See {@link georegression.geometry.UtilQuaternion_F32} for quaternion algebra and rotating points.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public class Quaternion_F32 implements Serializable {
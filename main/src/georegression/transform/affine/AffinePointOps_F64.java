@@ -18,6 +18,8 @@
 
 package georegression.transform.affine;
 
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
 import georegression.struct.affine.Affine2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Vector2D_F64;
@@ -102,4 +104,58 @@ public class AffinePointOps_F64 {
 
 		return result;
 	}
+
+	/**
+	 * <p>
+	 * Applies a 2D affine transform to points stored in a primitive array.  Point i is read from
+	 * input[inputOffset + i*inputStride] and written to output[outputOffset + i*outputStride], with the y
+	 * coordinate following the x coordinate.
+	 * </p>
+	 * <p>
+	 * The input and output can be the same array if the offset and stride are also the same.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param input Array containing the points. Not modified.
+	 * @param inputOffset Index of the first point in input
+	 * @param inputStride Number of elements between two points in input.  Must be at least 2.
+	 * @param output Array the transformed points are written to. Modified.
+	 * @param outputOffset Index of the first point in output
+	 * @param outputStride Number of elements between two points in output.  Must be at least 2.
+	 * @param length Number of points which are transformed
+	 */
+	public static void transform( Affine2D_F64 se,
+								  double input[], int inputOffset, int inputStride,
+								  double output[], int outputOffset, int outputStride, int length ) {
+		final double a11 = se.a11, a12 = se.a12, tx = se.tx;
+		final double a21 = se.a21, a22 = se.a22, ty = se.ty;
+
+		for( int i = 0; i < length; i++ ) {
+			int indexIn = inputOffset + i*inputStride;
+			int indexOut = outputOffset + i*outputStride;
+
+			double x = input[indexIn];
+			double y = input[indexIn+1];
+
+			output[indexOut  ] = tx + a11 * x + a12 * y;
+			output[indexOut+1] = ty + a21 * x + a22 * y;
+		}
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Affine2D_F64, double[], int, int, double[], int, int, int)}.  The
+	 * points are split into blocks which are processed in parallel.
+	 */
+	public static void transformConcurrent( final Affine2D_F64 se,
+											final double input[], final int inputOffset, final int inputStride,
+											final double output[], final int outputOffset, final int outputStride,
+											int length ) {
+		GrlConcurrency.loopBlocks(0, length, new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				transform(se, input, inputOffset + start*inputStride, inputStride,
+						output, outputOffset + start*outputStride, outputStride, end-start);
+			}
+		});
+	}
 }
@@ -18,6 +18,8 @@
 
 package georegression.transform.homography;
 
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
 import georegression.struct.homography.Homography2D_F32;
 import georegression.struct.point.Point2D_F32;
 
@@ -84,4 +86,61 @@ public class HomographyPointOps_F32 {
 
 		return result;
 	}
+
+	/**
+	 * <p>
+	 * Applies a 2D homography transform to points stored in a primitive array.  Point i is read from
+	 * input[inputOffset + i*inputStride] and written to output[outputOffset + i*outputStride], with the y
+	 * coordinate following the x coordinate.
+	 * </p>
+	 * <p>
+	 * The input and output can be the same array if the offset and stride are also the same.
+	 * </p>
+	 *
+	 * @param H The transform. Not modified.
+	 * @param input Array containing the points. Not modified.
+	 * @param inputOffset Index of the first point in input
+	 * @param inputStride Number of elements between two points in input.  Must be at least 2.
+	 * @param output Array the transformed points are written to. Modified.
+	 * @param outputOffset Index of the first point in output
+	 * @param outputStride Number of elements between two points in output.  Must be at least 2.
+	 * @param length Number of points which are transformed
+	 */
+	public static void transform( Homography2D_F32 H,
+								  float input[], int inputOffset, int inputStride,
+								  float output[], int outputOffset, int outputStride, int length ) {
+		final float a11 = H.a11, a12 = H.a12, a13 = H.a13;
+		final float a21 = H.a21, a22 = H.a22, a23 = H.a23;
+		final float a31 = H.a31, a32 = H.a32, a33 = H.a33;
+
+		for( int i = 0; i < length; i++ ) {
+			int indexIn = inputOffset + i*inputStride;
+			int indexOut = outputOffset + i*outputStride;
+
+			float x = input[indexIn];
+			float y = input[indexIn+1];
+
+			float z = a31 * x + a32 * y + a33;
+
+			output[indexOut  ] = (a11 * x + a12 * y + a13)/z;
+			output[indexOut+1] = (a21 * x + a22 * y + a23)/z;
+		}
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Homography2D_F32, float[], int, int, float[], int, int, int)}.  The
+	 * points are split into blocks which are processed in parallel.
+	 */
+	public static void transformConcurrent( final Homography2D_F32 H,
+											final float input[], final int inputOffset, final int inputStride,
+											final float output[], final int outputOffset, final int outputStride,
+											int length ) {
+		GrlConcurrency.loopBlocks(0, length, new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				transform(H, input, inputOffset + start*inputStride, inputStride,
+						output, outputOffset + start*outputStride, outputStride, end-start);
+			}
+		});
+	}
 }
@@ -19,10 +19,14 @@
 package georegression.transform.se;
 
 import georegression.geometry.GeometryMath_F32;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.IntRangeConsumer;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import georegression.struct.point.Vector3D_F32;
 import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3Fixed_F32;
 import georegression.struct.se.Se3_F32;
 import org.ejml.data.DenseMatrix64F;
 
@@ -171,6 +175,156 @@ public class SePointOps_F32 {
 		}
 	}
 
+	/**
+	 * Applies a 3D special euclidean transform to every point in a cloud.
+	 *
+	 * @param se	 The transform. Not modified.
+	 * @param src    Points which are to be transformed. Not modified.
+	 * @param dst    (Optional) Storage for the transformed points.  Can be the same instance as src. If null a new
+	 *               instance is created. Modified.
+	 * @return The transformed points
+	 */
+	public static PointCloud3D_F32 transform( Se3_F32 se, PointCloud3D_F32 src , PointCloud3D_F32 dst ) {
+		if( dst == null )
+			dst = new PointCloud3D_F32(src.size);
+		dst.resize(src.size);
+
+		transform(se, src.data, 0, 3, dst.data, 0, 3, src.size);
+
+		return dst;
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se3_F32, PointCloud3D_F32, PointCloud3D_F32)}
+	 */
+	public static PointCloud3D_F32 transformConcurrent( Se3_F32 se, PointCloud3D_F32 src , PointCloud3D_F32 dst ) {
+		if( dst == null )
+			dst = new PointCloud3D_F32(src.size);
+		dst.resize(src.size);
+
+		transformConcurrent(se, src.data, 0, 3, dst.data, 0, 3, src.size);
+
+		return dst;
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform to points stored in a primitive array.  Point i is read from
+	 * input[inputOffset + i*inputStride] and written to output[outputOffset + i*outputStride], with the y
+	 * coordinate following the x coordinate.
+	 * </p>
+	 * <p>
+	 * The input and output can be the same array if the offset and stride are also the same.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param input Array containing the points. Not modified.
+	 * @param inputOffset Index of the first point in input
+	 * @param inputStride Number of elements between two points in input.  Must be at least 2.
+	 * @param output Array the transformed points are written to. Modified.
+	 * @param outputOffset Index of the first point in output
+	 * @param outputStride Number of elements between two points in output.  Must be at least 2.
+	 * @param length Number of points which are transformed
+	 */
+	public static void transform( Se2_F32 se,
+								  float input[], int inputOffset, int inputStride,
+								  float output[], int outputOffset, int outputStride, int length ) {
+		final float tranX = se.getX();
+		final float tranY = se.getY();
+
+		final float c = se.getCosineYaw();
+		final float s = se.getSineYaw();
+
+		for( int i = 0; i < length; i++ ) {
+			int indexIn = inputOffset + i*inputStride;
+			int indexOut = outputOffset + i*outputStride;
+
+			float x = input[indexIn];
+			float y = input[indexIn+1];
+
+			output[indexOut  ] = tranX + x * c - y * s;
+			output[indexOut+1] = tranY + x * s + y * c;
+		}
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se2_F32, float[], int, int, float[], int, int, int)}.  The
+	 * points are split into blocks which are processed in parallel.
+	 */
+	public static void transformConcurrent( final Se2_F32 se,
+											final float input[], final int inputOffset, final int inputStride,
+											final float output[], final int outputOffset, final int outputStride,
+											int length ) {
+		GrlConcurrency.loopBlocks(0, length, new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				transform(se, input, inputOffset + start*inputStride, inputStride,
+						output, outputOffset + start*outputStride, outputStride, end-start);
+			}
+		});
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform to points stored in a primitive array.  Point i is read from
+	 * input[inputOffset + i*inputStride] and written to output[outputOffset + i*outputStride], with the
+	 * coordinates in x,y,z order.
+	 * </p>
+	 * <p>
+	 * The input and output can be the same array if the offset and stride are also the same.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param input Array containing the points. Not modified.
+	 * @param inputOffset Index of the first point in input
+	 * @param inputStride Number of elements between two points in input.  Must be at least 3.
+	 * @param output Array the transformed points are written to. Modified.
+	 * @param outputOffset Index of the first point in output
+	 * @param outputStride Number of elements between two points in output.  Must be at least 3.
+	 * @param length Number of points which are transformed
+	 */
+	public static void transform( Se3_F32 se,
+								  float input[], int inputOffset, int inputStride,
+								  float output[], int outputOffset, int outputStride, int length ) {
+		// load the transform into local variables so that it doesn't need to be looked up for each point
+		DenseMatrix64F R = se.getR();
+		final float r11 = (float)R.data[0], r12 = (float)R.data[1], r13 = (float)R.data[2];
+		final float r21 = (float)R.data[3], r22 = (float)R.data[4], r23 = (float)R.data[5];
+		final float r31 = (float)R.data[6], r32 = (float)R.data[7], r33 = (float)R.data[8];
+
+		final float tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		for( int i = 0; i < length; i++ ) {
+			int indexIn = inputOffset + i*inputStride;
+			int indexOut = outputOffset + i*outputStride;
+
+			float x = input[indexIn  ];
+			float y = input[indexIn+1];
+			float z = input[indexIn+2];
+
+			output[indexOut  ] = r11*x + r12*y + r13*z + tx;
+			output[indexOut+1] = r21*x + r22*y + r23*z + ty;
+			output[indexOut+2] = r31*x + r32*y + r33*z + tz;
+		}
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se3_F32, float[], int, int, float[], int, int, int)}.  The
+	 * points are split into blocks which are processed in parallel.
+	 */
+	public static void transformConcurrent( final Se3_F32 se,
+											final float input[], final int inputOffset, final int inputStride,
+											final float output[], final int outputOffset, final int outputStride,
+											int length ) {
+		GrlConcurrency.loopBlocks(0, length, new IntRangeConsumer() {
+			@Override
+			public void accept(int start, int end) {
+				transform(se, input, inputOffset + start*inputStride, inputStride,
+						output, outputOffset + start*outputStride, outputStride, end-start);
+			}
+		});
+	}
+
 	/**
 	 * <p>.
 	 * Applies the transform specified by SpecialEuclidean to a point.<br>
@@ -225,4 +379,59 @@ public class SePointOps_F32 {
 
 		return tranPt;
 	}
+
+	/**
+	 * <p>.
+	 * Applies a transform to a point<br>
+	 * <br>
+	 * p' = R*p + T
+	 * </p>
+	 * <p>
+	 * Both origPt and tranPt can be the same instance.
+	 * </p>
+	 *
+	 * @param se	 SpecialEuclidean transform. Not modified.
+	 * @param origPt Original coordinate of the point. Not modified.
+	 * @param tranPt Storage for transformed coordinate of the point. Point declared if null.  Modified.
+	 * @return Transformed point.
+	 */
+	public static Point3D_F32 transform( Se3Fixed_F32 se, Point3D_F32 origPt, Point3D_F32 tranPt ) {
+		if( tranPt == null )
+			tranPt = new Point3D_F32();
+
+		float x = origPt.x, y = origPt.y, z = origPt.z;
+
+		tranPt.x = se.r11*x + se.r12*y + se.r13*z + se.tx;
+		tranPt.y = se.r21*x + se.r22*y + se.r23*z + se.ty;
+		tranPt.z = se.r31*x + se.r32*y + se.r33*z + se.tz;
+
+		return tranPt;
+	}
+
+	/**
+	 * <p>.
+	 * Applies the transform in the reverse direction<br>
+	 * <br>
+	 * p = R<sup>T</sup>*(p'-T)
+	 * </p>
+	 * <p>
+	 * Both origPt and tranPt can be the same instance.
+	 * </p>
+	 *
+	 * @param se	 SpecialEuclidean transform.
+	 * @param origPt Original coordinate of the point.
+	 * @param tranPt Transformed coordinate of the point.
+	 */
+	public static Point3D_F32 transformReverse( Se3Fixed_F32 se, Point3D_F32 origPt, Point3D_F32 tranPt ) {
+		if( tranPt == null )
+			tranPt = new Point3D_F32();
+
+		float x = origPt.x - se.tx, y = origPt.y - se.ty, z = origPt.z - se.tz;
+
+		tranPt.x = se.r11*x + se.r21*y + se.r31*z;
+		tranPt.y = se.r12*x + se.r22*y + se.r32*z;
+		tranPt.z = se.r13*x + se.r23*y + se.r33*z;
+
+		return tranPt;
+	}
 }
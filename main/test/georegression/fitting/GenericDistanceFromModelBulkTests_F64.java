@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Standard tests for implementations of {@link DistanceFromModelBulk_F64}.  The bulk kernels are compared
+ * against the distance computed one point at a time.
+ *
+ * @author Peter Abeles
+ */
+public abstract class GenericDistanceFromModelBulkTests_F64<Model,Point> {
+
+	protected Random rand = new Random(234);
+
+	// more than CHECK_PERIOD so that early exits are tested
+	int N = 1000;
+
+	public abstract DistanceFromModelBulk_F64<Model,Point> createAlgorithm();
+
+	public abstract Model createRandomModel();
+
+	/**
+	 * Creates a point which is a random distance away from the model
+	 */
+	public abstract Point createRandomPoint( Model model );
+
+	/**
+	 * Writes the point into the array starting at the specified index
+	 */
+	public abstract void pack( Point p , double data[] , int index );
+
+	List<Point> points = new ArrayList<Point>();
+	double data[];
+	double expected[];
+
+	private DistanceFromModelBulk_F64<Model,Point> setup() {
+		DistanceFromModelBulk_F64<Model,Point> alg = createAlgorithm();
+		Model model = createRandomModel();
+		alg.setModel(model);
+
+		int length = alg.getPointLength();
+		points.clear();
+		data = new double[N*length];
+		expected = new double[N];
+		for (int i = 0; i < N; i++) {
+			Point p = createRandomPoint(model);
+			points.add(p);
+			pack(p, data, i*length);
+			expected[i] = (double)alg.computeDistance(p);
+		}
+		return alg;
+	}
+
+	/**
+	 * Selects a threshold which is half way between two distances so that about half the points are inliers
+	 */
+	private double selectThreshold() {
+		double sorted[] = expected.clone();
+		Arrays.sort(sorted);
+		return (sorted[N/2] + sorted[N/2+1])/2;
+	}
+
+	private int countExpected( int start , int end , double threshold ) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			if( expected[i] <= threshold )
+				count++;
+		}
+		return count;
+	}
+
+	@Test
+	public void computeDistance_array() {
+		DistanceFromModelBulk_F64<Model,Point> alg = setup();
+
+		double found[] = new double[N];
+		Arrays.fill(found, -1);
+		alg.computeDistance(data, 10, N - 20, found);
+
+		for (int i = 0; i < N; i++) {
+			if( i < 10 || i >= N - 20 )
+				assertEquals(-1, found[i], 0);
+			else
+				assertEquals(expected[i], found[i], GrlConstants.DOUBLE_TEST_TOL*(1 + expected[i]));
+		}
+	}
+
+	@Test
+	public void computeDistance_list() {
+		DistanceFromModelBulk_F64<Model,Point> alg = setup();
+
+		/**/double found[] = new /**/double[N];
+		alg.computeDistance(points, found);
+
+		for (int i = 0; i < N; i++) {
+			assertEquals(expected[i], found[i], 0);
+		}
+	}
+
+	@Test
+	public void countInliers_range() {
+		DistanceFromModelBulk_F64<Model,Point> alg = setup();
+		double threshold = selectThreshold();
+
+		assertEquals(countExpected(0, N, threshold), alg.countInliers(data, 0, N, threshold));
+		assertEquals(countExpected(15, N - 3, threshold), alg.countInliers(data, 15, N - 3, threshold));
+	}
+
+	@Test
+	public void countInliers_earlyExit() {
+		DistanceFromModelBulk_F64<Model,Point> alg = setup();
+		double threshold = selectThreshold();
+
+		int total = countExpected(0, N, threshold);
+
+		assertEquals(total, alg.countInliersEarlyExit(data, N, threshold, 0));
+		assertEquals(total, alg.countInliersEarlyExit(data, N, threshold, total - 1));
+		// can't do better than the best model so far
+		assertEquals(-1, alg.countInliersEarlyExit(data, N, threshold, total));
+		assertEquals(-1, alg.countInliersEarlyExit(data, N, threshold, N));
+	}
+
+	@Test
+	public void computeDistanceConcurrent() {
+		DistanceFromModelBulk_F64<Model,Point> alg = setup();
+
+		double found[] = new double[N];
+		alg.computeDistanceConcurrent(data, N, found);
+
+		for (int i = 0; i < N; i++) {
+			assertEquals(expected[i], found[i], GrlConstants.DOUBLE_TEST_TOL*(1 + expected[i]));
+		}
+	}
+
+	@Test
+	public void countInliersConcurrent() {
+		DistanceFromModelBulk_F64<Model,Point> alg = setup();
+		double threshold = selectThreshold();
+
+		assertEquals(countExpected(0, N, threshold), alg.countInliersConcurrent(data, N, threshold));
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRobustKernel {
+
+	/**
+	 * Properties which all the kernels should have
+	 */
+	@Test
+	public void generic() {
+		for( RobustKernel kernel : RobustKernel.values() ) {
+			// no residual, full weight
+			assertEquals(1.0, kernel.weight(0, 2.0), 1e-8);
+
+			// symmetric
+			assertEquals(kernel.weight(1.5, 2.0), kernel.weight(-1.5, 2.0), 1e-8);
+
+			// monotonically decreasing
+			double previous = 1;
+			for (int i = 1; i < 50; i++) {
+				double w = kernel.weight(i*0.2, 2.0);
+				assertTrue(w <= previous);
+				assertTrue(w >= 0);
+				previous = w;
+			}
+		}
+	}
+
+	@Test
+	public void huber() {
+		assertEquals(1.0, RobustKernel.HUBER.weight(1.5, 2.0), 1e-8);
+		assertEquals(0.5, RobustKernel.HUBER.weight(4.0, 2.0), 1e-8);
+	}
+
+	@Test
+	public void tukey() {
+		assertEquals(0.75*0.75, RobustKernel.TUKEY.weight(1.0, 2.0), 1e-8);
+		assertEquals(0, RobustKernel.TUKEY.weight(2.0, 2.0), 1e-8);
+		assertEquals(0, RobustKernel.TUKEY.weight(5.0, 2.0), 1e-8);
+	}
+
+	@Test
+	public void cauchy() {
+		assertEquals(0.5, RobustKernel.CAUCHY.weight(2.0, 2.0), 1e-8);
+		assertEquals(0.2, RobustKernel.CAUCHY.weight(4.0, 2.0), 1e-8);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.affine;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.AssociatedPair2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.transform.affine.AffinePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateAffine2D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		GenerateAffine2D_F32 alg = new GenerateAffine2D_F32();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Affine2D_F32 expected = new Affine2D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+					(float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian());
+
+			List<AssociatedPair2D_F32> pairs = new ArrayList<AssociatedPair2D_F32>();
+			for (int i = 0; i < 3; i++) {
+				Point2D_F32 src = new Point2D_F32( (float)rand.nextGaussian()*10, (float)rand.nextGaussian()*10);
+				pairs.add(new AssociatedPair2D_F32(src, AffinePointOps_F32.transform(expected, src, null)));
+			}
+
+			Affine2D_F32 found = new Affine2D_F32();
+			assertTrue(alg.generate(pairs, found));
+
+			float tol = GrlConstants.FLOAT_TEST_TOL_SQRT;
+			assertEquals(expected.a11, found.a11, tol);
+			assertEquals(expected.a12, found.a12, tol);
+			assertEquals(expected.a21, found.a21, tol);
+			assertEquals(expected.a22, found.a22, tol);
+			assertEquals(expected.tx, found.tx, tol);
+			assertEquals(expected.ty, found.ty, tol);
+		}
+	}
+
+	@Test
+	public void degenerate() {
+		List<AssociatedPair2D_F32> pairs = new ArrayList<AssociatedPair2D_F32>();
+		pairs.add(new AssociatedPair2D_F32(0,0,1,2));
+		pairs.add(new AssociatedPair2D_F32(1,1,3,4));
+		pairs.add(new AssociatedPair2D_F32(3,3,5,6));
+
+		GenerateAffine2D_F32 alg = new GenerateAffine2D_F32();
+		assertFalse(alg.generate(pairs, new Affine2D_F32()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(3, new GenerateAffine2D_F32().getMinimumPoints());
+	}
+}
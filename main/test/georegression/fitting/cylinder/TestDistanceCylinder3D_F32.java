@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.fitting.GenericDistanceFromModelBulkTests_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceCylinder3D_F32
+		extends GenericDistanceFromModelBulkTests_F32<Cylinder3D_F32,Point3D_F32> {
+
+	@Test
+	public void knownDistance() {
+		DistanceCylinder3D_F32 alg = new DistanceCylinder3D_F32();
+		// axis is along z with a slope which isn't normalized
+		alg.setModel(new Cylinder3D_F32(1, 2, 0, 0, 0, 3, 2));
+
+		assertEquals(1, alg.computeDistance(new Point3D_F32(1, 5, 10)), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(1.5f, alg.computeDistance(new Point3D_F32(1.5f, 2, -4)), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(2, alg.computeDistance(new Point3D_F32(1, 2, 7)), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Override
+	public DistanceFromModelBulk_F32<Cylinder3D_F32, Point3D_F32> createAlgorithm() {
+		return new DistanceCylinder3D_F32();
+	}
+
+	@Override
+	public Cylinder3D_F32 createRandomModel() {
+		return new Cylinder3D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+				 (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian(), 2);
+	}
+
+	@Override
+	public Point3D_F32 createRandomPoint( Cylinder3D_F32 model ) {
+		Point3D_F32 c = model.line.p;
+		return new Point3D_F32(c.x + (float)rand.nextGaussian()*3, c.y + (float)rand.nextGaussian()*3, c.z + (float)rand.nextGaussian()*3);
+	}
+
+	@Override
+	public void pack( Point3D_F32 p, float[] data, int index ) {
+		data[index] = p.x;
+		data[index+1] = p.y;
+		data[index+2] = p.z;
+	}
+}
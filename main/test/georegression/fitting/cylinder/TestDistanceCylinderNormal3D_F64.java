@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.fitting.GenericDistanceFromModelBulkTests_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceCylinderNormal3D_F64
+		extends GenericDistanceFromModelBulkTests_F64<Cylinder3D_F64,PlaneNormal3D_F64> {
+
+	/**
+	 * Should be the same as the distance of the point and not be influenced by the normal
+	 */
+	@Test
+	public void sameAsPoint() {
+		Cylinder3D_F64 cylinder = new Cylinder3D_F64(1, 2, 0, 0, 0, 3, 2);
+		DistanceCylinder3D_F64 expected = new DistanceCylinder3D_F64();
+		DistanceCylinderNormal3D_F64 alg = new DistanceCylinderNormal3D_F64();
+		expected.setModel(cylinder);
+		alg.setModel(cylinder);
+
+		for (int i = 0; i < 20; i++) {
+			PlaneNormal3D_F64 p = createRandomPoint(cylinder);
+			/**/double found = alg.computeDistance(p);
+			assertEquals(expected.computeDistance(p.p), found, GrlConstants.DOUBLE_TEST_TOL);
+
+			p.n.set( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian());
+			assertEquals(found, alg.computeDistance(p), GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Override
+	public DistanceFromModelBulk_F64<Cylinder3D_F64, PlaneNormal3D_F64> createAlgorithm() {
+		return new DistanceCylinderNormal3D_F64();
+	}
+
+	@Override
+	public Cylinder3D_F64 createRandomModel() {
+		return new Cylinder3D_F64( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(),
+				 rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), 2);
+	}
+
+	@Override
+	public PlaneNormal3D_F64 createRandomPoint( Cylinder3D_F64 model ) {
+		Point3D_F64 c = model.line.p;
+		return new PlaneNormal3D_F64(c.x + rand.nextGaussian()*3, c.y + rand.nextGaussian()*3,
+				c.z + rand.nextGaussian()*3, rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian());
+	}
+
+	@Override
+	public void pack( PlaneNormal3D_F64 p, double[] data, int index ) {
+		data[index] = p.p.x;
+		data[index+1] = p.p.y;
+		data[index+2] = p.p.z;
+		data[index+3] = p.n.x;
+		data[index+4] = p.n.y;
+		data[index+5] = p.n.z;
+	}
+}
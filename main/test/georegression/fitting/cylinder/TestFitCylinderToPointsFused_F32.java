@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static georegression.fitting.cylinder.TestFitCylinderToPoints_F32.checkEquivalent;
+import static georegression.fitting.cylinder.TestFitCylinderToPoints_F32.createPt;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitCylinderToPointsFused_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfectModel() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0,0,1,2.5f);
+			List<Point3D_F32> points = createPoints(cylinder, 50);
+
+			FitCylinderToPointsFused_F32 alg = new FitCylinderToPointsFused_F32(200,concurrent);
+
+			Cylinder3D_F32 found = new Cylinder3D_F32();
+			alg.fitModel(points, cylinder, found);
+
+			checkEquivalent(cylinder,found);
+		}
+	}
+
+	@Test
+	public void perfectWithBadInitialModel() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0,0,1,2.5f);
+			List<Point3D_F32> points = createPoints(cylinder, 50);
+
+			FitCylinderToPointsFused_F32 alg = new FitCylinderToPointsFused_F32(200,concurrent);
+
+			// make the initial model a bit off
+			Cylinder3D_F32 initial = new Cylinder3D_F32(0.95f,2.1f,3.05f,0.05f,-0.001f,1.05f,2.6f);
+			Cylinder3D_F32 found = new Cylinder3D_F32();
+			alg.fitModel(points, initial, found);
+
+			checkEquivalent(cylinder, found);
+		}
+	}
+
+	/**
+	 * Enough points that the work will be split between threads
+	 */
+	@Test
+	public void manyPoints() {
+		Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0,0,1,2.5f);
+		List<Point3D_F32> points = createPoints(cylinder, 30000);
+
+		FitCylinderToPointsFused_F32 alg = new FitCylinderToPointsFused_F32(200,true);
+
+		Cylinder3D_F32 initial = new Cylinder3D_F32(0.95f,2.1f,3.05f,0.05f,-0.001f,1.05f,2.6f);
+		Cylinder3D_F32 found = new Cylinder3D_F32();
+		alg.fitModel(points, initial, found);
+
+		checkEquivalent(cylinder, found);
+	}
+
+	private List<Point3D_F32> createPoints( Cylinder3D_F32 cylinder , int N ) {
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < N; i++ ) {
+
+			float H = (rand.nextFloat()-0.5f)*4.0f;
+			float theta = rand.nextFloat()*GrlConstants.F_PI2;
+
+			points.add(createPt(cylinder,H,theta));
+		}
+		return points;
+	}
+}
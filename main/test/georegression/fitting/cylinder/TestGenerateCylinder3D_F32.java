@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.metric.Distance3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateCylinder3D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		GenerateCylinder3D_F32 alg = new GenerateCylinder3D_F32();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Vector3D_F32 axis = new Vector3D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian());
+			axis.normalize();
+			Cylinder3D_F32 expected = new Cylinder3D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+					axis.x, axis.y, axis.z, 0.5f + rand.nextFloat()*2);
+
+			List<PlaneNormal3D_F32> points = new ArrayList<PlaneNormal3D_F32>();
+			// make sure the normals aren't nearly parallel
+			float angle = rand.nextFloat()*GrlConstants.F_PI2;
+			points.add(onCylinder(expected, angle));
+			points.add(onCylinder(expected, angle + 0.5f + rand.nextFloat()*2));
+
+			Cylinder3D_F32 found = new Cylinder3D_F32();
+			assertTrue(alg.generate(points, found));
+
+			float tol = GrlConstants.FLOAT_TEST_TOL_SQRT;
+			assertEquals(expected.radius, found.radius, tol);
+			assertEquals(1, (float)Math.abs(found.line.slope.dot(axis)), tol);
+
+			// any other point on the cylinder should be on the surface
+			for (int i = 0; i < 10; i++) {
+				Point3D_F32 p = onCylinder(expected, rand.nextFloat()*GrlConstants.F_PI2).p;
+				assertEquals(0, Distance3D_F32.distance(found, p), tol);
+			}
+		}
+	}
+
+	/**
+	 * Used with {@link DistanceCylinderNormal3D_F32} inside of RANSAC to find a cylinder with outliers
+	 */
+	@Test
+	public void ransac() {
+		Vector3D_F32 axis = new Vector3D_F32(0.2f, -0.5f, 1);
+		axis.normalize();
+		Cylinder3D_F32 expected = new Cylinder3D_F32(1, -2, 0.5f, axis.x, axis.y, axis.z, 1.5f);
+
+		List<PlaneNormal3D_F32> points = new ArrayList<PlaneNormal3D_F32>();
+		for (int i = 0; i < 200; i++) {
+			points.add(onCylinder(expected, rand.nextFloat()*GrlConstants.F_PI2));
+		}
+		for (int i = 0; i < 100; i++) {
+			points.add(new PlaneNormal3D_F32( (float)rand.nextGaussian()*4, (float)rand.nextGaussian()*4, (float)rand.nextGaussian()*4,
+					(float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian()));
+		}
+
+		Ransac<Cylinder3D_F32,PlaneNormal3D_F32> ransac = new Ransac<Cylinder3D_F32,PlaneNormal3D_F32>(234,
+				new ModelManagerCylinder3D_F32(), new GenerateCylinder3D_F32(), new DistanceCylinderNormal3D_F32(),
+				200, 0.01f);
+
+		assertTrue(ransac.process(points));
+		assertTrue(ransac.getMatchSet().size() >= 200);
+
+		Cylinder3D_F32 found = ransac.getModelParameters();
+		float tol = GrlConstants.FLOAT_TEST_TOL_SQRT;
+		assertEquals(expected.radius, found.radius, tol);
+		found.line.slope.normalize();
+		assertEquals(1, (float)Math.abs(found.line.slope.dot(axis)), tol);
+		assertEquals(0, Distance3D_F32.distance(found.line, expected.line.p), tol);
+	}
+
+	@Test
+	public void degenerate() {
+		List<PlaneNormal3D_F32> points = new ArrayList<PlaneNormal3D_F32>();
+		points.add(new PlaneNormal3D_F32(1,0,0,1,0,0));
+		points.add(new PlaneNormal3D_F32(1,0,3,1,0,0));
+
+		GenerateCylinder3D_F32 alg = new GenerateCylinder3D_F32();
+		assertFalse(alg.generate(points, new Cylinder3D_F32()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(2, new GenerateCylinder3D_F32().getMinimumPoints());
+	}
+
+	/**
+	 * Point on the surface at a random location along the axis and its normal
+	 *
+	 * @param angle Angle of the normal around the axis
+	 */
+	private PlaneNormal3D_F32 onCylinder( Cylinder3D_F32 cylinder , float angle ) {
+		Vector3D_F32 axis = cylinder.line.slope;
+
+		// two vectors which are perpendicular to the axis and each other
+		Vector3D_F32 u = new Vector3D_F32(axis.y, -axis.x, 0);
+		if( u.norm() < 0.1f )
+			u.set(0, axis.z, -axis.y);
+		u.normalize();
+		Vector3D_F32 w = new Vector3D_F32();
+		w.cross(axis, u);
+
+		float c = (float)Math.cos(angle), s = (float)Math.sin(angle);
+		Vector3D_F32 n = new Vector3D_F32(c*u.x + s*w.x, c*u.y + s*w.y, c*u.z + s*w.z);
+
+		float t = (float)rand.nextGaussian()*3;
+		float r = cylinder.radius;
+		Point3D_F32 p = cylinder.line.p;
+
+		return new PlaneNormal3D_F32(
+				p.x + t*axis.x + r*n.x, p.y + t*axis.y + r*n.y, p.z + t*axis.z + r*n.z, n.x, n.y, n.z);
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.metric.Distance3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateCylinder3D_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		GenerateCylinder3D_F64 alg = new GenerateCylinder3D_F64();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Vector3D_F64 axis = new Vector3D_F64( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian());
+			axis.normalize();
+			Cylinder3D_F64 expected = new Cylinder3D_F64( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(),
+					axis.x, axis.y, axis.z, 0.5 + rand.nextDouble()*2);
+
+			List<PlaneNormal3D_F64> points = new ArrayList<PlaneNormal3D_F64>();
+			// make sure the normals aren't nearly parallel
+			double angle = rand.nextDouble()*GrlConstants.PI2;
+			points.add(onCylinder(expected, angle));
+			points.add(onCylinder(expected, angle + 0.5 + rand.nextDouble()*2));
+
+			Cylinder3D_F64 found = new Cylinder3D_F64();
+			assertTrue(alg.generate(points, found));
+
+			double tol = GrlConstants.DOUBLE_TEST_TOL_SQRT;
+			assertEquals(expected.radius, found.radius, tol);
+			assertEquals(1, Math.abs(found.line.slope.dot(axis)), tol);
+
+			// any other point on the cylinder should be on the surface
+			for (int i = 0; i < 10; i++) {
+				Point3D_F64 p = onCylinder(expected, rand.nextDouble()*GrlConstants.PI2).p;
+				assertEquals(0, Distance3D_F64.distance(found, p), tol);
+			}
+		}
+	}
+
+	/**
+	 * Used with {@link DistanceCylinderNormal3D_F64} inside of RANSAC to find a cylinder with outliers
+	 */
+	@Test
+	public void ransac() {
+		Vector3D_F64 axis = new Vector3D_F64(0.2, -0.5, 1);
+		axis.normalize();
+		Cylinder3D_F64 expected = new Cylinder3D_F64(1, -2, 0.5, axis.x, axis.y, axis.z, 1.5);
+
+		List<PlaneNormal3D_F64> points = new ArrayList<PlaneNormal3D_F64>();
+		for (int i = 0; i < 200; i++) {
+			points.add(onCylinder(expected, rand.nextDouble()*GrlConstants.PI2));
+		}
+		for (int i = 0; i < 100; i++) {
+			points.add(new PlaneNormal3D_F64( rand.nextGaussian()*4, rand.nextGaussian()*4, rand.nextGaussian()*4,
+					rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian()));
+		}
+
+		Ransac<Cylinder3D_F64,PlaneNormal3D_F64> ransac = new Ransac<Cylinder3D_F64,PlaneNormal3D_F64>(234,
+				new ModelManagerCylinder3D_F64(), new GenerateCylinder3D_F64(), new DistanceCylinderNormal3D_F64(),
+				200, 0.01);
+
+		assertTrue(ransac.process(points));
+		assertTrue(ransac.getMatchSet().size() >= 200);
+
+		Cylinder3D_F64 found = ransac.getModelParameters();
+		double tol = GrlConstants.DOUBLE_TEST_TOL_SQRT;
+		assertEquals(expected.radius, found.radius, tol);
+		found.line.slope.normalize();
+		assertEquals(1, Math.abs(found.line.slope.dot(axis)), tol);
+		assertEquals(0, Distance3D_F64.distance(found.line, expected.line.p), tol);
+	}
+
+	@Test
+	public void degenerate() {
+		List<PlaneNormal3D_F64> points = new ArrayList<PlaneNormal3D_F64>();
+		points.add(new PlaneNormal3D_F64(1,0,0,1,0,0));
+		points.add(new PlaneNormal3D_F64(1,0,3,1,0,0));
+
+		GenerateCylinder3D_F64 alg = new GenerateCylinder3D_F64();
+		assertFalse(alg.generate(points, new Cylinder3D_F64()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(2, new GenerateCylinder3D_F64().getMinimumPoints());
+	}
+
+	/**
+	 * Point on the surface at a random location along the axis and its normal
+	 *
+	 * @param angle Angle of the normal around the axis
+	 */
+	private PlaneNormal3D_F64 onCylinder( Cylinder3D_F64 cylinder , double angle ) {
+		Vector3D_F64 axis = cylinder.line.slope;
+
+		// two vectors which are perpendicular to the axis and each other
+		Vector3D_F64 u = new Vector3D_F64(axis.y, -axis.x, 0);
+		if( u.norm() < 0.1 )
+			u.set(0, axis.z, -axis.y);
+		u.normalize();
+		Vector3D_F64 w = new Vector3D_F64();
+		w.cross(axis, u);
+
+		double c = Math.cos(angle), s = Math.sin(angle);
+		Vector3D_F64 n = new Vector3D_F64(c*u.x + s*w.x, c*u.y + s*w.y, c*u.z + s*w.z);
+
+		double t = rand.nextGaussian()*3;
+		double r = cylinder.radius;
+		Point3D_F64 p = cylinder.line.p;
+
+		return new PlaneNormal3D_F64(
+				p.x + t*axis.x + r*n.x, p.y + t*axis.y + r*n.y, p.z + t*axis.z + r*n.z, n.x, n.y, n.z);
+	}
+}
@@ -58,6 +58,63 @@ public class TestClosestPointEllipseAngle_F32 {
 		}
 	}
 
+	/**
+	 * Results with approximate trig functions should be almost the same
+	 */
+	@Test
+	public void fastMath() {
+		ClosestPointEllipseAngle_F32 expected = new ClosestPointEllipseAngle_F32(GrlConstants.FLOAT_TEST_TOL,200);
+		ClosestPointEllipseAngle_F32 alg = new ClosestPointEllipseAngle_F32(GrlConstants.FLOAT_TEST_TOL,200);
+		alg.setFastMath(true);
+		assertTrue(alg.isFastMath());
+
+		for( int i = 0; i < 100; i++ ) {
+			float b = rand.nextFloat()*3+0.1f;
+			EllipseRotated_F32 ellipse = new EllipseRotated_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+					b + rand.nextFloat(), b, rand.nextFloat()*GrlConstants.F_PI*2);
+			Point2D_F32 p = new Point2D_F32( (float)rand.nextGaussian()*5, (float)rand.nextGaussian()*5);
+
+			expected.setEllipse(ellipse);
+			expected.process(p);
+			alg.setEllipse(ellipse);
+			alg.process(p);
+
+			assertEquals(0, expected.getClosest().distance(alg.getClosest()), GrlConstants.FLOAT_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Changing fast math after the ellipse has been specified should have the same effect as changing it before
+	 */
+	@Test
+	public void fastMath_orderIndependent() {
+		EllipseRotated_F32 ellipse = new EllipseRotated_F32(0.5f,-0.3f,3,1.5f,0.7f);
+		Point2D_F32 p = new Point2D_F32(2,3);
+
+		ClosestPointEllipseAngle_F32 before = new ClosestPointEllipseAngle_F32(GrlConstants.FLOAT_TEST_TOL,200);
+		before.setFastMath(true);
+		before.setEllipse(ellipse);
+		before.process(p);
+
+		ClosestPointEllipseAngle_F32 after = new ClosestPointEllipseAngle_F32(GrlConstants.FLOAT_TEST_TOL,200);
+		after.setEllipse(ellipse);
+		after.setFastMath(true);
+		after.process(p);
+
+		assertEquals(before.getClosest().x, after.getClosest().x, 0);
+		assertEquals(before.getClosest().y, after.getClosest().y, 0);
+
+		// switching it back off should restore the exact solution
+		ClosestPointEllipseAngle_F32 exact = new ClosestPointEllipseAngle_F32(GrlConstants.FLOAT_TEST_TOL,200);
+		exact.setEllipse(ellipse);
+		exact.process(p);
+		after.setFastMath(false);
+		after.process(p);
+
+		assertEquals(exact.getClosest().x, after.getClosest().x, 0);
+		assertEquals(exact.getClosest().y, after.getClosest().y, 0);
+	}
+
 	public void checkSolution( float x0 , float y0, float a, float b, float phi , float x , float y ) {
 		EllipseRotated_F32 ellipse = new EllipseRotated_F32(x0,y0,a,b,phi);
 
@@ -58,6 +58,63 @@ public class TestClosestPointEllipseAngle_F64 {
 		}
 	}
 
+	/**
+	 * Results with approximate trig functions should be almost the same
+	 */
+	@Test
+	public void fastMath() {
+		ClosestPointEllipseAngle_F64 expected = new ClosestPointEllipseAngle_F64(GrlConstants.DOUBLE_TEST_TOL,200);
+		ClosestPointEllipseAngle_F64 alg = new ClosestPointEllipseAngle_F64(GrlConstants.DOUBLE_TEST_TOL,200);
+		alg.setFastMath(true);
+		assertTrue(alg.isFastMath());
+
+		for( int i = 0; i < 100; i++ ) {
+			double b = rand.nextDouble()*3+0.1;
+			EllipseRotated_F64 ellipse = new EllipseRotated_F64( rand.nextGaussian(), rand.nextGaussian(),
+					b + rand.nextDouble(), b, rand.nextDouble()*GrlConstants.PI*2);
+			Point2D_F64 p = new Point2D_F64( rand.nextGaussian()*5, rand.nextGaussian()*5);
+
+			expected.setEllipse(ellipse);
+			expected.process(p);
+			alg.setEllipse(ellipse);
+			alg.process(p);
+
+			assertEquals(0, expected.getClosest().distance(alg.getClosest()), GrlConstants.DOUBLE_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Changing fast math after the ellipse has been specified should have the same effect as changing it before
+	 */
+	@Test
+	public void fastMath_orderIndependent() {
+		EllipseRotated_F64 ellipse = new EllipseRotated_F64(0.5,-0.3,3,1.5,0.7);
+		Point2D_F64 p = new Point2D_F64(2,3);
+
+		ClosestPointEllipseAngle_F64 before = new ClosestPointEllipseAngle_F64(GrlConstants.DOUBLE_TEST_TOL,200);
+		before.setFastMath(true);
+		before.setEllipse(ellipse);
+		before.process(p);
+
+		ClosestPointEllipseAngle_F64 after = new ClosestPointEllipseAngle_F64(GrlConstants.DOUBLE_TEST_TOL,200);
+		after.setEllipse(ellipse);
+		after.setFastMath(true);
+		after.process(p);
+
+		assertEquals(before.getClosest().x, after.getClosest().x, 0);
+		assertEquals(before.getClosest().y, after.getClosest().y, 0);
+
+		// switching it back off should restore the exact solution
+		ClosestPointEllipseAngle_F64 exact = new ClosestPointEllipseAngle_F64(GrlConstants.DOUBLE_TEST_TOL,200);
+		exact.setEllipse(ellipse);
+		exact.process(p);
+		after.setFastMath(false);
+		after.process(p);
+
+		assertEquals(exact.getClosest().x, after.getClosest().x, 0);
+		assertEquals(exact.getClosest().y, after.getClosest().y, 0);
+	}
+
 	public void checkSolution( double x0 , double y0, double a, double b, double phi , double x , double y ) {
 		EllipseRotated_F64 ellipse = new EllipseRotated_F64(x0,y0,a,b,phi);
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.homography;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.fitting.GenericDistanceFromModelBulkTests_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.homography.Homography2D_F32;
+import georegression.struct.point.AssociatedPair2D_F32;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceHomography2D_F32
+		extends GenericDistanceFromModelBulkTests_F32<Homography2D_F32,AssociatedPair2D_F32> {
+
+	@Test
+	public void knownDistance() {
+		DistanceHomography2D_F32 alg = new DistanceHomography2D_F32();
+		// scale the homogeneous coordinate by 2
+		alg.setModel(new Homography2D_F32(2, 0, 2, 0, 2, 4, 0, 0, 2));
+
+		assertEquals(0, alg.computeDistance(new AssociatedPair2D_F32(1, 1, 2, 3)), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(5, alg.computeDistance(new AssociatedPair2D_F32(1, 1, 5, 7)), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void pointAtInfinity() {
+		DistanceHomography2D_F32 alg = new DistanceHomography2D_F32();
+		alg.setModel(new Homography2D_F32(1, 0, 0, 0, 1, 0, 1, 0, 0));
+
+		assertTrue(alg.computeDistance(new AssociatedPair2D_F32(0, 1, 2, 3)) == Float.POSITIVE_INFINITY);
+		assertEquals(0, alg.countInliers(new float[]{0, 1, 2, 3}, 0, 1, 1000));
+	}
+
+	@Override
+	public DistanceFromModelBulk_F32<Homography2D_F32, AssociatedPair2D_F32> createAlgorithm() {
+		return new DistanceHomography2D_F32();
+	}
+
+	@Override
+	public Homography2D_F32 createRandomModel() {
+		// keep the projective terms small so that points don't approach infinity
+		return new Homography2D_F32(1 + (float)rand.nextGaussian()*0.1f, (float)rand.nextGaussian()*0.1f, (float)rand.nextGaussian(),
+				 (float)rand.nextGaussian()*0.1f, 1 + (float)rand.nextGaussian()*0.1f, (float)rand.nextGaussian(),
+				 (float)rand.nextGaussian()*0.01f, (float)rand.nextGaussian()*0.01f, 1);
+	}
+
+	@Override
+	public AssociatedPair2D_F32 createRandomPoint( Homography2D_F32 model ) {
+		return new AssociatedPair2D_F32( (float)rand.nextGaussian()*3, (float)rand.nextGaussian()*3,
+				 (float)rand.nextGaussian()*3, (float)rand.nextGaussian()*3);
+	}
+
+	@Override
+	public void pack( AssociatedPair2D_F32 p, float[] data, int index ) {
+		data[index] = p.src.x;
+		data[index+1] = p.src.y;
+		data[index+2] = p.dst.x;
+		data[index+3] = p.dst.y;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.homography;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.fitting.GenericDistanceFromModelBulkTests_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.point.AssociatedPair2D_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceHomography2D_F64
+		extends GenericDistanceFromModelBulkTests_F64<Homography2D_F64,AssociatedPair2D_F64> {
+
+	@Test
+	public void knownDistance() {
+		DistanceHomography2D_F64 alg = new DistanceHomography2D_F64();
+		// scale the homogeneous coordinate by 2
+		alg.setModel(new Homography2D_F64(2, 0, 2, 0, 2, 4, 0, 0, 2));
+
+		assertEquals(0, alg.computeDistance(new AssociatedPair2D_F64(1, 1, 2, 3)), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(5, alg.computeDistance(new AssociatedPair2D_F64(1, 1, 5, 7)), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void pointAtInfinity() {
+		DistanceHomography2D_F64 alg = new DistanceHomography2D_F64();
+		alg.setModel(new Homography2D_F64(1, 0, 0, 0, 1, 0, 1, 0, 0));
+
+		assertTrue(alg.computeDistance(new AssociatedPair2D_F64(0, 1, 2, 3)) == Double.POSITIVE_INFINITY);
+		assertEquals(0, alg.countInliers(new double[]{0, 1, 2, 3}, 0, 1, 1000));
+	}
+
+	@Override
+	public DistanceFromModelBulk_F64<Homography2D_F64, AssociatedPair2D_F64> createAlgorithm() {
+		return new DistanceHomography2D_F64();
+	}
+
+	@Override
+	public Homography2D_F64 createRandomModel() {
+		// keep the projective terms small so that points don't approach infinity
+		return new Homography2D_F64(1 + rand.nextGaussian()*0.1, rand.nextGaussian()*0.1, rand.nextGaussian(),
+				 rand.nextGaussian()*0.1, 1 + rand.nextGaussian()*0.1, rand.nextGaussian(),
+				 rand.nextGaussian()*0.01, rand.nextGaussian()*0.01, 1);
+	}
+
+	@Override
+	public AssociatedPair2D_F64 createRandomPoint( Homography2D_F64 model ) {
+		return new AssociatedPair2D_F64( rand.nextGaussian()*3, rand.nextGaussian()*3,
+				 rand.nextGaussian()*3, rand.nextGaussian()*3);
+	}
+
+	@Override
+	public void pack( AssociatedPair2D_F64 p, double[] data, int index ) {
+		data[index] = p.src.x;
+		data[index+1] = p.src.y;
+		data[index+2] = p.dst.x;
+		data[index+3] = p.dst.y;
+	}
+}
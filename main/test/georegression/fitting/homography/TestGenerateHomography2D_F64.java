@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.homography;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.point.AssociatedPair2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateHomography2D_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Points in pixel coordinates to make sure normalization is working
+	 */
+	@Test
+	public void perfect() {
+		GenerateHomography2D_F64 alg = new GenerateHomography2D_F64();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Homography2D_F64 expected = new Homography2D_F64(
+					1 + rand.nextGaussian()*0.1, rand.nextGaussian()*0.1, rand.nextGaussian()*20,
+					rand.nextGaussian()*0.1, 1 + rand.nextGaussian()*0.1, rand.nextGaussian()*20,
+					rand.nextGaussian()*0.0001, rand.nextGaussian()*0.0001, 1);
+
+			List<AssociatedPair2D_F64> pairs = new ArrayList<AssociatedPair2D_F64>();
+			// randomly perturbed corners of the image, so that the sample isn't degenerate
+			for (int i = 0; i < 4; i++) {
+				double x = (i%2)*540 + rand.nextDouble()*100;
+				double y = (i/2)*380 + rand.nextDouble()*100;
+				Point2D_F64 src = new Point2D_F64(x, y);
+				pairs.add(new AssociatedPair2D_F64(src, HomographyPointOps_F64.transform(expected, src, null)));
+			}
+
+			Homography2D_F64 found = new Homography2D_F64();
+			assertTrue(alg.generate(pairs, found));
+
+			// compare by transforming other points, since scale is arbitrary
+			for (int i = 0; i < 10; i++) {
+				Point2D_F64 p = new Point2D_F64( rand.nextDouble()*640, rand.nextDouble()*480);
+				Point2D_F64 a = HomographyPointOps_F64.transform(expected, p, null);
+				Point2D_F64 b = HomographyPointOps_F64.transform(found, p, null);
+				assertEquals(0, a.distance(b), GrlConstants.DOUBLE_TEST_TOL_SQRT*100);
+			}
+		}
+	}
+
+	@Test
+	public void degenerate() {
+		List<AssociatedPair2D_F64> pairs = new ArrayList<AssociatedPair2D_F64>();
+		pairs.add(new AssociatedPair2D_F64(0,0,1,2));
+		pairs.add(new AssociatedPair2D_F64(10,0,3,4));
+		pairs.add(new AssociatedPair2D_F64(20,0,5,6));
+		pairs.add(new AssociatedPair2D_F64(5,7,5,9));
+
+		GenerateHomography2D_F64 alg = new GenerateHomography2D_F64();
+		assertFalse(alg.generate(pairs, new Homography2D_F64()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(4, new GenerateHomography2D_F64().getMinimumPoints());
+	}
+}
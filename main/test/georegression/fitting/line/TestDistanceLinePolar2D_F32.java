@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.line;
+
+import georegression.fitting.DistanceFromModelBulk_F32;
+import georegression.fitting.GenericDistanceFromModelBulkTests_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LinePolar2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceLinePolar2D_F32
+		extends GenericDistanceFromModelBulkTests_F32<LinePolar2D_F32,Point2D_F32> {
+
+	@Test
+	public void knownDistance() {
+		DistanceLinePolar2D_F32 alg = new DistanceLinePolar2D_F32();
+		// the line y = 2
+		alg.setModel(new LinePolar2D_F32(2, GrlConstants.F_PI/2));
+
+		assertEquals(1, alg.computeDistance(new Point2D_F32(5, 3)), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(2.5f, alg.computeDistance(new Point2D_F32(-5, -0.5f)), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Override
+	public DistanceFromModelBulk_F32<LinePolar2D_F32, Point2D_F32> createAlgorithm() {
+		return new DistanceLinePolar2D_F32();
+	}
+
+	@Override
+	public LinePolar2D_F32 createRandomModel() {
+		return new LinePolar2D_F32( (float)rand.nextGaussian(), rand.nextFloat()*GrlConstants.F_PI2);
+	}
+
+	@Override
+	public Point2D_F32 createRandomPoint( LinePolar2D_F32 model ) {
+		return new Point2D_F32( (float)rand.nextGaussian()*3, (float)rand.nextGaussian()*3);
+	}
+
+	@Override
+	public void pack( Point2D_F32 p, float[] data, int index ) {
+		data[index] = p.x;
+		data[index+1] = p.y;
+	}
+}
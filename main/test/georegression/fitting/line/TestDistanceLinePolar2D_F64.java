@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.line;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.fitting.GenericDistanceFromModelBulkTests_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LinePolar2D_F64;
+import georegression.struct.point.Point2D_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceLinePolar2D_F64
+		extends GenericDistanceFromModelBulkTests_F64<LinePolar2D_F64,Point2D_F64> {
+
+	@Test
+	public void knownDistance() {
+		DistanceLinePolar2D_F64 alg = new DistanceLinePolar2D_F64();
+		// the line y = 2
+		alg.setModel(new LinePolar2D_F64(2, GrlConstants.PI/2));
+
+		assertEquals(1, alg.computeDistance(new Point2D_F64(5, 3)), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(2.5, alg.computeDistance(new Point2D_F64(-5, -0.5)), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Override
+	public DistanceFromModelBulk_F64<LinePolar2D_F64, Point2D_F64> createAlgorithm() {
+		return new DistanceLinePolar2D_F64();
+	}
+
+	@Override
+	public LinePolar2D_F64 createRandomModel() {
+		return new LinePolar2D_F64( rand.nextGaussian(), rand.nextDouble()*GrlConstants.PI2);
+	}
+
+	@Override
+	public Point2D_F64 createRandomPoint( LinePolar2D_F64 model ) {
+		return new Point2D_F64( rand.nextGaussian()*3, rand.nextGaussian()*3);
+	}
+
+	@Override
+	public void pack( Point2D_F64 p, double[] data, int index ) {
+		data[index] = p.x;
+		data[index+1] = p.y;
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PointCloud3D_F32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEstimateNormalsPointCloud_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void plane() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for (int i = 0; i < 500; i++) {
+			cloud.add(rand.nextFloat()*4-2, rand.nextFloat()*4-2, 3);
+		}
+
+		EstimateNormalsPointCloud_F32 alg = new EstimateNormalsPointCloud_F32(10);
+
+		float normals[] = new float[cloud.size*3];
+		float curvature[] = new float[cloud.size];
+
+		// viewpoint is at the origin, so normals should point down
+		alg.process(cloud, normals, curvature);
+		for (int i = 0; i < cloud.size; i++) {
+			assertEquals(0, normals[i*3], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(0, normals[i*3+1], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(-1, normals[i*3+2], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(0, curvature[i], GrlConstants.FLOAT_TEST_TOL);
+		}
+
+		alg.setViewpoint(0,0,10);
+		alg.process(cloud, normals, null);
+		for (int i = 0; i < cloud.size; i++) {
+			assertEquals(1, normals[i*3+2], GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	/**
+	 * Normals of a sphere point directly away from the center
+	 */
+	@Test
+	public void sphere() {
+		PointCloud3D_F32 cloud = createSphere(5000);
+
+		EstimateNormalsPointCloud_F32 alg = new EstimateNormalsPointCloud_F32(12);
+		alg.setViewpoint(5,5,5);
+
+		PointCloud3D_F32 normals = new PointCloud3D_F32();
+		float curvature[] = new float[cloud.size];
+		alg.process(cloud, normals, curvature);
+
+		assertEquals(cloud.size, normals.size);
+		for (int i = 0; i < cloud.size; i++) {
+			float nx = normals.getX(i), ny = normals.getY(i), nz = normals.getZ(i);
+			float x = cloud.getX(i), y = cloud.getY(i), z = cloud.getZ(i);
+
+			float dot = nx*x + ny*y + nz*z;
+			assertEquals(1, (float)Math.abs(dot), 0.02f);
+			// must point towards the viewpoint
+			assertTrue(nx*(5-x) + ny*(5-y) + nz*(5-z) >= 0);
+			assertTrue(curvature[i] > 0);
+			assertTrue(curvature[i] < 0.1f);
+		}
+	}
+
+	@Test
+	public void radius() {
+		PointCloud3D_F32 cloud = createSphere(5000);
+
+		EstimateNormalsPointCloud_F32 alg = new EstimateNormalsPointCloud_F32(12);
+		alg.setNeighborsRadius(0.15f);
+
+		PointCloud3D_F32 normals = new PointCloud3D_F32();
+		alg.process(cloud, normals, null);
+
+		for (int i = 0; i < cloud.size; i++) {
+			// viewpoint is inside so normals point in
+			float dot = normals.getX(i)*cloud.getX(i) + normals.getY(i)*cloud.getY(i) + normals.getZ(i)*cloud.getZ(i);
+			assertEquals(-1, dot, 0.02f);
+		}
+	}
+
+	/**
+	 * Points without enough neighbors are marked with NaN
+	 */
+	@Test
+	public void tooFewNeighbors() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		cloud.add(0,0,0);
+		cloud.add(0.1f,0,0);
+		cloud.add(0,0.1f,0);
+		cloud.add(0.1f,0.1f,0);
+		cloud.add(10,0,0);
+
+		EstimateNormalsPointCloud_F32 alg = new EstimateNormalsPointCloud_F32(3);
+		alg.setNeighborsNearest(3, 1);
+
+		float normals[] = new float[cloud.size*3];
+		float curvature[] = new float[cloud.size];
+		alg.process(cloud, normals, curvature);
+
+		assertEquals(1, (float)Math.abs(normals[2]), GrlConstants.FLOAT_TEST_TOL);
+		assertTrue(Float.isNaN(normals[12]));
+		assertTrue(Float.isNaN(normals[13]));
+		assertTrue(Float.isNaN(normals[14]));
+		assertTrue(Float.isNaN(curvature[4]));
+	}
+
+	/**
+	 * Multiple threads should produce identical results
+	 */
+	@Test
+	public void concurrent() {
+		PointCloud3D_F32 cloud = createSphere(20000);
+
+		EstimateNormalsPointCloud_F32 serial = new EstimateNormalsPointCloud_F32(10, Float.MAX_VALUE, false);
+		EstimateNormalsPointCloud_F32 concurrent = new EstimateNormalsPointCloud_F32(10, Float.MAX_VALUE, true);
+		concurrent.setMinConcurrentBlock(500);
+
+		float expectedN[] = new float[cloud.size*3];
+		float expectedC[] = new float[cloud.size];
+		float foundN[] = new float[cloud.size*3];
+		float foundC[] = new float[cloud.size];
+
+		serial.process(cloud, expectedN, expectedC);
+		concurrent.process(cloud, foundN, foundC);
+
+		for (int i = 0; i < cloud.size; i++) {
+			assertEquals(expectedC[i], foundC[i], GrlConstants.FLOAT_TEST_TOL);
+			for (int j = 0; j < 3; j++) {
+				assertEquals(expectedN[i*3+j], foundN[i*3+j], GrlConstants.FLOAT_TEST_TOL);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void outputTooSmall() {
+		PointCloud3D_F32 cloud = createSphere(10);
+		new EstimateNormalsPointCloud_F32(5).process(cloud, new float[29], null);
+	}
+
+	private PointCloud3D_F32 createSphere( int N ) {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32(N);
+		for (int i = 0; i < N; i++) {
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			float z = (float)rand.nextGaussian();
+			float r = (float)Math.sqrt(x*x + y*y + z*z);
+			cloud.add(x/r, y/r, z/r);
+		}
+		return cloud;
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PointCloud3D_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEstimateNormalsPointCloud_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void plane() {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+		for (int i = 0; i < 500; i++) {
+			cloud.add(rand.nextDouble()*4-2, rand.nextDouble()*4-2, 3);
+		}
+
+		EstimateNormalsPointCloud_F64 alg = new EstimateNormalsPointCloud_F64(10);
+
+		double normals[] = new double[cloud.size*3];
+		double curvature[] = new double[cloud.size];
+
+		// viewpoint is at the origin, so normals should point down
+		alg.process(cloud, normals, curvature);
+		for (int i = 0; i < cloud.size; i++) {
+			assertEquals(0, normals[i*3], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(0, normals[i*3+1], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(-1, normals[i*3+2], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(0, curvature[i], GrlConstants.DOUBLE_TEST_TOL);
+		}
+
+		alg.setViewpoint(0,0,10);
+		alg.process(cloud, normals, null);
+		for (int i = 0; i < cloud.size; i++) {
+			assertEquals(1, normals[i*3+2], GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	/**
+	 * Normals of a sphere point directly away from the center
+	 */
+	@Test
+	public void sphere() {
+		PointCloud3D_F64 cloud = createSphere(5000);
+
+		EstimateNormalsPointCloud_F64 alg = new EstimateNormalsPointCloud_F64(12);
+		alg.setViewpoint(5,5,5);
+
+		PointCloud3D_F64 normals = new PointCloud3D_F64();
+		double curvature[] = new double[cloud.size];
+		alg.process(cloud, normals, curvature);
+
+		assertEquals(cloud.size, normals.size);
+		for (int i = 0; i < cloud.size; i++) {
+			double nx = normals.getX(i), ny = normals.getY(i), nz = normals.getZ(i);
+			double x = cloud.getX(i), y = cloud.getY(i), z = cloud.getZ(i);
+
+			double dot = nx*x + ny*y + nz*z;
+			assertEquals(1, Math.abs(dot), 0.02);
+			// must point towards the viewpoint
+			assertTrue(nx*(5-x) + ny*(5-y) + nz*(5-z) >= 0);
+			assertTrue(curvature[i] > 0);
+			assertTrue(curvature[i] < 0.1);
+		}
+	}
+
+	@Test
+	public void radius() {
+		PointCloud3D_F64 cloud = createSphere(5000);
+
+		EstimateNormalsPointCloud_F64 alg = new EstimateNormalsPointCloud_F64(12);
+		alg.setNeighborsRadius(0.15);
+
+		PointCloud3D_F64 normals = new PointCloud3D_F64();
+		alg.process(cloud, normals, null);
+
+		for (int i = 0; i < cloud.size; i++) {
+			// viewpoint is inside so normals point in
+			double dot = normals.getX(i)*cloud.getX(i) + normals.getY(i)*cloud.getY(i) + normals.getZ(i)*cloud.getZ(i);
+			assertEquals(-1, dot, 0.02);
+		}
+	}
+
+	/**
+	 * Points without enough neighbors are marked with NaN
+	 */
+	@Test
+	public void tooFewNeighbors() {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+		cloud.add(0,0,0);
+		cloud.add(0.1,0,0);
+		cloud.add(0,0.1,0);
+		cloud.add(0.1,0.1,0);
+		cloud.add(10,0,0);
+
+		EstimateNormalsPointCloud_F64 alg = new EstimateNormalsPointCloud_F64(3);
+		alg.setNeighborsNearest(3, 1);
+
+		double normals[] = new double[cloud.size*3];
+		double curvature[] = new double[cloud.size];
+		alg.process(cloud, normals, curvature);
+
+		assertEquals(1, Math.abs(normals[2]), GrlConstants.DOUBLE_TEST_TOL);
+		assertTrue(Double.isNaN(normals[12]));
+		assertTrue(Double.isNaN(normals[13]));
+		assertTrue(Double.isNaN(normals[14]));
+		assertTrue(Double.isNaN(curvature[4]));
+	}
+
+	/**
+	 * Multiple threads should produce identical results
+	 */
+	@Test
+	public void concurrent() {
+		PointCloud3D_F64 cloud = createSphere(20000);
+
+		EstimateNormalsPointCloud_F64 serial = new EstimateNormalsPointCloud_F64(10, Double.MAX_VALUE, false);
+		EstimateNormalsPointCloud_F64 concurrent = new EstimateNormalsPointCloud_F64(10, Double.MAX_VALUE, true);
+		concurrent.setMinConcurrentBlock(500);
+
+		double expectedN[] = new double[cloud.size*3];
+		double expectedC[] = new double[cloud.size];
+		double foundN[] = new double[cloud.size*3];
+		double foundC[] = new double[cloud.size];
+
+		serial.process(cloud, expectedN, expectedC);
+		concurrent.process(cloud, foundN, foundC);
+
+		for (int i = 0; i < cloud.size; i++) {
+			assertEquals(expectedC[i], foundC[i], GrlConstants.DOUBLE_TEST_TOL);
+			for (int j = 0; j < 3; j++) {
+				assertEquals(expectedN[i*3+j], foundN[i*3+j], GrlConstants.DOUBLE_TEST_TOL);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void outputTooSmall() {
+		PointCloud3D_F64 cloud = createSphere(10);
+		new EstimateNormalsPointCloud_F64(5).process(cloud, new double[29], null);
+	}
+
+	private PointCloud3D_F64 createSphere( int N ) {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64(N);
+		for (int i = 0; i < N; i++) {
+			double x = rand.nextGaussian();
+			double y = rand.nextGaussian();
+			double z = rand.nextGaussian();
+			double r = Math.sqrt(x*x + y*y + z*z);
+			cloud.add(x/r, y/r, z/r);
+		}
+		return cloud;
+	}
+}
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -65,6 +66,28 @@ public class TestFitPlane3D_F64 {
 		assertEquals(0, Math.abs(dot) - 1, GrlConstants.DOUBLE_TEST_TOL);
 	}
 
+	/**
+	 * The plane is far from the origin, which can cause numerical issues if the sums aren't computed carefully
+	 */
+	@Test
+	public void svd_farFromOrigin() {
+		createCloud();
+		for( Point3D_F64 p : cloud ) {
+			p.x += 1000;
+			p.y -= 2000;
+			p.z += 500;
+		}
+
+		Point3D_F64 foundCenter = new Point3D_F64();
+		Vector3D_F64 foundNorm = new Vector3D_F64();
+
+		FitPlane3D_F64 alg = new FitPlane3D_F64();
+		assertTrue(alg.svd(cloud,foundCenter,foundNorm));
+
+		double dot = foundNorm.dot(axisZ);
+		assertEquals(0, Math.abs(dot) - 1, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
 	@Test
 	public void svdPoint() {
 		createCloud();
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.metric.Distance3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeneratePlaneGeneral3D_F32 {
+
+	@Test
+	public void perfect() {
+		// plane with normal (1,2,3) that passes through (1,1,1)
+		PlaneGeneral3D_F32 expected = new PlaneGeneral3D_F32(1,2,3,6);
+
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		points.add(new Point3D_F32(1,1,1));
+		points.add(new Point3D_F32(6,0,0));
+		points.add(new Point3D_F32(0,0,2));
+
+		GeneratePlaneGeneral3D_F32 alg = new GeneratePlaneGeneral3D_F32();
+		PlaneGeneral3D_F32 found = new PlaneGeneral3D_F32();
+		assertTrue(alg.generate(points, found));
+
+		// should be in Hessian normal form
+		assertEquals(1, (float)Math.sqrt(found.A*found.A + found.B*found.B + found.C*found.C), GrlConstants.FLOAT_TEST_TOL);
+
+		for( Point3D_F32 p : points ) {
+			assertEquals(0, Distance3D_F32.distance(found, p), GrlConstants.FLOAT_TEST_TOL);
+		}
+		float n = (float)Math.sqrt(14);
+		float sign = (float)Math.signum(found.A);
+		assertEquals(1/n, sign*found.A, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(2/n, sign*found.B, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(3/n, sign*found.C, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(expected.D/n, sign*found.D, GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void degenerate() {
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		points.add(new Point3D_F32(1,1,1));
+		points.add(new Point3D_F32(2,2,2));
+		points.add(new Point3D_F32(4,4,4));
+
+		GeneratePlaneGeneral3D_F32 alg = new GeneratePlaneGeneral3D_F32();
+		assertFalse(alg.generate(points, new PlaneGeneral3D_F32()));
+
+		points.get(2).set(1,1,1);
+		assertFalse(alg.generate(points, new PlaneGeneral3D_F32()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(3, new GeneratePlaneGeneral3D_F32().getMinimumPoints());
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.fitting.GenericDistanceFromModelBulkTests_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.AssociatedPair3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceSe3_F64
+		extends GenericDistanceFromModelBulkTests_F64<Se3_F64,AssociatedPair3D_F64> {
+
+	@Test
+	public void knownDistance() {
+		DistanceSe3_F64 alg = new DistanceSe3_F64();
+		// rotate around the z-axis
+		alg.setModel(SpecialEuclideanOps_F64.setEulerXYZ(0, 0, GrlConstants.PI/2, 1, 2, 3, null));
+
+		// (1,0,0) is rotated to (0,1,0) then translated to (1,3,3)
+		assertEquals(0, alg.computeDistance(new AssociatedPair3D_F64(1, 0, 0, 1, 3, 3)), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(2, alg.computeDistance(new AssociatedPair3D_F64(1, 0, 0, 1, 3, 5)), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Override
+	public DistanceFromModelBulk_F64<Se3_F64, AssociatedPair3D_F64> createAlgorithm() {
+		return new DistanceSe3_F64();
+	}
+
+	@Override
+	public Se3_F64 createRandomModel() {
+		return SpecialEuclideanOps_F64.setEulerXYZ( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(),
+				 rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), null);
+	}
+
+	@Override
+	public AssociatedPair3D_F64 createRandomPoint( Se3_F64 model ) {
+		return new AssociatedPair3D_F64( rand.nextGaussian()*3, rand.nextGaussian()*3, rand.nextGaussian()*3,
+				 rand.nextGaussian()*3, rand.nextGaussian()*3, rand.nextGaussian()*3);
+	}
+
+	@Override
+	public void pack( AssociatedPair3D_F64 p, double[] data, int index ) {
+		data[index] = p.src.x;
+		data[index+1] = p.src.y;
+		data[index+2] = p.src.z;
+		data[index+3] = p.dst.x;
+		data[index+4] = p.dst.y;
+		data[index+5] = p.dst.z;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.AssociatedPair2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateSe2_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		GenerateSe2_F32 alg = new GenerateSe2_F32();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Se2_F32 expected = new Se2_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian());
+
+			List<AssociatedPair2D_F32> pairs = new ArrayList<AssociatedPair2D_F32>();
+			for (int i = 0; i < 2; i++) {
+				Point2D_F32 src = new Point2D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian());
+				pairs.add(new AssociatedPair2D_F32(src, SePointOps_F32.transform(expected, src, null)));
+			}
+
+			Se2_F32 found = new Se2_F32();
+			assertTrue(alg.generate(pairs, found));
+
+			float tol = GrlConstants.FLOAT_TEST_TOL;
+			assertEquals(expected.getX(), found.getX(), tol);
+			assertEquals(expected.getY(), found.getY(), tol);
+			assertEquals(expected.getCosineYaw(), found.getCosineYaw(), tol);
+			assertEquals(expected.getSineYaw(), found.getSineYaw(), tol);
+		}
+	}
+
+	@Test
+	public void degenerate() {
+		List<AssociatedPair2D_F32> pairs = new ArrayList<AssociatedPair2D_F32>();
+		pairs.add(new AssociatedPair2D_F32(1,2,3,4));
+		pairs.add(new AssociatedPair2D_F32(1,2,5,6));
+
+		GenerateSe2_F32 alg = new GenerateSe2_F32();
+		assertFalse(alg.generate(pairs, new Se2_F32()));
+	}
+
+	/**
+	 * Points 10 apart at UTM scale coordinates are well conditioned and must not be rejected
+	 */
+	@Test
+	public void farFromOrigin() {
+		List<AssociatedPair2D_F32> pairs = new ArrayList<AssociatedPair2D_F32>();
+		pairs.add(new AssociatedPair2D_F32(500000,4000000,500003,3999998));
+		pairs.add(new AssociatedPair2D_F32(500006,4000008,500009,4000006));
+
+		GenerateSe2_F32 alg = new GenerateSe2_F32();
+		Se2_F32 found = new Se2_F32();
+		assertTrue(alg.generate(pairs, found));
+
+		float tol = GrlConstants.FLOAT_TEST_TOL;
+		assertEquals(3, found.getX(), tol);
+		assertEquals(-2, found.getY(), tol);
+		assertEquals(1, found.getCosineYaw(), tol);
+		assertEquals(0, found.getSineYaw(), tol);
+	}
+
+	/**
+	 * The points are distinct in both images but far closer together in one of them
+	 */
+	@Test
+	public void degenerate_separation() {
+		List<AssociatedPair2D_F32> pairs = new ArrayList<AssociatedPair2D_F32>();
+		pairs.add(new AssociatedPair2D_F32(1,2,3,4));
+		pairs.add(new AssociatedPair2D_F32(1,2.0001f,5,6));
+
+		GenerateSe2_F32 alg = new GenerateSe2_F32(0.001f);
+		assertFalse(alg.generate(pairs, new Se2_F32()));
+
+		alg = new GenerateSe2_F32(0.00001f);
+		assertTrue(alg.generate(pairs, new Se2_F32()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(2, new GenerateSe2_F32().getMinimumPoints());
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.AssociatedPair3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateSe3_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		GenerateSe3_F32 alg = new GenerateSe3_F32();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Se3_F32 expected = SpecialEuclideanOps_F32.setEulerXYZ( (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+					(float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian(), null);
+
+			List<AssociatedPair3D_F32> pairs = new ArrayList<AssociatedPair3D_F32>();
+			for (int i = 0; i < 3; i++) {
+				Point3D_F32 src = new Point3D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian());
+				pairs.add(new AssociatedPair3D_F32(src, SePointOps_F32.transform(expected, src, null)));
+			}
+
+			Se3_F32 found = new Se3_F32();
+			assertTrue(alg.generate(pairs, found));
+
+			float tol = GrlConstants.FLOAT_TEST_TOL_SQRT;
+			assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), tol));
+			assertEquals(0, expected.getT().distance(found.getT()), tol);
+		}
+	}
+
+	@Test
+	public void degenerate() {
+		List<AssociatedPair3D_F32> pairs = new ArrayList<AssociatedPair3D_F32>();
+		pairs.add(new AssociatedPair3D_F32(0,0,0,1,0,0));
+		pairs.add(new AssociatedPair3D_F32(1,1,1,2,1,1));
+		pairs.add(new AssociatedPair3D_F32(2,2,2,3,2,2));
+
+		GenerateSe3_F32 alg = new GenerateSe3_F32();
+		assertFalse(alg.generate(pairs, new Se3_F32()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(3, new GenerateSe3_F32().getMinimumPoints());
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.GeometryMath_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIterativeClosestPoint_F64 {
+
+	Random rand = new Random(234);
+
+	Se3_F64 expected = SpecialEuclideanOps_F64.setEulerXYZ(0.02,-0.015,0.01,0.02,-0.01,0.015,null);
+
+	@Test
+	public void pointToPoint() {
+		PointCloud3D_F64 src = randomCloud(1000);
+		PointCloud3D_F64 dst = SePointOps_F64.transform(expected, src, null);
+
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(100, 0.5);
+		alg.setDestination(dst);
+
+		assertTrue(alg.process(src, new Se3_F64()));
+		assertTrue(alg.isConverged());
+		assertEquals(src.size, alg.getNumInliers());
+		checkMotion(alg.getTransformSrcToDst());
+	}
+
+	@Test
+	public void pointToPlane() {
+		PointCloud3D_F64 src = new PointCloud3D_F64();
+		PointCloud3D_F64 normals = new PointCloud3D_F64();
+		sampleBox(src, normals, 1000);
+
+		PointCloud3D_F64 dst = SePointOps_F64.transform(expected, src, null);
+		Vector3D_F64 n = new Vector3D_F64();
+		for (int i = 0; i < normals.size; i++) {
+			n.set(normals.getX(i), normals.getY(i), normals.getZ(i));
+			GeometryMath_F64.mult(expected.getR(), n, n);
+			normals.set(i, n.x, n.y, n.z);
+		}
+
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(100, 0.5);
+		alg.setDestination(dst, normals);
+
+		assertTrue(alg.process(src, new Se3_F64()));
+		assertTrue(alg.isConverged());
+		checkMotion(alg.getTransformSrcToDst());
+
+		// point to plane should need fewer iterations
+		IterativeClosestPoint_F64 point = new IterativeClosestPoint_F64(100, 0.5);
+		point.setDestination(dst);
+		point.process(src, new Se3_F64());
+		assertTrue(alg.getIterations() < point.getIterations());
+	}
+
+	/**
+	 * The concurrent implementation should produce the same solution
+	 */
+	@Test
+	public void concurrent() {
+		PointCloud3D_F64 src = randomCloud(5000);
+		PointCloud3D_F64 dst = SePointOps_F64.transform(expected, src, null);
+
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(100, 0.5, true);
+		alg.setMinConcurrentBlock(100);
+		alg.setDestination(dst);
+
+		assertTrue(alg.process(src, new Se3_F64()));
+		checkMotion(alg.getTransformSrcToDst());
+
+		IterativeClosestPoint_F64 serial = new IterativeClosestPoint_F64(100, 0.5, false);
+		serial.setDestination(dst);
+		assertTrue(serial.process(src, new Se3_F64()));
+		assertEquals(serial.getIterations(), alg.getIterations());
+	}
+
+	/**
+	 * Running the concurrent implementation multiple times should produce exactly the same motion
+	 */
+	@Test
+	public void concurrent_repeatable() {
+		PointCloud3D_F64 src = randomCloud(5000);
+		PointCloud3D_F64 dst = SePointOps_F64.transform(expected, src, null);
+
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(5, 0.5, true);
+		alg.setMinConcurrentBlock(100);
+		alg.setDestination(dst);
+
+		assertTrue(alg.process(src, new Se3_F64()));
+		Se3_F64 first = alg.getTransformSrcToDst().copy();
+
+		for (int trial = 0; trial < 10; trial++) {
+			assertTrue(alg.process(src, new Se3_F64()));
+			assertTrue(MatrixFeatures.isIdentical(first.getR(), alg.getTransformSrcToDst().getR(), 0));
+			assertEquals(0, first.getT().distance(alg.getTransformSrcToDst().getT()), 0);
+		}
+	}
+
+	/**
+	 * Outliers in src which are far from anything in dst should be ignored
+	 */
+	@Test
+	public void outliers_maxDistance() {
+		PointCloud3D_F64 src = randomCloud(1000);
+		PointCloud3D_F64 dst = SePointOps_F64.transform(expected, src, null);
+
+		for (int i = 0; i < 100; i++) {
+			src.add(10+rand.nextDouble(), 10+rand.nextDouble(), 10+rand.nextDouble());
+		}
+
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(100, 0.5);
+		alg.setDestination(dst);
+
+		assertTrue(alg.process(src, new Se3_F64()));
+		assertEquals(1000, alg.getNumInliers());
+		assertEquals(-1, alg.getMatches()[1050]);
+		checkMotion(alg.getTransformSrcToDst());
+	}
+
+	/**
+	 * Outliers which are inside the max distance should be removed by the ratio test
+	 */
+	@Test
+	public void outliers_ratio() {
+		PointCloud3D_F64 src = randomCloud(1000);
+		PointCloud3D_F64 dst = SePointOps_F64.transform(expected, src, null);
+
+		for (int i = 0; i < 20; i++) {
+			src.add(1.5+rand.nextDouble()*0.1, 0.5, 0.5);
+		}
+
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(100, 5);
+		alg.setRejectRatio(3);
+		alg.setDestination(dst);
+
+		assertTrue(alg.process(src, new Se3_F64()));
+		assertEquals(1000, alg.getNumInliers());
+		checkMotion(alg.getTransformSrcToDst());
+	}
+
+	@Test
+	public void listener() {
+		PointCloud3D_F64 src = randomCloud(200);
+		PointCloud3D_F64 dst = SePointOps_F64.transform(expected, src, null);
+
+		final int count[] = new int[1];
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(100, 0.5);
+		alg.setListener(new IterativeClosestPoint_F64.Listener() {
+			@Override
+			public void iteration(IterativeClosestPoint_F64 icp, long associateNano, long estimateNano) {
+				count[0]++;
+				assertTrue(associateNano >= 0);
+				assertTrue(estimateNano >= 0);
+				assertEquals(count[0], icp.getIterations());
+			}
+		});
+		alg.setDestination(dst);
+		assertTrue(alg.process(src, new Se3_F64()));
+		assertTrue(count[0] > 0);
+		assertEquals(count[0], alg.getIterations());
+	}
+
+	@Test
+	public void list() {
+		PointCloud3D_F64 src = randomCloud(1000);
+		PointCloud3D_F64 dst = SePointOps_F64.transform(expected, src, null);
+
+		List<Point3D_F64> listSrc = src.toList(null);
+		List<Point3D_F64> listDst = dst.toList(null);
+
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(100, 0.5);
+		alg.setDestination(listDst);
+		assertTrue(alg.process(listSrc, new Se3_F64()));
+		checkMotion(alg.getTransformSrcToDst());
+	}
+
+	@Test
+	public void tooFewMatches() {
+		PointCloud3D_F64 src = randomCloud(100);
+		PointCloud3D_F64 dst = randomCloud(100);
+		for (int i = 0; i < dst.size; i++) {
+			dst.set(i, dst.getX(i)+20, dst.getY(i), dst.getZ(i));
+		}
+
+		IterativeClosestPoint_F64 alg = new IterativeClosestPoint_F64(100, 0.5);
+		alg.setDestination(dst);
+		assertFalse(alg.process(src, new Se3_F64()));
+		assertEquals(0, alg.getNumInliers());
+	}
+
+	private void checkMotion( Se3_F64 found ) {
+		double tol = GrlConstants.DOUBLE_TEST_TOL_SQRT;
+		assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), tol));
+		assertEquals(0, expected.getT().distance(found.getT()), tol);
+	}
+
+	private PointCloud3D_F64 randomCloud( int N ) {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64(N);
+		for (int i = 0; i < N; i++) {
+			cloud.add(rand.nextDouble(), rand.nextDouble(), rand.nextDouble());
+		}
+		return cloud;
+	}
+
+	/**
+	 * Randomly samples points on the surface of a box with sides of different lengths
+	 */
+	private void sampleBox( PointCloud3D_F64 points , PointCloud3D_F64 normals , int N ) {
+		double sides[] = new double[]{1,1.5,2};
+		for (int i = 0; i < N; i++) {
+			int axis = rand.nextInt(3);
+			double sign = rand.nextBoolean() ? 1 : -1;
+
+			double p[] = new double[3];
+			double n[] = new double[3];
+			for (int j = 0; j < 3; j++) {
+				p[j] = (rand.nextDouble()-0.5)*sides[j];
+			}
+			p[axis] = sign*sides[axis]/2;
+			n[axis] = sign;
+
+			points.add(p[0], p[1], p[2]);
+			normals.add(n[0], n[1], n[2]);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.RobustKernel;
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.metric.UtilAngle;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe2PointRobust_F32 {
+
+	Random rand = new Random( 434324 );
+
+	@Test
+	public void noiseless() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+
+		MotionSe2PointRobust_F32 alg = new MotionSe2PointRobust_F32(RobustKernel.TUKEY, 0.5f);
+
+		assertTrue( alg.process( src, dst ) );
+
+		TestMotionSe2PointSVD_F32.checkTransform( src, dst, alg.getTransformSrcToDst(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	/**
+	 * Add outliers and see if each kernel is able to reject them
+	 */
+	@Test
+	public void outliers() {
+		for( RobustKernel kernel : RobustKernel.values() ) {
+			Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+			List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 100, rand );
+			List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+			for( Point2D_F32 p : src ) {
+				dst.add(SePointOps_F32.transform(tran, p, null));
+			}
+			// corrupt 10% of the points
+			for (int i = 0; i < 10; i++) {
+				Point2D_F32 p = dst.get(i*10);
+				p.x += 5 + rand.nextFloat()*5;
+				p.y -= 5 + rand.nextFloat()*5;
+			}
+
+			MotionSe2PointSVD_F32 ls = new MotionSe2PointSVD_F32();
+			assertTrue(ls.process(src, dst));
+
+			MotionSe2PointRobust_F32 alg = new MotionSe2PointRobust_F32(kernel, 0.5f, 50, GrlConstants.F_EPS);
+			assertTrue(alg.process(src, dst));
+
+			float errorLS = error(tran, ls.getTransformSrcToDst());
+			float errorRobust = error(tran, alg.getTransformSrcToDst());
+
+			assertTrue(errorRobust*10 < errorLS);
+			assertTrue(alg.getWeights()[0] < 0.2f);
+			assertTrue(alg.getWeights()[1] > 0.9f);
+		}
+	}
+
+	/**
+	 * Pairs with a prior of zero should be ignored
+	 */
+	@Test
+	public void priors() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+		float priors[] = new float[src.size()];
+		for (int i = 0; i < src.size(); i++) {
+			priors[i] = 1;
+		}
+		dst.get(4).x += 100;
+		priors[4] = 0;
+
+		MotionSe2PointRobust_F32 alg = new MotionSe2PointRobust_F32(RobustKernel.HUBER, 0.5f);
+		assertTrue(alg.process(src, dst, priors));
+
+		assertEquals(0, error(tran, alg.getTransformSrcToDst()), GrlConstants.FLOAT_TEST_TOL_SQRT);
+		assertEquals(0, alg.getWeights()[4], GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	private static float error( Se2_F32 expected , Se2_F32 found ) {
+		return expected.T.distance(found.T) + (float)Math.abs(UtilAngle.minus(expected.getYaw(), found.getYaw()));
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe2PointWeightedSVD_F32 {
+
+	Random rand = new Random( 434324 );
+
+	@Test
+	public void noiseless() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+
+		MotionSe2PointWeightedSVD_F32 alg = new MotionSe2PointWeightedSVD_F32();
+
+		assertTrue( alg.process( src, dst ) );
+
+		TestMotionSe2PointSVD_F32.checkTransform( src, dst, alg.getTransformSrcToDst(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	/**
+	 * Pairs with a weight of zero should have no influence
+	 */
+	@Test
+	public void zeroWeight() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+		float weights[] = new float[src.size()+5];
+		for (int i = 0; i < src.size(); i++) {
+			weights[i] = 0.2f + rand.nextFloat();
+		}
+		List<Point2D_F32> inliersSrc = new ArrayList<Point2D_F32>(src);
+		List<Point2D_F32> inliersDst = new ArrayList<Point2D_F32>(dst);
+		for (int i = 0; i < 5; i++) {
+			src.add(new Point2D_F32(i,2));
+			dst.add(new Point2D_F32(-20,i*5));
+		}
+
+		MotionSe2PointWeightedSVD_F32 alg = new MotionSe2PointWeightedSVD_F32();
+		assertTrue( alg.process( src, dst, weights ) );
+
+		TestMotionSe2PointSVD_F32.checkTransform( inliersSrc, inliersDst, alg.getTransformSrcToDst(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	/**
+	 * Doubling the weight of a pair should be the same as adding it twice
+	 */
+	@Test
+	public void weightSameAsDuplicate() {
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 20, rand );
+		List<Point2D_F32> dst = UtilPoint2D_F32.random( -10, 10, 20, rand );
+
+		float weights[] = new float[src.size()];
+		for (int i = 0; i < src.size(); i++) {
+			weights[i] = 1;
+		}
+		weights[3] = 2;
+
+		MotionSe2PointWeightedSVD_F32 alg = new MotionSe2PointWeightedSVD_F32();
+		assertTrue(alg.process(src, dst, weights));
+
+		src.add(src.get(3));
+		dst.add(dst.get(3));
+		MotionSe2PointSVD_F32 expected = new MotionSe2PointSVD_F32();
+		assertTrue(expected.process(src, dst));
+
+		GeometryUnitTest.assertEquals(expected.getTransformSrcToDst(), alg.getTransformSrcToDst(),
+				GrlConstants.FLOAT_TEST_TOL_SQRT, GrlConstants.FLOAT_TEST_TOL_SQRT);
+	}
+
+	@Test
+	public void allZero() {
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 20, rand );
+		List<Point2D_F32> dst = UtilPoint2D_F32.random( -10, 10, 20, rand );
+
+		MotionSe2PointWeightedSVD_F32 alg = new MotionSe2PointWeightedSVD_F32();
+		assertFalse(alg.process(src, dst, new float[src.size()]));
+	}
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointIncremental_F32 extends GeneralMotionSe3Tests_F32 {
+
+	@Override
+	MotionTransformPoint<Se3_F32, Point3D_F32> createAlg() {
+		return new MotionSe3PointIncremental_F32();
+	}
+
+	/**
+	 * Adding points one at a time should produce the same solution as the batch algorithm when there is noise
+	 */
+	@Test
+	public void compareToBatch() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 40, rand);
+		List<Point3D_F32> dst = createNoisyDst(src);
+
+		MotionSe3PointSVD_F32 batch = new MotionSe3PointSVD_F32();
+		assertTrue(batch.process(src, dst));
+
+		MotionSe3PointIncremental_F32 alg = new MotionSe3PointIncremental_F32();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i), dst.get(i));
+		}
+		assertTrue(alg.solve());
+
+		checkSame(batch.getTransformSrcToDst(), alg.getTransformSrcToDst());
+	}
+
+	/**
+	 * Removing points should produce the same solution as never having added them
+	 */
+	@Test
+	public void remove() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 40, rand);
+		List<Point3D_F32> dst = createNoisyDst(src);
+
+		MotionSe3PointIncremental_F32 alg = new MotionSe3PointIncremental_F32();
+		float weights[] = new float[src.size()];
+		for (int i = 0; i < src.size(); i++) {
+			weights[i] = 0.5f + rand.nextFloat();
+			alg.add(src.get(i), dst.get(i), weights[i]);
+		}
+		for (int i = 0; i < 10; i++) {
+			alg.remove(src.get(i), dst.get(i), weights[i]);
+		}
+		assertEquals(src.size()-10, alg.getCount());
+		assertTrue(alg.solve());
+
+		MotionSe3PointIncremental_F32 expected = new MotionSe3PointIncremental_F32();
+		for (int i = 10; i < src.size(); i++) {
+			expected.add(src.get(i), dst.get(i), weights[i]);
+		}
+		assertTrue(expected.solve());
+
+		assertEquals(expected.getTotalWeight(), alg.getTotalWeight(), GrlConstants.FLOAT_TEST_TOL);
+		GeometryUnitTest.assertEquals(expected.getMeanSrc(null), alg.getMeanSrc(null), GrlConstants.FLOAT_TEST_TOL);
+		GeometryUnitTest.assertEquals(expected.getMeanDst(null), alg.getMeanDst(null), GrlConstants.FLOAT_TEST_TOL);
+		checkSame(expected.getTransformSrcToDst(), alg.getTransformSrcToDst());
+	}
+
+	/**
+	 * Merging two accumulators should be the same as adding all the points to one
+	 */
+	@Test
+	public void merge() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 40, rand);
+		List<Point3D_F32> dst = createNoisyDst(src);
+
+		MotionSe3PointIncremental_F32 expected = new MotionSe3PointIncremental_F32();
+		MotionSe3PointIncremental_F32 a = new MotionSe3PointIncremental_F32();
+		MotionSe3PointIncremental_F32 b = new MotionSe3PointIncremental_F32();
+
+		for (int i = 0; i < src.size(); i++) {
+			float w = 0.5f + rand.nextFloat();
+			expected.add(src.get(i), dst.get(i), w);
+			if( i < 15 )
+				a.add(src.get(i), dst.get(i), w);
+			else
+				b.add(src.get(i), dst.get(i), w);
+		}
+
+		a.merge(b);
+		assertEquals(expected.getCount(), a.getCount());
+		assertEquals(expected.getTotalWeight(), a.getTotalWeight(), GrlConstants.FLOAT_TEST_TOL);
+
+		assertTrue(expected.solve());
+		assertTrue(a.solve());
+		checkSame(expected.getTransformSrcToDst(), a.getTransformSrcToDst());
+
+		// merging into an empty accumulator
+		MotionSe3PointIncremental_F32 empty = new MotionSe3PointIncremental_F32();
+		empty.merge(a);
+		assertTrue(empty.solve());
+		checkSame(expected.getTransformSrcToDst(), empty.getTransformSrcToDst());
+	}
+
+	/**
+	 * Points with a larger weight should have more influence on the solution
+	 */
+	@Test
+	public void weights() {
+		Se3_F32 truth = randomMotion();
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 30, rand);
+		List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+		for( Point3D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(truth, p, null));
+		}
+
+		MotionSe3PointIncremental_F32 alg = new MotionSe3PointIncremental_F32();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i), dst.get(i), 1.0f);
+		}
+		// add an outlier with a tiny weight
+		alg.add(new Point3D_F32(1,2,3), new Point3D_F32(20,-5,8), GrlConstants.F_EPS);
+
+		assertTrue(alg.solve());
+		checkTransform(src, dst, alg.getTransformSrcToDst(), GrlConstants.FLOAT_TEST_TOL_SQRT);
+	}
+
+	/**
+	 * Removing more weight than was added should throw an exception and leave the state unchanged
+	 */
+	@Test
+	public void remove_tooMuchWeight() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 5, rand);
+		List<Point3D_F32> dst = createNoisyDst(src);
+
+		MotionSe3PointIncremental_F32 alg = new MotionSe3PointIncremental_F32();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i), dst.get(i));
+		}
+		assertTrue(alg.solve());
+		Se3_F32 expected = alg.getTransformSrcToDst().copy();
+
+		try {
+			alg.remove(src.get(0), dst.get(0), 10);
+			fail("Exception should have been thrown");
+		} catch( IllegalArgumentException ignore ) {}
+
+		assertEquals(5, alg.getCount());
+		assertEquals(5, alg.getTotalWeight(), GrlConstants.FLOAT_TEST_TOL);
+		assertTrue(alg.solve());
+		checkSame(expected, alg.getTransformSrcToDst());
+	}
+
+	/**
+	 * A weight which isn't positive should throw an exception and leave the state unchanged
+	 */
+	@Test
+	public void remove_badWeight() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 5, rand);
+		List<Point3D_F32> dst = createNoisyDst(src);
+
+		MotionSe3PointIncremental_F32 alg = new MotionSe3PointIncremental_F32();
+		for (int i = 0; i < src.size(); i++) {
+			alg.add(src.get(i), dst.get(i));
+		}
+		assertTrue(alg.solve());
+		Se3_F32 expected = alg.getTransformSrcToDst().copy();
+
+		try {
+			alg.remove(src.get(0), dst.get(0), -1);
+			fail("Exception should have been thrown");
+		} catch( IllegalArgumentException ignore ) {}
+
+		assertEquals(5, alg.getCount());
+		assertEquals(5, alg.getTotalWeight(), GrlConstants.FLOAT_TEST_TOL);
+		assertTrue(alg.solve());
+		checkSame(expected, alg.getTransformSrcToDst());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void remove_empty() {
+		MotionSe3PointIncremental_F32 alg = new MotionSe3PointIncremental_F32();
+		alg.remove(new Point3D_F32(1,2,3), new Point3D_F32(1,2,3));
+	}
+
+	@Test
+	public void tooFewPoints() {
+		MotionSe3PointIncremental_F32 alg = new MotionSe3PointIncremental_F32();
+		assertFalse(alg.solve());
+		alg.add(new Point3D_F32(1,2,3), new Point3D_F32(1,2,3));
+		alg.add(new Point3D_F32(2,2,3), new Point3D_F32(2,2,3));
+		assertFalse(alg.solve());
+
+		alg.remove(new Point3D_F32(2,2,3), new Point3D_F32(2,2,3));
+		alg.remove(new Point3D_F32(1,2,3), new Point3D_F32(1,2,3));
+		assertEquals(0, alg.getCount());
+		assertEquals(0, alg.getTotalWeight(), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	private Se3_F32 randomMotion() {
+		return SpecialEuclideanOps_F32.setEulerXYZ(
+				 (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+				 (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian(), null);
+	}
+
+	private List<Point3D_F32> createNoisyDst( List<Point3D_F32> src ) {
+		Se3_F32 truth = randomMotion();
+		List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+		for( Point3D_F32 p : src ) {
+			Point3D_F32 q = SePointOps_F32.transform(truth, p, null);
+			q.x += (float)rand.nextGaussian()*0.1f;
+			q.y += (float)rand.nextGaussian()*0.1f;
+			q.z += (float)rand.nextGaussian()*0.1f;
+			dst.add(q);
+		}
+		return dst;
+	}
+
+	private static void checkSame( Se3_F32 expected , Se3_F32 found ) {
+		GeometryUnitTest.assertEquals(expected, found, GrlConstants.FLOAT_TEST_TOL_SQRT, GrlConstants.FLOAT_TEST_TOL_SQRT);
+	}
+}
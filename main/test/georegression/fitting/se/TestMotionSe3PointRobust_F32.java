@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.RobustKernel;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointRobust_F32 extends GeneralMotionSe3Tests_F32 {
+
+	@Override
+	MotionTransformPoint<Se3_F32, Point3D_F32> createAlg() {
+		return new MotionSe3PointRobust_F32(RobustKernel.HUBER, 0.5f);
+	}
+
+	/**
+	 * Add outliers and see if each kernel is able to reject them
+	 */
+	@Test
+	public void outliers() {
+		for( RobustKernel kernel : RobustKernel.values() ) {
+			Se3_F32 tran = SpecialEuclideanOps_F32.setEulerXYZ(0.1f, -0.3f, 0.9f, 1, -2, 0.5f, null);
+
+			List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 100, rand);
+			List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+			for( Point3D_F32 p : src ) {
+				dst.add(SePointOps_F32.transform(tran, p, null));
+			}
+			// corrupt 10% of the points
+			for (int i = 0; i < 10; i++) {
+				Point3D_F32 p = dst.get(i*10);
+				p.x += 5 + rand.nextFloat()*5;
+				p.y -= 5 + rand.nextFloat()*5;
+			}
+
+			MotionSe3PointSVD_F32 ls = new MotionSe3PointSVD_F32();
+			assertTrue(ls.process(src, dst));
+
+			MotionSe3PointRobust_F32 alg = new MotionSe3PointRobust_F32(kernel, 0.5f, 50, GrlConstants.F_EPS);
+			assertTrue(alg.process(src, dst));
+			assertTrue(alg.getIterations() > 0);
+
+			float errorLS = error(tran, ls.getTransformSrcToDst());
+			float errorRobust = error(tran, alg.getTransformSrcToDst());
+
+			assertTrue(errorRobust*10 < errorLS);
+			// outliers should be heavily down weighted
+			assertTrue(alg.getWeights()[0] < 0.2f);
+			assertTrue(alg.getWeights()[1] > 0.9f);
+		}
+	}
+
+	/**
+	 * Pairs with a prior of zero should be ignored
+	 */
+	@Test
+	public void priors() {
+		Se3_F32 tran = SpecialEuclideanOps_F32.setEulerXYZ(0.1f, -0.3f, 0.9f, 1, -2, 0.5f, null);
+
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 30, rand);
+		List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+		for( Point3D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+		float priors[] = new float[src.size()];
+		for (int i = 0; i < src.size(); i++) {
+			priors[i] = 1;
+		}
+		// a gross outlier which would be given some weight by Huber
+		dst.get(4).x += 100;
+		priors[4] = 0;
+
+		MotionSe3PointRobust_F32 alg = new MotionSe3PointRobust_F32(RobustKernel.HUBER, 0.5f);
+		assertTrue(alg.process(src, dst, priors));
+
+		GeometryUnitTest.assertEquals(tran, alg.getTransformSrcToDst(),
+				GrlConstants.FLOAT_TEST_TOL_SQRT, GrlConstants.FLOAT_TEST_TOL_SQRT);
+		assertEquals(0, alg.getWeights()[4], GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	private static float error( Se3_F32 expected , Se3_F32 found ) {
+		float error = expected.T.distance(found.T);
+		for (int i = 0; i < 9; i++) {
+			error += (float)Math.abs(expected.getR().data[i]-found.getR().data[i]);
+		}
+		return error;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointWeightedSVD_F32 extends GeneralMotionSe3Tests_F32 {
+
+	@Override
+	MotionTransformPoint<Se3_F32, Point3D_F32> createAlg() {
+		return new MotionSe3PointWeightedSVD_F32();
+	}
+
+	/**
+	 * Pairs with a weight of zero should have no influence
+	 */
+	@Test
+	public void zeroWeight() {
+		Se3_F32 tran = SpecialEuclideanOps_F32.setEulerXYZ(0.1f, -0.3f, 0.9f, 1, -2, 0.5f, null);
+
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 30, rand);
+		List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+		for( Point3D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+		float weights[] = new float[src.size()+5];
+		for (int i = 0; i < src.size(); i++) {
+			weights[i] = 0.2f + rand.nextFloat();
+		}
+		// add outliers with zero weight
+		for (int i = 0; i < 5; i++) {
+			src.add(new Point3D_F32(i,2,-3));
+			dst.add(new Point3D_F32(-20,i*5,7));
+		}
+
+		MotionSe3PointWeightedSVD_F32 alg = new MotionSe3PointWeightedSVD_F32();
+		assertTrue(alg.process(src, dst, weights));
+
+		GeometryUnitTest.assertEquals(tran, alg.getTransformSrcToDst(),
+				GrlConstants.FLOAT_TEST_TOL, GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Doubling the weight of a pair should be the same as adding it twice
+	 */
+	@Test
+	public void weightSameAsDuplicate() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 20, rand);
+		List<Point3D_F32> dst = UtilPoint3D_F32.random(-10, 10, 20, rand);
+
+		float weights[] = new float[src.size()];
+		for (int i = 0; i < src.size(); i++) {
+			weights[i] = 1;
+		}
+		weights[3] = 2;
+
+		MotionSe3PointWeightedSVD_F32 alg = new MotionSe3PointWeightedSVD_F32();
+		assertTrue(alg.process(src, dst, weights));
+
+		src.add(src.get(3));
+		dst.add(dst.get(3));
+		MotionSe3PointSVD_F32 expected = new MotionSe3PointSVD_F32();
+		assertTrue(expected.process(src, dst));
+
+		GeometryUnitTest.assertEquals(expected.getTransformSrcToDst(), alg.getTransformSrcToDst(),
+				GrlConstants.FLOAT_TEST_TOL_SQRT, GrlConstants.FLOAT_TEST_TOL_SQRT);
+	}
+
+	@Test
+	public void allZero() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 20, rand);
+		List<Point3D_F32> dst = UtilPoint3D_F32.random(-10, 10, 20, rand);
+
+		MotionSe3PointWeightedSVD_F32 alg = new MotionSe3PointWeightedSVD_F32();
+		assertFalse(alg.process(src, dst, new float[src.size()]));
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.fitting.DistanceFromModelBulk_F64;
+import georegression.fitting.GenericDistanceFromModelBulkTests_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistanceSphere3D_F64
+		extends GenericDistanceFromModelBulkTests_F64<Sphere3D_F64,Point3D_F64> {
+
+	@Test
+	public void knownDistance() {
+		DistanceSphere3D_F64 alg = new DistanceSphere3D_F64();
+		alg.setModel(new Sphere3D_F64(1, 2, 3, 2));
+
+		assertEquals(1, alg.computeDistance(new Point3D_F64(1, 2, 6)), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(1.5, alg.computeDistance(new Point3D_F64(1.5, 2, 3)), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(2, alg.computeDistance(new Point3D_F64(1, 2, 3)), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Override
+	public DistanceFromModelBulk_F64<Sphere3D_F64, Point3D_F64> createAlgorithm() {
+		return new DistanceSphere3D_F64();
+	}
+
+	@Override
+	public Sphere3D_F64 createRandomModel() {
+		return new Sphere3D_F64( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), 2);
+	}
+
+	@Override
+	public Point3D_F64 createRandomPoint( Sphere3D_F64 model ) {
+		Point3D_F64 c = model.center;
+		return new Point3D_F64(c.x + rand.nextGaussian()*2, c.y + rand.nextGaussian()*2, c.z + rand.nextGaussian()*2);
+	}
+
+	@Override
+	public void pack( Point3D_F64 p, double[] data, int index ) {
+		data[index] = p.x;
+		data[index+1] = p.y;
+		data[index+2] = p.z;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static georegression.fitting.sphere.TestFitSphereToPoints_F64.createPt;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitSphereToPointsFused_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfectModel() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			Sphere3D_F64 sphere = new Sphere3D_F64(1,2,3,4);
+			List<Point3D_F64> points = createPoints(sphere, 50);
+
+			FitSphereToPointsFused_F64 alg = new FitSphereToPointsFused_F64(200,concurrent);
+
+			Sphere3D_F64 found = new Sphere3D_F64();
+			alg.fitModel(points, sphere, found);
+
+			assertEquals(0,sphere.center.distance(found.center),GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(sphere.radius,found.radius,GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void perfectWithBadInitialModel() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			Sphere3D_F64 sphere = new Sphere3D_F64(1,2,3,4);
+			List<Point3D_F64> points = createPoints(sphere, 50);
+
+			FitSphereToPointsFused_F64 alg = new FitSphereToPointsFused_F64(200,concurrent);
+
+			// make the initial model a bit off
+			Sphere3D_F64 initial = new Sphere3D_F64(1.05,1.99,3,3.8);
+			Sphere3D_F64 found = new Sphere3D_F64();
+			alg.fitModel(points, initial, found);
+
+			assertEquals(0,sphere.center.distance(found.center),GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(sphere.radius, found.radius, GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	/**
+	 * Enough points that the work will be split between threads
+	 */
+	@Test
+	public void manyPoints() {
+		Sphere3D_F64 sphere = new Sphere3D_F64(1,2,3,4);
+		List<Point3D_F64> points = createPoints(sphere, 30000);
+
+		FitSphereToPointsFused_F64 alg = new FitSphereToPointsFused_F64(200,true);
+
+		Sphere3D_F64 initial = new Sphere3D_F64(1.05,1.99,3,3.8);
+		Sphere3D_F64 found = new Sphere3D_F64();
+		alg.fitModel(points, initial, found);
+
+		assertEquals(0,sphere.center.distance(found.center),GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(sphere.radius, found.radius, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	private List<Point3D_F64> createPoints( Sphere3D_F64 sphere , int N ) {
+		List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < N; i++ ) {
+
+			double phi = rand.nextDouble()*GrlConstants.PI2;
+			double theta = rand.nextDouble()*GrlConstants.PI2;
+
+			points.add(createPt(sphere,phi,theta));
+		}
+		return points;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateSphere3D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		GenerateSphere3D_F32 alg = new GenerateSphere3D_F32();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Sphere3D_F32 expected = new Sphere3D_F32( (float)rand.nextGaussian()*10, (float)rand.nextGaussian()*10,
+					(float)rand.nextGaussian()*10, 0.5f + rand.nextFloat()*3);
+
+			List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+			for (int i = 0; i < 4; i++) {
+				points.add(randomOnSphere(expected));
+			}
+
+			Sphere3D_F32 found = new Sphere3D_F32();
+			assertTrue(alg.generate(points, found));
+
+			float tol = GrlConstants.FLOAT_TEST_TOL_SQRT;
+			assertEquals(expected.radius, found.radius, tol);
+			assertEquals(0, expected.center.distance(found.center), tol);
+		}
+	}
+
+	@Test
+	public void degenerate() {
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		points.add(new Point3D_F32(1,0,0));
+		points.add(new Point3D_F32(0,1,0));
+		points.add(new Point3D_F32(-1,0,0));
+		points.add(new Point3D_F32(0,-1,0));
+
+		GenerateSphere3D_F32 alg = new GenerateSphere3D_F32();
+		assertFalse(alg.generate(points, new Sphere3D_F32()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(4, new GenerateSphere3D_F32().getMinimumPoints());
+	}
+
+	private Point3D_F32 randomOnSphere( Sphere3D_F32 sphere ) {
+		float x = (float)rand.nextGaussian();
+		float y = (float)rand.nextGaussian();
+		float z = (float)rand.nextGaussian();
+		float n = (float)Math.sqrt(x*x + y*y + z*z);
+		float r = sphere.radius/n;
+		return new Point3D_F32(sphere.center.x + x*r, sphere.center.y + y*r, sphere.center.z + z*r);
+	}
+}
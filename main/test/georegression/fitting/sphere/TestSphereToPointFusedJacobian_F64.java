@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConcurrency;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSphereToPointFusedJacobian_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against J'J and J'r computed from the full Jacobian
+	 */
+	@Test
+	public void compareToJacobian() {
+		compareToJacobian(100,false);
+		// enough points to be split between threads
+		compareToJacobian(25000,true);
+	}
+
+	/**
+	 * The concurrent results should be exactly the same every time and not depend on the number of threads
+	 */
+	@Test
+	public void concurrent_repeatable() {
+		Sphere3D_F64 model = new Sphere3D_F64(1,2,3,4);
+		List<Point3D_F64> points = UtilPoint3D_F64.random(-5,5,25000,rand);
+
+		SphereToPointFusedJacobian_F64 alg = new SphereToPointFusedJacobian_F64(true);
+		alg.setPoints(points);
+
+		CodecSphere3D_F64 codec = new CodecSphere3D_F64();
+		/**/double param[] = new /**/double[alg.getNumOfInputsN()];
+		codec.encode(model,param);
+
+		int N = param.length;
+		DenseMatrix64F expectedJtJ = new DenseMatrix64F(N,N);
+		DenseMatrix64F expectedJtr = new DenseMatrix64F(N,1);
+		/**/double expectedCost = alg.computeNormalEquations(param,expectedJtJ,expectedJtr);
+
+		int threads = GrlConcurrency.getMaxThreads();
+		try {
+			for (int trial = 0; trial < 6; trial++) {
+				// alternate between one thread and several
+				GrlConcurrency.setMaxThreads(trial%2 == 0 ? 1 : threads + 1);
+
+				DenseMatrix64F JtJ = new DenseMatrix64F(N,N);
+				DenseMatrix64F Jtr = new DenseMatrix64F(N,1);
+				assertEquals(expectedCost, alg.computeNormalEquations(param,JtJ,Jtr), 0);
+				assertEquals(expectedCost, alg.computeCost(param), 0);
+				assertTrue(MatrixFeatures.isIdentical(expectedJtJ, JtJ, 0));
+				assertTrue(MatrixFeatures.isIdentical(expectedJtr, Jtr, 0));
+			}
+		} finally {
+			GrlConcurrency.setMaxThreads(threads);
+		}
+	}
+
+	private void compareToJacobian( int numPoints , boolean concurrent ) {
+		Sphere3D_F64 model = new Sphere3D_F64(1,2,3,4);
+
+		List<Point3D_F64> points = UtilPoint3D_F64.random(-5,5,numPoints,rand);
+
+		SphereToPointSignedDistance_F64 function = new SphereToPointSignedDistance_F64();
+		SphereToPointSignedDistanceJacobian_F64 jacobian = new SphereToPointSignedDistanceJacobian_F64();
+		function.setPoints(points);
+		jacobian.setPoints(points);
+
+		CodecSphere3D_F64 codec = new CodecSphere3D_F64();
+		/**/double param[] = new /**/double[function.getNumOfInputsN()];
+		codec.encode(model,param);
+
+		int N = param.length;
+		DenseMatrix64F r = new DenseMatrix64F(numPoints,1);
+		DenseMatrix64F J = new DenseMatrix64F(numPoints,N);
+		function.process(param,r.data);
+		jacobian.process(param,J.data);
+
+		DenseMatrix64F expectedJtJ = new DenseMatrix64F(N,N);
+		DenseMatrix64F expectedJtr = new DenseMatrix64F(N,1);
+		CommonOps.multTransA(J,J,expectedJtJ);
+		CommonOps.multTransA(J,r,expectedJtr);
+		/**/double expectedCost = 0;
+		for (int i = 0; i < numPoints; i++) {
+			expectedCost += r.data[i]*r.data[i];
+		}
+
+		SphereToPointFusedJacobian_F64 alg = new SphereToPointFusedJacobian_F64(concurrent);
+		alg.setPoints(points);
+
+		DenseMatrix64F JtJ = new DenseMatrix64F(N,N);
+		DenseMatrix64F Jtr = new DenseMatrix64F(N,1);
+		/**/double cost = alg.computeNormalEquations(param,JtJ,Jtr);
+
+		/**/double tol = GrlConstants.DOUBLE_TEST_TOL*numPoints;
+		assertEquals(expectedCost, cost, tol*expectedCost);
+		assertEquals(expectedCost, alg.computeCost(param), tol*expectedCost);
+		for (int i = 0; i < N*N; i++) {
+			assertEquals(expectedJtJ.data[i], JtJ.data[i], tol*Math.max(1,Math.abs(expectedJtJ.data[i])));
+		}
+		for (int i = 0; i < N; i++) {
+			assertEquals(expectedJtr.data[i], Jtr.data[i], tol*Math.max(1,Math.abs(expectedJtr.data[i])));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Vector3D_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.ejml.ops.RandomMatrices;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEigenSymmetric3x3_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void random() {
+		for (int trial = 0; trial < 50; trial++) {
+			DenseMatrix64F A = RandomMatrices.createSymmetric(3,-2,2,rand);
+			check(A);
+		}
+	}
+
+	/**
+	 * Matrices with repeated eigenvalues and rank deficient matrices
+	 */
+	@Test
+	public void degenerate() {
+		check(CommonOps.identity(3));
+		check(new DenseMatrix64F(3,3));
+
+		// rank 2 and rank 1 scatter matrices
+		DenseMatrix64F B = RandomMatrices.createRandom(3,2,-1,1,rand);
+		DenseMatrix64F A = new DenseMatrix64F(3,3);
+		CommonOps.multTransB(B,B,A);
+		check(A);
+
+		B = RandomMatrices.createRandom(3,1,-1,1,rand);
+		CommonOps.multTransB(B,B,A);
+		check(A);
+
+		// already diagonal
+		check(CommonOps.diag(1,5,3));
+	}
+
+	private void check( DenseMatrix64F A ) {
+		EigenSymmetric3x3_F64 alg = new EigenSymmetric3x3_F64();
+		assertTrue(alg.process(
+				(double)A.get(0,0),(double)A.get(0,1),(double)A.get(0,2),
+				(double)A.get(1,1),(double)A.get(1,2),
+				(double)A.get(2,2)));
+
+		Vector3D_F64 v = new Vector3D_F64();
+		Vector3D_F64 Av = new Vector3D_F64();
+		double previous = Double.MAX_VALUE;
+
+		for (int i = 0; i < 3; i++) {
+			double value = alg.getEigenvalue(i);
+			assertTrue(value <= previous);
+			previous = value;
+
+			alg.getEigenvector(i,v);
+			assertEquals(1, v.norm(), GrlConstants.DOUBLE_TEST_TOL);
+
+			GeometryMath_F64.mult(A,v,Av);
+			assertEquals(value*v.x, Av.x, GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(value*v.y, Av.y, GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(value*v.z, Av.z, GrlConstants.DOUBLE_TEST_TOL);
+		}
+
+		// eigenvectors should be orthogonal
+		Vector3D_F64 v0 = alg.getEigenvector(0,null);
+		Vector3D_F64 v1 = alg.getEigenvector(1,null);
+		Vector3D_F64 v2 = alg.getEigenvector(2,null);
+		assertEquals(0, v0.dot(v1), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0, v0.dot(v2), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0, v1.dot(v2), GrlConstants.DOUBLE_TEST_TOL);
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.metric.Distance3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.EulerType;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.homography.Homography2D_F32;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.shapes.Box3D_F32;
+import georegression.transform.affine.AffinePointOps_F32;
+import georegression.transform.homography.HomographyPointOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeometryMathSoa_F32 {
+
+	Random rand = new Random(234);
+
+	int N = 37;
+	float x[] = new float[N], y[] = new float[N], z[] = new float[N];
+
+	public TestGeometryMathSoa_F32() {
+		for (int i = 0; i < N; i++) {
+			x[i] = (float)rand.nextGaussian();
+			y[i] = (float)rand.nextGaussian();
+			z[i] = (float)rand.nextGaussian();
+		}
+	}
+
+	@Test
+	public void split_interleave() {
+		float xyz[] = new float[N*3];
+		GeometryMathSoa_F32.interleave(x, y, z, xyz, N);
+
+		for (int i = 0; i < N; i++) {
+			assertEquals(x[i], xyz[i*3], 0);
+			assertEquals(y[i], xyz[i*3+1], 0);
+			assertEquals(z[i], xyz[i*3+2], 0);
+		}
+
+		float fx[] = new float[N], fy[] = new float[N], fz[] = new float[N];
+		GeometryMathSoa_F32.split(xyz, fx, fy, fz, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(x[i], fx[i], 0);
+			assertEquals(y[i], fy[i], 0);
+			assertEquals(z[i], fz[i], 0);
+		}
+	}
+
+	@Test
+	public void transform_Se3() {
+		Se3_F32 se = new Se3_F32();
+		ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0.1f, -0.5f, 1.2f, se.getR());
+		se.getT().set(0.5f, -2, 3);
+
+		float ox[] = new float[N], oy[] = new float[N], oz[] = new float[N];
+		GeometryMathSoa_F32.transform(se, x, y, z, ox, oy, oz, N);
+
+		Point3D_F32 expected = new Point3D_F32();
+		for (int i = 0; i < N; i++) {
+			SePointOps_F32.transform(se, new Point3D_F32(x[i], y[i], z[i]), expected);
+			assertEquals(expected.x, ox[i], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.y, oy[i], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.z, oz[i], GrlConstants.FLOAT_TEST_TOL);
+		}
+
+		// in place
+		GeometryMathSoa_F32.transform(se, x, y, z, x, y, z, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(ox[i], x[i], 0);
+			assertEquals(oy[i], y[i], 0);
+			assertEquals(oz[i], z[i], 0);
+		}
+	}
+
+	@Test
+	public void transform_Affine2D() {
+		Affine2D_F32 affine = new Affine2D_F32(1.1f, 0.2f, -0.3f, 0.9f, 2, -1);
+
+		float ox[] = new float[N], oy[] = new float[N];
+		GeometryMathSoa_F32.transform(affine, x, y, ox, oy, N);
+
+		Point2D_F32 expected = new Point2D_F32();
+		for (int i = 0; i < N; i++) {
+			AffinePointOps_F32.transform(affine, x[i], y[i], expected);
+			assertEquals(expected.x, ox[i], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.y, oy[i], GrlConstants.FLOAT_TEST_TOL);
+		}
+
+		// in place
+		GeometryMathSoa_F32.transform(affine, x, y, x, y, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(ox[i], x[i], 0);
+			assertEquals(oy[i], y[i], 0);
+		}
+	}
+
+	@Test
+	public void transform_Homography2D() {
+		Homography2D_F32 H = new Homography2D_F32(1.1f, 0.2f, 3, -0.3f, 0.9f, -1, 0.01f, 0.02f, 1);
+
+		float ox[] = new float[N], oy[] = new float[N];
+		GeometryMathSoa_F32.transform(H, x, y, ox, oy, N);
+
+		Point2D_F32 expected = new Point2D_F32();
+		for (int i = 0; i < N; i++) {
+			HomographyPointOps_F32.transform(H, x[i], y[i], expected);
+			assertEquals(expected.x, ox[i], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected.y, oy[i], GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void dot() {
+		float output[] = new float[N];
+		GeometryMathSoa_F32.dot(0.5f, -2, 3, x, y, z, output, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(0.5f*x[i] - 2*y[i] + 3*z[i], output[i], GrlConstants.FLOAT_TEST_TOL);
+		}
+
+		GeometryMathSoa_F32.dot(x, y, z, z, x, y, output, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(x[i]*z[i] + y[i]*x[i] + z[i]*y[i], output[i], GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void distance_plane() {
+		PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32(1, -2, 0.5f, 1.5f);
+
+		float distances[] = new float[N];
+		GeometryMathSoa_F32.distance(plane, x, y, z, distances, N);
+		for (int i = 0; i < N; i++) {
+			float expected = Distance3D_F32.distance(plane, new Point3D_F32(x[i], y[i], z[i]));
+			assertEquals(expected, distances[i], GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void boundingBox() {
+		Box3D_F32 found = new Box3D_F32();
+		// skip the last element to make sure length is respected
+		x[N-1] = 100; y[N-1] = -100; z[N-1] = 100;
+		GeometryMathSoa_F32.boundingBox(x, y, z, N-1, found);
+
+		Box3D_F32 expected = new Box3D_F32();
+		expected.p0.set(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+		expected.p1.set(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
+		for (int i = 0; i < N-1; i++) {
+			expected.p0.x = (float)Math.min(expected.p0.x, x[i]);
+			expected.p0.y = (float)Math.min(expected.p0.y, y[i]);
+			expected.p0.z = (float)Math.min(expected.p0.z, z[i]);
+			expected.p1.x = (float)Math.max(expected.p1.x, x[i]);
+			expected.p1.y = (float)Math.max(expected.p1.y, y[i]);
+			expected.p1.z = (float)Math.max(expected.p1.z, z[i]);
+		}
+
+		assertEquals(0, expected.p0.distance(found.p0), 0);
+		assertEquals(0, expected.p1.distance(found.p1), 0);
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.metric.Distance3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.EulerType;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.shapes.Box3D_F64;
+import georegression.transform.affine.AffinePointOps_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeometryMathSoa_F64 {
+
+	Random rand = new Random(234);
+
+	int N = 37;
+	double x[] = new double[N], y[] = new double[N], z[] = new double[N];
+
+	public TestGeometryMathSoa_F64() {
+		for (int i = 0; i < N; i++) {
+			x[i] = rand.nextGaussian();
+			y[i] = rand.nextGaussian();
+			z[i] = rand.nextGaussian();
+		}
+	}
+
+	@Test
+	public void split_interleave() {
+		double xyz[] = new double[N*3];
+		GeometryMathSoa_F64.interleave(x, y, z, xyz, N);
+
+		for (int i = 0; i < N; i++) {
+			assertEquals(x[i], xyz[i*3], 0);
+			assertEquals(y[i], xyz[i*3+1], 0);
+			assertEquals(z[i], xyz[i*3+2], 0);
+		}
+
+		double fx[] = new double[N], fy[] = new double[N], fz[] = new double[N];
+		GeometryMathSoa_F64.split(xyz, fx, fy, fz, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(x[i], fx[i], 0);
+			assertEquals(y[i], fy[i], 0);
+			assertEquals(z[i], fz[i], 0);
+		}
+	}
+
+	@Test
+	public void transform_Se3() {
+		Se3_F64 se = new Se3_F64();
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0.1, -0.5, 1.2, se.getR());
+		se.getT().set(0.5, -2, 3);
+
+		double ox[] = new double[N], oy[] = new double[N], oz[] = new double[N];
+		GeometryMathSoa_F64.transform(se, x, y, z, ox, oy, oz, N);
+
+		Point3D_F64 expected = new Point3D_F64();
+		for (int i = 0; i < N; i++) {
+			SePointOps_F64.transform(se, new Point3D_F64(x[i], y[i], z[i]), expected);
+			assertEquals(expected.x, ox[i], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expected.y, oy[i], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expected.z, oz[i], GrlConstants.DOUBLE_TEST_TOL);
+		}
+
+		// in place
+		GeometryMathSoa_F64.transform(se, x, y, z, x, y, z, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(ox[i], x[i], 0);
+			assertEquals(oy[i], y[i], 0);
+			assertEquals(oz[i], z[i], 0);
+		}
+	}
+
+	@Test
+	public void transform_Affine2D() {
+		Affine2D_F64 affine = new Affine2D_F64(1.1, 0.2, -0.3, 0.9, 2, -1);
+
+		double ox[] = new double[N], oy[] = new double[N];
+		GeometryMathSoa_F64.transform(affine, x, y, ox, oy, N);
+
+		Point2D_F64 expected = new Point2D_F64();
+		for (int i = 0; i < N; i++) {
+			AffinePointOps_F64.transform(affine, x[i], y[i], expected);
+			assertEquals(expected.x, ox[i], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expected.y, oy[i], GrlConstants.DOUBLE_TEST_TOL);
+		}
+
+		// in place
+		GeometryMathSoa_F64.transform(affine, x, y, x, y, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(ox[i], x[i], 0);
+			assertEquals(oy[i], y[i], 0);
+		}
+	}
+
+	@Test
+	public void transform_Homography2D() {
+		Homography2D_F64 H = new Homography2D_F64(1.1, 0.2, 3, -0.3, 0.9, -1, 0.01, 0.02, 1);
+
+		double ox[] = new double[N], oy[] = new double[N];
+		GeometryMathSoa_F64.transform(H, x, y, ox, oy, N);
+
+		Point2D_F64 expected = new Point2D_F64();
+		for (int i = 0; i < N; i++) {
+			HomographyPointOps_F64.transform(H, x[i], y[i], expected);
+			assertEquals(expected.x, ox[i], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expected.y, oy[i], GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void dot() {
+		double output[] = new double[N];
+		GeometryMathSoa_F64.dot(0.5, -2, 3, x, y, z, output, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(0.5*x[i] - 2*y[i] + 3*z[i], output[i], GrlConstants.DOUBLE_TEST_TOL);
+		}
+
+		GeometryMathSoa_F64.dot(x, y, z, z, x, y, output, N);
+		for (int i = 0; i < N; i++) {
+			assertEquals(x[i]*z[i] + y[i]*x[i] + z[i]*y[i], output[i], GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void distance_plane() {
+		PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64(1, -2, 0.5, 1.5);
+
+		double distances[] = new double[N];
+		GeometryMathSoa_F64.distance(plane, x, y, z, distances, N);
+		for (int i = 0; i < N; i++) {
+			double expected = Distance3D_F64.distance(plane, new Point3D_F64(x[i], y[i], z[i]));
+			assertEquals(expected, distances[i], GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void boundingBox() {
+		Box3D_F64 found = new Box3D_F64();
+		// skip the last element to make sure length is respected
+		x[N-1] = 100; y[N-1] = -100; z[N-1] = 100;
+		GeometryMathSoa_F64.boundingBox(x, y, z, N-1, found);
+
+		Box3D_F64 expected = new Box3D_F64();
+		expected.p0.set(Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE);
+		expected.p1.set(-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE);
+		for (int i = 0; i < N-1; i++) {
+			expected.p0.x = Math.min(expected.p0.x, x[i]);
+			expected.p0.y = Math.min(expected.p0.y, y[i]);
+			expected.p0.z = Math.min(expected.p0.z, z[i]);
+			expected.p1.x = Math.max(expected.p1.x, x[i]);
+			expected.p1.y = Math.max(expected.p1.y, y[i]);
+			expected.p1.z = Math.max(expected.p1.z, z[i]);
+		}
+
+		assertEquals(0, expected.p0.distance(found.p0), 0);
+		assertEquals(0, expected.p1.distance(found.p1), 0);
+	}
+}
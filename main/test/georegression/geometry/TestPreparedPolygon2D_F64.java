@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.metric.Distance2D_F64;
+import georegression.metric.Intersection2D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPreparedPolygon2D_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against brute force for a concave polygon with many vertexes
+	 */
+	@Test
+	public void compareToBruteForce() {
+		int sizes[] = new int[]{3, 10, 500};
+		for( int N : sizes ) {
+			Polygon2D_F64 polygon = createStar(N);
+			PreparedPolygon2D_F64 alg = new PreparedPolygon2D_F64(polygon);
+
+			for (int i = 0; i < 2000; i++) {
+				Point2D_F64 p = new Point2D_F64( rand.nextGaussian()*6, rand.nextGaussian()*6);
+
+				assertEquals(Intersection2D_F64.containConvex(polygon, p), alg.isInside(p));
+				assertEquals(Distance2D_F64.distance(polygon, p), alg.distance(p), GrlConstants.DOUBLE_TEST_TOL);
+			}
+		}
+	}
+
+	/**
+	 * Axis aligned edges and a point far away
+	 */
+	@Test
+	public void rectangle() {
+		Polygon2D_F64 polygon = new Polygon2D_F64(1, 2, 5, 2, 5, 4, 1, 4);
+		PreparedPolygon2D_F64 alg = new PreparedPolygon2D_F64(polygon);
+
+		assertTrue(alg.isInside(3, 3));
+		assertTrue(alg.isInside(1.5, 2.5));
+		assertFalse(alg.isInside(0, 3));
+		assertFalse(alg.isInside(3, 5));
+
+		assertEquals(1, alg.distance(3, 3), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0.5, alg.distance(1.5, 3), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(5, alg.distance(8, 8), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(96, alg.distance(-95, 3), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * Building a second time should replace the original polygon
+	 */
+	@Test
+	public void setPolygon_multiple() {
+		PreparedPolygon2D_F64 alg = new PreparedPolygon2D_F64(createStar(200));
+		Polygon2D_F64 polygon = new Polygon2D_F64(10, 10, 12, 10, 12, 12);
+		alg.setPolygon(polygon);
+
+		assertEquals(3, alg.getNumEdges());
+		assertFalse(alg.isInside(0, 0));
+		assertTrue(alg.isInside(11.5, 10.5));
+		assertEquals(Distance2D_F64.distance(polygon, new Point2D_F64(0, 0)), alg.distance(0, 0),
+				GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void batch() {
+		Polygon2D_F64 polygon = createStar(300);
+
+		int N = 20000;
+		double x[] = new double[N];
+		double y[] = new double[N];
+		for (int i = 0; i < N; i++) {
+			x[i] = rand.nextGaussian()*6;
+			y[i] = rand.nextGaussian()*6;
+		}
+
+		for( boolean concurrent : new boolean[]{false, true} ) {
+			PreparedPolygon2D_F64 alg = new PreparedPolygon2D_F64(polygon);
+			alg.setConcurrent(concurrent);
+
+			boolean inside[] = new boolean[N];
+			double distance[] = new double[N];
+			alg.isInside(x, y, N, inside);
+			alg.distance(x, y, N, distance);
+
+			for (int i = 0; i < N; i++) {
+				assertEquals(alg.isInside(x[i], y[i]), inside[i]);
+				assertEquals(alg.distance(x[i], y[i]), distance[i], 0);
+			}
+		}
+	}
+
+	/**
+	 * Star shaped concave polygon with a random radius for each vertex
+	 */
+	private Polygon2D_F64 createStar( int N ) {
+		Polygon2D_F64 polygon = new Polygon2D_F64(N);
+		for (int i = 0; i < N; i++) {
+			double theta = i*GrlConstants.PI2/N;
+			double r = 2 + rand.nextDouble()*6;
+			polygon.set(i, Math.cos(theta)*r, Math.sin(theta)*r);
+		}
+		return polygon;
+	}
+}
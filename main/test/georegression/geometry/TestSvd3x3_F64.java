@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.ejml.ops.MatrixFeatures;
+import org.ejml.ops.RandomMatrices;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvd3x3_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void random() {
+		for (int trial = 0; trial < 50; trial++) {
+			check(RandomMatrices.createRandom(3,3,-2,2,rand));
+		}
+	}
+
+	/**
+	 * Rank deficient matrices and repeated singular values
+	 */
+	@Test
+	public void degenerate() {
+		check(CommonOps.identity(3));
+		check(new DenseMatrix64F(3,3));
+		check(CommonOps.diag(-1,5,3));
+
+		DenseMatrix64F A = new DenseMatrix64F(3,3);
+		DenseMatrix64F B = RandomMatrices.createRandom(3,2,-1,1,rand);
+		DenseMatrix64F C = RandomMatrices.createRandom(3,2,-1,1,rand);
+		CommonOps.multTransB(B,C,A);
+		check(A);
+
+		B = RandomMatrices.createRandom(3,1,-1,1,rand);
+		C = RandomMatrices.createRandom(3,1,-1,1,rand);
+		CommonOps.multTransB(B,C,A);
+		check(A);
+	}
+
+	@Test
+	public void orthogonal() {
+		check(RandomMatrices.createOrthogonal(3,3,rand));
+	}
+
+	private void check( DenseMatrix64F A ) {
+		Svd3x3_F64 alg = new Svd3x3_F64();
+		assertTrue(alg.decompose(A));
+
+		DenseMatrix64F U = alg.getU(null);
+		DenseMatrix64F V = alg.getV(null);
+
+		assertTrue(MatrixFeatures.isOrthogonal(U, GrlConstants.DOUBLE_TEST_TOL));
+		assertTrue(MatrixFeatures.isOrthogonal(V, GrlConstants.DOUBLE_TEST_TOL));
+
+		assertTrue(alg.getSingularValue(0) >= alg.getSingularValue(1));
+		assertTrue(alg.getSingularValue(1) >= alg.getSingularValue(2));
+		assertTrue(alg.getSingularValue(2) >= 0);
+
+		// reconstruct the original matrix
+		DenseMatrix64F S = CommonOps.diag(
+				(double)alg.getSingularValue(0),(double)alg.getSingularValue(1),(double)alg.getSingularValue(2));
+		DenseMatrix64F US = new DenseMatrix64F(3,3);
+		DenseMatrix64F found = new DenseMatrix64F(3,3);
+		CommonOps.mult(U,S,US);
+		CommonOps.multTransB(US,V,found);
+
+		assertTrue(MatrixFeatures.isIdentical(A, found, GrlConstants.DOUBLE_TEST_TOL));
+	}
+}
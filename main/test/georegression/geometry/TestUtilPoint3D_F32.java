@@ -20,11 +20,13 @@ package georegression.geometry;
 
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import georegression.struct.shapes.Box3D_F32;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -58,4 +60,31 @@ public class TestUtilPoint3D_F32 {
 		assertEquals(0,cube.getP0().distance(list.get(0)),GrlConstants.FLOAT_TEST_TOL);
 		assertEquals(0,cube.getP1().distance(new Point3D_F32(2,3,5)),1e-8);
 	}
+
+	@Test
+	public void mean_cloud() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-1,1,20,new Random(234));
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		cloud.set(list);
+
+		Point3D_F32 expected = UtilPoint3D_F32.mean(list,null);
+		Point3D_F32 found = UtilPoint3D_F32.mean(cloud,null);
+
+		assertEquals(0,expected.distance(found),GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void boundingBox_cloud() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+
+		cloud.add(1,1,1);
+		cloud.add(2,3,1);
+		cloud.add(1.5f,2,5);
+
+		Box3D_F32 cube = new Box3D_F32();
+		UtilPoint3D_F32.boundingBox(cloud, cube);
+
+		assertEquals(0,cube.getP0().distance(new Point3D_F32(1,1,1)),GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(0,cube.getP1().distance(new Point3D_F32(2,3,5)),GrlConstants.FLOAT_TEST_TOL);
+	}
 }
@@ -20,11 +20,13 @@ package georegression.geometry;
 
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.shapes.Box3D_F64;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -58,4 +60,31 @@ public class TestUtilPoint3D_F64 {
 		assertEquals(0,cube.getP0().distance(list.get(0)),GrlConstants.DOUBLE_TEST_TOL);
 		assertEquals(0,cube.getP1().distance(new Point3D_F64(2,3,5)),1e-8);
 	}
+
+	@Test
+	public void mean_cloud() {
+		List<Point3D_F64> list = UtilPoint3D_F64.random(-1,1,20,new Random(234));
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+		cloud.set(list);
+
+		Point3D_F64 expected = UtilPoint3D_F64.mean(list,null);
+		Point3D_F64 found = UtilPoint3D_F64.mean(cloud,null);
+
+		assertEquals(0,expected.distance(found),GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void boundingBox_cloud() {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+
+		cloud.add(1,1,1);
+		cloud.add(2,3,1);
+		cloud.add(1.5,2,5);
+
+		Box3D_F64 cube = new Box3D_F64();
+		UtilPoint3D_F64.boundingBox(cloud, cube);
+
+		assertEquals(0,cube.getP0().distance(new Point3D_F64(1,1,1)),GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0,cube.getP1().distance(new Point3D_F64(2,3,5)),GrlConstants.DOUBLE_TEST_TOL);
+	}
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.so.Quaternion_F64;
+import georegression.struct.so.Rodrigues_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestUtilQuaternion_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * The product should be the same as multiplying the rotation matrices
+	 */
+	@Test
+	public void multiply() {
+		for (int trial = 0; trial < 20; trial++) {
+			Quaternion_F64 a = randomUnit();
+			Quaternion_F64 b = randomUnit();
+
+			Quaternion_F64 c = UtilQuaternion_F64.multiply(a, b, null);
+
+			DenseMatrix64F Ra = ConvertRotation3D_F64.quaternionToMatrix(a, null);
+			DenseMatrix64F Rb = ConvertRotation3D_F64.quaternionToMatrix(b, null);
+			DenseMatrix64F expected = new DenseMatrix64F(3,3);
+			CommonOps.mult(Ra, Rb, expected);
+			DenseMatrix64F found = ConvertRotation3D_F64.quaternionToMatrix(c, null);
+
+			assertTrue(MatrixFeatures.isIdentical(expected, found, GrlConstants.DOUBLE_TEST_TOL));
+
+			// output is an input
+			UtilQuaternion_F64.multiply(a, b, a);
+			assertIdentical(c, a);
+		}
+	}
+
+	@Test
+	public void conjugate() {
+		Quaternion_F64 q = randomUnit();
+		Quaternion_F64 found = UtilQuaternion_F64.conjugate(q, null);
+		assertIdentical(new Quaternion_F64(q.w, -q.x, -q.y, -q.z), found);
+
+		// the product with a unit quaternion is the identity
+		UtilQuaternion_F64.multiply(q, found, found);
+		assertIdentical(new Quaternion_F64(), found);
+	}
+
+	@Test
+	public void inverse() {
+		Quaternion_F64 q = new Quaternion_F64(0.5, -2, 1.5, 3);
+		Quaternion_F64 inv = UtilQuaternion_F64.inverse(q, null);
+
+		assertIdentical(new Quaternion_F64(), UtilQuaternion_F64.multiply(q, inv, null));
+		assertIdentical(new Quaternion_F64(), UtilQuaternion_F64.multiply(inv, q, null));
+	}
+
+	@Test
+	public void norm() {
+		Quaternion_F64 q = new Quaternion_F64(1, -2, 2, 4);
+		assertEquals(25, UtilQuaternion_F64.normSq(q), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(5, UtilQuaternion_F64.norm(q), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * The exponential of a pure quaternion is a rotation by twice its magnitude
+	 */
+	@Test
+	public void exp_rotation() {
+		for( double theta : new double[]{2, 0.5, 0.001, 0.000001, 0} ) {
+			Rodrigues_F64 rod = new Rodrigues_F64(theta, 0.2, -1, 0.5);
+			rod.unitAxisRotation.normalize();
+			Quaternion_F64 expected = ConvertRotation3D_F64.rodriguesToQuaternion(rod, null);
+
+			Quaternion_F64 v = new Quaternion_F64(0, rod.unitAxisRotation.x*theta/2,
+					rod.unitAxisRotation.y*theta/2, rod.unitAxisRotation.z*theta/2);
+			Quaternion_F64 found = UtilQuaternion_F64.exp(v, null);
+
+			assertIdentical(expected, found);
+		}
+	}
+
+	@Test
+	public void exp_log() {
+		for (int trial = 0; trial < 20; trial++) {
+			Quaternion_F64 q = new Quaternion_F64( rand.nextGaussian(), rand.nextGaussian(),
+					rand.nextGaussian(), rand.nextGaussian());
+
+			Quaternion_F64 found = UtilQuaternion_F64.exp(UtilQuaternion_F64.log(q, null), null);
+			assertIdentical(q, found);
+
+			found = UtilQuaternion_F64.log(UtilQuaternion_F64.exp(q, null), null);
+			// the log is only unique if the angle is less than pi
+			if( Math.sqrt(q.x*q.x + q.y*q.y + q.z*q.z) < GrlConstants.PI )
+				assertIdentical(q, found);
+		}
+
+		// identity and a tiny rotation
+		assertIdentical(new Quaternion_F64(0, 0, 0, 0), UtilQuaternion_F64.log(new Quaternion_F64(), null));
+		Quaternion_F64 v = new Quaternion_F64(0, 0.0000001, -0.0000002, 0.0000003);
+		assertIdentical(v, UtilQuaternion_F64.log(UtilQuaternion_F64.exp(v, null), null));
+	}
+
+	@Test
+	public void rotate_point() {
+		for (int trial = 0; trial < 20; trial++) {
+			Quaternion_F64 q = randomUnit();
+			DenseMatrix64F R = ConvertRotation3D_F64.quaternionToMatrix(q, null);
+
+			Point3D_F64 p = new Point3D_F64( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian());
+			Point3D_F64 expected = GeometryMath_F64.mult(R, p, (Point3D_F64)null);
+			Point3D_F64 found = UtilQuaternion_F64.rotate(q, p, null);
+
+			assertEquals(0, expected.distance(found), GrlConstants.DOUBLE_TEST_TOL);
+
+			// in place
+			UtilQuaternion_F64.rotate(q, p, p);
+			assertEquals(0, expected.distance(p), GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void rotate_array() {
+		Quaternion_F64 q = randomUnit();
+
+		// points are packed with an extra element and an offset
+		int N = 30;
+		double input[] = new double[2 + N*4];
+		for (int i = 0; i < input.length; i++) {
+			input[i] = rand.nextGaussian();
+		}
+
+		for( boolean concurrent : new boolean[]{false,true}) {
+			double output[] = new double[1 + N*3];
+			if( concurrent )
+				UtilQuaternion_F64.rotateConcurrent(q, input, 2, 4, output, 1, 3, N);
+			else
+				UtilQuaternion_F64.rotate(q, input, 2, 4, output, 1, 3, N);
+
+			for (int i = 0; i < N; i++) {
+				Point3D_F64 p = new Point3D_F64(input[2+i*4], input[3+i*4], input[4+i*4]);
+				UtilQuaternion_F64.rotate(q, p, p);
+				assertEquals(p.x, output[1+i*3], GrlConstants.DOUBLE_TEST_TOL);
+				assertEquals(p.y, output[2+i*3], GrlConstants.DOUBLE_TEST_TOL);
+				assertEquals(p.z, output[3+i*3], GrlConstants.DOUBLE_TEST_TOL);
+			}
+		}
+	}
+
+	/**
+	 * Interpolate around a single axis and see if the angle changes linearly
+	 */
+	@Test
+	public void slerp() {
+		Rodrigues_F64 rod = new Rodrigues_F64(1.2, 0.2, -1, 0.5);
+		rod.unitAxisRotation.normalize();
+		Quaternion_F64 a = new Quaternion_F64();
+		Quaternion_F64 b = ConvertRotation3D_F64.rodriguesToQuaternion(rod, null);
+
+		for( double t : new double[]{0, 0.1, 0.5, 0.77, 1}) {
+			rod.theta = 1.2*t;
+			Quaternion_F64 expected = ConvertRotation3D_F64.rodriguesToQuaternion(rod, null);
+
+			assertIdentical(expected, UtilQuaternion_F64.slerp(a, b, t, null));
+
+			// -b is the same rotation and should take the same path
+			Quaternion_F64 negB = new Quaternion_F64(-b.w, -b.x, -b.y, -b.z);
+			assertIdentical(expected, UtilQuaternion_F64.slerp(a, negB, t, null));
+		}
+	}
+
+	/**
+	 * Tiny and zero angles should not produce NaN
+	 */
+	@Test
+	public void slerp_small() {
+		Quaternion_F64 a = randomUnit();
+		Quaternion_F64 found = UtilQuaternion_F64.slerp(a, a, 0.3, null);
+		assertIdentical(a, found);
+
+		Rodrigues_F64 rod = new Rodrigues_F64(0.000000001, 0.2, -1, 0.5);
+		rod.unitAxisRotation.normalize();
+		Quaternion_F64 b = UtilQuaternion_F64.multiply(
+				ConvertRotation3D_F64.rodriguesToQuaternion(rod, null), a, null);
+		found = UtilQuaternion_F64.slerp(a, b, 0.5, null);
+		assertIdentical(a, found);
+		assertEquals(1, UtilQuaternion_F64.norm(found), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void nlerp() {
+		Quaternion_F64 a = randomUnit();
+		Quaternion_F64 b = randomUnit();
+
+		assertIdentical(a, UtilQuaternion_F64.nlerp(a, b, 0, null));
+		Quaternion_F64 end = UtilQuaternion_F64.nlerp(a, b, 1, null);
+		// the end point might be -b
+		if( UtilQuaternion_F64.dot(end, b) < 0 )
+			end.set(-end.w, -end.x, -end.y, -end.z);
+		assertIdentical(b, end);
+
+		// middle should be the same as slerp since it's symmetric
+		Quaternion_F64 found = UtilQuaternion_F64.nlerp(a, b, 0.5, null);
+		assertEquals(1, UtilQuaternion_F64.norm(found), GrlConstants.DOUBLE_TEST_TOL);
+		assertIdentical(UtilQuaternion_F64.slerp(a, b, 0.5, null), found);
+	}
+
+	private Quaternion_F64 randomUnit() {
+		Quaternion_F64 q = new Quaternion_F64( rand.nextGaussian(), rand.nextGaussian(),
+				rand.nextGaussian(), rand.nextGaussian());
+		q.normalize();
+		return q;
+	}
+
+	private static void assertIdentical( Quaternion_F64 expected , Quaternion_F64 found ) {
+		assertEquals(expected.w, found.w, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.x, found.x, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.y, found.y, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.z, found.z, GrlConstants.DOUBLE_TEST_TOL);
+	}
+}
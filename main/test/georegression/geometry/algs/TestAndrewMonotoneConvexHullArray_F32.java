@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry.algs;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAndrewMonotoneConvexHullArray_F32 {
+
+	Random rand = new Random(2355);
+
+	/**
+	 * Compare against the object based implementation with and without the pre-filter and concurrency
+	 */
+	@Test
+	public void compareToAndrew() {
+		int sizes[] = new int[]{3, 5, 10, 100, 5000};
+		for( int N : sizes ) {
+			float x[] = new float[N];
+			float y[] = new float[N];
+			for (int i = 0; i < N; i++) {
+				x[i] = (float)rand.nextGaussian()*10;
+				y[i] = (float)rand.nextGaussian()*5;
+			}
+
+			Point2D_F32 points[] = new Point2D_F32[N];
+			for (int i = 0; i < N; i++) {
+				points[i] = new Point2D_F32(x[i], y[i]);
+			}
+			Polygon2D_F32 expected = new Polygon2D_F32();
+			new AndrewMonotoneConvexHull_F32().process(points, N, expected);
+
+			for (int config = 0; config < 4; config++) {
+				AndrewMonotoneConvexHullArray_F32 alg = new AndrewMonotoneConvexHullArray_F32(config >= 2);
+				alg.setPrefilter(config % 2 == 0);
+				alg.setMinConcurrentBlock(50);
+
+				Polygon2D_F32 found = new Polygon2D_F32();
+				alg.process(x, y, N, found);
+
+				assertTrue(expected.isIdentical(found, GrlConstants.FLOAT_TEST_TOL));
+			}
+		}
+	}
+
+	/**
+	 * The input should not be modified and the returned indexes should reference the hull points
+	 */
+	@Test
+	public void indexes() {
+		int N = 200;
+		float x[] = new float[N];
+		float y[] = new float[N];
+		for (int i = 0; i < N; i++) {
+			x[i] = rand.nextFloat()*10;
+			y[i] = rand.nextFloat()*10;
+		}
+		float origX[] = x.clone();
+		float origY[] = y.clone();
+
+		AndrewMonotoneConvexHullArray_F32 alg = new AndrewMonotoneConvexHullArray_F32();
+		GrowQueue_I32 hull = new GrowQueue_I32();
+		alg.process(x, y, N, hull);
+
+		assertArrayEquals(origX, x, 0);
+		assertArrayEquals(origY, y, 0);
+
+		Polygon2D_F32 polygon = new Polygon2D_F32();
+		alg.process(x, y, N, polygon);
+
+		assertEquals(polygon.size(), hull.size);
+		for (int i = 0; i < hull.size; i++) {
+			assertEquals(polygon.get(i).x, x[hull.get(i)], 0);
+			assertEquals(polygon.get(i).y, y[hull.get(i)], 0);
+		}
+		assertTrue(polygon.isCCW());
+		assertTrue(polygon.isConvex());
+	}
+
+	/**
+	 * All the points are on the hull, so none should be removed by the pre-filter
+	 */
+	@Test
+	public void allOnHull() {
+		int N = 50;
+		float x[] = new float[N];
+		float y[] = new float[N];
+		for (int i = 0; i < N; i++) {
+			float theta = i*GrlConstants.F_PI2/N;
+			x[i] = (float)Math.cos(theta)*3;
+			y[i] = (float)Math.sin(theta)*2;
+		}
+
+		AndrewMonotoneConvexHullArray_F32 alg = new AndrewMonotoneConvexHullArray_F32();
+		GrowQueue_I32 hull = new GrowQueue_I32();
+		alg.process(x, y, N, hull);
+
+		assertEquals(N, hull.size);
+		for (int i = 0; i < N; i++) {
+			assertTrue(hull.indexOf(i) >= 0);
+		}
+	}
+
+	/**
+	 * Points along the edges and duplicate corners should not be in the hull
+	 */
+	@Test
+	public void collinearAndDuplicates() {
+		float x[] = new float[]{0, 1, 2, 2, 2, 1, 0, 0, 1, 0, 2, 2, 1};
+		float y[] = new float[]{0, 0, 0, 1, 2, 2, 2, 1, 1, 0, 2, 0, 0};
+
+		for (int config = 0; config < 4; config++) {
+			AndrewMonotoneConvexHullArray_F32 alg = new AndrewMonotoneConvexHullArray_F32(config >= 2);
+			alg.setPrefilter(config % 2 == 0);
+			alg.setMinConcurrentBlock(3);
+
+			Polygon2D_F32 found = new Polygon2D_F32();
+			alg.process(x, y, x.length, found);
+
+			assertTrue(new Polygon2D_F32(0, 0, 2, 0, 2, 2, 0, 2).isIdentical(found, 0));
+		}
+	}
+
+	@Test
+	public void fewPoints() {
+		AndrewMonotoneConvexHullArray_F32 alg = new AndrewMonotoneConvexHullArray_F32();
+		GrowQueue_I32 hull = new GrowQueue_I32();
+
+		alg.process(new float[0], new float[0], 0, hull);
+		assertEquals(0, hull.size);
+
+		alg.process(new float[]{1}, new float[]{2}, 1, hull);
+		assertEquals(1, hull.size);
+		assertEquals(0, hull.get(0));
+
+		alg.process(new float[]{3, 1}, new float[]{2, 2}, 2, hull);
+		assertEquals(2, hull.size);
+		assertEquals(1, hull.get(0));
+		assertEquals(0, hull.get(1));
+	}
+}
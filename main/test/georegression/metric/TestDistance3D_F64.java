@@ -25,6 +25,7 @@ import georegression.struct.line.LineSegment3D_F64;
 import georegression.struct.plane.PlaneGeneral3D_F64;
 import georegression.struct.plane.PlaneNormal3D_F64;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.point.Vector3D_F64;
 import georegression.struct.shapes.Cylinder3D_F64;
 import georegression.struct.shapes.Sphere3D_F64;
@@ -144,6 +145,25 @@ public class TestDistance3D_F64 {
 		assertEquals(1,found, GrlConstants.DOUBLE_TEST_TOL);
 	}
 
+	@Test
+	public void distance_plane_cloud() {
+		PlaneNormal3D_F64 n = new PlaneNormal3D_F64(3,4,-5,3,4,-5);
+		PlaneGeneral3D_F64 g = UtilPlane3D_F64.convert(n, null);
+
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+		cloud.add(0,0,0);
+		cloud.add(3,4,-5);
+		cloud.add(1,-2,6);
+
+		double found[] = Distance3D_F64.distance(g,cloud,null);
+
+		assertEquals(3,found.length);
+		for (int i = 0; i < cloud.size; i++) {
+			double expected = Distance3D_F64.distance(g,cloud.get(i,null));
+			assertEquals(expected,found[i], GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
 	@Test
 	public void distance_sphere_point() {
 
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBentleyOttmannIntersection2D_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against testing every pair on randomly generated segments
+	 */
+	@Test
+	public void compareToBruteForce_random() {
+		BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+
+		for (int trial = 0; trial < 20; trial++) {
+			List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+			for (int i = 0; i < 200; i++) {
+				float x = rand.nextFloat()*100;
+				float y = rand.nextFloat()*100;
+				segments.add(new LineSegment2D_F32(x, y,
+						x + (float)rand.nextGaussian()*15, y + (float)rand.nextGaussian()*15));
+			}
+
+			alg.process(segments, null);
+			compare(segments, alg, GrlConstants.FLOAT_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Small integer coordinates create lots of shared end points, T-junctions, vertical segments and
+	 * several segments which intersect at the same point
+	 */
+	@Test
+	public void compareToBruteForce_degenerate() {
+		BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+
+		for (int trial = 0; trial < 200; trial++) {
+			List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+			for (int i = 0; i < 30; i++) {
+				segments.add(new LineSegment2D_F32(rand.nextInt(8), rand.nextInt(8), rand.nextInt(8), rand.nextInt(8)));
+			}
+
+			alg.process(segments, null);
+			compare(segments, alg, GrlConstants.FLOAT_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Grid of horizontal and vertical lines.  Every horizontal line intersects every vertical line
+	 */
+	@Test
+	public void grid() {
+		List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+		for (int i = 0; i < 10; i++) {
+			segments.add(new LineSegment2D_F32(0, i, 9, i));
+			segments.add(new LineSegment2D_F32(i, 0, i, 9));
+		}
+
+		BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+		alg.process(segments, null);
+		assertEquals(100, alg.getNumIntersections());
+		compare(segments, alg, GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Many lines which pass through the same point
+	 */
+	@Test
+	public void commonPoint() {
+		List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+		for (int i = 0; i < 12; i++) {
+			float theta = GrlConstants.F_PI*i/12.0f;
+			float c = (float)Math.cos(theta)*5, s = (float)Math.sin(theta)*5;
+			segments.add(new LineSegment2D_F32(1 + c, 2 + s, 1 - c, 2 - s));
+		}
+
+		BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+		alg.process(segments, null);
+		assertEquals(12*11/2, alg.getNumIntersections());
+
+		Point2D_F32 p = new Point2D_F32();
+		for (int i = 0; i < alg.getNumIntersections(); i++) {
+			alg.getPoint(i, p);
+			assertEquals(1, p.x, GrlConstants.FLOAT_TEST_TOL_SQRT);
+			assertEquals(2, p.y, GrlConstants.FLOAT_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Touching end points, T-junctions, parallel, and zero length segments
+	 */
+	@Test
+	public void specialCases() {
+		List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+		// polyline with shared end points
+		segments.add(new LineSegment2D_F32(0, 0, 2, 2));
+		segments.add(new LineSegment2D_F32(2, 2, 4, 0));
+		// T-junction on the first segment
+		segments.add(new LineSegment2D_F32(1, 1, 1, -3));
+		// collinear with the first segment and overlapping.  not reported
+		segments.add(new LineSegment2D_F32(0.5f, 0.5f, 1.5f, 1.5f));
+		// zero length on top of the second segment
+		segments.add(new LineSegment2D_F32(3, 1, 3, 1));
+
+		BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+		alg.process(segments, null);
+
+		Map<Long,Point2D_F32> found = toMap(alg);
+		assertEquals(3, found.size());
+		assertEquals(0, found.get(key(0, 1)).distance(2, 2), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(0, found.get(key(0, 2)).distance(1, 1), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(0, found.get(key(2, 3)).distance(1, 1), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Three segments almost meet at the same point, which made the order along the sweep line depend on the
+	 * shape of the tree.  The instance is reused to make sure the results don't change between calls
+	 */
+	@Test
+	public void nearlyCommonPoint_reuse() {
+		List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+		segments.add(new LineSegment2D_F32(1.5f, 0.7000000000000001f, 0.9f, 0.9f));
+		segments.add(new LineSegment2D_F32(0.8f, 0.6000000000000001f, 1.0f, 1.2000000000000002f));
+		segments.add(new LineSegment2D_F32(0.7000000000000001f, 1.5f, 1.0f, 0.6000000000000001f));
+		segments.add(new LineSegment2D_F32(0.4f, 1.0f, 1.2000000000000002f, 1.1f));
+
+		BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+		for (int trial = 0; trial < 200; trial++) {
+			alg.process(segments, null);
+			Map<Long,Point2D_F32> found = toMap(alg);
+			assertTrue(found.containsKey(key(1, 3)));
+			compare(segments, alg, GrlConstants.FLOAT_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Results passed to the listener should be the same as the saved results
+	 */
+	@Test
+	public void listener() {
+		float data[] = new float[4*300];
+		List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+		for (int i = 0; i < 300; i++) {
+			float x = rand.nextFloat()*100;
+			float y = rand.nextFloat()*100;
+			LineSegment2D_F32 s = new LineSegment2D_F32(x, y,
+					x + (float)rand.nextGaussian()*10, y + (float)rand.nextGaussian()*10);
+			segments.add(s);
+			data[i*4] = s.a.x; data[i*4+1] = s.a.y; data[i*4+2] = s.b.x; data[i*4+3] = s.b.y;
+		}
+
+		BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+		alg.process(segments, null);
+		Map<Long,Point2D_F32> expected = toMap(alg);
+		assertTrue(expected.size() > 0);
+
+		final Map<Long,Point2D_F32> found = new HashMap<Long,Point2D_F32>();
+		alg.process(data, 300, new BentleyOttmannIntersection2D_F32.Listener() {
+			@Override
+			public void intersection(int segmentA, int segmentB, float x, float y) {
+				assertTrue(segmentA < segmentB);
+				assertNull(found.put(key(segmentA, segmentB), new Point2D_F32(x, y)));
+			}
+		});
+		// results are only saved when there is no listener
+		assertEquals(0, alg.getNumIntersections());
+
+		assertEquals(expected.size(), found.size());
+		for( Long k : expected.keySet() ) {
+			assertEquals(0, expected.get(k).distance(found.get(k)), GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	/**
+	 * When the results are streamed the memory used shouldn't grow with the number of intersections.  In a grid
+	 * only the intersections along one column are close to each other
+	 */
+	@Test
+	public void listener_memory() {
+		int N = 100;
+		float data[] = new float[4*2*N];
+		for (int i = 0; i < N; i++) {
+			data[i*8  ] = -1; data[i*8+1] = i; data[i*8+2] = N; data[i*8+3] = i;
+			data[i*8+4] = i; data[i*8+5] = -1; data[i*8+6] = i; data[i*8+7] = N;
+		}
+
+		final int count[] = new int[1];
+		BentleyOttmannIntersection2D_F32 alg = new BentleyOttmannIntersection2D_F32();
+		alg.process(data, 2*N, new BentleyOttmannIntersection2D_F32.Listener() {
+			@Override
+			public void intersection(int segmentA, int segmentB, float x, float y) {
+				count[0]++;
+			}
+		});
+
+		assertEquals(N*N, count[0]);
+		assertTrue(alg.reported.length <= 16*N);
+	}
+
+	private void compare( List<LineSegment2D_F32> segments , BentleyOttmannIntersection2D_F32 alg , float tol ) {
+		Map<Long,Point2D_F32> found = toMap(alg);
+		assertEquals(alg.getNumIntersections(), found.size());
+
+		int total = 0;
+		Point2D_F32 p = new Point2D_F32();
+		for (int i = 0; i < segments.size(); i++) {
+			LineSegment2D_F32 a = segments.get(i);
+			if( a.a.x == a.b.x && a.a.y == a.b.y )
+				continue;
+			for (int j = i+1; j < segments.size(); j++) {
+				LineSegment2D_F32 b = segments.get(j);
+				if( b.a.x == b.b.x && b.a.y == b.b.y )
+					continue;
+				if( Intersection2D_F32.intersection(a, b, p) == null )
+					continue;
+				total++;
+				Point2D_F32 f = found.get(key(i, j));
+				assertNotNull(f);
+				assertEquals(0, f.distance(p), tol);
+			}
+		}
+		assertEquals(total, found.size());
+	}
+
+	private static Map<Long,Point2D_F32> toMap( BentleyOttmannIntersection2D_F32 alg ) {
+		Map<Long,Point2D_F32> found = new HashMap<Long,Point2D_F32>();
+		for (int i = 0; i < alg.getNumIntersections(); i++) {
+			assertTrue(alg.getSegmentA(i) < alg.getSegmentB(i));
+			found.put(key(alg.getSegmentA(i), alg.getSegmentB(i)), alg.getPoint(i, null));
+		}
+		return found;
+	}
+
+	private static long key( int a , int b ) {
+		return ((long)a << 32) | b;
+	}
+}
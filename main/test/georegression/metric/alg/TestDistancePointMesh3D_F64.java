@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.IndexedMesh3D_F64;
+import georegression.struct.shapes.TestIndexedMesh3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistancePointMesh3D_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against checking every triangle
+	 */
+	@Test
+	public void closestPoint_bruteForce() {
+		List<Triangle3D_F64> triangles = randomTriangles(500);
+		DistancePointMesh3D_F64 alg = new DistancePointMesh3D_F64();
+		alg.setMesh(triangles);
+
+		DistancePointTriangle3D_F64 check = new DistancePointTriangle3D_F64();
+		Point3D_F64 expected = new Point3D_F64();
+		Point3D_F64 found = new Point3D_F64();
+		for (int trial = 0; trial < 300; trial++) {
+			Point3D_F64 p = new Point3D_F64( rand.nextGaussian()*8, rand.nextGaussian()*8, rand.nextGaussian()*8);
+
+			int expectedFace = bruteForce(triangles, p, expected);
+			int foundFace = alg.closestPoint(p, found);
+
+			double expectedDistance = p.distance(expected);
+			assertEquals(expectedDistance, alg.getDistance(), GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expectedDistance, p.distance(found), GrlConstants.DOUBLE_TEST_TOL);
+
+			// ties are possible so check the distance to the face which was found
+			Triangle3D_F64 t = triangles.get(foundFace);
+			check.setTriangle(t.v0, t.v1, t.v2);
+			check.closestPoint(p, expected);
+			assertEquals(expectedDistance, p.distance(expected), GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(check.sign(p), alg.getSign(), 0);
+			if( foundFace != expectedFace )
+				assertEquals(0, found.distance(expected), GrlConstants.DOUBLE_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Points are inside and outside of a cube with faces pointing outwards
+	 */
+	@Test
+	public void cube_sign() {
+		IndexedMesh3D_F64 mesh = TestIndexedMesh3D_F64.createCube();
+		DistancePointMesh3D_F64 alg = new DistancePointMesh3D_F64();
+		alg.setMesh(mesh);
+
+		Point3D_F64 found = new Point3D_F64();
+
+		// just inside of a face
+		int face = alg.closestPoint(new Point3D_F64(0.1, 0.2, 0.9), found);
+		assertTrue(face >= 0);
+		assertEquals(0.1, alg.getDistance(), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0, found.distance(new Point3D_F64(0.1, 0.2, 1)), GrlConstants.DOUBLE_TEST_TOL);
+		double inside = alg.getSign();
+
+		// just outside of the same face
+		alg.closestPoint(new Point3D_F64(0.1, 0.2, 1.5), found);
+		assertEquals(0.5, alg.getDistance(), GrlConstants.DOUBLE_TEST_TOL);
+		double outside = alg.getSign();
+
+		assertTrue(inside != 0);
+		assertEquals(-inside, outside, 0);
+
+		// every side should be consistent
+		for (int trial = 0; trial < 50; trial++) {
+			int axis = rand.nextInt(3);
+			double s = rand.nextBoolean() ? 1 : -1;
+			double a = rand.nextDouble()*1.4 - 0.7, b = rand.nextDouble()*1.4 - 0.7;
+			double depth = 0.05 + rand.nextDouble()*0.2;
+			for( double offset : new double[]{-depth,depth} ) {
+				double c = s*(1 + offset);
+				Point3D_F64 p = axis == 0 ? new Point3D_F64(c, a, b) :
+						(axis == 1 ? new Point3D_F64(a, c, b) : new Point3D_F64(a, b, c));
+				alg.closestPoint(p, found);
+				assertEquals(depth, alg.getDistance(), GrlConstants.DOUBLE_TEST_TOL);
+				assertEquals(offset < 0 ? inside : outside, alg.getSign(), 0);
+			}
+		}
+	}
+
+	/**
+	 * When the closest point is a vertex shared by several faces, the face with the lowest index should be
+	 * found no matter which face the previous search ended on
+	 */
+	@Test
+	public void sharedVertex_tie() {
+		IndexedMesh3D_F64 mesh = TestIndexedMesh3D_F64.createCube();
+		DistancePointMesh3D_F64 alg = new DistancePointMesh3D_F64();
+		alg.setMesh(mesh);
+
+		List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+		for (int i = 0; i < mesh.numFaces; i++) {
+			triangles.add(mesh.getFace(i).copy());
+		}
+
+		Point3D_F64 corner = new Point3D_F64(1.5, 1.5, 1.5);
+		int expected = bruteForce(triangles, corner, new Point3D_F64());
+
+		alg.closestPoint(corner, null);
+		double expectedSign = alg.getSign();
+
+		for (int i = 0; i < triangles.size(); i++) {
+			// start the search from a different face each time
+			Triangle3D_F64 t = triangles.get(i);
+			Point3D_F64 center = new Point3D_F64(
+					(t.v0.x + t.v1.x + t.v2.x)/3, (t.v0.y + t.v1.y + t.v2.y)/3, (t.v0.z + t.v1.z + t.v2.z)/3);
+			assertEquals(i, alg.closestPoint(center, null));
+
+			assertEquals(expected, alg.closestPoint(corner, null));
+			assertEquals(expectedSign, alg.getSign(), 0);
+		}
+	}
+
+	@Test
+	public void empty() {
+		DistancePointMesh3D_F64 alg = new DistancePointMesh3D_F64();
+		alg.setMesh(new ArrayList<Triangle3D_F64>());
+		assertEquals(-1, alg.closestPoint(new Point3D_F64(1, 2, 3), null));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void empty_sign() {
+		DistancePointMesh3D_F64 alg = new DistancePointMesh3D_F64();
+		alg.setMesh(new ArrayList<Triangle3D_F64>());
+		alg.closestPoint(new Point3D_F64(1, 2, 3), null);
+		alg.getSign();
+	}
+
+	/**
+	 * Batch results should be the same as processing each point individually, with and without threads
+	 */
+	@Test
+	public void closestPoints_batch() {
+		List<Triangle3D_F64> triangles = randomTriangles(2000);
+
+		int N = 3000;
+		double points[] = new double[N*3];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = rand.nextGaussian()*8;
+		}
+
+		DistancePointMesh3D_F64 single = new DistancePointMesh3D_F64();
+		single.setMesh(triangles);
+
+		for( boolean concurrent : new boolean[]{false,true}) {
+			DistancePointMesh3D_F64 alg = new DistancePointMesh3D_F64();
+			alg.setConcurrent(concurrent);
+			alg.setMesh(triangles);
+
+			int faces[] = new int[N];
+			double distances[] = new double[N];
+			double closest[] = new double[N*3];
+			double signs[] = new double[N];
+			alg.closestPoints(points, N, faces, distances, closest, signs);
+
+			Point3D_F64 p = new Point3D_F64();
+			Point3D_F64 found = new Point3D_F64();
+			for (int i = 0; i < N; i++) {
+				p.set(points[i*3], points[i*3+1], points[i*3+2]);
+				int face = single.closestPoint(p, found);
+				assertEquals(single.getDistance(), distances[i], GrlConstants.DOUBLE_TEST_TOL);
+				assertEquals(single.getDistance(), p.distance(
+						new Point3D_F64(closest[i*3], closest[i*3+1], closest[i*3+2])), GrlConstants.DOUBLE_TEST_TOL);
+				if( face == faces[i] )
+					assertEquals(single.getSign(), signs[i], 0);
+			}
+
+			// optional outputs can be skipped
+			alg.closestPoints(points, N, null, distances, null, null);
+		}
+	}
+
+	private int bruteForce( List<Triangle3D_F64> triangles , Point3D_F64 p , Point3D_F64 closest ) {
+		DistancePointTriangle3D_F64 alg = new DistancePointTriangle3D_F64();
+		Point3D_F64 c = new Point3D_F64();
+		double bestDistance = Double.MAX_VALUE;
+		int best = -1;
+		for (int i = 0; i < triangles.size(); i++) {
+			Triangle3D_F64 t = triangles.get(i);
+			alg.setTriangle(t.v0, t.v1, t.v2);
+			alg.closestPoint(p, c);
+			double d = p.distance(c);
+			if( d < bestDistance ) {
+				bestDistance = d;
+				best = i;
+				closest.set(c);
+			}
+		}
+		return best;
+	}
+
+	private List<Triangle3D_F64> randomTriangles( int count ) {
+		List<Triangle3D_F64> list = new ArrayList<Triangle3D_F64>();
+		for (int i = 0; i < count; i++) {
+			double x = rand.nextDouble()*20 - 10;
+			double y = rand.nextDouble()*20 - 10;
+			double z = rand.nextDouble()*20 - 10;
+			list.add(new Triangle3D_F64(x, y, z,
+					x + rand.nextGaussian()*2, y + rand.nextGaussian()*2, z + rand.nextGaussian()*2,
+					x + rand.nextGaussian()*2, y + rand.nextGaussian()*2, z + rand.nextGaussian()*2));
+		}
+		return list;
+	}
+}
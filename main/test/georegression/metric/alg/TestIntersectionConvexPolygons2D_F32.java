@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.geometry.UtilPolygons2D_F32;
+import georegression.metric.Area2D_F32;
+import georegression.metric.Intersection2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import georegression.struct.shapes.Quadrilateral_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIntersectionConvexPolygons2D_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against the intersection of two axis aligned rectangles
+	 */
+	@Test
+	public void rectangles() {
+		IntersectionConvexPolygons2D_F32 alg = new IntersectionConvexPolygons2D_F32();
+
+		for (int trial = 0; trial < 50; trial++) {
+			Rectangle2D_F32 ra = randomRectangle();
+			Rectangle2D_F32 rb = randomRectangle();
+
+			Polygon2D_F32 a = new Polygon2D_F32(4);
+			Polygon2D_F32 b = new Polygon2D_F32(4);
+			UtilPolygons2D_F32.convert(ra, a);
+			UtilPolygons2D_F32.convert(rb, b);
+			// make sure the order doesn't matter
+			if( trial % 2 == 0 )
+				b.flip();
+
+			float expected = Intersection2D_F32.intersectionArea(ra, rb);
+			assertEquals(expected, alg.area(a, b), GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected, alg.area(b, a), GrlConstants.FLOAT_TEST_TOL);
+
+			Polygon2D_F32 found = new Polygon2D_F32();
+			assertEquals(expected > 0, alg.intersection(a, b, found));
+			if( expected > 0 )
+				assertEquals(expected, Area2D_F32.polygonSimple(found), GrlConstants.FLOAT_TEST_TOL);
+			else
+				assertEquals(0, found.size());
+		}
+	}
+
+	/**
+	 * Rotated squares have a known intersection area
+	 */
+	@Test
+	public void octagon() {
+		IntersectionConvexPolygons2D_F32 alg = new IntersectionConvexPolygons2D_F32();
+
+		// unit square centered at the origin and the same square rotated by 45 degrees
+		float r = (float)Math.sqrt(0.5f);
+		Quadrilateral_F32 a = new Quadrilateral_F32(-0.5f, -0.5f, 0.5f, -0.5f, 0.5f, 0.5f, -0.5f, 0.5f);
+		Quadrilateral_F32 b = new Quadrilateral_F32(r, 0, 0, r, -r, 0, 0, -r);
+
+		// area of a regular octagon
+		float side = 2*(r - 0.5f);
+		float expected = 1 - side*side;
+
+		Polygon2D_F32 found = new Polygon2D_F32();
+		assertTrue(alg.intersection(a, b, found));
+		assertEquals(8, found.size());
+		assertTrue(found.isConvex());
+		assertEquals(expected, Area2D_F32.polygonSimple(found), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(expected, alg.area(a, b), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(expected/(2 - expected), alg.iou(a, b), GrlConstants.FLOAT_TEST_TOL);
+
+		// every vertex should be inside of both polygons
+		for (int i = 0; i < found.size(); i++) {
+			Point2D_F32 p = found.get(i);
+			assertTrue(Math.abs(p.x) <= 0.5f + GrlConstants.FLOAT_TEST_TOL);
+			assertTrue(Math.abs(p.x) + (float)Math.abs(p.y) <= r + GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void contained() {
+		IntersectionConvexPolygons2D_F32 alg = new IntersectionConvexPolygons2D_F32();
+
+		Polygon2D_F32 outer = new Polygon2D_F32(0, 0, 10, 0, 10, 10, 0, 10);
+		Polygon2D_F32 inner = new Polygon2D_F32(2, 2, 5, 2, 3, 6);
+
+		float area = Area2D_F32.polygonSimple(inner);
+		assertEquals(area, alg.area(outer, inner), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(area, alg.area(inner, outer), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(area/100, alg.iou(outer, inner), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(1, alg.iou(inner, inner), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void noIntersection() {
+		IntersectionConvexPolygons2D_F32 alg = new IntersectionConvexPolygons2D_F32();
+
+		// bounding boxes overlap but the polygons don't
+		Polygon2D_F32 a = new Polygon2D_F32(0, 0, 4, 0, 0, 4);
+		Polygon2D_F32 b = new Polygon2D_F32(4, 4, 3, 4, 4, 3);
+
+		Polygon2D_F32 found = new Polygon2D_F32(3);
+		assertFalse(alg.intersection(a, b, found));
+		assertEquals(0, found.size());
+		assertEquals(0, alg.area(a, b), 0);
+		assertEquals(0, alg.iou(a, b), 0);
+	}
+
+	/**
+	 * Polygons with many vertexes
+	 */
+	@Test
+	public void regularPolygons() {
+		IntersectionConvexPolygons2D_F32 alg = new IntersectionConvexPolygons2D_F32();
+
+		Polygon2D_F32 a = regular(50, 0, 0, 1);
+		Polygon2D_F32 b = regular(70, 0, 0, 1);
+		Polygon2D_F32 c = regular(30, 10, 0, 1);
+
+		float areaA = Area2D_F32.polygonSimple(a);
+		assertTrue(alg.area(a, b) <= areaA);
+		assertTrue(alg.area(a, b) > areaA*0.99f);
+		assertEquals(0, alg.area(a, c), 0);
+	}
+
+	@Test
+	public void iouMatrix() {
+		List<Quadrilateral_F32> setA = new ArrayList<Quadrilateral_F32>();
+		List<Quadrilateral_F32> setB = new ArrayList<Quadrilateral_F32>();
+		for (int i = 0; i < 30; i++) {
+			setA.add(randomBox());
+		}
+		for (int i = 0; i < 20; i++) {
+			setB.add(randomBox());
+		}
+
+		IntersectionConvexPolygons2D_F32 check = new IntersectionConvexPolygons2D_F32();
+		for( boolean concurrent : new boolean[]{false, true} ) {
+			IntersectionConvexPolygons2D_F32 alg = new IntersectionConvexPolygons2D_F32(concurrent);
+			float found[] = new float[setA.size()*setB.size()];
+			alg.iouMatrix(setA, setB, found);
+
+			int nonZero = 0;
+			for (int i = 0; i < setA.size(); i++) {
+				for (int j = 0; j < setB.size(); j++) {
+					float expected = check.iou(setA.get(i), setB.get(j));
+					assertEquals(expected, found[i*setB.size() + j], GrlConstants.FLOAT_TEST_TOL);
+					if( expected > 0 )
+						nonZero++;
+				}
+			}
+			assertTrue(nonZero > 0);
+		}
+	}
+
+	private Rectangle2D_F32 randomRectangle() {
+		float x = rand.nextFloat()*5, y = rand.nextFloat()*5;
+		return new Rectangle2D_F32(x, y, x + 0.5f + rand.nextFloat()*3, y + 0.5f + rand.nextFloat()*3);
+	}
+
+	/**
+	 * Randomly rotated box
+	 */
+	private Quadrilateral_F32 randomBox() {
+		float cx = rand.nextFloat()*10, cy = rand.nextFloat()*10;
+		float w = 1 + rand.nextFloat()*2, h = 1 + rand.nextFloat()*2;
+		float theta = rand.nextFloat()*GrlConstants.F_PI;
+		float c = (float)Math.cos(theta), s = (float)Math.sin(theta);
+
+		Quadrilateral_F32 q = new Quadrilateral_F32();
+		q.a.set(cx + c*w - s*h, cy + s*w + c*h);
+		q.b.set(cx - c*w - s*h, cy - s*w + c*h);
+		q.c.set(cx - c*w + s*h, cy - s*w - c*h);
+		q.d.set(cx + c*w + s*h, cy + s*w - c*h);
+		return q;
+	}
+
+	private Polygon2D_F32 regular( int N , float cx , float cy , float r ) {
+		Polygon2D_F32 polygon = new Polygon2D_F32(N);
+		for (int i = 0; i < N; i++) {
+			float theta = i*GrlConstants.F_PI2/N;
+			polygon.set(i, cx + (float)Math.cos(theta)*r, cy + (float)Math.sin(theta)*r);
+		}
+		return polygon;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Box3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedRTreeBox3D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void search() {
+		List<Box3D_F32> boxes = randomBoxes(500);
+		PackedRTreeBox3D_F32 alg = new PackedRTreeBox3D_F32();
+		alg.build(boxes);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		for (int trial = 0; trial < 20; trial++) {
+			Box3D_F32 query = randomBoxes(1).get(0);
+			alg.search(query, found);
+
+			int total = 0;
+			for (int i = 0; i < boxes.size(); i++) {
+				if( Intersection3D_F32.intersect(query, boxes.get(i)) ) {
+					total++;
+					assertTrue(found.indexOf(i) >= 0);
+				}
+			}
+			assertEquals(total, found.size);
+		}
+	}
+
+	@Test
+	public void nearest() {
+		List<Box3D_F32> boxes = new ArrayList<Box3D_F32>();
+		boxes.add(new Box3D_F32(0, 0, 0, 1, 1, 1));
+		boxes.add(new Box3D_F32(5, 5, 5, 6, 7, 6));
+		boxes.add(new Box3D_F32(10, 0, 0, 11, 1, 1));
+
+		PackedRTreeBox3D_F32 alg = new PackedRTreeBox3D_F32(2);
+		alg.build(boxes);
+
+		assertEquals(0, alg.nearest(-1, 0.5f, 0.5f));
+		assertEquals(1, alg.nearest(5.5f, 6, 5.5f));
+		assertEquals(2, alg.nearest(20, 0.5f, 0.5f));
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		alg.nearest(new Point3D_F32(9, 0.5f, 0.5f), 2, indexes, null);
+		assertEquals(2, indexes.size);
+		assertEquals(2, indexes.get(0));
+		assertEquals(1, indexes.get(1));
+
+		alg.build(new ArrayList<Box3D_F32>());
+		assertEquals(-1, alg.nearest(0, 0, 0));
+	}
+
+	@Test
+	public void join() {
+		List<Box3D_F32> setA = randomBoxes(300);
+		List<Box3D_F32> setB = randomBoxes(200);
+
+		PackedRTreeBox3D_F32 treeA = new PackedRTreeBox3D_F32();
+		PackedRTreeBox3D_F32 treeB = new PackedRTreeBox3D_F32();
+		treeA.build(setA);
+		treeB.build(setB);
+
+		final Set<Long> found = new HashSet<Long>();
+		treeA.join(treeB, new PackedRTree_F32.Listener() {
+			@Override
+			public void overlap(int indexA, int indexB) {
+				found.add(((long)indexA << 32) | indexB);
+			}
+		});
+
+		int total = 0;
+		for (int i = 0; i < setA.size(); i++) {
+			for (int j = 0; j < setB.size(); j++) {
+				if( Intersection3D_F32.intersect(setA.get(i), setB.get(j)) ) {
+					total++;
+					assertTrue(found.contains(((long)i << 32) | j));
+				}
+			}
+		}
+		assertEquals(total, found.size());
+	}
+
+	private List<Box3D_F32> randomBoxes( int count ) {
+		List<Box3D_F32> list = new ArrayList<Box3D_F32>();
+		for (int i = 0; i < count; i++) {
+			float x = rand.nextFloat()*100, y = rand.nextFloat()*100, z = rand.nextFloat()*100;
+			list.add(new Box3D_F32(x, y, z, x + rand.nextFloat()*20, y + rand.nextFloat()*20, z + rand.nextFloat()*20));
+		}
+		return list;
+	}
+}
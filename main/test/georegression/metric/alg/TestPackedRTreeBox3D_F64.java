@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedRTreeBox3D_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void search() {
+		List<Box3D_F64> boxes = randomBoxes(500);
+		PackedRTreeBox3D_F64 alg = new PackedRTreeBox3D_F64();
+		alg.build(boxes);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		for (int trial = 0; trial < 20; trial++) {
+			Box3D_F64 query = randomBoxes(1).get(0);
+			alg.search(query, found);
+
+			int total = 0;
+			for (int i = 0; i < boxes.size(); i++) {
+				if( Intersection3D_F64.intersect(query, boxes.get(i)) ) {
+					total++;
+					assertTrue(found.indexOf(i) >= 0);
+				}
+			}
+			assertEquals(total, found.size);
+		}
+	}
+
+	@Test
+	public void nearest() {
+		List<Box3D_F64> boxes = new ArrayList<Box3D_F64>();
+		boxes.add(new Box3D_F64(0, 0, 0, 1, 1, 1));
+		boxes.add(new Box3D_F64(5, 5, 5, 6, 7, 6));
+		boxes.add(new Box3D_F64(10, 0, 0, 11, 1, 1));
+
+		PackedRTreeBox3D_F64 alg = new PackedRTreeBox3D_F64(2);
+		alg.build(boxes);
+
+		assertEquals(0, alg.nearest(-1, 0.5, 0.5));
+		assertEquals(1, alg.nearest(5.5, 6, 5.5));
+		assertEquals(2, alg.nearest(20, 0.5, 0.5));
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		alg.nearest(new Point3D_F64(9, 0.5, 0.5), 2, indexes, null);
+		assertEquals(2, indexes.size);
+		assertEquals(2, indexes.get(0));
+		assertEquals(1, indexes.get(1));
+
+		alg.build(new ArrayList<Box3D_F64>());
+		assertEquals(-1, alg.nearest(0, 0, 0));
+	}
+
+	@Test
+	public void join() {
+		List<Box3D_F64> setA = randomBoxes(300);
+		List<Box3D_F64> setB = randomBoxes(200);
+
+		PackedRTreeBox3D_F64 treeA = new PackedRTreeBox3D_F64();
+		PackedRTreeBox3D_F64 treeB = new PackedRTreeBox3D_F64();
+		treeA.build(setA);
+		treeB.build(setB);
+
+		final Set<Long> found = new HashSet<Long>();
+		treeA.join(treeB, new PackedRTree_F64.Listener() {
+			@Override
+			public void overlap(int indexA, int indexB) {
+				found.add(((long)indexA << 32) | indexB);
+			}
+		});
+
+		int total = 0;
+		for (int i = 0; i < setA.size(); i++) {
+			for (int j = 0; j < setB.size(); j++) {
+				if( Intersection3D_F64.intersect(setA.get(i), setB.get(j)) ) {
+					total++;
+					assertTrue(found.contains(((long)i << 32) | j));
+				}
+			}
+		}
+		assertEquals(total, found.size());
+	}
+
+	private List<Box3D_F64> randomBoxes( int count ) {
+		List<Box3D_F64> list = new ArrayList<Box3D_F64>();
+		for (int i = 0; i < count; i++) {
+			double x = rand.nextDouble()*100, y = rand.nextDouble()*100, z = rand.nextDouble()*100;
+			list.add(new Box3D_F64(x, y, z, x + rand.nextDouble()*20, y + rand.nextDouble()*20, z + rand.nextDouble()*20));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedRTreeRectangle2D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void search() {
+		List<Rectangle2D_F32> rectangles = randomRectangles(500);
+		PackedRTreeRectangle2D_F32 alg = new PackedRTreeRectangle2D_F32();
+		alg.build(rectangles);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		for (int trial = 0; trial < 20; trial++) {
+			Rectangle2D_F32 window = randomRectangles(1).get(0);
+			alg.search(window, found);
+
+			int total = 0;
+			for (int i = 0; i < rectangles.size(); i++) {
+				if( Intersection2D_F32.intersects(window, rectangles.get(i)) ) {
+					total++;
+					assertTrue(found.indexOf(i) >= 0);
+				}
+			}
+			assertEquals(total, found.size);
+		}
+	}
+
+	@Test
+	public void nearest() {
+		List<Rectangle2D_F32> rectangles = new ArrayList<Rectangle2D_F32>();
+		rectangles.add(new Rectangle2D_F32(0, 0, 1, 1));
+		rectangles.add(new Rectangle2D_F32(5, 5, 6, 7));
+		rectangles.add(new Rectangle2D_F32(10, 0, 11, 1));
+
+		PackedRTreeRectangle2D_F32 alg = new PackedRTreeRectangle2D_F32(2);
+		alg.build(rectangles);
+
+		assertEquals(0, alg.nearest(-1, 0.5f));
+		assertEquals(1, alg.nearest(5.5f, 6));
+		assertEquals(2, alg.nearest(20, 0.5f));
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		alg.nearest(new Point2D_F32(9, 0.5f), 2, indexes, null);
+		assertEquals(2, indexes.size);
+		assertEquals(2, indexes.get(0));
+		assertEquals(1, indexes.get(1));
+
+		alg.build(new ArrayList<Rectangle2D_F32>());
+		assertEquals(-1, alg.nearest(0, 0));
+	}
+
+	@Test
+	public void join() {
+		List<Rectangle2D_F32> setA = randomRectangles(300);
+		List<Rectangle2D_F32> setB = randomRectangles(200);
+
+		PackedRTreeRectangle2D_F32 treeA = new PackedRTreeRectangle2D_F32();
+		PackedRTreeRectangle2D_F32 treeB = new PackedRTreeRectangle2D_F32();
+		treeA.build(setA);
+		treeB.build(setB);
+
+		final Set<Long> found = new HashSet<Long>();
+		treeA.join(treeB, new PackedRTree_F32.Listener() {
+			@Override
+			public void overlap(int indexA, int indexB) {
+				found.add(((long)indexA << 32) | indexB);
+			}
+		});
+
+		int total = 0;
+		for (int i = 0; i < setA.size(); i++) {
+			for (int j = 0; j < setB.size(); j++) {
+				if( Intersection2D_F32.intersects(setA.get(i), setB.get(j)) ) {
+					total++;
+					assertTrue(found.contains(((long)i << 32) | j));
+				}
+			}
+		}
+		assertEquals(total, found.size());
+	}
+
+	private List<Rectangle2D_F32> randomRectangles( int count ) {
+		List<Rectangle2D_F32> list = new ArrayList<Rectangle2D_F32>();
+		for (int i = 0; i < count; i++) {
+			float x = rand.nextFloat()*100, y = rand.nextFloat()*100;
+			list.add(new Rectangle2D_F32(x, y, x + rand.nextFloat()*10, y + rand.nextFloat()*10));
+		}
+		return list;
+	}
+}
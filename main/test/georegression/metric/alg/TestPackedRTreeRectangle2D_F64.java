@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedRTreeRectangle2D_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void search() {
+		List<Rectangle2D_F64> rectangles = randomRectangles(500);
+		PackedRTreeRectangle2D_F64 alg = new PackedRTreeRectangle2D_F64();
+		alg.build(rectangles);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		for (int trial = 0; trial < 20; trial++) {
+			Rectangle2D_F64 window = randomRectangles(1).get(0);
+			alg.search(window, found);
+
+			int total = 0;
+			for (int i = 0; i < rectangles.size(); i++) {
+				if( Intersection2D_F64.intersects(window, rectangles.get(i)) ) {
+					total++;
+					assertTrue(found.indexOf(i) >= 0);
+				}
+			}
+			assertEquals(total, found.size);
+		}
+	}
+
+	@Test
+	public void nearest() {
+		List<Rectangle2D_F64> rectangles = new ArrayList<Rectangle2D_F64>();
+		rectangles.add(new Rectangle2D_F64(0, 0, 1, 1));
+		rectangles.add(new Rectangle2D_F64(5, 5, 6, 7));
+		rectangles.add(new Rectangle2D_F64(10, 0, 11, 1));
+
+		PackedRTreeRectangle2D_F64 alg = new PackedRTreeRectangle2D_F64(2);
+		alg.build(rectangles);
+
+		assertEquals(0, alg.nearest(-1, 0.5));
+		assertEquals(1, alg.nearest(5.5, 6));
+		assertEquals(2, alg.nearest(20, 0.5));
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		alg.nearest(new Point2D_F64(9, 0.5), 2, indexes, null);
+		assertEquals(2, indexes.size);
+		assertEquals(2, indexes.get(0));
+		assertEquals(1, indexes.get(1));
+
+		alg.build(new ArrayList<Rectangle2D_F64>());
+		assertEquals(-1, alg.nearest(0, 0));
+	}
+
+	@Test
+	public void join() {
+		List<Rectangle2D_F64> setA = randomRectangles(300);
+		List<Rectangle2D_F64> setB = randomRectangles(200);
+
+		PackedRTreeRectangle2D_F64 treeA = new PackedRTreeRectangle2D_F64();
+		PackedRTreeRectangle2D_F64 treeB = new PackedRTreeRectangle2D_F64();
+		treeA.build(setA);
+		treeB.build(setB);
+
+		final Set<Long> found = new HashSet<Long>();
+		treeA.join(treeB, new PackedRTree_F64.Listener() {
+			@Override
+			public void overlap(int indexA, int indexB) {
+				found.add(((long)indexA << 32) | indexB);
+			}
+		});
+
+		int total = 0;
+		for (int i = 0; i < setA.size(); i++) {
+			for (int j = 0; j < setB.size(); j++) {
+				if( Intersection2D_F64.intersects(setA.get(i), setB.get(j)) ) {
+					total++;
+					assertTrue(found.contains(((long)i << 32) | j));
+				}
+			}
+		}
+		assertEquals(total, found.size());
+	}
+
+	private List<Rectangle2D_F64> randomRectangles( int count ) {
+		List<Rectangle2D_F64> list = new ArrayList<Rectangle2D_F64>();
+		for (int i = 0; i < count; i++) {
+			double x = rand.nextDouble()*100, y = rand.nextDouble()*100;
+			list.add(new Rectangle2D_F64(x, y, x + rand.nextDouble()*10, y + rand.nextDouble()*10));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.misc.GrlConstants;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedRTree_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare window queries against a brute force search for different dimensions, capacities, and sizes
+	 */
+	@Test
+	public void search() {
+		for( int dimension = 1; dimension <= 4; dimension++ ) {
+			for( int capacity : new int[]{2,5,16} ) {
+				PackedRTree_F64 alg = new PackedRTree_F64(dimension, capacity);
+				for( int count : new int[]{0,1,capacity,capacity+1,500} ) {
+					double data[] = randomBoxes(dimension, count);
+					alg.build(data, count);
+					assertEquals(count, alg.size());
+
+					GrowQueue_I32 found = new GrowQueue_I32();
+					for (int trial = 0; trial < 20; trial++) {
+						double query[] = randomBoxes(dimension, 1);
+						alg.search(query, found);
+
+						Set<Integer> expected = new HashSet<Integer>();
+						for (int i = 0; i < count; i++) {
+							if( overlaps(data, i*dimension*2, query, dimension) )
+								expected.add(i);
+						}
+						assertEquals(expected.size(), found.size);
+						for (int i = 0; i < found.size; i++) {
+							assertTrue(expected.contains(found.get(i)));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void nearest() {
+		for( int dimension = 1; dimension <= 3; dimension++ ) {
+			int count = 400;
+			double data[] = randomBoxes(dimension, count);
+			PackedRTree_F64 alg = new PackedRTree_F64(dimension, 8);
+			alg.build(data, count);
+
+			GrowQueue_I32 indexes = new GrowQueue_I32();
+			GrowQueue_F64 distances = new GrowQueue_F64();
+			double expected[] = new double[count];
+			for (int trial = 0; trial < 20; trial++) {
+				double point[] = new double[dimension];
+				for (int i = 0; i < dimension; i++) {
+					point[i] = rand.nextDouble()*120 - 10;
+				}
+				for (int i = 0; i < count; i++) {
+					expected[i] = distance(data, i*dimension*2, point, dimension);
+				}
+				Arrays.sort(expected);
+
+				alg.nearest(point, 10, indexes, distances);
+				assertEquals(10, indexes.size);
+				assertEquals(10, distances.size);
+				for (int i = 0; i < 10; i++) {
+					assertEquals(expected[i], distances.get(i), GrlConstants.DOUBLE_TEST_TOL);
+					double d = distance(data, indexes.get(i)*dimension*2, point, dimension);
+					assertEquals(expected[i], d, GrlConstants.DOUBLE_TEST_TOL);
+				}
+			}
+
+			// ask for more than there are
+			alg.nearest(new double[dimension], count+5, indexes, null);
+			assertEquals(count, indexes.size);
+		}
+	}
+
+	@Test
+	public void selfJoin() {
+		for( int dimension = 1; dimension <= 3; dimension++ ) {
+			for( boolean concurrent : new boolean[]{false,true} ) {
+				int count = 600;
+				double data[] = randomBoxes(dimension, count);
+				PackedRTree_F64 alg = new PackedRTree_F64(dimension, 6);
+				alg.setConcurrent(concurrent);
+				alg.setMinConcurrentBlock(2);
+				alg.build(data, count);
+
+				final Set<Long> found = new HashSet<Long>();
+				alg.selfJoin(new PackedRTree_F64.Listener() {
+					@Override
+					public void overlap(int indexA, int indexB) {
+						assertTrue(indexA < indexB);
+						synchronized( found ) {
+							assertTrue(found.add(((long)indexA << 32) | indexB));
+						}
+					}
+				});
+
+				int total = 0;
+				for (int i = 0; i < count; i++) {
+					for (int j = i+1; j < count; j++) {
+						if( overlaps(data, i*dimension*2, data, j*dimension*2, dimension) ) {
+							total++;
+							assertTrue(found.contains(((long)i << 32) | j));
+						}
+					}
+				}
+				assertTrue(total > 0);
+				assertEquals(total, found.size());
+			}
+		}
+	}
+
+	@Test
+	public void join() {
+		for( int dimension = 1; dimension <= 3; dimension++ ) {
+			for( boolean concurrent : new boolean[]{false,true} ) {
+				int countA = 300, countB = 450;
+				double dataA[] = randomBoxes(dimension, countA);
+				double dataB[] = randomBoxes(dimension, countB);
+				PackedRTree_F64 treeA = new PackedRTree_F64(dimension, 6);
+				PackedRTree_F64 treeB = new PackedRTree_F64(dimension, 9);
+				treeA.setConcurrent(concurrent);
+				treeA.setMinConcurrentBlock(2);
+				treeA.build(dataA, countA);
+				treeB.build(dataB, countB);
+
+				final Set<Long> found = new HashSet<Long>();
+				treeA.join(treeB, new PackedRTree_F64.Listener() {
+					@Override
+					public void overlap(int indexA, int indexB) {
+						synchronized( found ) {
+							assertTrue(found.add(((long)indexA << 32) | indexB));
+						}
+					}
+				});
+
+				int total = 0;
+				for (int i = 0; i < countA; i++) {
+					for (int j = 0; j < countB; j++) {
+						if( overlaps(dataA, i*dimension*2, dataB, j*dimension*2, dimension) ) {
+							total++;
+							assertTrue(found.contains(((long)i << 32) | j));
+						}
+					}
+				}
+				assertTrue(total > 0);
+				assertEquals(total, found.size());
+			}
+		}
+	}
+
+	/**
+	 * Rebuild the same tree with different amounts of data
+	 */
+	@Test
+	public void join_empty() {
+		PackedRTree_F64 treeA = new PackedRTree_F64(2, 6);
+		PackedRTree_F64 treeB = new PackedRTree_F64(2, 6);
+		treeA.build(randomBoxes(2, 50), 50);
+		treeB.build(new double[0], 0);
+
+		final int count[] = new int[1];
+		PackedRTree_F64.Listener listener = new PackedRTree_F64.Listener() {
+			@Override
+			public void overlap(int indexA, int indexB) {
+				count[0]++;
+			}
+		};
+		treeA.join(treeB, listener);
+		treeB.join(treeA, listener);
+		assertEquals(0, count[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void join_differentDimension() {
+		PackedRTree_F64 treeA = new PackedRTree_F64(2, 6);
+		PackedRTree_F64 treeB = new PackedRTree_F64(3, 6);
+		treeA.build(randomBoxes(2, 10), 10);
+		treeB.build(randomBoxes(3, 10), 10);
+
+		treeA.join(treeB, new PackedRTree_F64.Listener() {
+			@Override
+			public void overlap(int indexA, int indexB) {}
+		});
+	}
+
+	@Test
+	public void rebuild() {
+		PackedRTree_F64 alg = new PackedRTree_F64(2, 4);
+		GrowQueue_I32 found = new GrowQueue_I32();
+		double everything[] = {-1000, -1000, 1000, 1000};
+
+		for( int count : new int[]{300,10,1000,0,3} ) {
+			alg.build(randomBoxes(2, count), count);
+			alg.search(everything, found);
+			assertEquals(count, found.size);
+		}
+	}
+
+	@Test
+	public void getDepth() {
+		PackedRTree_F64 alg = new PackedRTree_F64(2, 4);
+		alg.build(new double[0], 0);
+		assertEquals(0, alg.getDepth());
+		alg.build(randomBoxes(2, 4), 4);
+		assertEquals(1, alg.getDepth());
+		alg.build(randomBoxes(2, 5), 5);
+		assertEquals(2, alg.getDepth());
+		alg.build(randomBoxes(2, 64), 64);
+		assertEquals(3, alg.getDepth());
+		alg.build(randomBoxes(2, 65), 65);
+		assertEquals(4, alg.getDepth());
+	}
+
+	/**
+	 * Boxes which only touch do not overlap
+	 */
+	@Test
+	public void touching() {
+		PackedRTree_F64 alg = new PackedRTree_F64(2, 4);
+		alg.build(new double[]{0,0,1,1, 1,0,2,1}, 2);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		alg.search(new double[]{1,0.5,3,0.6}, found);
+		assertEquals(1, found.size);
+		assertEquals(1, found.get(0));
+
+		final int count[] = new int[1];
+		alg.selfJoin(new PackedRTree_F64.Listener() {
+			@Override
+			public void overlap(int indexA, int indexB) {
+				count[0]++;
+			}
+		});
+		assertEquals(0, count[0]);
+	}
+
+	private double[] randomBoxes( int dimension , int count ) {
+		double data[] = new double[dimension*2*count];
+		for (int i = 0; i < count; i++) {
+			int index = i*dimension*2;
+			for (int j = 0; j < dimension; j++) {
+				double lower = rand.nextDouble()*100;
+				data[index+j] = lower;
+				data[index+dimension+j] = lower + rand.nextDouble()*15;
+			}
+		}
+		return data;
+	}
+
+	private static boolean overlaps( double data[] , int index , double query[] , int dimension ) {
+		return overlaps(data, index, query, 0, dimension);
+	}
+
+	private static boolean overlaps( double a[] , int indexA , double b[] , int indexB , int dimension ) {
+		for (int i = 0; i < dimension; i++) {
+			if( a[indexA+i] >= b[indexB+dimension+i] || b[indexB+i] >= a[indexA+dimension+i] )
+				return false;
+		}
+		return true;
+	}
+
+	private static double distance( double data[] , int index , double point[] , int dimension ) {
+		double total = 0;
+		for (int i = 0; i < dimension; i++) {
+			double d = 0;
+			if( point[i] < data[index+i] )
+				d = data[index+i] - point[i];
+			else if( point[i] > data[index+dimension+i] )
+				d = point[i] - data[index+dimension+i];
+			total += d*d;
+		}
+		return Math.sqrt(total);
+	}
+}
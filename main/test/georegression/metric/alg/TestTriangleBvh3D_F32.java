@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.IndexedMesh3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangleBvh3D_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare the first hit against testing every triangle
+	 */
+	@Test
+	public void castFirst_bruteForce() {
+		for( int leafSize : new int[]{1,4,10} ) {
+			List<Triangle3D_F32> triangles = randomTriangles(500);
+			TriangleBvh3D_F32 alg = new TriangleBvh3D_F32();
+			alg.setMaxLeafSize(leafSize);
+			alg.build(triangles);
+			assertEquals(500, alg.size());
+
+			Point3D_F32 found = new Point3D_F32();
+			Point3D_F32 expected = new Point3D_F32();
+			int totalHits = 0;
+			for (int trial = 0; trial < 200; trial++) {
+				LineSegment3D_F32 ray = randomRay();
+
+				int expectedIndex = bruteForce(triangles, ray, expected);
+				int foundIndex = alg.castFirst(ray, found);
+
+				if( expectedIndex < 0 ) {
+					assertEquals(-1, foundIndex);
+				} else {
+					totalHits++;
+					assertTrue(foundIndex >= 0);
+					assertEquals(0, expected.distance(found), GrlConstants.FLOAT_TEST_TOL_SQRT);
+				}
+			}
+			// make sure the test is meaningful
+			assertTrue(totalHits > 50);
+		}
+	}
+
+	@Test
+	public void castAny() {
+		List<Triangle3D_F32> triangles = randomTriangles(300);
+		TriangleBvh3D_F32 alg = new TriangleBvh3D_F32();
+		alg.build(triangles);
+
+		Point3D_F32 p = new Point3D_F32();
+		for (int trial = 0; trial < 200; trial++) {
+			LineSegment3D_F32 ray = randomRay();
+
+			int expected = bruteForce(triangles, ray, p);
+			int found = alg.castAny(ray);
+			if( expected < 0 ) {
+				assertEquals(-1, found);
+			} else {
+				assertEquals(1, Intersection3D_F32.intersection(triangles.get(found), ray, p));
+			}
+		}
+	}
+
+	/**
+	 * Ray which is cast at the side of a cube made out of triangles
+	 */
+	@Test
+	public void cube() {
+		List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+		// front face at z = -1 and back face at z = 1
+		for( float z : new float[]{-1,1} ) {
+			triangles.add(new Triangle3D_F32(-1,-1,z, 1,-1,z, 1,1,z));
+			triangles.add(new Triangle3D_F32(-1,-1,z, 1,1,z, -1,1,z));
+		}
+		TriangleBvh3D_F32 alg = new TriangleBvh3D_F32();
+		alg.setMaxLeafSize(1);
+		alg.build(triangles);
+
+		Point3D_F32 hit = new Point3D_F32();
+		int found = alg.castFirst(new LineSegment3D_F32(0.2f, 0.5f, -10, 0.2f, 0.5f, 10), hit);
+		assertTrue(found == 0 || found == 1);
+		assertEquals(0, hit.distance(new Point3D_F32(0.2f, 0.5f, -1)), GrlConstants.FLOAT_TEST_TOL);
+
+		// from the other direction
+		found = alg.castFirst(new LineSegment3D_F32(0.5f, 0.2f, 10, 0.5f, 0.2f, -10), hit);
+		assertEquals(2, found);
+		assertEquals(0, hit.distance(new Point3D_F32(0.5f, 0.2f, 1)), GrlConstants.FLOAT_TEST_TOL);
+
+		// too short to reach it
+		assertEquals(-1, alg.castFirst(new LineSegment3D_F32(0, 0, 10, 0, 0, 1.5f), hit));
+		// misses
+		assertEquals(-1, alg.castFirst(new LineSegment3D_F32(2, 0, 10, 2, 0, -10), hit));
+		assertEquals(-1, alg.castAny(new LineSegment3D_F32(2, 0, 10, 2, 0, -10)));
+	}
+
+	/**
+	 * Build it from a mesh and compare against the list of triangles it contains
+	 */
+	@Test
+	public void build_mesh() {
+		IndexedMesh3D_F32 mesh = new IndexedMesh3D_F32();
+		for (int i = 0; i < 300; i++) {
+			mesh.addVertex(rand.nextFloat()*20 - 10, rand.nextFloat()*20 - 10, rand.nextFloat()*20 - 10);
+		}
+		List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+		for (int i = 0; i < 400; i++) {
+			mesh.addFace(rand.nextInt(300), rand.nextInt(300), rand.nextInt(300));
+			triangles.add(mesh.getFace(i).copy());
+		}
+
+		TriangleBvh3D_F32 alg = new TriangleBvh3D_F32();
+		alg.build(mesh);
+
+		Point3D_F32 found = new Point3D_F32();
+		Point3D_F32 expected = new Point3D_F32();
+		for (int trial = 0; trial < 100; trial++) {
+			LineSegment3D_F32 ray = randomRay();
+			int index = bruteForce(triangles, ray, expected);
+			int foundIndex = alg.castFirst(ray, found);
+			assertEquals(index < 0, foundIndex < 0);
+			if( index >= 0 )
+				assertEquals(0, expected.distance(found), GrlConstants.FLOAT_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Batch and concurrent results should be identical to casting one ray at a time
+	 */
+	@Test
+	public void batch_concurrent() {
+		List<Triangle3D_F32> triangles = randomTriangles(2000);
+		TriangleBvh3D_F32 alg = new TriangleBvh3D_F32();
+		alg.build(triangles);
+
+		TriangleBvh3D_F32 algConcurrent = new TriangleBvh3D_F32();
+		algConcurrent.setConcurrent(true);
+		algConcurrent.minConcurrentBuild = 50;
+		algConcurrent.build(triangles);
+		assertEquals(alg.getNodeCount(), algConcurrent.getNodeCount());
+
+		int N = 1000;
+		float rays[] = new float[N*6];
+		for (int i = 0; i < N; i++) {
+			LineSegment3D_F32 ray = randomRay();
+			rays[i*6  ] = ray.a.x; rays[i*6+1] = ray.a.y; rays[i*6+2] = ray.a.z;
+			rays[i*6+3] = ray.b.x; rays[i*6+4] = ray.b.y; rays[i*6+5] = ray.b.z;
+		}
+
+		int hitTriangles[] = new int[N];
+		float hitPoints[] = new float[N*3];
+		algConcurrent.castFirst(rays, N, hitTriangles, hitPoints);
+
+		LineSegment3D_F32 ray = new LineSegment3D_F32();
+		Point3D_F32 hit = new Point3D_F32();
+		for (int i = 0; i < N; i++) {
+			ray.set(rays[i*6], rays[i*6+1], rays[i*6+2], rays[i*6+3], rays[i*6+4], rays[i*6+5]);
+			int expected = alg.castFirst(ray, hit);
+			assertEquals(expected, hitTriangles[i]);
+			if( expected >= 0 )
+				assertEquals(0, hit.distance(new Point3D_F32(hitPoints[i*3], hitPoints[i*3+1], hitPoints[i*3+2])), GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	/**
+	 * Rebuild with different sized inputs, including empty
+	 */
+	@Test
+	public void rebuild() {
+		TriangleBvh3D_F32 alg = new TriangleBvh3D_F32();
+		Point3D_F32 hit = new Point3D_F32();
+		Point3D_F32 expected = new Point3D_F32();
+
+		for( int count : new int[]{100,10,0,1,300} ) {
+			List<Triangle3D_F32> triangles = randomTriangles(count);
+			alg.build(triangles);
+			for (int trial = 0; trial < 50; trial++) {
+				LineSegment3D_F32 ray = randomRay();
+				int index = bruteForce(triangles, ray, expected);
+				assertEquals(index < 0, alg.castFirst(ray, hit) < 0);
+			}
+		}
+	}
+
+	private int bruteForce( List<Triangle3D_F32> triangles , LineSegment3D_F32 ray , Point3D_F32 closest ) {
+		Point3D_F32 p = new Point3D_F32();
+		int best = -1;
+		float bestDistance = Float.MAX_VALUE;
+		for (int i = 0; i < triangles.size(); i++) {
+			if( Intersection3D_F32.intersection(triangles.get(i), ray, p) != 1 )
+				continue;
+			float d = p.distance(ray.a);
+			if( d < bestDistance ) {
+				bestDistance = d;
+				best = i;
+				closest.set(p);
+			}
+		}
+		return best;
+	}
+
+	private List<Triangle3D_F32> randomTriangles( int count ) {
+		List<Triangle3D_F32> list = new ArrayList<Triangle3D_F32>();
+		for (int i = 0; i < count; i++) {
+			float x = rand.nextFloat()*20 - 10;
+			float y = rand.nextFloat()*20 - 10;
+			float z = rand.nextFloat()*20 - 10;
+			list.add(new Triangle3D_F32(x, y, z,
+					x + (float)rand.nextGaussian()*2, y + (float)rand.nextGaussian()*2, z + (float)rand.nextGaussian()*2,
+					x + (float)rand.nextGaussian()*2, y + (float)rand.nextGaussian()*2, z + (float)rand.nextGaussian()*2));
+		}
+		return list;
+	}
+
+	private LineSegment3D_F32 randomRay() {
+		// start outside of the triangles and point through the middle
+		float x = (float)rand.nextGaussian(), y = (float)rand.nextGaussian(), z = (float)rand.nextGaussian();
+		float n = (float)Math.sqrt(x*x + y*y + z*z);
+		float length = 10 + rand.nextFloat()*20;
+		x = x*15/n; y = y*15/n; z = z*15/n;
+		float tx = (float)rand.nextGaussian()*3, ty = (float)rand.nextGaussian()*3, tz = (float)rand.nextGaussian()*3;
+		float dx = tx-x, dy = ty-y, dz = tz-z;
+		float d = (float)Math.sqrt(dx*dx + dy*dy + dz*dz);
+		return new LineSegment3D_F32(x, y, z, x + dx*length/d, y + dy*length/d, z + dz*length/d);
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric.alg;
+
+import georegression.metric.Intersection3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.IndexedMesh3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangleBvh3D_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare the first hit against testing every triangle
+	 */
+	@Test
+	public void castFirst_bruteForce() {
+		for( int leafSize : new int[]{1,4,10} ) {
+			List<Triangle3D_F64> triangles = randomTriangles(500);
+			TriangleBvh3D_F64 alg = new TriangleBvh3D_F64();
+			alg.setMaxLeafSize(leafSize);
+			alg.build(triangles);
+			assertEquals(500, alg.size());
+
+			Point3D_F64 found = new Point3D_F64();
+			Point3D_F64 expected = new Point3D_F64();
+			int totalHits = 0;
+			for (int trial = 0; trial < 200; trial++) {
+				LineSegment3D_F64 ray = randomRay();
+
+				int expectedIndex = bruteForce(triangles, ray, expected);
+				int foundIndex = alg.castFirst(ray, found);
+
+				if( expectedIndex < 0 ) {
+					assertEquals(-1, foundIndex);
+				} else {
+					totalHits++;
+					assertTrue(foundIndex >= 0);
+					assertEquals(0, expected.distance(found), GrlConstants.DOUBLE_TEST_TOL_SQRT);
+				}
+			}
+			// make sure the test is meaningful
+			assertTrue(totalHits > 50);
+		}
+	}
+
+	@Test
+	public void castAny() {
+		List<Triangle3D_F64> triangles = randomTriangles(300);
+		TriangleBvh3D_F64 alg = new TriangleBvh3D_F64();
+		alg.build(triangles);
+
+		Point3D_F64 p = new Point3D_F64();
+		for (int trial = 0; trial < 200; trial++) {
+			LineSegment3D_F64 ray = randomRay();
+
+			int expected = bruteForce(triangles, ray, p);
+			int found = alg.castAny(ray);
+			if( expected < 0 ) {
+				assertEquals(-1, found);
+			} else {
+				assertEquals(1, Intersection3D_F64.intersection(triangles.get(found), ray, p));
+			}
+		}
+	}
+
+	/**
+	 * Ray which is cast at the side of a cube made out of triangles
+	 */
+	@Test
+	public void cube() {
+		List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+		// front face at z = -1 and back face at z = 1
+		for( double z : new double[]{-1,1} ) {
+			triangles.add(new Triangle3D_F64(-1,-1,z, 1,-1,z, 1,1,z));
+			triangles.add(new Triangle3D_F64(-1,-1,z, 1,1,z, -1,1,z));
+		}
+		TriangleBvh3D_F64 alg = new TriangleBvh3D_F64();
+		alg.setMaxLeafSize(1);
+		alg.build(triangles);
+
+		Point3D_F64 hit = new Point3D_F64();
+		int found = alg.castFirst(new LineSegment3D_F64(0.2, 0.5, -10, 0.2, 0.5, 10), hit);
+		assertTrue(found == 0 || found == 1);
+		assertEquals(0, hit.distance(new Point3D_F64(0.2, 0.5, -1)), GrlConstants.DOUBLE_TEST_TOL);
+
+		// from the other direction
+		found = alg.castFirst(new LineSegment3D_F64(0.5, 0.2, 10, 0.5, 0.2, -10), hit);
+		assertEquals(2, found);
+		assertEquals(0, hit.distance(new Point3D_F64(0.5, 0.2, 1)), GrlConstants.DOUBLE_TEST_TOL);
+
+		// too short to reach it
+		assertEquals(-1, alg.castFirst(new LineSegment3D_F64(0, 0, 10, 0, 0, 1.5), hit));
+		// misses
+		assertEquals(-1, alg.castFirst(new LineSegment3D_F64(2, 0, 10, 2, 0, -10), hit));
+		assertEquals(-1, alg.castAny(new LineSegment3D_F64(2, 0, 10, 2, 0, -10)));
+	}
+
+	/**
+	 * Build it from a mesh and compare against the list of triangles it contains
+	 */
+	@Test
+	public void build_mesh() {
+		IndexedMesh3D_F64 mesh = new IndexedMesh3D_F64();
+		for (int i = 0; i < 300; i++) {
+			mesh.addVertex(rand.nextDouble()*20 - 10, rand.nextDouble()*20 - 10, rand.nextDouble()*20 - 10);
+		}
+		List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+		for (int i = 0; i < 400; i++) {
+			mesh.addFace(rand.nextInt(300), rand.nextInt(300), rand.nextInt(300));
+			triangles.add(mesh.getFace(i).copy());
+		}
+
+		TriangleBvh3D_F64 alg = new TriangleBvh3D_F64();
+		alg.build(mesh);
+
+		Point3D_F64 found = new Point3D_F64();
+		Point3D_F64 expected = new Point3D_F64();
+		for (int trial = 0; trial < 100; trial++) {
+			LineSegment3D_F64 ray = randomRay();
+			int index = bruteForce(triangles, ray, expected);
+			int foundIndex = alg.castFirst(ray, found);
+			assertEquals(index < 0, foundIndex < 0);
+			if( index >= 0 )
+				assertEquals(0, expected.distance(found), GrlConstants.DOUBLE_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Batch and concurrent results should be identical to casting one ray at a time
+	 */
+	@Test
+	public void batch_concurrent() {
+		List<Triangle3D_F64> triangles = randomTriangles(2000);
+		TriangleBvh3D_F64 alg = new TriangleBvh3D_F64();
+		alg.build(triangles);
+
+		TriangleBvh3D_F64 algConcurrent = new TriangleBvh3D_F64();
+		algConcurrent.setConcurrent(true);
+		algConcurrent.minConcurrentBuild = 50;
+		algConcurrent.build(triangles);
+		assertEquals(alg.getNodeCount(), algConcurrent.getNodeCount());
+
+		int N = 1000;
+		double rays[] = new double[N*6];
+		for (int i = 0; i < N; i++) {
+			LineSegment3D_F64 ray = randomRay();
+			rays[i*6  ] = ray.a.x; rays[i*6+1] = ray.a.y; rays[i*6+2] = ray.a.z;
+			rays[i*6+3] = ray.b.x; rays[i*6+4] = ray.b.y; rays[i*6+5] = ray.b.z;
+		}
+
+		int hitTriangles[] = new int[N];
+		double hitPoints[] = new double[N*3];
+		algConcurrent.castFirst(rays, N, hitTriangles, hitPoints);
+
+		LineSegment3D_F64 ray = new LineSegment3D_F64();
+		Point3D_F64 hit = new Point3D_F64();
+		for (int i = 0; i < N; i++) {
+			ray.set(rays[i*6], rays[i*6+1], rays[i*6+2], rays[i*6+3], rays[i*6+4], rays[i*6+5]);
+			int expected = alg.castFirst(ray, hit);
+			assertEquals(expected, hitTriangles[i]);
+			if( expected >= 0 )
+				assertEquals(0, hit.distance(new Point3D_F64(hitPoints[i*3], hitPoints[i*3+1], hitPoints[i*3+2])), GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	/**
+	 * Rebuild with different sized inputs, including empty
+	 */
+	@Test
+	public void rebuild() {
+		TriangleBvh3D_F64 alg = new TriangleBvh3D_F64();
+		Point3D_F64 hit = new Point3D_F64();
+		Point3D_F64 expected = new Point3D_F64();
+
+		for( int count : new int[]{100,10,0,1,300} ) {
+			List<Triangle3D_F64> triangles = randomTriangles(count);
+			alg.build(triangles);
+			for (int trial = 0; trial < 50; trial++) {
+				LineSegment3D_F64 ray = randomRay();
+				int index = bruteForce(triangles, ray, expected);
+				assertEquals(index < 0, alg.castFirst(ray, hit) < 0);
+			}
+		}
+	}
+
+	private int bruteForce( List<Triangle3D_F64> triangles , LineSegment3D_F64 ray , Point3D_F64 closest ) {
+		Point3D_F64 p = new Point3D_F64();
+		int best = -1;
+		double bestDistance = Double.MAX_VALUE;
+		for (int i = 0; i < triangles.size(); i++) {
+			if( Intersection3D_F64.intersection(triangles.get(i), ray, p) != 1 )
+				continue;
+			double d = p.distance(ray.a);
+			if( d < bestDistance ) {
+				bestDistance = d;
+				best = i;
+				closest.set(p);
+			}
+		}
+		return best;
+	}
+
+	private List<Triangle3D_F64> randomTriangles( int count ) {
+		List<Triangle3D_F64> list = new ArrayList<Triangle3D_F64>();
+		for (int i = 0; i < count; i++) {
+			double x = rand.nextDouble()*20 - 10;
+			double y = rand.nextDouble()*20 - 10;
+			double z = rand.nextDouble()*20 - 10;
+			list.add(new Triangle3D_F64(x, y, z,
+					x + rand.nextGaussian()*2, y + rand.nextGaussian()*2, z + rand.nextGaussian()*2,
+					x + rand.nextGaussian()*2, y + rand.nextGaussian()*2, z + rand.nextGaussian()*2));
+		}
+		return list;
+	}
+
+	private LineSegment3D_F64 randomRay() {
+		// start outside of the triangles and point through the middle
+		double x = rand.nextGaussian(), y = rand.nextGaussian(), z = rand.nextGaussian();
+		double n = Math.sqrt(x*x + y*y + z*z);
+		double length = 10 + rand.nextDouble()*20;
+		x = x*15/n; y = y*15/n; z = z*15/n;
+		double tx = rand.nextGaussian()*3, ty = rand.nextGaussian()*3, tz = rand.nextGaussian()*3;
+		double dx = tx-x, dy = ty-y, dz = tz-z;
+		double d = Math.sqrt(dx*dx + dy*dy + dz*dz);
+		return new LineSegment3D_F64(x, y, z, x + dx*length/d, y + dy*length/d, z + dz*length/d);
+	}
+}
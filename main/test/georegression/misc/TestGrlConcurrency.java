@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.misc;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGrlConcurrency {
+
+	/**
+	 * Every index should be processed exactly once and blocks should be at least the minimum size
+	 */
+	@Test
+	public void loopBlocks() {
+		final int start = 5, end = 10027;
+		final int minBlock = 100;
+		final AtomicIntegerArray counts = new AtomicIntegerArray(end);
+
+		GrlConcurrency.loopBlocks(start, end, minBlock, new IntRangeConsumer() {
+			@Override
+			public void accept(int i0, int i1) {
+				assertTrue(i1-i0 >= minBlock);
+				for (int i = i0; i < i1; i++) {
+					counts.incrementAndGet(i);
+				}
+			}
+		});
+
+		for (int i = 0; i < end; i++) {
+			assertEquals(i < start ? 0 : 1, counts.get(i));
+		}
+	}
+
+	@Test
+	public void loopBlocks_small() {
+		final int counts[] = new int[1];
+
+		GrlConcurrency.loopBlocks(2, 10, 100, new IntRangeConsumer() {
+			@Override
+			public void accept(int i0, int i1) {
+				assertEquals(2,i0);
+				assertEquals(10,i1);
+				counts[0]++;
+			}
+		});
+		assertEquals(1,counts[0]);
+
+		// nothing to process
+		GrlConcurrency.loopBlocks(10, 10, 100, new IntRangeConsumer() {
+			@Override
+			public void accept(int i0, int i1) {
+				counts[0]++;
+			}
+		});
+		assertEquals(1,counts[0]);
+	}
+
+	@Test
+	public void setMaxThreads() {
+		int original = GrlConcurrency.getMaxThreads();
+
+		GrlConcurrency.setMaxThreads(2);
+		assertEquals(2,GrlConcurrency.getMaxThreads());
+
+		GrlConcurrency.setMaxThreads(original);
+		assertEquals(original,GrlConcurrency.getMaxThreads());
+	}
+
+	/**
+	 * A pool which was obtained before the number of threads changed must still accept work
+	 */
+	@Test
+	public void setMaxThreads_oldPoolStillUsable() {
+		int original = GrlConcurrency.getMaxThreads();
+
+		ForkJoinPool before = GrlConcurrency.getPool();
+		GrlConcurrency.setMaxThreads(original == 2 ? 3 : 2);
+		assertTrue(before != GrlConcurrency.getPool());
+
+		final int counts[] = new int[1];
+		before.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				counts[0]++;
+			}
+		});
+		assertEquals(1,counts[0]);
+
+		GrlConcurrency.setMaxThreads(original);
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.misc;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the approximations against {@link Math} and makes sure the documented errors are correct
+ *
+ * @author Peter Abeles
+ */
+public class TestGrlFastMath {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void sin_cos() {
+		double output[] = new double[2];
+		for (int i = 0; i < 100000; i++) {
+			double angle = randomAngle(i);
+
+			double expectedSin = Math.sin(angle);
+			double expectedCos = Math.cos(angle);
+
+			assertEquals(expectedSin, GrlFastMath.sin(angle), GrlFastMath.MAX_ERROR_SIN_COS);
+			assertEquals(expectedCos, GrlFastMath.cos(angle), GrlFastMath.MAX_ERROR_SIN_COS);
+
+			GrlFastMath.sincos(angle, output);
+			assertEquals(expectedSin, output[0], GrlFastMath.MAX_ERROR_SIN_COS);
+			assertEquals(expectedCos, output[1], GrlFastMath.MAX_ERROR_SIN_COS);
+		}
+
+		// boundaries between quadrants
+		for (int k = -8; k <= 8; k++) {
+			double angle = k*Math.PI/4;
+			assertEquals(Math.sin(angle), GrlFastMath.sin(angle), GrlFastMath.MAX_ERROR_SIN_COS);
+			assertEquals(Math.cos(angle), GrlFastMath.cos(angle), GrlFastMath.MAX_ERROR_SIN_COS);
+		}
+
+		// outside of the reduction range it uses Math
+		double angle = GrlFastMath.MAX_REDUCE*3.3;
+		assertEquals(Math.sin(angle), GrlFastMath.sin(angle), 0);
+		assertEquals(Math.cos(angle), GrlFastMath.cos(angle), 0);
+	}
+
+	@Test
+	public void atan2() {
+		for (int i = 0; i < 100000; i++) {
+			double y = rand.nextGaussian();
+			double x = rand.nextGaussian();
+			// include points which are close to an axis
+			if( i % 4 == 1 )
+				y *= 0.001;
+			else if( i % 4 == 2 )
+				x *= 0.001;
+
+			assertEquals(Math.atan2(y, x), GrlFastMath.atan2(y, x), GrlFastMath.MAX_ERROR_ATAN2);
+			assertEquals(Math.atan(y), GrlFastMath.atan(y), GrlFastMath.MAX_ERROR_ATAN2);
+		}
+
+		// along the axes
+		assertEquals(0, GrlFastMath.atan2(0.0, 1.0), 0);
+		assertEquals(Math.PI/2, GrlFastMath.atan2(1.0, 0.0), GrlFastMath.MAX_ERROR_ATAN2);
+		assertEquals(-Math.PI/2, GrlFastMath.atan2(-1.0, 0.0), GrlFastMath.MAX_ERROR_ATAN2);
+		assertEquals(Math.PI, GrlFastMath.atan2(0.0, -1.0), GrlFastMath.MAX_ERROR_ATAN2);
+		assertEquals(0, GrlFastMath.atan2(0.0, 0.0), 0);
+	}
+
+	@Test
+	public void acos_asin() {
+		for (int i = 0; i < 100000; i++) {
+			double value = rand.nextDouble()*2 - 1;
+			// values close to one are the most difficult
+			if( i % 3 == 0 )
+				value = Math.signum(value)*(1 - rand.nextDouble()*1e-6);
+
+			assertEquals(Math.acos(value), GrlFastMath.acos(value), GrlFastMath.MAX_ERROR_ACOS);
+			assertEquals(Math.asin(value), GrlFastMath.asin(value), GrlFastMath.MAX_ERROR_ACOS);
+		}
+
+		assertEquals(0, GrlFastMath.acos(1.0), GrlFastMath.MAX_ERROR_ACOS);
+		assertEquals(Math.PI, GrlFastMath.acos(-1.0), GrlFastMath.MAX_ERROR_ACOS);
+		assertEquals(Math.PI/2, GrlFastMath.asin(1.0), GrlFastMath.MAX_ERROR_ACOS);
+	}
+
+	/**
+	 * Float versions should be accurate to within float precision
+	 */
+	@Test
+	public void floats() {
+		float tol = GrlConstants.FLOAT_TEST_TOL;
+		float output[] = new float[2];
+		for (int i = 0; i < 10000; i++) {
+			float angle = (float)randomAngle(i);
+			assertEquals(Math.sin(angle), GrlFastMath.sin(angle), tol);
+			assertEquals(Math.cos(angle), GrlFastMath.cos(angle), tol);
+			GrlFastMath.sincos(angle, output);
+			assertEquals(Math.sin(angle), output[0], tol);
+			assertEquals(Math.cos(angle), output[1], tol);
+
+			float y = (float)rand.nextGaussian(), x = (float)rand.nextGaussian();
+			assertEquals(Math.atan2(y, x), GrlFastMath.atan2(y, x), tol);
+			assertEquals(Math.atan(y), GrlFastMath.atan(y), tol);
+
+			float value = rand.nextFloat()*2 - 1;
+			assertEquals(Math.acos(value), GrlFastMath.acos(value), tol);
+			assertEquals(Math.asin(value), GrlFastMath.asin(value), tol);
+		}
+	}
+
+	private double randomAngle( int i ) {
+		switch( i % 3 ) {
+			case 0: return (rand.nextDouble()*2 - 1)*Math.PI;
+			case 1: return (rand.nextDouble()*2 - 1)*100;
+			default: return (rand.nextDouble()*2 - 1)*GrlFastMath.MAX_REDUCE;
+		}
+	}
+}
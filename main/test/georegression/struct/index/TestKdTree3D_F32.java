@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.index;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdTree3D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void findNearest_single() {
+		PointCloud3D_F32 cloud = randomCloud(500);
+
+		KdTree3D_F32 tree = new KdTree3D_F32();
+		tree.build(cloud);
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		for (int trial = 0; trial < 100; trial++) {
+			Point3D_F32 q = randomPoint();
+			int expected = bruteForceSorted(cloud,q)[0];
+			assertEquals(expected, search.findNearest(q, Float.MAX_VALUE));
+		}
+
+		// nothing should be found if the max distance is too small
+		Point3D_F32 q = new Point3D_F32(100,100,100);
+		assertEquals(-1, search.findNearest(q, 1));
+		assertEquals(0, search.getResultsSize());
+	}
+
+	@Test
+	public void findNearest_k() {
+		PointCloud3D_F32 cloud = randomCloud(1000);
+
+		for( int leafSize : new int[]{1,8,30} ) {
+			KdTree3D_F32 tree = new KdTree3D_F32(leafSize,false);
+			tree.build(cloud);
+			KdTreeSearch3D_F32 search = tree.createSearch();
+
+			for (int trial = 0; trial < 50; trial++) {
+				Point3D_F32 q = randomPoint();
+				int k = 1 + rand.nextInt(20);
+
+				assertEquals(k, search.findNearest(q, Float.MAX_VALUE, k));
+				checkSorted(cloud, q, search, k);
+			}
+		}
+	}
+
+	@Test
+	public void findNearest_maxDistance() {
+		PointCloud3D_F32 cloud = randomCloud(1000);
+
+		KdTree3D_F32 tree = new KdTree3D_F32();
+		tree.build(cloud);
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		for (int trial = 0; trial < 50; trial++) {
+			Point3D_F32 q = randomPoint();
+			float maxDistance = 0.5f + rand.nextFloat();
+
+			int found = search.findNearest(q, maxDistance, 30);
+
+			int count = 0;
+			for (int i = 0; i < cloud.size; i++) {
+				if( cloud.get(i,null).distance(q) <= maxDistance )
+					count++;
+			}
+			assertEquals(Math.min(30,count), found);
+			checkSorted(cloud, q, search, found);
+		}
+	}
+
+	@Test
+	public void findNearestApproximate_exhaustive() {
+		PointCloud3D_F32 cloud = randomCloud(1000);
+
+		KdTree3D_F32 tree = new KdTree3D_F32();
+		tree.build(cloud);
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		// if every point can be checked the results must be exact
+		for (int trial = 0; trial < 50; trial++) {
+			Point3D_F32 q = randomPoint();
+			int k = 1 + rand.nextInt(10);
+
+			assertEquals(k, search.findNearestApproximate(q, Float.MAX_VALUE, k, cloud.size));
+			checkSorted(cloud, q, search, k);
+		}
+	}
+
+	@Test
+	public void findNearestApproximate_limited() {
+		PointCloud3D_F32 cloud = randomCloud(5000);
+
+		KdTree3D_F32 tree = new KdTree3D_F32();
+		tree.build(cloud);
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		int correct = 0;
+		for (int trial = 0; trial < 100; trial++) {
+			Point3D_F32 q = randomPoint();
+
+			assertEquals(1, search.findNearestApproximate(q, Float.MAX_VALUE, 1, 100));
+
+			// the distance must be consistent with the returned point
+			int index = search.getIndex(0);
+			assertEquals(cloud.get(index,null).distance2(q), search.getDistance2(0), GrlConstants.FLOAT_TEST_TOL);
+
+			if( index == bruteForceSorted(cloud,q)[0] )
+				correct++;
+		}
+
+		// it's approximate but should be right most of the time
+		assertTrue(correct > 80);
+	}
+
+	@Test
+	public void findRadius() {
+		PointCloud3D_F32 cloud = randomCloud(1000);
+
+		KdTree3D_F32 tree = new KdTree3D_F32();
+		tree.build(cloud);
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		for (int trial = 0; trial < 50; trial++) {
+			Point3D_F32 q = randomPoint();
+			float radius = 0.5f + 2*rand.nextFloat();
+
+			int found = search.findRadius(q, radius);
+
+			List<Integer> expected = new ArrayList<Integer>();
+			for (int i = 0; i < cloud.size; i++) {
+				if( cloud.get(i,null).distance(q) <= radius )
+					expected.add(i);
+			}
+
+			assertEquals(expected.size(), found);
+			int actual[] = new int[found];
+			for (int i = 0; i < found; i++) {
+				actual[i] = search.getIndex(i);
+				assertEquals(cloud.get(actual[i],null).distance2(q), search.getDistance2(i),
+						GrlConstants.FLOAT_TEST_TOL);
+			}
+			Arrays.sort(actual);
+			for (int i = 0; i < found; i++) {
+				assertEquals(expected.get(i).intValue(), actual[i]);
+			}
+		}
+	}
+
+	/**
+	 * Many identical points shouldn't cause problems
+	 */
+	@Test
+	public void duplicatePoints() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for (int i = 0; i < 2000; i++) {
+			cloud.add(1,2,3);
+		}
+		cloud.add(1,2,4);
+
+		KdTree3D_F32 tree = new KdTree3D_F32();
+		tree.build(cloud);
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		assertEquals(2000, search.findNearest(new Point3D_F32(1,2,4), Float.MAX_VALUE));
+		assertEquals(2001, search.findRadius(new Point3D_F32(1,2,3.5f), 0.6f));
+		assertEquals(2000, search.findRadius(new Point3D_F32(1,2,3), 0.6f));
+	}
+
+	@Test
+	public void build_list() {
+		PointCloud3D_F32 cloud = randomCloud(300);
+		List<Point3D_F32> list = cloud.toList(null);
+
+		KdTree3D_F32 tree = new KdTree3D_F32();
+		tree.build(list);
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Point3D_F32 q = randomPoint();
+			search.findNearest(q, Float.MAX_VALUE, 5);
+			checkSorted(cloud, q, search, 5);
+		}
+	}
+
+	/**
+	 * Builds with multiple threads and makes sure the tree is still correct
+	 */
+	@Test
+	public void build_concurrent() {
+		PointCloud3D_F32 cloud = randomCloud(20000);
+
+		KdTree3D_F32 tree = new KdTree3D_F32(8,true);
+		tree.setMinConcurrentBlock(1000);
+		tree.build(cloud);
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		for (int trial = 0; trial < 50; trial++) {
+			Point3D_F32 q = randomPoint();
+			search.findNearest(q, Float.MAX_VALUE, 5);
+			checkSorted(cloud, q, search, 5);
+		}
+
+		// make sure no points were lost or duplicated
+		boolean found[] = new boolean[cloud.size];
+		for (int i = 0; i < tree.size; i++) {
+			found[tree.indexes[i]] = true;
+		}
+		for (int i = 0; i < found.length; i++) {
+			assertTrue(found[i]);
+		}
+	}
+
+	/**
+	 * Build the tree again with fewer points and an empty cloud
+	 */
+	@Test
+	public void rebuild() {
+		KdTree3D_F32 tree = new KdTree3D_F32();
+		KdTreeSearch3D_F32 search = tree.createSearch();
+
+		tree.build(randomCloud(500));
+
+		PointCloud3D_F32 cloud = randomCloud(50);
+		tree.build(cloud);
+		assertEquals(50, tree.size());
+
+		Point3D_F32 q = randomPoint();
+		search.findNearest(q, Float.MAX_VALUE, 7);
+		checkSorted(cloud, q, search, 7);
+
+		tree.build(new PointCloud3D_F32());
+		assertEquals(-1, search.findNearest(q, Float.MAX_VALUE));
+		assertEquals(0, search.findRadius(q, 10));
+		assertEquals(0, search.findNearestApproximate(q, Float.MAX_VALUE, 2, 10));
+	}
+
+	/**
+	 * Compares the results against a brute force search
+	 */
+	private void checkSorted( PointCloud3D_F32 cloud, Point3D_F32 q, KdTreeSearch3D_F32 search, int k ) {
+		int expected[] = bruteForceSorted(cloud,q);
+
+		assertEquals(k, search.getResultsSize());
+		for (int i = 0; i < k; i++) {
+			float expectedD = cloud.get(expected[i],null).distance2(q);
+			assertEquals(expectedD, search.getDistance2(i), GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(cloud.get(search.getIndex(i),null).distance2(q), search.getDistance2(i),
+					GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	private int[] bruteForceSorted( PointCloud3D_F32 cloud , final Point3D_F32 q ) {
+		final float distances[] = new float[cloud.size];
+		Integer order[] = new Integer[cloud.size];
+		for (int i = 0; i < cloud.size; i++) {
+			distances[i] = cloud.get(i,null).distance2(q);
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return Float.compare(distances[a],distances[b]);
+			}
+		});
+		int out[] = new int[cloud.size];
+		for (int i = 0; i < out.length; i++) {
+			out[i] = order[i];
+		}
+		return out;
+	}
+
+	private PointCloud3D_F32 randomCloud( int N ) {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32(N);
+		for (int i = 0; i < N; i++) {
+			cloud.add(randomPoint());
+		}
+		return cloud;
+	}
+
+	private Point3D_F32 randomPoint() {
+		return new Point3D_F32(rand.nextFloat()*10-5, rand.nextFloat()*10-5, rand.nextFloat()*10-5);
+	}
+}
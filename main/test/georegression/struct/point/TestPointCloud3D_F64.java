@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.point;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointCloud3D_F64 {
+
+	@Test
+	public void add_get() {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64(2);
+
+		for (int i = 0; i < 25; i++) {
+			cloud.add(i,i+1,i+2);
+		}
+
+		assertEquals(25,cloud.size());
+		assertTrue(cloud.data.length >= 25*3);
+
+		Point3D_F64 p = new Point3D_F64();
+		for (int i = 0; i < 25; i++) {
+			cloud.get(i,p);
+			assertEquals(i,p.x,GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(i+1,p.y,GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(i+2,p.z,GrlConstants.DOUBLE_TEST_TOL);
+
+			assertEquals(i,cloud.getX(i),GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(i+1,cloud.getY(i),GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(i+2,cloud.getZ(i),GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void resize() {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64(2);
+		cloud.add(1,2,3);
+		cloud.resize(100);
+
+		assertEquals(100,cloud.size);
+		// original values should be preserved
+		assertEquals(0,cloud.get(0,null).distance(new Point3D_F64(1,2,3)),GrlConstants.DOUBLE_TEST_TOL);
+
+		cloud.reset();
+		assertEquals(0,cloud.size);
+	}
+
+	@Test
+	public void set_list_toList() {
+		List<Point3D_F64> list = new ArrayList<Point3D_F64>();
+		list.add(new Point3D_F64(1,2,3));
+		list.add(new Point3D_F64(4,5,6));
+
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+		cloud.set(list);
+
+		List<Point3D_F64> found = cloud.toList(null);
+		assertEquals(2,found.size());
+		for (int i = 0; i < list.size(); i++) {
+			assertEquals(0,list.get(i).distance(found.get(i)),GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void copy() {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+		cloud.add(1,2,3);
+		cloud.add(4,5,6);
+
+		PointCloud3D_F64 found = cloud.copy();
+		assertEquals(2,found.size);
+		assertTrue(found.data != cloud.data);
+		for (int i = 0; i < cloud.size*3; i++) {
+			assertEquals(cloud.data[i],found.data[i],GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.se;
+
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.so.Quaternion_F32;
+import georegression.struct.so.Rodrigues_F32;
+import georegression.transform.se.InterpolateLinearSe3_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.ops.CommonOps;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTrajectory3D_F32 {
+
+	Random rand = new Random(234);
+
+	float tol = GrlConstants.FLOAT_TEST_TOL;
+
+	/**
+	 * Compare against interpolating each pair of poses
+	 */
+	@Test
+	public void linear_compare() {
+		Trajectory3D_F32 alg = new Trajectory3D_F32();
+		Se3_F32 poses[] = new Se3_F32[30];
+		float times[] = new float[poses.length];
+		for (int i = 0; i < poses.length; i++) {
+			poses[i] = randomPose();
+			times[i] = i == 0 ? 1 : times[i-1] + 0.1f + rand.nextFloat();
+			alg.append(times[i], poses[i]);
+		}
+		assertEquals(poses.length, alg.size());
+
+		InterpolateLinearSe3_F32 interp = new InterpolateLinearSe3_F32();
+		Se3_F32 expected = new Se3_F32();
+		Se3_F32 found = new Se3_F32();
+		for (int i = 0; i < poses.length-1; i++) {
+			interp.setTransforms(poses[i], poses[i+1]);
+			for( float where : new float[]{0, 0.2f, 0.5f, 0.99f}) {
+				interp.interpolate(where, expected);
+				alg.interpolate(times[i] + where*(times[i+1] - times[i]), found);
+				GeometryUnitTest.assertEquals(expected, found, tol, tol);
+			}
+		}
+
+		// should pass through every pose
+		for (int i = 0; i < poses.length; i++) {
+			alg.interpolate(times[i], found);
+			GeometryUnitTest.assertEquals(poses[i], found, tol, tol);
+			alg.getPose(i, found);
+			GeometryUnitTest.assertEquals(poses[i], found, tol, tol);
+			assertEquals(times[i], alg.getTime(i), 0);
+		}
+
+		// outside of the trajectory
+		alg.interpolate(0, found);
+		GeometryUnitTest.assertEquals(poses[0], found, tol, tol);
+		alg.interpolate(times[poses.length-1] + 10, found);
+		GeometryUnitTest.assertEquals(poses[poses.length-1], found, tol, tol);
+	}
+
+	/**
+	 * With a constant velocity and evenly spaced poses the spline should follow the same path as linear, except
+	 * at the two end segments
+	 */
+	@Test
+	public void spline_constantVelocity() {
+		Se3_F32 start = randomPose();
+		Se3_F32 step = new Se3_F32();
+		ConvertRotation3D_F32.rodriguesToMatrix(new Rodrigues_F32(0.15f, 0.3f, -1, 0.2f), step.R);
+		step.T.set(0.1f, -0.2f, 0.3f);
+
+		Trajectory3D_F32 linear = new Trajectory3D_F32();
+		Trajectory3D_F32 spline = new Trajectory3D_F32();
+		spline.setMethod(Trajectory3D_F32.Method.CUBIC_BSPLINE);
+
+		Se3_F32 pose = start.copy();
+		for (int i = 0; i < 10; i++) {
+			linear.append(i*0.5f, pose);
+			spline.append(i*0.5f, pose);
+			// rotation is applied in the body frame, translation changes linearly
+			Se3_F32 next = new Se3_F32();
+			CommonOps.mult(pose.R, step.R, next.R);
+			next.T.set(pose.T.x + step.T.x, pose.T.y + step.T.y, pose.T.z + step.T.z);
+			pose = next;
+		}
+
+		Se3_F32 expected = new Se3_F32();
+		Se3_F32 found = new Se3_F32();
+		for (int trial = 0; trial < 50; trial++) {
+			float time = 0.5f + rand.nextFloat()*3.5f;
+			linear.interpolate(time, expected);
+			spline.interpolate(time, found);
+			GeometryUnitTest.assertEquals(expected, found, tol, tol);
+		}
+	}
+
+	/**
+	 * The spline should be continuous across segments and at the ends
+	 */
+	@Test
+	public void spline_continuous() {
+		Trajectory3D_F32 alg = new Trajectory3D_F32();
+		alg.setMethod(Trajectory3D_F32.Method.CUBIC_BSPLINE);
+		for (int i = 0; i < 8; i++) {
+			alg.append(i, randomPose());
+		}
+
+		Se3_F32 before = new Se3_F32();
+		Se3_F32 after = new Se3_F32();
+		float delta = GrlConstants.F_EPS*10;
+		for (int i = 0; i < 8; i++) {
+			alg.interpolate(i - delta, before);
+			alg.interpolate(i + delta, after);
+			GeometryUnitTest.assertEquals(before, after, GrlConstants.FLOAT_TEST_TOL_SQRT,
+					GrlConstants.FLOAT_TEST_TOL_SQRT);
+		}
+	}
+
+	/**
+	 * Batch should produce the same results as single queries, with sorted and unsorted times
+	 */
+	@Test
+	public void interpolate_batch() {
+		Trajectory3D_F32 alg = new Trajectory3D_F32();
+		for (int i = 0; i < 50; i++) {
+			alg.append(i*0.1f + rand.nextFloat()*0.05f, randomPose());
+		}
+
+		int N = 2000;
+		float sorted[] = new float[N];
+		float unsorted[] = new float[N];
+		for (int i = 0; i < N; i++) {
+			sorted[i] = -0.2f + 5.4f*i/N;
+			unsorted[i] = rand.nextFloat()*5.4f - 0.2f;
+		}
+
+		for( Trajectory3D_F32.Method method : Trajectory3D_F32.Method.values() ) {
+			for( boolean concurrent : new boolean[]{false,true}) {
+				alg.setMethod(method);
+				alg.setConcurrent(concurrent);
+				checkBatch(alg, sorted);
+				checkBatch(alg, unsorted);
+			}
+		}
+	}
+
+	private void checkBatch( Trajectory3D_F32 alg , float times[] ) {
+		int N = times.length;
+		float quats[] = new float[N*4];
+		float trans[] = new float[N*3];
+		alg.interpolate(times, N, quats, trans);
+
+		Se3_F32 expected = new Se3_F32();
+		Se3_F32 found = new Se3_F32();
+		for (int i = 0; i < N; i++) {
+			alg.interpolate(times[i], expected);
+
+			Quaternion_F32 q = new Quaternion_F32(quats[i*4], quats[i*4+1], quats[i*4+2], quats[i*4+3]);
+			assertEquals(1, (float)Math.sqrt(q.w*q.w + q.x*q.x + q.y*q.y + q.z*q.z), tol);
+			ConvertRotation3D_F32.quaternionToMatrix(q, found.R);
+			found.T.set(trans[i*3], trans[i*3+1], trans[i*3+2]);
+			GeometryUnitTest.assertEquals(expected, found, tol, tol);
+		}
+	}
+
+	@Test
+	public void transform() {
+		Trajectory3D_F32 alg = new Trajectory3D_F32();
+		alg.setMethod(Trajectory3D_F32.Method.CUBIC_BSPLINE);
+		for (int i = 0; i < 20; i++) {
+			alg.append(i, randomPose());
+		}
+
+		int N = 500;
+		float times[] = new float[N];
+		float points[] = new float[N*3];
+		for (int i = 0; i < N; i++) {
+			times[i] = 19.0f*i/N;
+			points[i*3  ] = (float)rand.nextGaussian();
+			points[i*3+1] = (float)rand.nextGaussian();
+			points[i*3+2] = (float)rand.nextGaussian();
+		}
+
+		float output[] = new float[N*3];
+		alg.transform(times, points, output, N);
+
+		Se3_F32 pose = new Se3_F32();
+		Point3D_F32 expected = new Point3D_F32();
+		for (int i = 0; i < N; i++) {
+			alg.interpolate(times[i], pose);
+			SePointOps_F32.transform(pose, new Point3D_F32(points[i*3], points[i*3+1], points[i*3+2]), expected);
+			assertEquals(expected.x, output[i*3  ], tol);
+			assertEquals(expected.y, output[i*3+1], tol);
+			assertEquals(expected.z, output[i*3+2], tol);
+		}
+
+		// in place
+		alg.transform(times, points, points, N);
+		for (int i = 0; i < N*3; i++) {
+			assertEquals(output[i], points[i], 0);
+		}
+	}
+
+	/**
+	 * Single poses are found using a reused workspace which remembers the previous segment.  Make sure it
+	 * isn't confused by the trajectory being replaced
+	 */
+	@Test
+	public void interpolate_reuseAfterReset() {
+		Trajectory3D_F32 alg = new Trajectory3D_F32();
+		Se3_F32 found = new Se3_F32();
+		Se3_F32 expected = new Se3_F32();
+
+		for( int numPoses : new int[]{30,5,40} ) {
+			Trajectory3D_F32 fresh = new Trajectory3D_F32();
+			alg.reset();
+			for (int i = 0; i < numPoses; i++) {
+				float time = i*0.5f + rand.nextFloat()*0.1f;
+				Se3_F32 pose = randomPose();
+				alg.append(time, pose);
+				fresh.append(time, pose);
+			}
+
+			for( float time : new float[]{numPoses*0.5f - 0.7f, 0.3f, numPoses*0.25f, numPoses*0.5f - 0.2f} ) {
+				alg.interpolate(time, found);
+				fresh.interpolate(time, expected);
+				GeometryUnitTest.assertEquals(expected, found, 0, 0);
+			}
+		}
+	}
+
+	@Test
+	public void append_badTime() {
+		Trajectory3D_F32 alg = new Trajectory3D_F32();
+		alg.append(1, new Se3_F32());
+		try {
+			alg.append(1, new Se3_F32());
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ){}
+		assertEquals(1, alg.size());
+
+		alg.reset();
+		assertEquals(0, alg.size());
+		try {
+			alg.interpolate(1, new Se3_F32());
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	/**
+	 * One thread adds poses while another interpolates.  Readers should always see complete poses.
+	 */
+	@Test
+	public void append_concurrentReader() throws Exception {
+		final Trajectory3D_F32 alg = new Trajectory3D_F32();
+		final int total = 20000;
+
+		// the pose at time i has a translation of (i,2*i,0) and no rotation
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < total; i++) {
+					alg.append(i, 1, 0, 0, 0, i, 2*i, 0);
+				}
+			}
+		};
+		writer.start();
+
+		Se3_F32 found = new Se3_F32();
+		float times[] = new float[10];
+		float quats[] = new float[40];
+		float trans[] = new float[30];
+		while( writer.isAlive() || alg.size() < total ) {
+			int size = alg.size();
+			if( size == 0 )
+				continue;
+			float end = size-1;
+
+			float time = rand.nextFloat()*end;
+			alg.interpolate(time, found);
+			float max = (float)Math.max(time, found.T.x);
+			assertEquals(found.T.x*2, found.T.y, tol*max);
+			assertTrue(found.T.x <= time + tol*max);
+
+			for (int i = 0; i < times.length; i++) {
+				times[i] = end*i/times.length;
+			}
+			alg.interpolate(times, times.length, quats, trans);
+			for (int i = 0; i < times.length; i++) {
+				assertEquals(times[i], trans[i*3], tol*end);
+				assertEquals(1, quats[i*4], tol);
+			}
+		}
+		writer.join();
+		assertEquals(total, alg.size());
+	}
+
+	private Se3_F32 randomPose() {
+		Se3_F32 pose = new Se3_F32();
+		ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ,
+				(float)rand.nextGaussian()*0.5f, (float)rand.nextGaussian()*0.5f, (float)rand.nextGaussian()*0.5f, pose.R);
+		pose.T.set( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian());
+		return pose;
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.shapes;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIndexedMesh3D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void addVertex_addFace() {
+		IndexedMesh3D_F32 mesh = new IndexedMesh3D_F32(1, 1);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, mesh.addVertex(i, i+1, i+2));
+		}
+		for (int i = 0; i < 50; i++) {
+			assertEquals(i, mesh.addFace(i, i+1, i+2));
+		}
+		assertEquals(100, mesh.getVertexCount());
+		assertEquals(50, mesh.getFaceCount());
+
+		Point3D_F32 p = new Point3D_F32();
+		for (int i = 0; i < 100; i++) {
+			mesh.getVertex(i, p);
+			assertEquals(0, p.distance(new Point3D_F32(i, i+1, i+2)), GrlConstants.FLOAT_TEST_TOL);
+		}
+		for (int i = 0; i < 50; i++) {
+			assertEquals(i+1, mesh.faces[i*3+1]);
+		}
+
+		mesh.reset();
+		assertEquals(0, mesh.getVertexCount());
+		assertEquals(0, mesh.getFaceCount());
+	}
+
+	@Test
+	public void getFace() {
+		IndexedMesh3D_F32 mesh = createCube();
+
+		Triangle3D_F32 t = new Triangle3D_F32();
+		for (int i = 0; i < mesh.numFaces; i++) {
+			mesh.getFace(i, t);
+			Triangle3D_F32 view = mesh.getFace(i);
+			for (int j = 0; j < 3; j++) {
+				Point3D_F32 expected = new Point3D_F32();
+				mesh.getVertex(mesh.faces[i*3+j], expected);
+				Point3D_F32 found = j == 0 ? t.v0 : (j == 1 ? t.v1 : t.v2);
+				assertEquals(0, expected.distance(found), GrlConstants.FLOAT_TEST_TOL);
+				found = j == 0 ? view.v0 : (j == 1 ? view.v1 : view.v2);
+				assertEquals(0, expected.distance(found), GrlConstants.FLOAT_TEST_TOL);
+			}
+		}
+
+		// the same instance is always returned
+		assertTrue(mesh.getFace(0) == mesh.getFace(1));
+	}
+
+	@Test
+	public void area() {
+		IndexedMesh3D_F32 mesh = createCube();
+		assertEquals(6*4, mesh.area(), GrlConstants.FLOAT_TEST_TOL);
+
+		float areas[] = new float[mesh.numFaces];
+		mesh.areas(areas);
+		for (int i = 0; i < mesh.numFaces; i++) {
+			assertEquals(2, areas[i], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(2, mesh.area(i), GrlConstants.FLOAT_TEST_TOL);
+		}
+
+		// compare against half the cross product on random triangles
+		mesh.reset();
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 3; j++) {
+				mesh.addVertex( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian());
+			}
+			mesh.addFace(i*3, i*3+1, i*3+2);
+
+			Triangle3D_F32 t = mesh.getFace(i);
+			Vector3D_F32 u = new Vector3D_F32(t.v0, t.v1);
+			Vector3D_F32 v = new Vector3D_F32(t.v0, t.v2);
+			Vector3D_F32 n = new Vector3D_F32();
+			n.cross(u, v);
+			assertEquals(n.norm()/2, mesh.area(i), GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	/**
+	 * All the normals on the cube should point outwards
+	 */
+	@Test
+	public void normals() {
+		IndexedMesh3D_F32 mesh = createCube();
+
+		float normals[] = new float[mesh.numFaces*3];
+		mesh.normals(normals);
+
+		Vector3D_F32 n = new Vector3D_F32();
+		for (int i = 0; i < mesh.numFaces; i++) {
+			mesh.normal(i, n);
+			assertEquals(1, n.norm(), GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(n.x, normals[i*3], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(n.y, normals[i*3+1], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(n.z, normals[i*3+2], GrlConstants.FLOAT_TEST_TOL);
+
+			// the face's center is on the same side of the cube as the normal
+			Triangle3D_F32 t = mesh.getFace(i);
+			float cx = (t.v0.x + t.v1.x + t.v2.x)/3;
+			float cy = (t.v0.y + t.v1.y + t.v2.y)/3;
+			float cz = (t.v0.z + t.v1.z + t.v2.z)/3;
+			assertTrue(n.x*cx + n.y*cy + n.z*cz > 0);
+		}
+
+		// degenerate face
+		mesh.addFace(0, 0, 1);
+		mesh.normal(mesh.numFaces-1, n);
+		assertEquals(0, n.norm(), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void bounds() {
+		IndexedMesh3D_F32 mesh = createCube();
+		mesh.addVertex(0.5f, 3, -0.5f);
+
+		Box3D_F32 box = mesh.bounds(null);
+		assertEquals(-1, box.p0.x, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(-1, box.p0.y, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(-1, box.p0.z, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(1, box.p1.x, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(3, box.p1.y, GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(1, box.p1.z, GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void copy() {
+		IndexedMesh3D_F32 mesh = createCube();
+		IndexedMesh3D_F32 copy = mesh.copy();
+
+		assertEquals(mesh.numVertexes, copy.numVertexes);
+		assertEquals(mesh.numFaces, copy.numFaces);
+		assertTrue(mesh.vertexes != copy.vertexes);
+		for (int i = 0; i < mesh.numVertexes*3; i++) {
+			assertEquals(mesh.vertexes[i], copy.vertexes[i], 0);
+		}
+		for (int i = 0; i < mesh.numFaces*3; i++) {
+			assertEquals(mesh.faces[i], copy.faces[i]);
+		}
+	}
+
+	/**
+	 * Cube from -1 to 1 with the faces pointing outwards
+	 */
+	public static IndexedMesh3D_F32 createCube() {
+		IndexedMesh3D_F32 mesh = new IndexedMesh3D_F32();
+		for (int i = 0; i < 8; i++) {
+			mesh.addVertex((i & 1) == 0 ? -1 : 1, (i & 2) == 0 ? -1 : 1, (i & 4) == 0 ? -1 : 1);
+		}
+		// each side as two triangles, counter-clockwise when viewed from outside
+		addSide(mesh, 0, 2, 3, 1); // z = -1
+		addSide(mesh, 4, 5, 7, 6); // z =  1
+		addSide(mesh, 0, 1, 5, 4); // y = -1
+		addSide(mesh, 2, 6, 7, 3); // y =  1
+		addSide(mesh, 0, 4, 6, 2); // x = -1
+		addSide(mesh, 1, 3, 7, 5); // x =  1
+		return mesh;
+	}
+
+	private static void addSide( IndexedMesh3D_F32 mesh , int a , int b , int c , int d ) {
+		mesh.addFace(a, b, c);
+		mesh.addFace(a, c, d);
+	}
+}
@@ -18,12 +18,15 @@
 
 package georegression.transform.affine;
 
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.struct.affine.Affine2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Vector2D_F64;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 
@@ -73,4 +76,47 @@ public class TestAffinePointOps_F64 {
 		assertEquals(expectedX,found.x, GrlConstants.DOUBLE_TEST_TOL);
 		assertEquals(expectedY, found.y, GrlConstants.DOUBLE_TEST_TOL);
 	}
+
+	@Test
+	public void transform_primitive() {
+		Affine2D_F64 transform = new Affine2D_F64(1,2,3,4,5,6);
+
+		// input has an extra element between points and an offset.  output is packed
+		double input[] = randomArray(1 + 20*3);
+		double output[] = new double[2 + 20*2];
+
+		AffinePointOps_F64.transform( transform, input, 1, 3, output, 2, 2, 20 );
+
+		for (int i = 0; i < 20; i++) {
+			Point2D_F64 expected = AffinePointOps_F64.transform( transform, input[1+i*3], input[2+i*3], null );
+			assertEquals( expected.x, output[2+i*2], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.y, output[3+i*2], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transformConcurrent_primitive() {
+		Affine2D_F64 transform = new Affine2D_F64(1,2,3,4,5,6);
+
+		int N = GrlConcurrency.DEFAULT_MIN_BLOCK*3+11;
+		double input[] = randomArray(N*2);
+		double expected[] = new double[N*2];
+		double found[] = new double[N*2];
+
+		AffinePointOps_F64.transform( transform, input, 0, 2, expected, 0, 2, N );
+		AffinePointOps_F64.transformConcurrent( transform, input, 0, 2, found, 0, 2, N );
+
+		for (int i = 0; i < found.length; i++) {
+			assertEquals( expected[i], found[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	private static double[] randomArray( int length ) {
+		Random rand = new Random(234);
+		double a[] = new double[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = rand.nextDouble()*10 - 5;
+		}
+		return a;
+	}
 }
@@ -19,6 +19,7 @@
 package georegression.transform.homography;
 
 import georegression.geometry.GeometryMath_F32;
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.struct.homography.Homography2D_F32;
 import georegression.struct.homography.UtilHomography;
@@ -82,4 +83,47 @@ public class TestHomographyPointOps_F32 {
 		assertEquals(expected.x,dst.x, GrlConstants.FLOAT_TEST_TOL);
 		assertEquals(expected.y,dst.y, GrlConstants.FLOAT_TEST_TOL);
 	}
+
+	@Test
+	public void transform_primitive() {
+		Homography2D_F32 transform = tran;
+
+		// input has an extra element between points and an offset.  output is packed
+		float input[] = randomArray(1 + 20*3);
+		float output[] = new float[2 + 20*2];
+
+		HomographyPointOps_F32.transform( transform, input, 1, 3, output, 2, 2, 20 );
+
+		for (int i = 0; i < 20; i++) {
+			Point2D_F32 expected = HomographyPointOps_F32.transform( transform, input[1+i*3], input[2+i*3], null );
+			assertEquals( expected.x, output[2+i*2], GrlConstants.FLOAT_TEST_TOL );
+			assertEquals( expected.y, output[3+i*2], GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transformConcurrent_primitive() {
+		Homography2D_F32 transform = tran;
+
+		int N = GrlConcurrency.DEFAULT_MIN_BLOCK*3+11;
+		float input[] = randomArray(N*2);
+		float expected[] = new float[N*2];
+		float found[] = new float[N*2];
+
+		HomographyPointOps_F32.transform( transform, input, 0, 2, expected, 0, 2, N );
+		HomographyPointOps_F32.transformConcurrent( transform, input, 0, 2, found, 0, 2, N );
+
+		for (int i = 0; i < found.length; i++) {
+			assertEquals( expected[i], found[i], GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	private static float[] randomArray( int length ) {
+		Random rand = new Random(234);
+		float a[] = new float[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = rand.nextFloat()*10 - 5;
+		}
+		return a;
+	}
 }
@@ -19,6 +19,7 @@
 package georegression.transform.homography;
 
 import georegression.geometry.GeometryMath_F64;
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.struct.homography.Homography2D_F64;
 import georegression.struct.homography.UtilHomography;
@@ -82,4 +83,47 @@ public class TestHomographyPointOps_F64 {
 		assertEquals(expected.x,dst.x, GrlConstants.DOUBLE_TEST_TOL);
 		assertEquals(expected.y,dst.y, GrlConstants.DOUBLE_TEST_TOL);
 	}
+
+	@Test
+	public void transform_primitive() {
+		Homography2D_F64 transform = tran;
+
+		// input has an extra element between points and an offset.  output is packed
+		double input[] = randomArray(1 + 20*3);
+		double output[] = new double[2 + 20*2];
+
+		HomographyPointOps_F64.transform( transform, input, 1, 3, output, 2, 2, 20 );
+
+		for (int i = 0; i < 20; i++) {
+			Point2D_F64 expected = HomographyPointOps_F64.transform( transform, input[1+i*3], input[2+i*3], null );
+			assertEquals( expected.x, output[2+i*2], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.y, output[3+i*2], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transformConcurrent_primitive() {
+		Homography2D_F64 transform = tran;
+
+		int N = GrlConcurrency.DEFAULT_MIN_BLOCK*3+11;
+		double input[] = randomArray(N*2);
+		double expected[] = new double[N*2];
+		double found[] = new double[N*2];
+
+		HomographyPointOps_F64.transform( transform, input, 0, 2, expected, 0, 2, N );
+		HomographyPointOps_F64.transformConcurrent( transform, input, 0, 2, found, 0, 2, N );
+
+		for (int i = 0; i < found.length; i++) {
+			assertEquals( expected[i], found[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	private static double[] randomArray( int length ) {
+		Random rand = new Random(234);
+		double a[] = new double[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = rand.nextDouble()*10 - 5;
+		}
+		return a;
+	}
 }
@@ -19,18 +19,22 @@
 package georegression.transform.se;
 
 import georegression.geometry.ConvertRotation3D_F64;
+import georegression.misc.GrlConcurrency;
 import georegression.misc.GrlConstants;
 import georegression.struct.EulerType;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.point.Vector3D_F64;
 import georegression.struct.se.Se2_F64;
+import georegression.struct.se.Se3Fixed_F64;
 import georegression.struct.se.Se3_F64;
 import org.ejml.data.DenseMatrix64F;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -146,6 +150,31 @@ public class TestSePointOps_F64 {
 		assertEquals( 2, Pt.getZ(), GrlConstants.DOUBLE_TEST_TOL );
 	}
 
+	@Test
+	public void transform_3d_cloud() {
+		DenseMatrix64F R = ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0.1, -0.4, 1.2, null );
+		Se3_F64 se = new Se3_F64( R, new Vector3D_F64( 1, 2, 3 ) );
+
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+		cloud.add( 1, 7, 9 );
+		cloud.add( -2, 0.5, 3 );
+		cloud.add( 4, 1, -1 );
+
+		PointCloud3D_F64 found = SePointOps_F64.transform( se, cloud, null );
+		assertEquals( cloud.size, found.size );
+
+		for (int i = 0; i < cloud.size; i++) {
+			Point3D_F64 expected = SePointOps_F64.transform( se, cloud.get(i,null), null );
+			assertEquals( 0, expected.distance(found.get(i,null)), GrlConstants.DOUBLE_TEST_TOL );
+		}
+
+		// apply the transform in place
+		SePointOps_F64.transform( se, cloud, cloud );
+		for (int i = 0; i < cloud.size; i++) {
+			assertEquals( 0, cloud.get(i,null).distance(found.get(i,null)), GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
 	@Test
 	public void transformReverse_3d_single() {
 		DenseMatrix64F R = ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0, Math.PI / 2, 0, null );
@@ -162,4 +191,126 @@ public class TestSePointOps_F64 {
 		assertEquals( 7, Pt.getY(), GrlConstants.DOUBLE_TEST_TOL );
 		assertEquals( 9, Pt.getZ(), GrlConstants.DOUBLE_TEST_TOL );
 	}
+
+	@Test
+	public void transform_3d_fixed() {
+		DenseMatrix64F R = ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0, Math.PI / 2, 0, null );
+		Se3Fixed_F64 se = new Se3Fixed_F64( new Se3_F64( R, new Vector3D_F64( 1, 2, 3 ) ) );
+
+		Point3D_F64 P = new Point3D_F64( 1, 7, 9 );
+		Point3D_F64 Pt = SePointOps_F64.transform( se, P, null );
+
+		assertEquals( 10, Pt.getX(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 9, Pt.getY(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 2, Pt.getZ(), GrlConstants.DOUBLE_TEST_TOL );
+
+		// input and output are the same instance
+		SePointOps_F64.transform( se, P, P );
+		assertEquals( 0, P.distance(Pt), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	@Test
+	public void transformReverse_3d_fixed() {
+		DenseMatrix64F R = ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0, Math.PI / 2, 0, null );
+		Se3Fixed_F64 se = new Se3Fixed_F64( new Se3_F64( R, new Vector3D_F64( 1, 2, 3 ) ) );
+
+		Point3D_F64 P = new Point3D_F64( 10, 9, 2 );
+		Point3D_F64 Pt = SePointOps_F64.transformReverse( se, P, null );
+
+		assertEquals( 1, Pt.getX(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 7, Pt.getY(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 9, Pt.getZ(), GrlConstants.DOUBLE_TEST_TOL );
+
+		SePointOps_F64.transformReverse( se, P, P );
+		assertEquals( 0, P.distance(Pt), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	@Test
+	public void transform_2d_primitive() {
+		Se2_F64 tran = new Se2_F64( -2, 3, 0.6 );
+
+		// input has an extra element between points and an offset.  output is packed
+		double input[] = randomArray(1 + 20*3);
+		double output[] = new double[2 + 20*2];
+
+		SePointOps_F64.transform( tran, input, 1, 3, output, 2, 2, 20 );
+
+		for (int i = 0; i < 20; i++) {
+			Point2D_F64 expected = SePointOps_F64.transform( tran, input[1+i*3], input[2+i*3], null );
+			assertEquals( expected.x, output[2+i*2], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.y, output[3+i*2], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transformConcurrent_2d_primitive() {
+		Se2_F64 tran = new Se2_F64( -2, 3, 0.6 );
+
+		int N = GrlConcurrency.DEFAULT_MIN_BLOCK*3+11;
+		double input[] = randomArray(N*2);
+		double expected[] = new double[N*2];
+		double found[] = new double[N*2];
+
+		SePointOps_F64.transform( tran, input, 0, 2, expected, 0, 2, N );
+		SePointOps_F64.transformConcurrent( tran, input, 0, 2, found, 0, 2, N );
+
+		for (int i = 0; i < found.length; i++) {
+			assertEquals( expected[i], found[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transform_3d_primitive() {
+		DenseMatrix64F R = ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0.1, -0.4, 1.2, null );
+		Se3_F64 se = new Se3_F64( R, new Vector3D_F64( 1, 2, 3 ) );
+
+		// input has an extra element between points and an offset.  output is packed
+		double input[] = randomArray(1 + 20*4);
+		double output[] = new double[2 + 20*3];
+
+		SePointOps_F64.transform( se, input, 1, 4, output, 2, 3, 20 );
+
+		for (int i = 0; i < 20; i++) {
+			Point3D_F64 p = new Point3D_F64( input[1+i*4], input[2+i*4], input[3+i*4] );
+			Point3D_F64 expected = SePointOps_F64.transform( se, p, null );
+			assertEquals( expected.x, output[2+i*3], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.y, output[3+i*3], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.z, output[4+i*3], GrlConstants.DOUBLE_TEST_TOL );
+		}
+
+		// in place
+		SePointOps_F64.transform( se, input, 1, 4, input, 1, 4, 20 );
+		for (int i = 0; i < 20; i++) {
+			assertEquals( output[2+i*3], input[1+i*4], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( output[3+i*3], input[2+i*4], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( output[4+i*3], input[3+i*4], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transformConcurrent_3d_primitive() {
+		DenseMatrix64F R = ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0.1, -0.4, 1.2, null );
+		Se3_F64 se = new Se3_F64( R, new Vector3D_F64( 1, 2, 3 ) );
+
+		int N = GrlConcurrency.DEFAULT_MIN_BLOCK*3+11;
+		double input[] = randomArray(N*3);
+		double expected[] = new double[N*3];
+		double found[] = new double[N*3];
+
+		SePointOps_F64.transform( se, input, 0, 3, expected, 0, 3, N );
+		SePointOps_F64.transformConcurrent( se, input, 0, 3, found, 0, 3, N );
+
+		for (int i = 0; i < found.length; i++) {
+			assertEquals( expected[i], found[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	private static double[] randomArray( int length ) {
+		Random rand = new Random(234);
+		double a[] = new double[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = rand.nextDouble()*10 - 5;
+		}
+		return a;
+	}
 }